@@ -0,0 +1,275 @@
+package com.evancaplan.checkersengine.load;
+
+import com.evancaplan.checkersengine.CheckersEngineApplication;
+import com.evancaplan.checkersengine.dto.BoardStateResponse;
+import com.evancaplan.checkersengine.dto.GameResponse;
+import com.evancaplan.checkersengine.dto.MoveRequest;
+import com.evancaplan.checkersengine.dto.StartGameRequest;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives the game endpoints at a fixed request rate with a mix of new game, move, state and AI reply
+// requests, and reports the latencies (see LoadReport):
+//   LoadGenerator run <report-file> [rate] [clients] [seconds] [mix] [difficulty] [base-url]
+//   LoadGenerator compare <report-file> <report-file>
+// e.g. ./gradlew loadTest -PloadArgs="run main.txt 400 40 60 new=5,move=40,state=25,ai=30"
+// Without a base url the application is started in process on a free port.
+// The rate is split evenly over the clients, each a virtual thread keeping a two player and a single player
+// game. A client plays the side to move in its two player game and black in its single player game,
+// a random legal move of the engine's own move generator on a copy of the board it keeps. After an AI
+// reply that copy is behind, so the game's next request is a state request that brings it up to date.
+// Requests follow a fixed schedule. A client that falls behind sends at once, and the wait counts in the
+// corrected latencies. The first fifth of the run warms up and isn't recorded. Clients are seeded by their
+// number, so two runs send the same mix.
+public final class LoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("compare")) {
+            LoadReport.compare(Path.of(args[1]), Path.of(args[2])).forEach(System.out::println);
+        } else if (args.length >= 2 && args[0].equals("run")) {
+            run(args);
+        } else {
+            System.err.println("usage: LoadGenerator run <report-file> [rate] [clients] [seconds] [mix] [difficulty] [base-url]");
+            System.err.println("       LoadGenerator compare <report-file> <report-file>");
+            System.exit(2);
+        }
+    }
+
+    private static void run(String[] args) throws Exception {
+        Path file = Path.of(args[1]);
+        double rate = args.length > 2 ? Double.parseDouble(args[2]) : 200;
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        LoadMix mix = args.length > 5 ? LoadMix.parse(args[5]) : LoadMix.DEFAULT;
+        Difficulty difficulty = args.length > 6 ? Difficulty.valueOf(args[6].toUpperCase()) : Difficulty.BEGINNER;
+        String baseUrl = args.length > 7 ? args[7] : null;
+
+        LoadReport report;
+        if (baseUrl != null) {
+            report = load(baseUrl, rate, clients, seconds, mix, difficulty);
+        } else {
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CheckersEngineApplication.class)
+                    .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                    .run()) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                report = load("http://localhost:" + port, rate, clients, seconds, mix, difficulty);
+            }
+        }
+        report.configure("target", baseUrl == null ? "in-process" : baseUrl);
+        report.write(file);
+        report.lines().forEach(System.out::println);
+        System.out.println("written to " + file + " and " + file + ".hgrm");
+    }
+
+    static LoadReport load(String baseUrl, double rate, int clients, int seconds, LoadMix mix,
+                           Difficulty difficulty) throws Exception {
+        long intervalNanos = (long) (clients * 1e9 / rate);
+        long start = System.nanoTime();
+        long recordFrom = start + seconds * 1_000_000_000L / 5;
+        long end = start + seconds * 1_000_000_000L;
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<Future<LoadReport>> running = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                // clients start spread over one interval so the requests don't go out in bursts
+                Client client = new Client(http, baseUrl + "/api/game", mix, difficulty, i);
+                long first = start + intervalNanos * i / clients;
+                running.add(executor.submit(() -> client.play(first, intervalNanos, recordFrom, end)));
+            }
+        }
+
+        LoadReport report = new LoadReport();
+        report.configure("rate", rate);
+        report.configure("clients", clients);
+        report.configure("seconds", seconds);
+        report.configure("warmup-seconds", seconds / 5.0);
+        report.configure("mix", mix);
+        report.configure("difficulty", difficulty);
+        report.setSeconds((end - recordFrom) / 1e9);
+        for (Future<LoadReport> client : running) {
+            report.add(client.get());
+        }
+        return report;
+    }
+
+    private static final class Client {
+        private final HttpClient http;
+        private final String baseUrl;
+        private final LoadMix mix;
+        private final Difficulty difficulty;
+        private final SplittableRandom random;
+        private final LoadReport report = new LoadReport();
+        private Game twoPlayer;
+        private Game singlePlayer;
+
+        Client(HttpClient http, String baseUrl, LoadMix mix, Difficulty difficulty, long seed) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.mix = mix;
+            this.difficulty = difficulty;
+            this.random = new SplittableRandom(seed);
+        }
+
+        LoadReport play(long first, long intervalNanos, long recordFrom, long end) {
+            for (long intended = first; intended < end; intended += intervalNanos) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                LoadMix.Kind kind = mix.pick(random);
+                long sent = System.nanoTime();
+                try {
+                    kind = send(kind);
+                    if (intended >= recordFrom) {
+                        report.record(kind, intended, sent, System.nanoTime());
+                    }
+                } catch (IOException e) {
+                    if (intended >= recordFrom) {
+                        report.error(kind);
+                    }
+                    twoPlayer = null;
+                    singlePlayer = null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return report;
+        }
+
+        // sends a request of the kind, or the one the games need first, and returns the kind sent
+        private LoadMix.Kind send(LoadMix.Kind kind) throws IOException, InterruptedException {
+            boolean single = kind == LoadMix.Kind.AI_REPLY
+                    || kind != LoadMix.Kind.MOVE && (singlePlayer != null && singlePlayer.behind || random.nextBoolean());
+            Game game = single ? singlePlayer : twoPlayer;
+            if (kind == LoadMix.Kind.NEW_GAME || game == null) {
+                startGame(single);
+                return LoadMix.Kind.NEW_GAME;
+            }
+            if (kind == LoadMix.Kind.STATE || game.behind) {
+                refresh(single, game);
+                return LoadMix.Kind.STATE;
+            }
+            List<Move> legal = game.board.getLegalMoves();
+            Move move = legal.get(random.nextInt(legal.size()));
+            MoveRequest request = MoveRequest.builder()
+                    .gameId(game.id)
+                    .fromRow(move.getFromRow())
+                    .fromCol(move.getFromCol())
+                    .toRow(move.getToRow())
+                    .toCol(move.getToCol())
+                    .path(move.getLandingSquares())
+                    .build();
+            // a rejected move means a draw rule or the clock ended the game
+            if (send(post("/move", request), GameResponse.class) == null) {
+                end(single);
+                return kind;
+            }
+            game.board.movePiece(move);
+            game.behind = single;
+            if (game.board.isGameOver()) {
+                end(single);
+            }
+            return single ? LoadMix.Kind.AI_REPLY : LoadMix.Kind.MOVE;
+        }
+
+        private void startGame(boolean single) throws IOException, InterruptedException {
+            StartGameRequest start = StartGameRequest.builder().singlePlayer(single).difficulty(difficulty).build();
+            GameResponse started = send(post("/new", start), GameResponse.class);
+            Game game = started == null ? null : new Game(started.getGameId(), Board.createStandardBoard(single));
+            if (single) {
+                singlePlayer = game;
+            } else {
+                twoPlayer = game;
+            }
+        }
+
+        private void refresh(boolean single, Game game) throws IOException, InterruptedException {
+            BoardStateResponse state = send(get("/state?gameId=" + game.id), BoardStateResponse.class);
+            if (state == null || state.isGameOver()) {
+                end(single);
+                return;
+            }
+            game.board = Fen.decode(fen(state));
+            game.behind = false;
+        }
+
+        private void end(boolean single) {
+            if (single) {
+                singlePlayer = null;
+            } else {
+                twoPlayer = null;
+            }
+        }
+
+        // the parsed body of a 2xx answer, null for a 4xx one; a 5xx answer counts as an error
+        private <T> T send(HttpRequest request, Class<T> type) throws IOException, InterruptedException {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 500) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            return response.statusCode() < 300 ? JSON.readValue(response.body(), type) : null;
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        private HttpRequest post(String path, Object body) throws IOException {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                    .build();
+        }
+
+        private static String fen(BoardStateResponse state) {
+            StringBuilder red = new StringBuilder();
+            StringBuilder black = new StringBuilder();
+            for (BoardStateResponse.PieceDto piece : state.getPieces()) {
+                StringBuilder field = piece.getColor().equals("RED") ? red : black;
+                field.append(field.isEmpty() ? "" : ",").append(piece.isKing() ? "K" : "")
+                        .append(Fen.squareNumber(piece.getRow(), piece.getCol()));
+            }
+            return (state.getCurrentTurn().equals("BLACK") ? "B" : "W") + ":W" + red + ":B" + black;
+        }
+    }
+
+    // a game the client plays and its copy of the board, behind after an AI reply until a state request
+    private static final class Game {
+        private final String id;
+        private Board board;
+        private boolean behind;
+
+        Game(String id, Board board) {
+            this.id = id;
+            this.board = board;
+        }
+    }
+}
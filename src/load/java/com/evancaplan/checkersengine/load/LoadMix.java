@@ -0,0 +1,76 @@
+package com.evancaplan.checkersengine.load;
+
+import java.util.SplittableRandom;
+
+// How often each kind of request is sent, as relative weights, written like "new=5,move=40,state=25,ai=30".
+public record LoadMix(int newGame, int move, int state, int aiReply) {
+
+    public static final LoadMix DEFAULT = new LoadMix(5, 40, 25, 30);
+
+    public enum Kind {
+        // POST /new, a single player or two player game
+        NEW_GAME("new"),
+        // POST /move in a two player game, answered without a search
+        MOVE("move"),
+        // GET /state
+        STATE("state"),
+        // POST /move in a single player game, answered once the AI has replied
+        AI_REPLY("ai");
+
+        private final String key;
+
+        Kind(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    public LoadMix {
+        if (newGame < 0 || move < 0 || state < 0 || aiReply < 0 || newGame + move + state + aiReply == 0) {
+            throw new IllegalArgumentException("Mix weights must not be negative and one must be positive");
+        }
+    }
+
+    // throws IllegalArgumentException for an unknown kind or a weight that isn't a number;
+    // kinds left out get no requests
+    public static LoadMix parse(String mix) {
+        int[] weights = new int[Kind.values().length];
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            Kind kind = null;
+            for (Kind candidate : Kind.values()) {
+                if (candidate.key.equals(pair[0].trim())) {
+                    kind = candidate;
+                }
+            }
+            if (kind == null || pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + entry + "', expected one of new, move, state, ai with a weight");
+            }
+            try {
+                weights[kind.ordinal()] = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad mix weight in '" + entry + "'");
+            }
+        }
+        return new LoadMix(weights[0], weights[1], weights[2], weights[3]);
+    }
+
+    public Kind pick(SplittableRandom random) {
+        int roll = random.nextInt(newGame + move + state + aiReply);
+        if ((roll -= newGame) < 0) {
+            return Kind.NEW_GAME;
+        }
+        if ((roll -= move) < 0) {
+            return Kind.MOVE;
+        }
+        return roll - state < 0 ? Kind.STATE : Kind.AI_REPLY;
+    }
+
+    @Override
+    public String toString() {
+        return "new=" + newGame + ",move=" + move + ",state=" + state + ",ai=" + aiReply;
+    }
+}
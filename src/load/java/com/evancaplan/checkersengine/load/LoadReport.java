@@ -0,0 +1,156 @@
+package com.evancaplan.checkersengine.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Latencies of a load run per kind of request, in HdrHistograms of microseconds with three significant
+// digits. Each request goes into two histograms: corrected is measured from when the schedule meant the
+// request to go out, so a stall also counts against the requests it held back (coordinated omission),
+// service from when it actually went out. The report is one key=value line per figure in a fixed order,
+// so two runs compare with diff, or line by line with compare.
+public final class LoadReport {
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<String, String> config = new LinkedHashMap<>();
+    private final Map<LoadMix.Kind, Latencies> kinds = new EnumMap<>(LoadMix.Kind.class);
+    private double seconds;
+
+    public LoadReport() {
+        for (LoadMix.Kind kind : LoadMix.Kind.values()) {
+            kinds.put(kind, new Latencies());
+        }
+    }
+
+    void configure(String key, Object value) {
+        config.put(key, String.valueOf(value));
+    }
+
+    void setSeconds(double seconds) {
+        this.seconds = seconds;
+    }
+
+    // times on the System.nanoTime base
+    void record(LoadMix.Kind kind, long intendedNanos, long sentNanos, long doneNanos) {
+        Latencies latencies = kinds.get(kind);
+        latencies.corrected.recordValue(Math.max(0, doneNanos - intendedNanos) / 1_000);
+        latencies.service.recordValue(Math.max(0, doneNanos - sentNanos) / 1_000);
+    }
+
+    void error(LoadMix.Kind kind) {
+        kinds.get(kind).errors++;
+    }
+
+    // adds another client's latencies to these
+    void add(LoadReport other) {
+        for (LoadMix.Kind kind : LoadMix.Kind.values()) {
+            Latencies mine = kinds.get(kind);
+            Latencies theirs = other.kinds.get(kind);
+            mine.corrected.add(theirs.corrected);
+            mine.service.add(theirs.service);
+            mine.errors += theirs.errors;
+        }
+    }
+
+    public long requests(LoadMix.Kind kind) {
+        return kinds.get(kind).corrected.getTotalCount();
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# checkers load report, latencies in ms, corrected from each request's scheduled start");
+        config.forEach((key, value) -> lines.add("config." + key + "=" + value));
+        Latencies all = new Latencies();
+        for (Latencies latencies : kinds.values()) {
+            all.corrected.add(latencies.corrected);
+            all.service.add(latencies.service);
+            all.errors += latencies.errors;
+        }
+        section(lines, "all", all);
+        kinds.forEach((kind, latencies) -> section(lines, kind.key(), latencies));
+        return lines;
+    }
+
+    // the report, and the corrected percentile distribution of every request next to it as <file>.hgrm
+    // for the HdrHistogram plotter
+    public void write(Path file) throws IOException {
+        Files.write(file, lines());
+        Histogram all = new Histogram(3);
+        kinds.values().forEach(latencies -> all.add(latencies.corrected));
+        try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(file + ".hgrm")))) {
+            all.outputPercentileDistribution(out, 1_000.0);
+        }
+    }
+
+    // every figure of two reports side by side with the relative change, keys in the order of the first
+    public static List<String> compare(Path before, Path after) throws IOException {
+        Map<String, String> old = read(before);
+        Map<String, String> current = read(after);
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-28s %14s %14s %9s", "figure", before.getFileName(), after.getFileName(), "change"));
+        for (Map.Entry<String, String> entry : old.entrySet()) {
+            String now = current.getOrDefault(entry.getKey(), "-");
+            String change = "";
+            try {
+                double was = Double.parseDouble(entry.getValue());
+                double is = Double.parseDouble(now);
+                change = was == 0 ? "" : String.format(Locale.ROOT, "%+.1f%%", (is - was) / was * 100);
+            } catch (NumberFormatException e) {
+                // a setting like the mix, or a figure only one report has
+            }
+            lines.add(String.format("%-28s %14s %14s %9s", entry.getKey(), entry.getValue(), now, change));
+        }
+        return lines;
+    }
+
+    private void section(List<String> lines, String name, Latencies latencies) {
+        long count = latencies.corrected.getTotalCount();
+        lines.add(name + ".requests=" + count);
+        lines.add(name + ".errors=" + latencies.errors);
+        lines.add(name + ".throughput=" + String.format(Locale.ROOT, "%.1f", seconds > 0 ? count / seconds : 0));
+        histogram(lines, name + ".corrected", latencies.corrected);
+        histogram(lines, name + ".service", latencies.service);
+    }
+
+    private static void histogram(List<String> lines, String name, Histogram histogram) {
+        boolean empty = histogram.getTotalCount() == 0;
+        lines.add(name + ".mean=" + millis(empty ? 0 : histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            lines.add(name + ".p" + (percentile == Math.floor(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile))
+                    + "=" + millis(empty ? 0 : histogram.getValueAtPercentile(percentile)));
+        }
+        lines.add(name + ".max=" + millis(empty ? 0 : histogram.getMaxValue()));
+    }
+
+    private static String millis(double micros) {
+        return String.format(Locale.ROOT, "%.3f", micros / 1_000);
+    }
+
+    private static Map<String, String> read(Path file) throws IOException {
+        Map<String, String> figures = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            int equals = line.indexOf('=');
+            if (!line.startsWith("#") && equals > 0) {
+                figures.put(line.substring(0, equals), line.substring(equals + 1));
+            }
+        }
+        return figures;
+    }
+
+    private static final class Latencies {
+        // auto-resizing, so no latency is too long to record
+        private final Histogram corrected = new Histogram(3);
+        private final Histogram service = new Histogram(3);
+        private long errors;
+    }
+}
@@ -0,0 +1,196 @@
+package com.evancaplan.checkersengine.load;
+
+import com.evancaplan.checkersengine.CheckersEngineApplication;
+import com.evancaplan.checkersengine.dto.GameResponse;
+import com.evancaplan.checkersengine.dto.LegalMovesResponse;
+import com.evancaplan.checkersengine.dto.MoveRequest;
+import com.evancaplan.checkersengine.dto.StartGameRequest;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Request handling on Tomcat's platform thread pool against virtual threads, under the same load:
+//   ThreadModeBenchmark [concurrency,...] [seconds] [difficulty]
+// e.g. ./gradlew threadBenchmark -PbenchmarkArgs="50,200,800 20 BEGINNER"
+// For each mode the application is started on a free port, then each concurrency level runs that many
+// clients for the given time, each request on its own connection. A client plays single player games as
+// black: it fetches the legal moves, plays a random one and waits for the AI's reply, starting a new game
+// when one ends.
+// Clients send their next request as soon as the last one is answered, so latencies are service times.
+public final class ThreadModeBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrency = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{50, 200, 800};
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Difficulty difficulty = args.length > 2 ? Difficulty.valueOf(args[2].toUpperCase()) : Difficulty.BEGINNER;
+
+        System.out.printf("%d s per run, %s AI%n", seconds, difficulty);
+        System.out.printf("%-8s %8s %10s %9s %9s %9s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(CheckersEngineApplication.class)
+                    .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtual,
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN")
+                    .run()) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                for (int clients : concurrency) {
+                    Run run = run("http://localhost:" + port + "/api/game", clients, seconds, difficulty);
+                    System.out.printf("%-8s %8d %10.0f %9.2f %9.2f %9.2f %8d%n", virtual ? "virtual" : "platform",
+                            clients, run.throughput(), run.percentileMillis(50), run.percentileMillis(99),
+                            run.percentileMillis(100), run.errors());
+                }
+            }
+        }
+    }
+
+    private static Run run(String baseUrl, int clients, int seconds, Difficulty difficulty) throws Exception {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Client>> running = new ArrayList<>(clients);
+        // the client pools connections without a limit, so every request in flight has its own
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        // clients wait on the network, so virtual threads keep the load generator out of the measurement
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(http, baseUrl, difficulty, i);
+                running.add(executor.submit(() -> client.play(end)));
+            }
+        }
+
+        long[] latencies = new long[0];
+        int errors = 0;
+        for (Future<Client> future : running) {
+            Client client = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            errors += client.errors;
+        }
+        Arrays.sort(latencies);
+        return new Run(latencies, errors, seconds);
+    }
+
+    private record Run(long[] sortedLatencies, int errors, int seconds) {
+
+        double throughput() {
+            return (double) sortedLatencies.length / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private static final class Client {
+        private final HttpClient http;
+        private final String baseUrl;
+        private final Difficulty difficulty;
+        private final SplittableRandom random;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Client(HttpClient http, String baseUrl, Difficulty difficulty, long seed) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.difficulty = difficulty;
+            this.random = new SplittableRandom(seed);
+        }
+
+        Client play(long end) {
+            String gameId = null;
+            while (System.nanoTime() < end) {
+                try {
+                    if (gameId == null) {
+                        StartGameRequest start = StartGameRequest.builder().singlePlayer(true).difficulty(difficulty).build();
+                        GameResponse started = send(post("/new", start), GameResponse.class);
+                        gameId = started == null ? null : started.getGameId();
+                        continue;
+                    }
+                    LegalMovesResponse legal = send(get("/moves?gameId=" + gameId), LegalMovesResponse.class);
+                    if (legal == null || legal.getMoves().isEmpty() || !"BLACK".equals(legal.getCurrentTurn())) {
+                        gameId = null;
+                        continue;
+                    }
+                    LegalMovesResponse.MoveDto move = legal.getMoves().get(random.nextInt(legal.getMoves().size()));
+                    MoveRequest request = MoveRequest.builder()
+                            .gameId(gameId)
+                            .fromRow(move.getFromRow())
+                            .fromCol(move.getFromCol())
+                            .toRow(move.getToRow())
+                            .toCol(move.getToCol())
+                            .path(move.getPath())
+                            .build();
+                    // a rejected move means a draw rule ended the game
+                    if (send(post("/move", request), GameResponse.class) == null) {
+                        gameId = null;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    gameId = null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        // the parsed body of a 2xx answer, null for a 4xx one; a 5xx answer counts as an error
+        private <T> T send(HttpRequest request, Class<T> type) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            record(System.nanoTime() - start);
+            if (response.statusCode() >= 500) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            return response.statusCode() < 300 ? JSON.readValue(response.body(), type) : null;
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        private HttpRequest post(String path, Object body) throws IOException {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.evancaplan.checkersengine.archive;
+
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// A sealed run of archived games stored column by column, each column deflated on its own so a query
+// inflates only the columns it looks at. Numbers are varints, signed ones zigzag encoded, and the
+// finish times and move squares are deltas from the value before them, which keeps them to a byte or
+// two before compression. The uncompressed header up front summarises the block, enough to skip it:
+//
+//   magic, version, body length (the bytes after it), game count, earliest and latest finish time,
+//   game ends by name with their count, winner counts (none, black, red), opening hashes in the block,
+//   then raw and compressed length of each column, then the columns
+//
+// Game ends are stored by index into the header's names, so the enum can change without breaking old blocks.
+final class ArchiveBlock {
+
+    static final int MAGIC = 0x434B4152;
+    static final byte VERSION = 1;
+    // magic, version and body length, the part of a block readable without knowing its size
+    static final int PREFIX_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+
+    private static final int ID = 0;
+    private static final int FINISHED = 1;
+    private static final int END = 2;
+    private static final int WINNER = 3;
+    private static final int OPENING = 4;
+    private static final int PLIES = 5;
+    private static final int MOVES = 6;
+    private static final int COLUMNS = 7;
+
+    private ArchiveBlock() {
+    }
+
+    static byte[] encode(List<ArchivedGame> games) {
+        List<String> endNames = new ArrayList<>();
+        List<Integer> endCounts = new ArrayList<>();
+        int[] winnerCounts = new int[3];
+        long[] openings = new long[games.size()];
+        long minFinished = games.stream().mapToLong(ArchivedGame::finishedAt).min().orElse(0);
+        long maxFinished = games.stream().mapToLong(ArchivedGame::finishedAt).max().orElse(0);
+
+        Column[] columns = new Column[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new Column();
+        }
+        // the first finish time is a delta from the block's earliest
+        long previousFinished = minFinished;
+        for (int g = 0; g < games.size(); g++) {
+            ArchivedGame game = games.get(g);
+            byte[] id = game.gameId().getBytes(StandardCharsets.UTF_8);
+            columns[ID].writeVarint(id.length);
+            columns[ID].write(id, 0, id.length);
+
+            columns[FINISHED].writeSigned(game.finishedAt() - previousFinished);
+            previousFinished = game.finishedAt();
+
+            String endName = game.end() == null ? "" : game.end().name();
+            int endIndex = endNames.indexOf(endName);
+            if (endIndex < 0) {
+                endIndex = endNames.size();
+                endNames.add(endName);
+                endCounts.add(0);
+            }
+            endCounts.set(endIndex, endCounts.get(endIndex) + 1);
+            columns[END].writeVarint(endIndex);
+
+            int winner = winnerCode(game.winner());
+            winnerCounts[winner]++;
+            columns[WINNER].write(winner);
+
+            columns[OPENING].writeLong(game.openingHash());
+            openings[g] = game.openingHash();
+
+            columns[PLIES].writeVarint(game.plies());
+
+            // squares relative to the one before, a step or jump moves them by 3 to 9
+            int previousSquare = 0;
+            int[] moves = game.moves();
+            int index = 0;
+            for (int ply = 0; ply < game.plies(); ply++) {
+                int from = moves[index++];
+                int landings = moves[index++];
+                columns[MOVES].writeSigned(from - previousSquare);
+                columns[MOVES].writeVarint(landings);
+                previousSquare = from;
+                for (int i = 0; i < landings; i++) {
+                    columns[MOVES].writeSigned(moves[index] - previousSquare);
+                    previousSquare = moves[index++];
+                }
+            }
+        }
+        long[] distinctOpenings = Arrays.stream(openings).distinct().sorted().toArray();
+
+        Column header = new Column();
+        header.writeInt(games.size());
+        header.writeLong(minFinished);
+        header.writeLong(maxFinished);
+        header.writeVarint(endNames.size());
+        for (int i = 0; i < endNames.size(); i++) {
+            byte[] name = endNames.get(i).getBytes(StandardCharsets.US_ASCII);
+            header.writeVarint(name.length);
+            header.write(name, 0, name.length);
+            header.writeVarint(endCounts.get(i));
+        }
+        for (int count : winnerCounts) {
+            header.writeVarint(count);
+        }
+        header.writeVarint(distinctOpenings.length);
+        for (long opening : distinctOpenings) {
+            header.writeLong(opening);
+        }
+        byte[][] compressed = new byte[COLUMNS][];
+        for (int i = 0; i < COLUMNS; i++) {
+            compressed[i] = deflate(columns[i].toByteArray());
+            header.writeVarint(columns[i].size());
+            header.writeVarint(compressed[i].length);
+        }
+
+        Column block = new Column();
+        block.writeInt(MAGIC);
+        block.write(VERSION);
+        int bodyLength = header.size() + Arrays.stream(compressed).mapToInt(column -> column.length).sum();
+        block.writeInt(bodyLength);
+        block.write(header.toByteArray(), 0, header.size());
+        for (byte[] column : compressed) {
+            block.write(column, 0, column.length);
+        }
+        return block.toByteArray();
+    }
+
+    // the body length of a block from its prefix; throws IllegalArgumentException for anything else
+    static int bodyLength(ByteBuffer prefix) {
+        if (prefix.getInt() != MAGIC || prefix.get() != VERSION) {
+            throw new IllegalArgumentException("Not an archive block");
+        }
+        return prefix.getInt();
+    }
+
+    // the header of a whole block; throws IllegalArgumentException when it is damaged
+    static Header readHeader(byte[] block) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            int bodyLength = bodyLength(buffer);
+            if (bodyLength != block.length - PREFIX_BYTES) {
+                throw new IllegalArgumentException("Archive block is " + block.length + " bytes, expected "
+                        + (bodyLength + PREFIX_BYTES));
+            }
+            int count = buffer.getInt();
+            long minFinished = buffer.getLong();
+            long maxFinished = buffer.getLong();
+            String[] endNames = new String[readVarint(buffer)];
+            int[] endCounts = new int[endNames.length];
+            for (int i = 0; i < endNames.length; i++) {
+                byte[] name = new byte[readVarint(buffer)];
+                buffer.get(name);
+                endNames[i] = new String(name, StandardCharsets.US_ASCII);
+                endCounts[i] = readVarint(buffer);
+            }
+            int[] winnerCounts = new int[3];
+            for (int i = 0; i < winnerCounts.length; i++) {
+                winnerCounts[i] = readVarint(buffer);
+            }
+            long[] openings = new long[readVarint(buffer)];
+            for (int i = 0; i < openings.length; i++) {
+                openings[i] = buffer.getLong();
+            }
+            int[] rawLengths = new int[COLUMNS];
+            int[] offsets = new int[COLUMNS + 1];
+            for (int i = 0; i < COLUMNS; i++) {
+                rawLengths[i] = readVarint(buffer);
+                offsets[i + 1] = offsets[i] + readVarint(buffer);
+            }
+            int columnsStart = buffer.position();
+            if (columnsStart + offsets[COLUMNS] != block.length) {
+                throw new IllegalArgumentException("Archive block columns don't fill the block");
+            }
+            for (int i = 0; i <= COLUMNS; i++) {
+                offsets[i] += columnsStart;
+            }
+            return new Header(count, minFinished, maxFinished, endNames, endCounts, winnerCounts, openings,
+                    rawLengths, offsets);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Archive block is truncated", e);
+        }
+    }
+
+    // the games of the block the filter accepts, in the order they were archived
+    static List<ArchivedGame> read(byte[] block, Header header, GameFilter filter) {
+        ByteBuffer finished = column(block, header, FINISHED);
+        ByteBuffer ends = column(block, header, END);
+        ByteBuffer winners = column(block, header, WINNER);
+        ByteBuffer openings = column(block, header, OPENING);
+
+        GameEnd[] endByIndex = new GameEnd[header.endNames().length];
+        for (int i = 0; i < endByIndex.length; i++) {
+            endByIndex[i] = endOf(header.endNames()[i]);
+        }
+        boolean[] matches = new boolean[header.count()];
+        long[] finishedAt = new long[header.count()];
+        long previous = header.minFinished();
+        int matched = 0;
+        for (int g = 0; g < header.count(); g++) {
+            previous += readSigned(finished);
+            finishedAt[g] = previous;
+            GameEnd end = endByIndex[readVarint(ends)];
+            Piece.PieceColor winner = winnerOf(winners.get());
+            long opening = openings.getLong();
+            matches[g] = filter.accepts(previous, end, winner, opening);
+            matched += matches[g] ? 1 : 0;
+        }
+        if (matched == 0) {
+            return List.of();
+        }
+
+        // the columns a game is made of are only inflated when one matched
+        ends.rewind();
+        winners.rewind();
+        openings.rewind();
+        ByteBuffer ids = column(block, header, ID);
+        ByteBuffer plies = column(block, header, PLIES);
+        ByteBuffer moves = column(block, header, MOVES);
+        List<ArchivedGame> games = new ArrayList<>(matched);
+        for (int g = 0; g < header.count(); g++) {
+            byte[] id = new byte[readVarint(ids)];
+            ids.get(id);
+            GameEnd end = endByIndex[readVarint(ends)];
+            Piece.PieceColor winner = winnerOf(winners.get());
+            long opening = openings.getLong();
+            int gamePlies = readVarint(plies);
+            int[] gameMoves = readMoves(moves, gamePlies);
+            if (matches[g]) {
+                games.add(new ArchivedGame(new String(id, StandardCharsets.UTF_8), finishedAt[g], end, winner,
+                        opening, gamePlies, gameMoves));
+            }
+        }
+        return games;
+    }
+
+    private static int[] readMoves(ByteBuffer moves, int plies) {
+        int[] flat = new int[plies * 3];
+        int length = 0;
+        int previousSquare = 0;
+        for (int ply = 0; ply < plies; ply++) {
+            int from = previousSquare + (int) readSigned(moves);
+            int landings = readVarint(moves);
+            if (length + 2 + landings > flat.length) {
+                flat = Arrays.copyOf(flat, Math.max(flat.length * 2, length + 2 + landings));
+            }
+            flat[length++] = from;
+            flat[length++] = landings;
+            previousSquare = from;
+            for (int i = 0; i < landings; i++) {
+                previousSquare += (int) readSigned(moves);
+                flat[length++] = previousSquare;
+            }
+        }
+        return Arrays.copyOf(flat, length);
+    }
+
+    // a block outlives the enum it was written with, an end it no longer knows reads back as none
+    private static GameEnd endOf(String name) {
+        for (GameEnd end : GameEnd.values()) {
+            if (end.name().equals(name)) {
+                return end;
+            }
+        }
+        return null;
+    }
+
+    private static ByteBuffer column(byte[] block, Header header, int column) {
+        int offset = header.offsets()[column];
+        return ByteBuffer.wrap(inflate(block, offset, header.offsets()[column + 1] - offset, header.rawLengths()[column]));
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] block, int offset, int length, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block, offset, length);
+            byte[] raw = new byte[rawLength];
+            int filled = 0;
+            while (filled < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, filled, rawLength - filled);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                filled += inflated;
+            }
+            if (filled != rawLength) {
+                throw new IllegalArgumentException("Archive column is damaged");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Archive column is damaged", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int winnerCode(Piece.PieceColor winner) {
+        return winner == null ? 0 : winner == Piece.PieceColor.BLACK ? 1 : 2;
+    }
+
+    private static Piece.PieceColor winnerOf(int code) {
+        return code == 0 ? null : code == 1 ? Piece.PieceColor.BLACK : Piece.PieceColor.RED;
+    }
+
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    static long readSigned(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    // what a block's header says about it, with where each column is
+    record Header(int count, long minFinished, long maxFinished, String[] endNames, int[] endCounts,
+                  int[] winnerCounts, long[] openings, int[] rawLengths, int[] offsets) {
+
+        // the same summary without the opening hashes, once they are in an index
+        Header withoutOpenings() {
+            return new Header(count, minFinished, maxFinished, endNames, endCounts, winnerCounts, new long[0],
+                    rawLengths, offsets);
+        }
+
+        int endCount(GameEnd end) {
+            String name = end == null ? "" : end.name();
+            for (int i = 0; i < endNames.length; i++) {
+                if (endNames[i].equals(name)) {
+                    return endCounts[i];
+                }
+            }
+            return 0;
+        }
+
+        int winnerCount(Piece.PieceColor winner) {
+            return winnerCounts[winnerCode(winner)];
+        }
+    }
+
+    // a per-game predicate evaluated on the cheap columns
+    interface GameFilter {
+        boolean accepts(long finishedAt, GameEnd end, Piece.PieceColor winner, long openingHash);
+    }
+
+    private static final class Column extends ByteArrayOutputStream {
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeSigned(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) (zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+
+        void writeInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                write(value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.evancaplan.checkersengine.archive;
+
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Piece;
+
+// Which archived games to return. Every criterion left null matches anything, the finish time range
+// is inclusive epoch milliseconds, and at most limit games come back, oldest first.
+public record ArchiveQuery(Long finishedFrom, Long finishedTo, GameEnd end, Piece.PieceColor winner,
+                           Long openingHash, int limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    boolean accepts(long finishedAt, GameEnd gameEnd, Piece.PieceColor gameWinner, long gameOpening) {
+        return (finishedFrom == null || finishedAt >= finishedFrom)
+                && (finishedTo == null || finishedAt <= finishedTo)
+                && (end == null || end == gameEnd)
+                && (winner == null || winner == gameWinner)
+                && (openingHash == null || openingHash == gameOpening);
+    }
+
+    // whether a block with this summary can hold a match at all
+    boolean mayMatch(ArchiveBlock.Header header) {
+        return (finishedFrom == null || header.maxFinished() >= finishedFrom)
+                && (finishedTo == null || header.minFinished() <= finishedTo)
+                && (end == null || header.endCount(end) > 0)
+                && (winner == null || header.winnerCount(winner) > 0);
+    }
+}
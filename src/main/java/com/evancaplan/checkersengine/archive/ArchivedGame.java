@@ -0,0 +1,77 @@
+package com.evancaplan.checkersengine.archive;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A finished game as the archive keeps it. moves holds every ply as FEN square numbers, flattened:
+// the origin, the number of landings and each landing in order, so a simple move or single jump takes
+// three ints and a double jump four. openingHash is the zobrist hash of the position after OPENING_PLIES
+// plies, or of the last one for a shorter game, so games that opened alike share it.
+public record ArchivedGame(String gameId, long finishedAt, GameEnd end, Piece.PieceColor winner,
+                           long openingHash, int plies, int[] moves) {
+
+    // the three-move ballot of tournament checkers fixes this many plies
+    public static final int OPENING_PLIES = 3;
+
+    // the moves are recovered by replaying the recorded positions, the first move of each ply that leads
+    // to the next one; replay stops at a position no legal move reaches
+    public static ArchivedGame of(String gameId, long finishedAt, Board board, List<Position> positions) {
+        Board replay = Fen.decode(positions.getFirst().toFen());
+        int[] moves = new int[positions.size() * 3];
+        int length = 0;
+        int plies = 0;
+        for (Position next : positions.subList(1, positions.size())) {
+            Move played = null;
+            for (Move move : new ArrayList<>(replay.getLegalMoves())) {
+                replay.movePiece(move);
+                if (replay.getPositionHash() == next.hash() && Position.of(replay).equals(next)) {
+                    played = move;
+                    break;
+                }
+                replay.undoMove(move);
+            }
+            if (played == null) {
+                break;
+            }
+            List<Board.Square> landings = played.getLandingSquares();
+            if (length + 2 + landings.size() > moves.length) {
+                moves = Arrays.copyOf(moves, Math.max(moves.length * 2, length + 2 + landings.size()));
+            }
+            moves[length++] = Fen.squareNumber(played.getFromRow(), played.getFromCol());
+            moves[length++] = landings.size();
+            for (Board.Square landing : landings) {
+                moves[length++] = Fen.squareNumber(landing.row(), landing.col());
+            }
+            plies++;
+        }
+        Position opening = positions.get(Math.min(OPENING_PLIES, positions.size() - 1));
+        return new ArchivedGame(gameId, finishedAt, board.getGameEnd(), board.getWinner(),
+                opening.hash(), plies, Arrays.copyOf(moves, length));
+    }
+
+    // the moves in PDN notation, e.g. 11-15 for a step and 22x15x8 for a double jump
+    public List<String> pdnMoves() {
+        List<String> pdn = new ArrayList<>(plies);
+        int index = 0;
+        for (int ply = 0; ply < plies; ply++) {
+            int from = moves[index++];
+            int landings = moves[index++];
+            StringBuilder move = new StringBuilder().append(from);
+            // a single landing two rows away is a jump
+            boolean capture = landings > 1 || Math.abs(Fen.square(moves[index]).row() - Fen.square(from).row()) == 2;
+            for (int i = 0; i < landings; i++) {
+                move.append(capture ? 'x' : '-').append(moves[index++]);
+            }
+            pdn.add(move.toString());
+        }
+        return pdn;
+    }
+}
@@ -0,0 +1,291 @@
+package com.evancaplan.checkersengine.archive;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Position;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// Append-only archive of finished games. Games collect in memory until there are enough for a block,
+// which is then sealed into compressed columns (see ArchiveBlock) and appended to the archive file, or
+// kept in memory when no file is configured, the oldest blocks dropped past a cap. Only a summary of each
+// block stays in memory: its finish time range and how many games ended each way serve as date and result
+// indexes, and a map from opening hash to the blocks holding it as the opening index. A query skips every
+// block those rule out and inflates only the columns it needs from the rest.
+// Games are handed to a single appender thread, which replays them into their moves and seals the blocks,
+// so the request that finished a game doesn't wait for either and appends stay in finishing order.
+// On startup the file's blocks are indexed again, and a block torn by a crash is cut off.
+@Service
+public class GameArchive {
+
+    static final int DEFAULT_BLOCK_GAMES = 1_024;
+    static final int DEFAULT_MEMORY_BLOCKS = 16;
+
+    // file the sealed blocks are appended to, empty keeps them in memory
+    @Value("${checkers.archive.file:}")
+    private String archiveFile;
+    // games per sealed block
+    @Value("${checkers.archive.block-games:1024}")
+    private int blockGames = DEFAULT_BLOCK_GAMES;
+    // sealed blocks kept without a file, the oldest are dropped first
+    @Value("${checkers.archive.memory-blocks:16}")
+    private int memoryBlocks = DEFAULT_MEMORY_BLOCKS;
+
+    private final LongSupplier wallClock;
+    private final Executor appender;
+    // sealed blocks in the order they were written, a block's number is its index
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+    // the numbers of the blocks holding games of each opening, guarded by the archive
+    private final Map<Long, BitSet> openingIndex = new HashMap<>();
+    // games not sealed into a block yet, guarded by the archive
+    private final List<ArchivedGame> pending = new ArrayList<>();
+    private FileChannel channel;
+    private long fileEnd;
+
+    public GameArchive() {
+        this(null, DEFAULT_BLOCK_GAMES, DEFAULT_MEMORY_BLOCKS, System::currentTimeMillis,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("game-archive").daemon().factory()));
+    }
+
+    // appends on the calling thread
+    GameArchive(String archiveFile, int blockGames, LongSupplier wallClock) {
+        this(archiveFile, blockGames, DEFAULT_MEMORY_BLOCKS, wallClock, Runnable::run);
+    }
+
+    // the wall clock gives the finish time of each game in epoch milliseconds, the appender has to run
+    // the appends one at a time in the order they were handed in
+    GameArchive(String archiveFile, int blockGames, int memoryBlocks, LongSupplier wallClock, Executor appender) {
+        this.archiveFile = archiveFile;
+        this.blockGames = blockGames;
+        this.memoryBlocks = memoryBlocks;
+        this.wallClock = wallClock;
+        this.appender = appender;
+    }
+
+    // an archive file that is set but can't be read stops startup rather than losing the games in it
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (archiveFile == null || archiveFile.isBlank() || channel != null) {
+            return;
+        }
+        Path path = Path.of(archiveFile).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        long position = 0;
+        while (position + ArchiveBlock.PREFIX_BYTES <= size) {
+            ByteBuffer prefix = readFully(position, ArchiveBlock.PREFIX_BYTES);
+            int length;
+            ArchiveBlock.Header header;
+            try {
+                length = ArchiveBlock.PREFIX_BYTES + ArchiveBlock.bodyLength(prefix);
+                if (length < ArchiveBlock.PREFIX_BYTES || position + length > size) {
+                    break;
+                }
+                header = ArchiveBlock.readHeader(readFully(position, length).array());
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+            index(header, position, length, null);
+            position += length;
+        }
+        if (position < size) {
+            // the tail of a block that was being written when the process died
+            channel.truncate(position);
+        }
+        fileEnd = position;
+    }
+
+    // archives the finished game with its recorded positions, the start position first. Queries see it
+    // once the appender has got to it; a block that can't be written leaves its games pending for the next
+    public void append(String gameId, Board board, List<Position> positions) {
+        long finishedAt = wallClock.getAsLong();
+        appender.execute(() -> {
+            ArchivedGame game = ArchivedGame.of(gameId, finishedAt, board, positions);
+            synchronized (this) {
+                pending.add(game);
+                if (pending.size() >= blockGames) {
+                    seal();
+                }
+            }
+        });
+    }
+
+    // the games the query matches, oldest first
+    public List<ArchivedGame> find(ArchiveQuery query) {
+        int limit = query.limit() > 0 ? query.limit() : ArchiveQuery.DEFAULT_LIMIT;
+        List<ArchivedGame> found = new ArrayList<>();
+        scan(query, game -> {
+            found.add(game);
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    // every game the query matches, oldest first and without its limit, one block in memory at a time
+    public void forEach(ArchiveQuery query, Consumer<ArchivedGame> action) {
+        scan(query, game -> {
+            action.accept(game);
+            return true;
+        });
+    }
+
+    // hands the matches to the sink until it returns false
+    private void scan(ArchiveQuery query, Predicate<ArchivedGame> sink) {
+        List<Block> sealed;
+        List<ArchivedGame> recent;
+        BitSet candidates = null;
+        synchronized (this) {
+            sealed = new ArrayList<>(blocks);
+            recent = new ArrayList<>(pending);
+            if (query.openingHash() != null) {
+                BitSet holding = openingIndex.get(query.openingHash());
+                candidates = holding == null ? new BitSet() : (BitSet) holding.clone();
+            }
+        }
+        for (int number = 0; number < sealed.size(); number++) {
+            Block block = sealed.get(number);
+            if ((candidates != null && !candidates.get(number)) || !query.mayMatch(block.header())) {
+                continue;
+            }
+            for (ArchivedGame game : ArchiveBlock.read(bytes(block), block.header(), query::accepts)) {
+                if (!sink.test(game)) {
+                    return;
+                }
+            }
+        }
+        for (ArchivedGame game : recent) {
+            if (query.accepts(game.finishedAt(), game.end(), game.winner(), game.openingHash()) && !sink.test(game)) {
+                return;
+            }
+        }
+    }
+
+    // games archived and still kept
+    public synchronized long size() {
+        long games = pending.size();
+        for (Block block : blocks) {
+            games += block.header().count();
+        }
+        return games;
+    }
+
+    synchronized int sealedBlocks() {
+        return blocks.size();
+    }
+
+    // seals the games collected so far into a block, however few
+    public synchronized void flush() {
+        seal();
+    }
+
+    // lets the appender finish the games handed to it, then seals them
+    @PreDestroy
+    public void close() throws IOException {
+        if (appender instanceof ExecutorService service) {
+            service.shutdown();
+            try {
+                service.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            seal();
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    // the pending games stay pending when the block can't be written
+    private void seal() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        byte[] block = ArchiveBlock.encode(pending);
+        ArchiveBlock.Header header = ArchiveBlock.readHeader(block);
+        if (channel == null) {
+            index(header, 0, block.length, block);
+            if (blocks.size() > memoryBlocks) {
+                dropOldestBlock();
+            }
+        } else {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(block);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, fileEnd + buffer.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't append to the game archive", e);
+            }
+            index(header, fileEnd, block.length, null);
+            fileEnd += block.length;
+        }
+        pending.clear();
+    }
+
+    private void index(ArchiveBlock.Header header, long offset, int length, byte[] data) {
+        int number = blocks.size();
+        for (long opening : header.openings()) {
+            openingIndex.computeIfAbsent(opening, key -> new BitSet()).set(number);
+        }
+        blocks.add(new Block(header.withoutOpenings(), offset, length, data));
+    }
+
+    // renumbers the opening index, block numbers are list positions
+    private void dropOldestBlock() {
+        blocks.removeFirst();
+        openingIndex.replaceAll((opening, holding) -> holding.get(1, Math.max(1, holding.length())));
+        openingIndex.values().removeIf(BitSet::isEmpty);
+    }
+
+    private byte[] bytes(Block block) {
+        if (block.data() != null) {
+            return block.data();
+        }
+        try {
+            return readFully(block.offset(), block.length()).array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read the game archive", e);
+        }
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Game archive ends inside a block");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // where a sealed block is, data holds the block itself when there is no file
+    private record Block(ArchiveBlock.Header header, long offset, int length, byte[] data) {
+    }
+}
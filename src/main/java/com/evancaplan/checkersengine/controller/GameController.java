@@ -1,28 +1,77 @@
 package com.evancaplan.checkersengine.controller;
 
+import com.evancaplan.checkersengine.archive.ArchiveQuery;
+import com.evancaplan.checkersengine.archive.GameArchive;
+import com.evancaplan.checkersengine.dto.AnalysisRequest;
+import com.evancaplan.checkersengine.dto.AnalysisResultDto;
+import com.evancaplan.checkersengine.dto.ArchivedGameDto;
 import com.evancaplan.checkersengine.dto.BoardStateResponse;
 import com.evancaplan.checkersengine.dto.GameResponse;
+import com.evancaplan.checkersengine.dto.HintResponse;
+import com.evancaplan.checkersengine.dto.LegalMovesResponse;
 import com.evancaplan.checkersengine.dto.MoveRequest;
+import com.evancaplan.checkersengine.dto.ResultCacheMetricsResponse;
+import com.evancaplan.checkersengine.dto.SearchMetricsResponse;
+import com.evancaplan.checkersengine.dto.SearchStatsDto;
 import com.evancaplan.checkersengine.dto.StartGameRequest;
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.GameClock;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.pdn.PdnGame;
+import com.evancaplan.checkersengine.pdn.PdnWriter;
+import com.evancaplan.checkersengine.service.AIResultCache;
+import com.evancaplan.checkersengine.service.AnalysisService;
 import com.evancaplan.checkersengine.service.GameService;
+import com.evancaplan.checkersengine.service.HintService;
+import com.evancaplan.checkersengine.service.SearchMetrics;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/game")
 @RequiredArgsConstructor
 public class GameController {
 
+    // a batch analysis stream is cut off after this long
+    private static final long ANALYSIS_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    // most archived games one query returns
+    private static final int MAX_ARCHIVE_GAMES = 1_000;
+    private static final MediaType PDN = new MediaType("application", "x-pdn", StandardCharsets.UTF_8);
+
     private final GameService gameService;
+    private final SearchMetrics searchMetrics;
+    private final AnalysisService analysisService;
+    private final HintService hintService;
+    private final AIResultCache resultCache;
+    private final GameArchive gameArchive;
 
     @PostMapping("/new")
     public ResponseEntity<GameResponse> startNewGame(@RequestBody StartGameRequest startGameRequest) {
-        String gameId = gameService.startNewGame(startGameRequest);
+        String gameId;
+        try {
+            gameId = gameService.startNewGame(startGameRequest);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.builder().message(e.getMessage()).build());
+        }
 
         return ResponseEntity.ok(
                 GameResponse.builder()
@@ -33,18 +82,40 @@ public class GameController {
 
 
     @PostMapping("/move")
-    public ResponseEntity<GameResponse> makeMove(@Valid @RequestBody MoveRequest moveRequest) {
+    public ResponseEntity<GameResponse> makeMove(@Valid @RequestBody MoveRequest moveRequest,
+                                                 @RequestParam(defaultValue = "false") boolean searchStats) {
 
         if (!gameService.gameExists(moveRequest.getGameId())) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(buildNotFoundResponse(moveRequest.getGameId()));
         }
 
-        boolean moveSuccess = gameService.makeMove(moveRequest);
+        GameService.MoveResult result;
+        try {
+            result = gameService.makeMove(moveRequest);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.builder().gameId(moveRequest.getGameId()).message(e.getMessage()).build());
+        }
+        boolean moveSuccess = result.applied();
+        // read after the move, a retired game's board included
+        Board board = gameService.getBoardState(moveRequest.getGameId());
+        Integer ply = board == null ? null : board.getPly();
+
+        if (result.outOfOrder()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(GameResponse.builder()
+                            .gameId(moveRequest.getGameId())
+                            .message("Move is for ply " + moveRequest.getPly() + " but the game is at ply " + ply)
+                            .ply(ply)
+                            .build());
+        }
 
         GameResponse response = GameResponse.builder()
                 .gameId(moveRequest.getGameId())
                 .message(moveSuccess ? "Move applied successfully" : "Illegal move! Please try again")
+                .search(searchStats && result.aiSearch() != null ? SearchStatsDto.fromResult(result.aiSearch()) : null)
+                .ply(ply)
                 .build();
 
         return moveSuccess
@@ -59,12 +130,192 @@ public class GameController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(buildNotFoundResponse(gameId));
         }
-        var board = gameService.getBoardState(gameId);
+        var board = gameService.snapshot(gameId);
         BoardStateResponse boardResponse = BoardStateResponse.fromBoard(gameId, board);
+        GameClock clock = gameService.getClock(gameId);
+        if (clock != null) {
+            boardResponse.setClock(BoardStateResponse.ClockDto.fromClock(clock, GameService.clockMillis()));
+        }
         return ResponseEntity.ok(boardResponse);
     }
 
 
+    @GetMapping("/moves")
+    public ResponseEntity<?> getLegalMoves(@RequestParam String gameId) {
+        if (!gameService.gameExists(gameId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(buildNotFoundResponse(gameId));
+        }
+        var board = gameService.snapshot(gameId);
+        return ResponseEntity.ok(LegalMovesResponse.fromBoard(gameId, board));
+    }
+
+    @GetMapping("/hint")
+    public ResponseEntity<?> getHint(@RequestParam String gameId,
+                                     @RequestParam(defaultValue = "3") int count,
+                                     @RequestParam(defaultValue = "200") long maxMillis) {
+        if (!gameService.gameExists(gameId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(buildNotFoundResponse(gameId));
+        }
+        // hint on a snapshot so a move arriving meanwhile can't change the position under the search
+        Board board = gameService.snapshot(gameId);
+        long version = board.getVersion();
+        if (board.isGameOver()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(GameResponse.builder()
+                            .gameId(gameId)
+                            .message("Game is over (" + board.getGameEnd() + "), there is nothing to hint")
+                            .ply(board.getPly())
+                            .build());
+        }
+        HintService.Hints hints = hintService.hint(board, count, maxMillis);
+        return ResponseEntity.ok(HintResponse.fromHints(gameId, version,
+                board.getCurrentTurn().toString(), hints));
+    }
+
+
+    // streams one JSON result per line (NDJSON) as each position finishes
+    @PostMapping("/analysis")
+    public ResponseEntity<?> analyze(@RequestBody AnalysisRequest request) {
+        List<String> positions = request.getPositions();
+        int firstIndex = 0;
+
+        if (request.getGameId() != null) {
+            List<String> history = gameService.getPositions(request.getGameId());
+            if (history == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(buildNotFoundResponse(request.getGameId()));
+            }
+            int fromPly = request.getFromPly() == null ? 0 : request.getFromPly();
+            int toPly = request.getToPly() == null ? history.size() - 1 : Math.min(request.getToPly(), history.size() - 1);
+            if (fromPly < 0 || fromPly > toPly) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(GameResponse.builder()
+                                .gameId(request.getGameId())
+                                .message("Ply range " + fromPly + "-" + toPly + " is outside the game's 0-" + (history.size() - 1))
+                                .build());
+            }
+            positions = history.subList(fromPly, toPly + 1);
+            firstIndex = fromPly;
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(ANALYSIS_TIMEOUT_MILLIS);
+        CompletableFuture<Void> done;
+        try {
+            done = analysisService.analyze(positions, firstIndex, request.getDifficulty(), request.getEngine(),
+                    result -> sendLine(emitter, result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.builder().gameId(request.getGameId()).message(e.getMessage()).build());
+        }
+        done.whenComplete((ignored, error) -> {
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+
+    // finished games from the archive, oldest first; from and to are ISO-8601 instants, opening a hex hash
+    @GetMapping("/archive")
+    public ResponseEntity<?> findArchivedGames(@RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to,
+                                               @RequestParam(required = false) GameEnd end,
+                                               @RequestParam(required = false) Piece.PieceColor winner,
+                                               @RequestParam(required = false) String opening,
+                                               @RequestParam(defaultValue = "100") int limit,
+                                               @RequestParam(defaultValue = "false") boolean moves) {
+        ArchiveQuery query;
+        try {
+            query = archiveQuery(from, to, end, winner, opening, Math.clamp(limit, 1, MAX_ARCHIVE_GAMES));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.builder().message(e.getMessage()).build());
+        }
+        return ResponseEntity.ok(gameArchive.find(query).stream()
+                .map(game -> ArchivedGameDto.fromGame(game, moves))
+                .toList());
+    }
+
+    // every archived game the filters match as a PDN file, streamed oldest first
+    @GetMapping("/archive/pdn")
+    public ResponseEntity<?> exportArchivedGames(@RequestParam(required = false) String from,
+                                                 @RequestParam(required = false) String to,
+                                                 @RequestParam(required = false) GameEnd end,
+                                                 @RequestParam(required = false) Piece.PieceColor winner,
+                                                 @RequestParam(required = false) String opening) {
+        ArchiveQuery query;
+        try {
+            query = archiveQuery(from, to, end, winner, opening, 0);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.builder().message(e.getMessage()).build());
+        }
+        StreamingResponseBody body = output -> {
+            PdnWriter writer = new PdnWriter(Channels.newChannel(output));
+            try {
+                gameArchive.forEach(query, game -> {
+                    try {
+                        writer.write(PdnGame.of(game));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            // the servlet container closes its own stream
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(PDN)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"games.pdn\"")
+                .body(body);
+    }
+
+    private static ArchiveQuery archiveQuery(String from, String to, GameEnd end, Piece.PieceColor winner,
+                                             String opening, int limit) {
+        return new ArchiveQuery(
+                from == null ? null : Instant.parse(from).toEpochMilli(),
+                to == null ? null : Instant.parse(to).toEpochMilli(),
+                end,
+                winner,
+                opening == null ? null : Long.parseUnsignedLong(opening, 16),
+                limit);
+    }
+
+
+    @GetMapping("/metrics/search")
+    public ResponseEntity<SearchMetricsResponse> getSearchMetrics() {
+        return ResponseEntity.ok(searchMetrics.snapshot());
+    }
+
+
+    @GetMapping("/metrics/cache")
+    public ResponseEntity<ResultCacheMetricsResponse> getResultCacheMetrics() {
+        return ResponseEntity.ok(resultCache.snapshot());
+    }
+
+
+    // results come from several analysis threads, one line must not interleave with another
+    private static void sendLine(ResponseBodyEmitter emitter, AnalysisResultDto result) {
+        synchronized (emitter) {
+            try {
+                emitter.send(result, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException e) {
+                // the client went away, the remaining results are dropped
+            }
+        }
+    }
+
     private static GameResponse buildNotFoundResponse(String gameId) {
         return GameResponse.builder()
                 .gameId(gameId)
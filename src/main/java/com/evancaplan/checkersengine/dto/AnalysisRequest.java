@@ -0,0 +1,29 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.model.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// either a list of FEN positions or a game and an inclusive ply range of it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisRequest {
+    @Builder.Default
+    private List<String> positions = new ArrayList<>();
+    private String gameId;
+    private Integer fromPly;
+    private Integer toPly;
+    // search budget for every position
+    @Builder.Default
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    @Builder.Default
+    private String engine = Engines.DEFAULT;
+}
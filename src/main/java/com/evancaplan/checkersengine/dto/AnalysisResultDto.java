@@ -0,0 +1,25 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one analysed position, streamed as soon as it is done, so results arrive out of order
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisResultDto {
+    // position in the request, or the ply when a game was analysed
+    private int index;
+    private String position;
+    private String sideToMove;
+    private LegalMovesResponse.MoveDto bestMove;
+    // from the side to move's point of view
+    private Integer score;
+    private SearchStatsDto search;
+    private String error;
+}
@@ -0,0 +1,41 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.evancaplan.checkersengine.archive.ArchivedGame;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedGameDto {
+    private String gameId;
+    // ISO-8601 instant the game finished
+    private String finishedAt;
+    private String gameEnd;
+    private String winner;
+    // hex zobrist hash of the position after the opening plies, the same for games that opened alike
+    private String openingHash;
+    private int plies;
+    // PDN moves like 11-15 or 22x15x8, only when requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> moves;
+
+    public static ArchivedGameDto fromGame(ArchivedGame game, boolean withMoves) {
+        return ArchivedGameDto.builder()
+                .gameId(game.gameId())
+                .finishedAt(Instant.ofEpochMilli(game.finishedAt()).toString())
+                .gameEnd(game.end() == null ? null : game.end().toString())
+                .winner(game.winner() == null ? null : game.winner().toString())
+                .openingHash(Long.toHexString(game.openingHash()))
+                .plies(game.plies())
+                .moves(withMoves ? game.pdnMoves() : null)
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.evancaplan.checkersengine.dto;
 
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.GameClock;
+import com.evancaplan.checkersengine.model.GameEnd;
 import com.evancaplan.checkersengine.model.Piece;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,7 +24,17 @@ public class BoardStateResponse {
     private String currentTurn;
     private boolean gameOver;
     private String winner;
+    // why the game ended, e.g. NO_MOVES or THREEFOLD_REPETITION, null while it goes on
+    private String gameEnd;
     private boolean singlePlayer;
+    private String difficulty;
+    private String engine;
+    private long version;
+    // plies played so far, what a move tagged with its ply must carry next
+    private int ply;
+    // only for a timed game that is still being played
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ClockDto clock;
 
     @Data
     @NoArgsConstructor
@@ -34,16 +47,47 @@ public class BoardStateResponse {
         private int col;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ClockDto {
+        // clock time left, null for a side without a Fischer clock
+        private Long blackRemainingMillis;
+        private Long redRemainingMillis;
+        // until the flag of the side to move falls, the move limit included
+        private Long turnRemainingMillis;
+
+        public static ClockDto fromClock(GameClock clock, long now) {
+            long flagTime = clock.flagTime();
+            return ClockDto.builder()
+                    .blackRemainingMillis(reading(clock.remainingMillis(Piece.PieceColor.BLACK, now)))
+                    .redRemainingMillis(reading(clock.remainingMillis(Piece.PieceColor.RED, now)))
+                    .turnRemainingMillis(flagTime == GameClock.UNLIMITED ? null : Math.max(0, flagTime - now))
+                    .build();
+        }
+
+        private static Long reading(long millis) {
+            return millis == GameClock.UNLIMITED ? null : millis;
+        }
+    }
+
     public static BoardStateResponse fromBoard(String gameId, Board board) {
+        GameEnd gameEnd = board.getGameEnd();
         BoardStateResponse.BoardStateResponseBuilder responseBuilder = BoardStateResponse.builder()
                 .gameId(gameId)
                 .pieces(new ArrayList<>())
                 .currentTurn(board.getCurrentTurn().toString())
-                .gameOver(board.isGameOver())
-                .singlePlayer(board.isSinglePlayer());
+                .gameOver(gameEnd != null)
+                .gameEnd(gameEnd == null ? null : gameEnd.toString())
+                .singlePlayer(board.isSinglePlayer())
+                .difficulty(board.getDifficulty().toString())
+                .engine(board.getEngine())
+                .version(board.getVersion())
+                .ply(board.getPly());
 
         // Set winner if game is over
-        if (board.isGameOver() && board.getWinner() != null) {
+        if (gameEnd != null && board.getWinner() != null) {
             responseBuilder.winner(board.getWinner().toString());
         }
 
@@ -1,5 +1,6 @@
 package com.evancaplan.checkersengine.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,10 @@ import lombok.NoArgsConstructor;
 public class GameResponse {
     private String gameId;
     private String message;
+    // details of the AI reply's search, only filled in when requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchStatsDto search;
+    // plies the game has seen when the answer to a move was given, the ply to tag the next move with
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer ply;
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.evancaplan.checkersengine.service.HintService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HintResponse {
+    private String gameId;
+    // state version the hints were computed for
+    private long version;
+    private String currentTurn;
+    private int depth;
+    private boolean cached;
+    private double timeMillis;
+    @Builder.Default
+    private List<HintDto> hints = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class HintDto {
+        private LegalMovesResponse.MoveDto move;
+        // from the side to move's point of view
+        private int score;
+        @Builder.Default
+        private List<LegalMovesResponse.MoveDto> principalVariation = new ArrayList<>();
+    }
+
+    public static HintResponse fromHints(String gameId, long version, String currentTurn, HintService.Hints hints) {
+        List<HintDto> hintDtos = hints.moves().stream()
+                .map(result -> HintDto.builder()
+                        .move(LegalMovesResponse.MoveDto.fromMove(result.bestMove()))
+                        .score(result.score())
+                        .principalVariation(result.stats().principalVariation().stream()
+                                .map(LegalMovesResponse.MoveDto::fromMove)
+                                .toList())
+                        .build())
+                .toList();
+
+        return HintResponse.builder()
+                .gameId(gameId)
+                .version(version)
+                .currentTurn(currentTurn)
+                .depth(hints.moves().isEmpty() ? 0 : hints.moves().getFirst().depth())
+                .cached(hints.cached())
+                .timeMillis(hints.elapsedNanos() / 1_000_000.0)
+                .hints(hintDtos)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LegalMovesResponse {
+    private String gameId;
+    // state version the moves were generated for
+    private long version;
+    private String currentTurn;
+    @Builder.Default
+    private List<MoveDto> moves = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MoveDto {
+        private int fromRow;
+        private int fromCol;
+        private int toRow;
+        private int toCol;
+        // every landing square in order, the last one is the destination
+        @Builder.Default
+        private List<Board.Square> path = new ArrayList<>();
+        private int captures;
+
+        public static MoveDto fromMove(Move move) {
+            return MoveDto.builder()
+                    .fromRow(move.getFromRow())
+                    .fromCol(move.getFromCol())
+                    .toRow(move.getToRow())
+                    .toCol(move.getToCol())
+                    .path(move.getLandingSquares())
+                    .captures(move.getCapturedPieces().size())
+                    .build();
+        }
+    }
+
+    public static LegalMovesResponse fromBoard(String gameId, Board board) {
+        long version = board.getVersion();
+        List<Move> legalMoves = board.getLegalMoves();
+
+        List<MoveDto> moves = new ArrayList<>(legalMoves.size());
+        for (Move move : legalMoves) {
+            moves.add(MoveDto.fromMove(move));
+        }
+
+        return LegalMovesResponse.builder()
+                .gameId(gameId)
+                .version(version)
+                .currentTurn(board.getCurrentTurn().toString())
+                .moves(moves)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.evancaplan.checkersengine.dto;
 
+import com.evancaplan.checkersengine.model.Board;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,9 +25,21 @@ public class MoveRequest {
     @NotNull
     private int fromCol;
 
-    @NotNull
-    private int toRow;
+    // the destination, which may be left out when a path is given
+    private Integer toRow;
 
-    @NotNull
-    private int toCol;
+    private Integer toCol;
+
+    // every landing square of a multi-jump in order, when set the last square is the destination and
+    // toRow/toCol, if given, have to name the same square
+    @Builder.Default
+    private List<Board.Square> path = new ArrayList<>();
+
+    // plies the game has seen before this move. When set the move is played at most once and
+    // a move for any other ply is turned away, null plays the move on whatever position is current
+    private Integer ply;
+
+    public MoveRequest(String gameId, int fromRow, int fromCol, int toRow, int toCol) {
+        this(gameId, fromRow, fromCol, toRow, toCol, new ArrayList<>(), null);
+    }
 }
\ No newline at end of file
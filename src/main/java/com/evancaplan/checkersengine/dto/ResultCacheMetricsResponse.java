@@ -0,0 +1,23 @@
+package com.evancaplan.checkersengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultCacheMetricsResponse {
+    private boolean enabled;
+    private long lookups;
+    private long hits;
+    private double hitRate;
+    private long stores;
+    private long replacements;
+    private int capacity;
+    private int used;
+    private long memoryBytes;
+    private int generation;
+}
@@ -0,0 +1,20 @@
+package com.evancaplan.checkersengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchMetricsResponse {
+    private long searches;
+    private long nodes;
+    private double averageDepth;
+    private long nodesPerSecond;
+    private double tableHitRate;
+    private double averageTimeMillis;
+    private double maxTimeMillis;
+}
@@ -0,0 +1,41 @@
+package com.evancaplan.checkersengine.dto;
+
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchStatsDto {
+    private int depth;
+    private int score;
+    private long nodes;
+    private long nodesPerSecond;
+    private double tableHitRate;
+    private double timeMillis;
+    @Builder.Default
+    private List<LegalMovesResponse.MoveDto> principalVariation = new ArrayList<>();
+
+    public static SearchStatsDto fromResult(SearchResult result) {
+        SearchStats stats = result.stats();
+        return SearchStatsDto.builder()
+                .depth(stats.depth())
+                .score(result.score())
+                .nodes(stats.nodes())
+                .nodesPerSecond(stats.nodesPerSecond())
+                .tableHitRate(stats.tableHitRate())
+                .timeMillis(stats.elapsedMillis())
+                .principalVariation(stats.principalVariation().stream()
+                        .map(LegalMovesResponse.MoveDto::fromMove)
+                        .toList())
+                .build();
+    }
+}
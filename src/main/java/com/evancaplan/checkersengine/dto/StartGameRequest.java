@@ -1,11 +1,24 @@
 package com.evancaplan.checkersengine.dto;
 
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.TimeControl;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Builder
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class StartGameRequest {
     @Builder.Default
     private Boolean singlePlayer = true;
+    @Builder.Default
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    @Builder.Default
+    private String engine = Engines.DEFAULT;
+    // clocks for both sides, null or untimed for a game without them
+    private TimeControl timeControl;
 }
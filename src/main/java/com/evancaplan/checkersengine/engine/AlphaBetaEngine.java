@@ -0,0 +1,38 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// The alpha-beta searcher, optionally without move ordering or with every difficulty's depth capped
+// so cheaper variants can be measured against the full one.
+public class AlphaBetaEngine implements Engine {
+
+    @Getter
+    private final String name;
+    private final boolean ordered;
+    private final int maxDepth;
+
+    public AlphaBetaEngine(String name, boolean ordered, int maxDepth) {
+        this.name = name;
+        this.ordered = ordered;
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public EngineSearch newSearch(Difficulty difficulty) {
+        return new AlphaBetaSearch(
+                TablePool.SHARED,
+                difficulty.getTableEntries(),
+                new MoveOrderer(ordered),
+                difficulty.getEvaluationNoise(),
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public SearchLimits limits(Difficulty difficulty) {
+        SearchLimits limits = SearchLimits.of(difficulty);
+        return new SearchLimits(Math.min(limits.maxDepth(), maxDepth), limits.maxNodes(), limits.maxTimeMillis());
+    }
+}
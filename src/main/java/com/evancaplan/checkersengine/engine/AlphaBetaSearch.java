@@ -0,0 +1,403 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Iterative deepening negamax with alpha-beta pruning over a board it is free to mutate.
+// Moves are made and undone in place; forced captures are always searched past the horizon.
+// Node and time budgets are checked as the search runs, an interrupted iteration is thrown away.
+// Interrupting the searching thread ends the search like a spent budget.
+public class AlphaBetaSearch implements EngineSearch {
+
+    // score of a won position, reduced by the distance to the win so shorter wins are preferred
+    public static final int WIN = 100_000;
+    private static final int INFINITY = WIN + 1;
+    private static final int WIN_BOUND = WIN - MoveOrderer.MAX_PLY;
+    // the clock is read once per this many nodes
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    // borrowed from the pool for the length of a search when there is one
+    private final TablePool pool;
+    private final int tableEntries;
+    private TranspositionTable table;
+    private final MoveOrderer orderer;
+    private final int evaluationNoise;
+    private final long noiseSeed;
+    // taken from the board at the start of every search
+    private Evaluator evaluator = Evaluator.DEFAULT;
+
+    @Getter
+    private long nodes;
+    @Getter
+    private long tableProbes;
+    @Getter
+    private long tableHits;
+    private Move rootBestMove;
+
+    private long maxNodes = Long.MAX_VALUE;
+    private long deadline = Long.MAX_VALUE;
+    private boolean budgetActive;
+    private boolean aborted;
+    private volatile boolean stopped;
+
+    public AlphaBetaSearch(TranspositionTable table, MoveOrderer orderer) {
+        this(table, orderer, 0, 0L);
+    }
+
+    // noise adds a pseudo-random amount of up to evaluationNoise to every leaf, fixed per position and seed
+    public AlphaBetaSearch(TranspositionTable table, MoveOrderer orderer, int evaluationNoise, long noiseSeed) {
+        this(null, table.size(), table, orderer, evaluationNoise, noiseSeed);
+    }
+
+    // takes a table of tableEntries from the pool at the start of every search and hands it back at the end
+    public AlphaBetaSearch(TablePool pool, int tableEntries, MoveOrderer orderer, int evaluationNoise, long noiseSeed) {
+        this(pool, tableEntries, null, orderer, evaluationNoise, noiseSeed);
+    }
+
+    private AlphaBetaSearch(TablePool pool, int tableEntries, TranspositionTable table, MoveOrderer orderer,
+                            int evaluationNoise, long noiseSeed) {
+        this.pool = pool;
+        this.tableEntries = tableEntries;
+        this.table = table;
+        this.orderer = orderer;
+        this.evaluationNoise = evaluationNoise;
+        this.noiseSeed = noiseSeed;
+    }
+
+    // asks a running search, possibly from another thread, to give up as soon as possible
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public SearchResult search(Board board, int maxDepth) {
+        return search(board, SearchLimits.depth(maxDepth));
+    }
+
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        score(board);
+        borrowTable();
+        try {
+            return iterate(board, limits);
+        } finally {
+            returnTable();
+        }
+    }
+
+    private SearchResult iterate(Board board, SearchLimits limits) {
+        long start = System.nanoTime();
+        startBudget(limits, start);
+
+        Move bestMove = null;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            rootBestMove = null;
+            int score = negamax(board, depth, 0, -INFINITY, INFINITY);
+            if (aborted || rootBestMove == null) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            // nothing deeper changes a forced result
+            if (Math.abs(score) >= WIN_BOUND) {
+                break;
+            }
+            // the budget only applies once there is a completed iteration to fall back on
+            budgetActive = true;
+            if (nodes >= maxNodes || System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        SearchStats stats = new SearchStats(completedDepth, nodes, tableProbes, tableHits,
+                System.nanoTime() - start, principalVariation(board, completedDepth));
+        return new SearchResult(bestMove, bestScore, stats);
+    }
+
+    // Multi-PV search: the best count root moves with exact scores, best first, from the deepest iteration
+    // completed within the limits. Every root move is searched against the current count-th best score,
+    // so a move that can't make the list only costs a cheap fail-low. Each result carries its own line.
+    public List<SearchResult> searchTopMoves(Board board, SearchLimits limits, int count) {
+        score(board);
+        borrowTable();
+        try {
+            return iterateTopMoves(board, limits, count);
+        } finally {
+            returnTable();
+        }
+    }
+
+    private List<SearchResult> iterateTopMoves(Board board, SearchLimits limits, int count) {
+        long start = System.nanoTime();
+        startBudget(limits, start);
+
+        List<Move> ordered = new ArrayList<>(board.getLegalMoves());
+        int wanted = Math.min(count, ordered.size());
+        if (wanted <= 0) {
+            return List.of();
+        }
+
+        List<Move> topMoves = List.of();
+        int[] topScores = new int[0];
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            int[] scores = new int[ordered.size()];
+            boolean[] exact = new boolean[ordered.size()];
+            for (int i = 0; i < ordered.size(); i++) {
+                int alpha = i < wanted ? -INFINITY : nthBest(scores, exact, i, wanted);
+                Move move = ordered.get(i);
+                board.movePiece(move);
+                int score = -negamax(board, depth - 1, 1, -INFINITY, -alpha);
+                board.undoMove(move);
+                if (aborted) {
+                    break;
+                }
+                scores[i] = score;
+                exact[i] = score > alpha;
+            }
+            if (aborted) {
+                break;
+            }
+
+            // exact scores first, best first; the next iteration searches in this order
+            Integer[] order = new Integer[ordered.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> exact[a] != exact[b] ? (exact[a] ? -1 : 1) : Integer.compare(scores[b], scores[a]));
+            List<Move> reordered = new ArrayList<>(ordered.size());
+            topScores = new int[wanted];
+            for (int i = 0; i < order.length; i++) {
+                reordered.add(ordered.get(order[i]));
+                if (i < wanted) {
+                    topScores[i] = scores[order[i]];
+                }
+            }
+            ordered = reordered;
+            topMoves = ordered.subList(0, wanted);
+            completedDepth = depth;
+
+            budgetActive = true;
+            if (nodes >= maxNodes || System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        List<SearchResult> results = new ArrayList<>(topMoves.size());
+        for (int i = 0; i < topMoves.size(); i++) {
+            Move move = topMoves.get(i);
+            List<Move> line = new ArrayList<>();
+            line.add(move);
+            board.movePiece(move);
+            line.addAll(principalVariation(board, completedDepth - 1));
+            board.undoMove(move);
+            results.add(new SearchResult(move, topScores[i],
+                    new SearchStats(completedDepth, nodes, tableProbes, tableHits, elapsed, line)));
+        }
+        return results;
+    }
+
+    // the wanted-th best exact score among the first searched moves, or -INFINITY while there aren't that many
+    private static int nthBest(int[] scores, boolean[] exact, int searched, int wanted) {
+        int[] best = new int[wanted];
+        Arrays.fill(best, -INFINITY);
+        for (int i = 0; i < searched; i++) {
+            if (!exact[i] || scores[i] <= best[wanted - 1]) {
+                continue;
+            }
+            int j = wanted - 1;
+            while (j > 0 && best[j - 1] < scores[i]) {
+                best[j] = best[j - 1];
+                j--;
+            }
+            best[j] = scores[i];
+        }
+        return best[wanted - 1];
+    }
+
+    private void borrowTable() {
+        if (pool != null) {
+            table = pool.acquire(tableEntries);
+        }
+    }
+
+    private void returnTable() {
+        if (pool != null) {
+            pool.release(table);
+            table = null;
+        }
+    }
+
+    private void startBudget(SearchLimits limits, long start) {
+        maxNodes = limits.maxNodes();
+        deadline = limits.maxTimeMillis() >= Long.MAX_VALUE / 1_000_000
+                ? Long.MAX_VALUE
+                : start + limits.maxTimeMillis() * 1_000_000;
+        budgetActive = false;
+        aborted = false;
+    }
+
+    // follows the stored best moves from the root, stopping at the first position the table lost
+    private List<Move> principalVariation(Board board, int maxLength) {
+        List<Move> line = new ArrayList<>();
+        for (int i = 0; i < maxLength; i++) {
+            int entry = table.probe(board.getPositionHash());
+            if (entry < 0) {
+                break;
+            }
+            Move next = board.findLegalMove(table.move(entry));
+            if (next == null) {
+                break;
+            }
+            board.movePiece(next);
+            line.add(next);
+        }
+        for (int i = line.size() - 1; i >= 0; i--) {
+            board.undoMove(line.get(i));
+        }
+        return line;
+    }
+
+    private int negamax(Board board, int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if (stopped || budgetActive && outOfBudget()) {
+            aborted = true;
+            return 0;
+        }
+
+        List<Move> moves = board.getLegalMoves();
+        // no legal moves loses
+        if (moves.isEmpty()) {
+            return -WIN + ply;
+        }
+        boolean forcedCapture = moves.getFirst().isCapture();
+        if ((depth <= 0 && !forcedCapture) || ply >= MoveOrderer.MAX_PLY - 1) {
+            return evaluate(board);
+        }
+
+        long key = board.getPositionHash();
+        int hashMove = 0;
+        int entry = table.probe(key);
+        tableProbes++;
+        if (entry >= 0) {
+            tableHits++;
+            hashMove = table.move(entry);
+            if (ply > 0 && table.depth(entry) >= depth) {
+                int score = fromTable(table.score(entry), ply);
+                byte flag = table.flag(entry);
+                if (flag == TranspositionTable.EXACT
+                        || flag == TranspositionTable.LOWER_BOUND && score >= beta
+                        || flag == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        Piece.PieceColor side = board.getCurrentTurn();
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        Move bestMove = null;
+
+        for (Move move : orderer.order(moves, hashMove, ply, side)) {
+            board.movePiece(move);
+            int score = -negamax(board, depth - 1, ply + 1, -beta, -alpha);
+            board.undoMove(move);
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                orderer.recordCutoff(move, depth, ply, side);
+                break;
+            }
+        }
+
+        byte flag = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND
+                : TranspositionTable.EXACT;
+        table.store(key, depth, toTable(best, ply), flag, bestMove.encode());
+        return best;
+    }
+
+    private boolean outOfBudget() {
+        return nodes >= maxNodes
+                || nodes % TIME_CHECK_INTERVAL == 0
+                && (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted());
+    }
+
+    // searches with the evaluator the board was scored with, and scores an unscored board with the default
+    // one so every leaf can read the board's running score
+    private void score(Board board) {
+        evaluator = Evaluator.of(board);
+        if (board.getPieceValues() != evaluator) {
+            board.setPieceValues(evaluator);
+        }
+    }
+
+    private int evaluate(Board board) {
+        Piece.PieceColor side = board.getCurrentTurn();
+        int score = evaluator.evaluate(board, side);
+        if (evaluationNoise == 0) {
+            return score;
+        }
+        // noise is drawn from black's point of view so both sides see the same blurred position
+        long mixed = mix(board.getPositionHash() ^ noiseSeed);
+        int noise = (int) Math.floorMod(mixed, 2L * evaluationNoise + 1) - evaluationNoise;
+        return score + (side == Piece.PieceColor.BLACK ? noise : -noise);
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    // win scores are stored relative to the node so they stay correct when reached at another ply
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_BOUND) {
+            return score + ply;
+        }
+        if (score <= -WIN_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_BOUND) {
+            return score - ply;
+        }
+        if (score <= -WIN_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,121 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.PositionHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Plays paired games between two engine configurations. Both games of a pair start from the same
+// random opening with the colours swapped, so neither the opening nor the first move favours a side.
+// Pairs are independent and run in parallel, each engine gets a fresh search for every move.
+public class Arena {
+
+    // random plies played before the engines take over, so deterministic engines don't repeat one game
+    public static final int OPENING_PLIES = 4;
+    // threefold repetition and the no-capture limit end most drawn games sooner, anything still going
+    // after this many plies is scored as a draw too
+    public static final int MAX_PLIES = 200;
+
+    private final Contestant first;
+    private final Contestant second;
+
+    public Arena(Contestant first, Contestant second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public record Contestant(Engine engine, Difficulty difficulty) {
+        public String label() {
+            return engine.getName() + ":" + difficulty;
+        }
+    }
+
+    public ArenaResult run(int pairs, int threads, long seed) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Game[]>> futures = new ArrayList<>();
+            for (int pair = 0; pair < pairs; pair++) {
+                long pairSeed = seed + pair * 0x9E3779B97F4A7C15L;
+                futures.add(executor.submit(() -> playPair(pairSeed)));
+            }
+
+            ArenaResult.Tally tally = new ArenaResult.Tally();
+            for (Future<Game[]> future : futures) {
+                for (Game game : future.get()) {
+                    tally.add(game.firstScore(), game.firstStats(), game.secondStats());
+                }
+            }
+            return tally.toResult(first.label(), second.label());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Arena interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Arena game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Game[] playPair(long seed) {
+        Board opening = randomOpening(new Random(seed));
+        return new Game[]{play(opening, true), play(opening, false)};
+    }
+
+    static Board randomOpening(Random random) {
+        Board board = Board.createStandardBoard(false);
+        for (int ply = 0; ply < OPENING_PLIES; ply++) {
+            List<Move> moves = board.getLegalMoves();
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.movePiece(moves.get(random.nextInt(moves.size())));
+        }
+        return board;
+    }
+
+    // one game from the opening, scored from the first contestant's point of view
+    private Game play(Board opening, boolean firstPlaysBlack) {
+        Board board = opening.copy();
+        PositionHistory history = new PositionHistory(board);
+        ArenaResult.EngineStats firstStats = ArenaResult.EngineStats.NONE;
+        ArenaResult.EngineStats secondStats = ArenaResult.EngineStats.NONE;
+
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            boolean firstToMove = (board.getCurrentTurn() == Piece.PieceColor.BLACK) == firstPlaysBlack;
+            // the side to move has no moves and loses
+            if (board.getLegalMoves().isEmpty()) {
+                return new Game(firstToMove ? 0 : 1, firstStats, secondStats);
+            }
+
+            Contestant mover = firstToMove ? first : second;
+            SearchResult result = mover.engine().newSearch(mover.difficulty())
+                    .search(board, mover.engine().limits(mover.difficulty()));
+            ArenaResult.EngineStats moveStats = new ArenaResult.EngineStats(1,
+                    result.stats().nodes(), result.stats().elapsedNanos());
+            if (firstToMove) {
+                firstStats = firstStats.plus(moveStats);
+            } else {
+                secondStats = secondStats.plus(moveStats);
+            }
+            board.movePiece(board.findLegalMove(result.bestMove()));
+            history.record(board);
+            // repetitions and long shuffles are draws, no need to play them out to the ply cap
+            if (history.draw(PositionHistory.DEFAULT_NO_CAPTURE_LIMIT) != null) {
+                break;
+            }
+        }
+        return new Game(0.5, firstStats, secondStats);
+    }
+
+    private record Game(double firstScore, ArenaResult.EngineStats firstStats, ArenaResult.EngineStats secondStats) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.util.Locale;
+
+// Outcome of an arena run from the first contestant's point of view: results, the Elo difference they imply
+// with its 95% confidence interval, and how fast each side searched.
+public record ArenaResult(String first,
+                          String second,
+                          int wins,
+                          int draws,
+                          int losses,
+                          double eloDifference,
+                          double eloLow,
+                          double eloHigh,
+                          EngineStats firstStats,
+                          EngineStats secondStats) {
+
+    private static final double Z_95 = 1.959964;
+
+    public int games() {
+        return wins + draws + losses;
+    }
+
+    // points per game, a win counting 1 and a draw 0.5
+    public double score() {
+        return games() == 0 ? 0.5 : (wins + 0.5 * draws) / games();
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%s vs %s: +%d =%d -%d (%.1f%%), Elo %+.1f [%+.1f, %+.1f]%n"
+                        + "  %s: %d nps, %.2f ms/move%n"
+                        + "  %s: %d nps, %.2f ms/move",
+                first, second, wins, draws, losses, score() * 100, eloDifference, eloLow, eloHigh,
+                first, firstStats.nodesPerSecond(), firstStats.millisPerMove(),
+                second, secondStats.nodesPerSecond(), secondStats.millisPerMove());
+    }
+
+    // Elo difference at which the expected score is the given one; infinite for a clean sweep
+    public static double elo(double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    public record EngineStats(long moves, long nodes, long elapsedNanos) {
+
+        public static final EngineStats NONE = new EngineStats(0, 0, 0);
+
+        public EngineStats plus(EngineStats other) {
+            return new EngineStats(moves + other.moves, nodes + other.nodes, elapsedNanos + other.elapsedNanos);
+        }
+
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : (long) (nodes / (elapsedNanos / 1e9));
+        }
+
+        public double millisPerMove() {
+            return moves == 0 ? 0 : elapsedNanos / 1_000_000.0 / moves;
+        }
+    }
+
+    // accumulates games one at a time, not thread safe
+    static class Tally {
+        private int wins;
+        private int draws;
+        private int losses;
+        private EngineStats firstStats = EngineStats.NONE;
+        private EngineStats secondStats = EngineStats.NONE;
+
+        void add(double firstScore, EngineStats first, EngineStats second) {
+            if (firstScore == 1) {
+                wins++;
+            } else if (firstScore == 0) {
+                losses++;
+            } else {
+                draws++;
+            }
+            firstStats = firstStats.plus(first);
+            secondStats = secondStats.plus(second);
+        }
+
+        // the interval comes from the standard error of the per-game score
+        ArenaResult toResult(String first, String second) {
+            int games = wins + draws + losses;
+            double score = games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+            double variance = games == 0 ? 0 : (wins * Math.pow(1 - score, 2)
+                    + draws * Math.pow(0.5 - score, 2)
+                    + losses * Math.pow(score, 2)) / games;
+            double margin = games == 0 ? 0 : Z_95 * Math.sqrt(variance / games);
+            return new ArenaResult(first, second, wins, draws, losses,
+                    elo(score), elo(score - margin), elo(score + margin), firstStats, secondStats);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+
+// Command line entry point for the arena:
+//   ArenaRunner <engine[:DIFFICULTY]> <engine[:DIFFICULTY]> [pairs] [threads] [seed]
+// e.g. ./gradlew arena -ParenaArgs="alphabeta:HARD alphabeta:MEDIUM 500 8"
+public final class ArenaRunner {
+
+    private ArenaRunner() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: ArenaRunner <engine[:DIFFICULTY]> <engine[:DIFFICULTY]> [pairs] [threads] [seed]");
+            System.err.println("engines: " + Engines.names());
+            System.exit(2);
+        }
+        Arena.Contestant first = contestant(args[0]);
+        Arena.Contestant second = contestant(args[1]);
+        int pairs = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        System.out.printf("%d pairs on %d threads, seed %d%n", pairs, threads, seed);
+        System.out.println(new Arena(first, second).run(pairs, threads, seed).summary());
+    }
+
+    private static Arena.Contestant contestant(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            return new Arena.Contestant(Engines.get(spec), Difficulty.MEDIUM);
+        }
+        return new Arena.Contestant(Engines.get(spec.substring(0, colon)),
+                Difficulty.valueOf(spec.substring(colon + 1).toUpperCase()));
+    }
+}
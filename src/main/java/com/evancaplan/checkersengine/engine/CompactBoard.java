@@ -0,0 +1,232 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.BoardGeometry;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+// Bitboard copy of a Board for playouts: one bit per square (row * 8 + col) for each colour and for kings,
+// plus the side to move. It follows Board's rules: captures are forced, men step forward but capture in
+// every direction, a capture sequence goes on until no jump is left or a man is crowned, and jumped pieces
+// stay on the board until the sequence ends. A move is an int holding its origin and destination, with the
+// squares it captures kept alongside as a mask; generating and applying moves never allocates.
+public final class CompactBoard {
+
+    // more than any reachable position produces, move buffers are sized to this
+    public static final int MAX_MOVES = 256;
+
+    private static final int BLACK_CROWN_ROW = Board.BOARD_SIZE - 1;
+    private static final int RED_CROWN_ROW = 0;
+
+    private long black;
+    private long red;
+    private long kings;
+    private boolean blackToMove;
+
+    public CompactBoard(long black, long red, long kings, boolean blackToMove) {
+        this.black = black;
+        this.red = red;
+        this.kings = kings;
+        this.blackToMove = blackToMove;
+    }
+
+    public static CompactBoard from(Board board) {
+        CompactBoard compact = new CompactBoard(0, 0, 0, board.getCurrentTurn() == Piece.PieceColor.BLACK);
+        for (Piece piece : board.getBlackPieces()) {
+            compact.black |= bit(piece.getRow(), piece.getColumn());
+            compact.kings |= piece.isKing() ? bit(piece.getRow(), piece.getColumn()) : 0;
+        }
+        for (Piece piece : board.getRedPieces()) {
+            compact.red |= bit(piece.getRow(), piece.getColumn());
+            compact.kings |= piece.isKing() ? bit(piece.getRow(), piece.getColumn()) : 0;
+        }
+        return compact;
+    }
+
+    public CompactBoard copy() {
+        return new CompactBoard(black, red, kings, blackToMove);
+    }
+
+    // takes over another board's position, so a scratch board can be reused between playouts
+    public void copyFrom(CompactBoard other) {
+        black = other.black;
+        red = other.red;
+        kings = other.kings;
+        blackToMove = other.blackToMove;
+    }
+
+    public long black() {
+        return black;
+    }
+
+    public long red() {
+        return red;
+    }
+
+    public long kings() {
+        return kings;
+    }
+
+    public boolean isBlackToMove() {
+        return blackToMove;
+    }
+
+    // same rule as Board.isGameOver, a side without pieces or a blocked side to move has lost
+    public boolean isGameOver() {
+        return black == 0 || red == 0 || !canMove();
+    }
+
+    // fills the buffers with every legal move and returns how many there are
+    public int generateMoves(int[] moves, long[] captures) {
+        long own = blackToMove ? black : red;
+        long enemy = blackToMove ? red : black;
+        int count = 0;
+
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            // lift the piece so a chain is allowed to pass back over its starting square
+            long occupied = (black | red) & ~(1L << from);
+            count = collectCaptures(from, from, (kings & 1L << from) == 0, enemy, occupied, 0L, moves, captures, count);
+        }
+        if (count > 0) {
+            return count;
+        }
+
+        long empty = ~(black | red);
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            boolean man = (kings & 1L << from) == 0;
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                if (man && BoardGeometry.ROW_STEP[direction] != (blackToMove ? 1 : -1)) {
+                    continue;
+                }
+                int to = BoardGeometry.neighbor(from, direction);
+                if (to != BoardGeometry.NONE && (empty & 1L << to) != 0) {
+                    moves[count] = encode(from, to);
+                    captures[count++] = 0L;
+                }
+            }
+        }
+        return count;
+    }
+
+    public void apply(int move, long captured) {
+        long fromBit = 1L << from(move);
+        int to = to(move);
+        long toBit = 1L << to;
+        boolean crowned = (kings & fromBit) != 0 || promotes(to);
+
+        if (blackToMove) {
+            black = black & ~fromBit | toBit;
+            red &= ~captured;
+        } else {
+            red = red & ~fromBit | toBit;
+            black &= ~captured;
+        }
+        kings &= ~(fromBit | captured);
+        if (crowned) {
+            kings |= toBit;
+        }
+        blackToMove = !blackToMove;
+    }
+
+    // whether the move crowns the piece making it
+    public boolean isPromotion(int move) {
+        return (kings & 1L << from(move)) == 0 && promotes(to(move));
+    }
+
+    public static int encode(int from, int to) {
+        return from | to << 6;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 63;
+    }
+
+    // the compact form of a Board move, origin and destination
+    public static int encode(Move move) {
+        return encode(move.getFromRow() * Board.BOARD_SIZE + move.getFromCol(),
+                move.getToRow() * Board.BOARD_SIZE + move.getToCol());
+    }
+
+    // squares a Board move captures
+    public static long capturedMask(Move move) {
+        long mask = 0L;
+        for (Piece piece : move.getCapturedPieces()) {
+            mask |= bit(piece.getRow(), piece.getColumn());
+        }
+        return mask;
+    }
+
+    private int collectCaptures(int from, int square, boolean man, long enemy, long occupied, long captured,
+                                int[] moves, long[] captures, int count) {
+        boolean extended = false;
+
+        for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+            int landing = BoardGeometry.jumpLanding(square, direction);
+            if (landing == BoardGeometry.NONE || (occupied & 1L << landing) != 0) {
+                continue;
+            }
+            // captured pieces stay on the board until the sequence ends but can't be jumped twice
+            long jumped = 1L << BoardGeometry.jumped(square, direction);
+            if ((enemy & jumped) == 0 || (captured & jumped) != 0) {
+                continue;
+            }
+
+            extended = true;
+            // being crowned ends the move
+            if (man && promotes(landing)) {
+                moves[count] = encode(from, landing);
+                captures[count++] = captured | jumped;
+            } else {
+                count = collectCaptures(from, landing, man, enemy, occupied, captured | jumped, moves, captures, count);
+            }
+        }
+
+        if (!extended && captured != 0) {
+            moves[count] = encode(from, square);
+            captures[count++] = captured;
+        }
+        return count;
+    }
+
+    // whether the side to move can step or jump anywhere, checked without generating moves
+    private boolean canMove() {
+        long own = blackToMove ? black : red;
+        long enemy = blackToMove ? red : black;
+        long empty = ~(black | red);
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            boolean man = (kings & 1L << from) == 0;
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                int to = BoardGeometry.neighbor(from, direction);
+                if (to == BoardGeometry.NONE) {
+                    continue;
+                }
+                if ((empty & 1L << to) != 0) {
+                    if (!man || BoardGeometry.ROW_STEP[direction] == (blackToMove ? 1 : -1)) {
+                        return true;
+                    }
+                    continue;
+                }
+                int landing = BoardGeometry.jumpLanding(from, direction);
+                if (landing != BoardGeometry.NONE && (empty & 1L << landing) != 0 && (enemy & 1L << to) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean promotes(int square) {
+        return square / Board.BOARD_SIZE == (blackToMove ? BLACK_CROWN_ROW : RED_CROWN_ROW);
+    }
+
+    private static long bit(int row, int col) {
+        return 1L << row * Board.BOARD_SIZE + col;
+    }
+}
@@ -0,0 +1,370 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Plays random games on the reference Board and on a candidate implementation of the same rules side by
+// side, comparing at every ply the legal moves, the position, the side to move and whether the game is
+// over. A move is compared by its origin, destination and captured squares, everything that decides the
+// position it leads to, and the moves as sets, since Board may list one chain twice. Playouts are seeded
+// by their number and run in parallel. The lowest numbered playout that diverges is shrunk to a few
+// moves from a position with few pieces that still diverge, and a seed reports the same divergence on
+// any number of threads.
+public final class DifferentialPlayouts {
+
+    // playouts stop here if the game isn't over, long enough for kings to have run around for a while
+    public static final int MAX_PLIES = 200;
+
+    private static final String START = Fen.encode(Board.createStandardBoard(false));
+
+    private final Supplier<Candidate> candidates;
+
+    public DifferentialPlayouts(Supplier<Candidate> candidates) {
+        this.candidates = candidates;
+    }
+
+    // the rules under test, a fresh instance for each thread
+    public interface Candidate {
+        // starts over from the position
+        void setUp(Board position);
+
+        Set<Step> moves();
+
+        // plays one of the moves the reference allows
+        void play(Step step);
+
+        State state();
+    }
+
+    // a move by board index (row * 8 + col) of its origin and destination and the mask of what it captures
+    public record Step(int from, int to, long captured) implements Comparable<Step> {
+
+        static Step of(Move move) {
+            return new Step(move.getFromRow() * Board.BOARD_SIZE + move.getFromCol(),
+                    move.getToRow() * Board.BOARD_SIZE + move.getToCol(), CompactBoard.capturedMask(move));
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int byFrom = Integer.compare(from, other.from);
+            int byTo = byFrom != 0 ? byFrom : Integer.compare(to, other.to);
+            return byTo != 0 ? byTo : Long.compare(captured, other.captured);
+        }
+
+        // PDN notation, a capture followed by its captured squares as a comment, e.g. 22x8 {18,11}
+        @Override
+        public String toString() {
+            if (captured == 0) {
+                return square(from) + "-" + square(to);
+            }
+            List<String> squares = new ArrayList<>();
+            for (long rest = captured; rest != 0; rest &= rest - 1) {
+                squares.add(String.valueOf(square(Long.numberOfTrailingZeros(rest))));
+            }
+            return square(from) + "x" + square(to) + " {" + String.join(",", squares) + "}";
+        }
+    }
+
+    // a position as bitboards, one bit per board index, with the side to move and whether the game is over
+    public record State(long black, long red, long kings, boolean blackToMove, boolean gameOver) {
+
+        static State of(Board board) {
+            long black = 0L;
+            long red = 0L;
+            long kings = 0L;
+            for (Piece piece : board.getBlackPieces()) {
+                black |= 1L << piece.getRow() * Board.BOARD_SIZE + piece.getColumn();
+                kings |= piece.isKing() ? 1L << piece.getRow() * Board.BOARD_SIZE + piece.getColumn() : 0;
+            }
+            for (Piece piece : board.getRedPieces()) {
+                red |= 1L << piece.getRow() * Board.BOARD_SIZE + piece.getColumn();
+                kings |= piece.isKing() ? 1L << piece.getRow() * Board.BOARD_SIZE + piece.getColumn() : 0;
+            }
+            return new State(black, red, kings, board.getCurrentTurn() == Piece.PieceColor.BLACK, board.isGameOver());
+        }
+
+        // the position as a FEN string, a square set in both colours shows up in both fields
+        public String fen() {
+            return (blackToMove ? "B" : "W") + ":W" + squares(red) + ":B" + squares(black);
+        }
+
+        private String squares(long pieces) {
+            StringBuilder field = new StringBuilder();
+            for (long rest = pieces; rest != 0; rest &= rest - 1) {
+                int index = Long.numberOfTrailingZeros(rest);
+                field.append(field.isEmpty() ? "" : ",").append((kings & 1L << index) != 0 ? "K" : "")
+                        .append(square(index));
+            }
+            return field.toString();
+        }
+    }
+
+    // the moves from the start to the position where reference and candidate disagree, and how they do
+    public record Divergence(long playout, String start, List<Step> moves, String position, String difference) {
+
+        @Override
+        public String toString() {
+            return "playout " + playout + " diverges after " + moves.size() + " plies\n"
+                    + "  start:    " + start + "\n"
+                    + "  moves:    " + moves.stream().map(Step::toString).collect(Collectors.joining(" ")) + "\n"
+                    + "  position: " + position + "\n"
+                    + "  " + difference;
+        }
+    }
+
+    // playouts and plies compared, and the shrunk divergence of the lowest numbered failing playout if any
+    public record Result(long playouts, long plies, Divergence divergence) {
+    }
+
+    // playouts numbered from 0 on the given number of threads, stopping early once a divergence is found
+    public Result run(long playouts, int threads, long seed) {
+        AtomicLong firstFailing = new AtomicLong(Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread;
+                workers.add(executor.submit(() -> work(first, threads, playouts, seed, firstFailing)));
+            }
+
+            long played = 0;
+            long plies = 0;
+            Divergence divergence = null;
+            for (Future<Result> worker : workers) {
+                Result result = worker.get();
+                played += result.playouts();
+                plies += result.plies();
+                if (result.divergence() != null
+                        && (divergence == null || result.divergence().playout() < divergence.playout())) {
+                    divergence = result.divergence();
+                }
+            }
+            return new Result(played, plies, divergence == null ? null : shrink(divergence));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Playouts interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Playout failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // every threads-th playout from first, until one fails; playouts numbered past a failing one are skipped
+    private Result work(int first, int threads, long playouts, long seed, AtomicLong firstFailing) {
+        Candidate candidate = candidates.get();
+        long played = 0;
+        long[] plies = new long[1];
+        for (long playout = first; playout < playouts && playout < firstFailing.get(); playout += threads) {
+            SplittableRandom random = new SplittableRandom(seed + playout * 0x9E3779B97F4A7C15L);
+            played++;
+            Divergence divergence = play(playout, START, candidate, (legal, ply) -> {
+                if (ply == MAX_PLIES) {
+                    return null;
+                }
+                plies[0]++;
+                return legal.get(random.nextInt(legal.size()));
+            });
+            if (divergence != null) {
+                firstFailing.accumulateAndGet(playout, Math::min);
+                return new Result(played, plies[0], divergence);
+            }
+        }
+        return new Result(played, plies[0], null);
+    }
+
+    // replays the moves on both from the start and returns the first difference, or null when they agree
+    // all the way or a move isn't legal for the reference; a move whose captures changed is still played
+    // if its origin and destination pick out a single legal move, which lets shrinking drop moves
+    Divergence replay(long playout, String start, List<Step> moves, Candidate candidate) {
+        return play(playout, start, candidate, (legal, ply) -> ply < moves.size() ? resolve(legal, moves.get(ply)) : null);
+    }
+
+    // shrinks a divergence in three steps: drops ever smaller runs of moves from the game for as long as
+    // what's left still diverges, starts from the latest position whose moves on their own still do, and
+    // takes pieces off that position one at a time while it does; every replay is cut back to where it
+    // first diverges
+    Divergence shrink(Divergence divergence) {
+        Candidate candidate = candidates.get();
+        Divergence shortest = divergence;
+        for (int run = Math.max(1, shortest.moves().size() / 2); run >= 1; run /= 2) {
+            for (int from = 0; from + run <= shortest.moves().size(); ) {
+                List<Step> fewer = new ArrayList<>(shortest.moves().subList(0, from));
+                fewer.addAll(shortest.moves().subList(from + run, shortest.moves().size()));
+                Divergence still = replay(shortest.playout(), shortest.start(), fewer, candidate);
+                if (still != null && still.moves().size() < shortest.moves().size()) {
+                    shortest = still;
+                } else {
+                    from++;
+                }
+            }
+        }
+
+        // a candidate may carry state across moves, so the tail grows until it diverges from a fresh set up
+        for (int tail = 0; tail < shortest.moves().size(); tail = Math.max(1, tail * 2)) {
+            int skipped = shortest.moves().size() - tail;
+            String start = positionAfter(shortest.start(), shortest.moves().subList(0, skipped));
+            Divergence still = replay(shortest.playout(), start, shortest.moves().subList(skipped, shortest.moves().size()),
+                    candidate);
+            if (still != null) {
+                shortest = still;
+                break;
+            }
+        }
+
+        boolean removed = true;
+        while (removed) {
+            removed = false;
+            State position = State.of(Fen.decode(shortest.start()));
+            for (long pieces = position.black() | position.red(); pieces != 0 && !removed; pieces &= pieces - 1) {
+                long square = Long.lowestOneBit(pieces);
+                String fewer = new State(position.black() & ~square, position.red() & ~square,
+                        position.kings() & ~square, position.blackToMove(), false).fen();
+                Divergence still = replay(shortest.playout(), fewer, shortest.moves(), candidate);
+                if (still != null && still.moves().size() <= shortest.moves().size()) {
+                    shortest = still;
+                    removed = true;
+                }
+            }
+        }
+        return shortest;
+    }
+
+    // the reference position after the moves, as a FEN string
+    private static String positionAfter(String start, List<Step> moves) {
+        Board board = Fen.decode(start);
+        for (Step step : moves) {
+            board.movePiece(resolve(board.getLegalMoves(), step));
+        }
+        return Fen.encode(board);
+    }
+
+    // plays the chosen moves on both until there's no choice or the game is over, comparing before every
+    // move and after the last, and returns the first difference; a candidate that throws differs too
+    private static Divergence play(long playout, String start, Candidate candidate, Chooser chooser) {
+        Board board = Fen.decode(start);
+        List<Step> played = new ArrayList<>();
+        String difference;
+        try {
+            candidate.setUp(board);
+            for (int ply = 0; ; ply++) {
+                List<Move> legal = board.getLegalMoves();
+                difference = compare(board, legal, candidate);
+                Move move = difference != null || legal.isEmpty() || board.isGameOver() ? null : chooser.choose(legal, ply);
+                if (move == null) {
+                    break;
+                }
+                Step step = Step.of(move);
+                board.movePiece(move);
+                played.add(step);
+                candidate.play(step);
+            }
+        } catch (RuntimeException e) {
+            difference = "candidate throws " + e;
+        }
+        return difference == null ? null : new Divergence(playout, start, played, Fen.encode(board), difference);
+    }
+
+    // what differs between the reference and the candidate in this position, null when nothing does
+    private static String compare(Board board, List<Move> legal, Candidate candidate) {
+        State expected = State.of(board);
+        State actual = candidate.state();
+        if (expected.black() != actual.black() || expected.red() != actual.red() || expected.kings() != actual.kings()) {
+            return "position differs, candidate has " + actual.fen();
+        }
+        if (expected.blackToMove() != actual.blackToMove()) {
+            return "side to move differs, candidate has " + (actual.blackToMove() ? "black" : "red") + " to move";
+        }
+        if (expected.gameOver() != actual.gameOver()) {
+            return "game over differs, candidate says the game is " + (actual.gameOver() ? "over" : "not over");
+        }
+
+        Set<Step> reference = new TreeSet<>();
+        for (Move move : legal) {
+            reference.add(Step.of(move));
+        }
+        Set<Step> candidateMoves = new TreeSet<>(candidate.moves());
+        if (reference.equals(candidateMoves)) {
+            return null;
+        }
+        Set<Step> missing = new TreeSet<>(reference);
+        missing.removeAll(candidateMoves);
+        Set<Step> extra = new TreeSet<>(candidateMoves);
+        extra.removeAll(reference);
+        return "moves differ, candidate misses " + missing + " and adds " + extra;
+    }
+
+    private static Move resolve(List<Move> legal, Step step) {
+        Move same = null;
+        int sameEnds = 0;
+        for (Move move : legal) {
+            Step candidate = Step.of(move);
+            if (candidate.equals(step)) {
+                return move;
+            }
+            if (candidate.from() == step.from() && candidate.to() == step.to()) {
+                same = move;
+                sameEnds++;
+            }
+        }
+        return sameEnds == 1 ? same : null;
+    }
+
+    // the reference's move for a ply, or null to stop
+    private interface Chooser {
+        Move choose(List<Move> legal, int ply);
+    }
+
+    // the CompactBoard playouts and searches run on
+    public static Candidate compactBoard() {
+        return new Candidate() {
+            private final int[] moves = new int[CompactBoard.MAX_MOVES];
+            private final long[] captures = new long[CompactBoard.MAX_MOVES];
+            private CompactBoard board;
+
+            @Override
+            public void setUp(Board position) {
+                board = CompactBoard.from(position);
+            }
+
+            @Override
+            public Set<Step> moves() {
+                Set<Step> steps = new TreeSet<>();
+                int count = board.generateMoves(moves, captures);
+                for (int i = 0; i < count; i++) {
+                    steps.add(new Step(CompactBoard.from(moves[i]), CompactBoard.to(moves[i]), captures[i]));
+                }
+                return steps;
+            }
+
+            @Override
+            public void play(Step step) {
+                board.apply(CompactBoard.encode(step.from(), step.to()), step.captured());
+            }
+
+            @Override
+            public State state() {
+                return new State(board.black(), board.red(), board.kings(), board.isBlackToMove(), board.isGameOver());
+            }
+        };
+    }
+
+    private static int square(int index) {
+        return Fen.squareNumber(index / Board.BOARD_SIZE, index % Board.BOARD_SIZE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.evancaplan.checkersengine.engine;
+
+// Command line entry point for the differential playouts of CompactBoard against Board:
+//   DifferentialRunner [playouts] [threads] [seed]
+// e.g. ./gradlew differential -PdifferentialArgs="5000000 8 42"
+// Exits with status 1 and the shrunk move sequence when the two disagree anywhere.
+public final class DifferentialRunner {
+
+    private DifferentialRunner() {
+    }
+
+    public static void main(String[] args) {
+        long playouts = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        System.out.printf("%d playouts on %d threads, seed %d%n", playouts, threads, seed);
+        long start = System.nanoTime();
+        DifferentialPlayouts.Result result = new DifferentialPlayouts(DifferentialPlayouts::compactBoard)
+                .run(playouts, threads, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d playouts, %d plies compared in %.1f s, %.0f plies/s%n", result.playouts(),
+                result.plies(), seconds, result.plies() / seconds);
+        if (result.divergence() != null) {
+            System.out.println(result.divergence());
+            System.exit(1);
+        }
+        System.out.println("no divergence");
+    }
+}
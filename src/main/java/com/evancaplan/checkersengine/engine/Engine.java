@@ -0,0 +1,18 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+
+// A move-choosing strategy, selected per game by name. Engines are shared between games and threads,
+// so all per-move state belongs to the search they create.
+public interface Engine {
+
+    String getName();
+
+    // a fresh search sized for the difficulty
+    EngineSearch newSearch(Difficulty difficulty);
+
+    // the budget a search gets at the difficulty
+    default SearchLimits limits(Difficulty difficulty) {
+        return SearchLimits.of(difficulty);
+    }
+}
@@ -0,0 +1,14 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+
+// A single search for a single move. It may move and undo on the board it is given as long as it
+// leaves the board as it found it, and it can be stopped from another thread while it runs.
+public interface EngineSearch {
+
+    SearchResult search(Board board, SearchLimits limits);
+
+    void stop();
+
+    boolean isStopped();
+}
@@ -0,0 +1,43 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// every engine a game or an arena can pick by name
+public final class Engines {
+
+    public static final String DEFAULT = "alphabeta";
+
+    private static final Map<String, Engine> ENGINES = new LinkedHashMap<>();
+
+    static {
+        register(new AlphaBetaEngine(DEFAULT, true, Integer.MAX_VALUE));
+        // the same search without move ordering, slower at equal depth
+        register(new AlphaBetaEngine("alphabeta-unordered", false, Integer.MAX_VALUE));
+        // one ply plus forced captures, fast and weak
+        register(new AlphaBetaEngine("greedy", true, 1));
+        // monte carlo tree search on half the cores
+        register(new MctsEngine("mcts", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    private Engines() {
+    }
+
+    // null picks the default engine
+    public static Engine get(String name) {
+        Engine engine = ENGINES.get(name == null ? DEFAULT : name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown engine '" + name + "', expected one of " + names());
+        }
+        return engine;
+    }
+
+    public static Set<String> names() {
+        return ENGINES.keySet();
+    }
+
+    private static void register(Engine engine) {
+        ENGINES.put(engine.getName(), engine);
+    }
+}
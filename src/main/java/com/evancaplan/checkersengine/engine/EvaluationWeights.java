@@ -0,0 +1,72 @@
+package com.evancaplan.checkersengine.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// tunable evaluation terms, all in hundredths of a man
+// stored as a properties file with one key per term, the format the tuner writes
+// immutable, since an Evaluator bakes the weights into its tables when it is built
+@Value
+@AllArgsConstructor
+@Builder
+public class EvaluationWeights {
+    @Builder.Default
+    private int man = 100;
+    @Builder.Default
+    private int king = 130;
+    // per row a man has advanced from its own back rank
+    @Builder.Default
+    private int advancement = 3;
+    // per man still guarding its own back rank
+    @Builder.Default
+    private int backRankGuard = 10;
+    // per piece on one of the eight center squares
+    @Builder.Default
+    private int centerControl = 5;
+    // per available non-capturing step
+    @Builder.Default
+    private int mobility = 2;
+
+    // terms missing from the file keep their defaults; throws NumberFormatException for a value that isn't an integer
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        EvaluationWeights defaults = EvaluationWeights.builder().build();
+        return EvaluationWeights.builder()
+                .man(read(properties, "man", defaults.getMan()))
+                .king(read(properties, "king", defaults.getKing()))
+                .advancement(read(properties, "advancement", defaults.getAdvancement()))
+                .backRankGuard(read(properties, "backRankGuard", defaults.getBackRankGuard()))
+                .centerControl(read(properties, "centerControl", defaults.getCenterControl()))
+                .mobility(read(properties, "mobility", defaults.getMobility()))
+                .build();
+    }
+
+    public void store(Path file, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("man", Integer.toString(man));
+        properties.setProperty("king", Integer.toString(king));
+        properties.setProperty("advancement", Integer.toString(advancement));
+        properties.setProperty("backRankGuard", Integer.toString(backRankGuard));
+        properties.setProperty("centerControl", Integer.toString(centerControl));
+        properties.setProperty("mobility", Integer.toString(mobility));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    private static int read(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Integer.parseInt(value.trim());
+    }
+}
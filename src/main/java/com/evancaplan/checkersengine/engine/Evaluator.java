@@ -0,0 +1,81 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.PieceValues;
+import lombok.Getter;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.BLACK;
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.RED;
+
+// Static evaluation built from piece-square tables.
+// Material, king value, advancement, back-rank guard and center control are folded into one table per
+// color and piece type, so a board can keep their sum up to date on every mutation. Mobility depends on
+// the neighbours of each piece and is counted when a position is evaluated.
+public class Evaluator implements PieceValues {
+
+    public static final Evaluator DEFAULT = new Evaluator(EvaluationWeights.builder().build());
+
+    @Getter
+    private final EvaluationWeights weights;
+
+    // [color][king ? 1 : 0][row * BOARD_SIZE + col], signed from black's point of view
+    private final int[][][] pieceSquareTable = new int[2][2][Board.BOARD_SIZE * Board.BOARD_SIZE];
+
+    public Evaluator(EvaluationWeights weights) {
+        this.weights = weights;
+        for (Piece.PieceColor color : Piece.PieceColor.values()) {
+            int sign = color == BLACK ? 1 : -1;
+            for (int row = 0; row < Board.BOARD_SIZE; row++) {
+                for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                    int square = row * Board.BOARD_SIZE + col;
+                    pieceSquareTable[color.ordinal()][0][square] = sign * manValue(color, row, col);
+                    pieceSquareTable[color.ordinal()][1][square] = sign * kingValue(row, col);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int signedValue(Piece.PieceColor color, boolean king, int row, int col) {
+        return pieceSquareTable[color.ordinal()][king ? 1 : 0][row * Board.BOARD_SIZE + col];
+    }
+
+    // the evaluator a board is scored with, the default one for a board nobody has scored
+    public static Evaluator of(Board board) {
+        return board.getPieceValues() instanceof Evaluator evaluator ? evaluator : DEFAULT;
+    }
+
+    // score of the position for the given side, positive when that side is ahead; a board scored with
+    // other values is recounted
+    public int evaluate(Board board, Piece.PieceColor perspective) {
+        int material = board.getPieceValues() == this ? board.getStaticScore() : staticScore(board);
+        int score = material
+                + weights.getMobility() * (board.getMobility(BLACK) - board.getMobility(RED));
+        return perspective == BLACK ? score : -score;
+    }
+
+    private int manValue(Piece.PieceColor color, int row, int col) {
+        int rowsAdvanced = color == BLACK ? row : Board.BOARD_SIZE - 1 - row;
+        int value = weights.getMan() + weights.getAdvancement() * rowsAdvanced;
+        if (rowsAdvanced == 0) {
+            value += weights.getBackRankGuard();
+        }
+        if (isCenter(row, col)) {
+            value += weights.getCenterControl();
+        }
+        return value;
+    }
+
+    private int kingValue(int row, int col) {
+        int value = weights.getKing();
+        if (isCenter(row, col)) {
+            value += weights.getCenterControl();
+        }
+        return value;
+    }
+
+    private static boolean isCenter(int row, int col) {
+        return row >= 3 && row <= 4 && col >= 2 && col <= 5;
+    }
+}
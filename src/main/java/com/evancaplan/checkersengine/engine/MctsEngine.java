@@ -0,0 +1,35 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Monte Carlo tree search in place of alpha-beta. A difficulty's node budget becomes a playout budget,
+// one playout standing in for NODES_PER_PLAYOUT alpha-beta nodes, and its table size sizes the node pool.
+public class MctsEngine implements Engine {
+
+    static final int NODES_PER_PLAYOUT = 50;
+    private static final int MAX_POOL_SIZE = 1 << 20;
+
+    @Getter
+    private final String name;
+    private final int threads;
+
+    public MctsEngine(String name, int threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    @Override
+    public EngineSearch newSearch(Difficulty difficulty) {
+        return new MctsSearch(Math.min(difficulty.getTableEntries() * 2, MAX_POOL_SIZE), threads,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public SearchLimits limits(Difficulty difficulty) {
+        SearchLimits limits = SearchLimits.of(difficulty);
+        return new SearchLimits(limits.maxDepth(), Math.max(1, limits.maxNodes() / NODES_PER_PLAYOUT), limits.maxTimeMillis());
+    }
+}
@@ -0,0 +1,328 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monte Carlo tree search over a CompactBoard. Several threads grow one tree at the same time, using UCT to
+// pick children and a virtual loss on every node they pass so they spread over different lines.
+// Playouts are random with a light policy: a move that crowns is always preferred.
+// The search runs until its playout budget (SearchLimits.maxNodes) or time is spent, or until stopped or interrupted;
+// the reported node count is the number of playouts. Stopped before any playout finished, it falls back to the
+// evaluator's best move one ply ahead.
+public class MctsSearch implements EngineSearch {
+
+    // a playout still going after this many plies is scored on material
+    static final int MAX_PLAYOUT_PLIES = 150;
+    private static final int VIRTUAL_LOSS = 3;
+    private static final double EXPLORATION = 1.4;
+
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+    // helpers of every search share one thread per core, so concurrent games don't multiply threads
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "mcts-" + WORKER_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final MctsTree tree;
+    private final int threads;
+    private final long seed;
+    private final AtomicLong playouts = new AtomicLong();
+    private volatile boolean stopped;
+    // helpers still queued when the caller's own worker is done never start, the rest are waited for
+    private final Object helperLock = new Object();
+    private int runningHelpers;
+    private boolean helpersClosed;
+    private volatile Throwable helperFailure;
+
+    private CompactBoard root;
+    private long maxPlayouts;
+    private long deadline;
+
+    public MctsSearch(int poolSize, int threads, long seed) {
+        this.tree = new MctsTree(poolSize);
+        this.threads = Math.max(1, threads);
+        this.seed = seed;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public long getPlayouts() {
+        return playouts.get();
+    }
+
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        long start = System.nanoTime();
+        List<Move> legalMoves = board.getLegalMoves();
+        if (legalMoves.isEmpty()) {
+            return new SearchResult(null, -AlphaBetaSearch.WIN, SearchStats.EMPTY);
+        }
+
+        root = CompactBoard.from(board);
+        maxPlayouts = limits.maxNodes();
+        deadline = limits.maxTimeMillis() >= Long.MAX_VALUE / 1_000_000
+                ? Long.MAX_VALUE
+                : start + limits.maxTimeMillis() * 1_000_000;
+        tree.expand(MctsTree.ROOT, root.copy(), new int[CompactBoard.MAX_MOVES], new long[CompactBoard.MAX_MOVES]);
+
+        // a forced move needs no search
+        if (legalMoves.size() > 1) {
+            runWorkers();
+        }
+
+        int best = mostVisitedChild(MctsTree.ROOT);
+        // stopped before a single playout finished, every child is unvisited and says nothing
+        if (tree.visits(best) == 0) {
+            return bestSinglePly(board, legalMoves, start);
+        }
+        Move bestMove = toBoardMove(board, best);
+        List<Move> line = principalVariation(board);
+        SearchStats stats = new SearchStats(line.size(), playouts.get(), 0, 0, System.nanoTime() - start, line);
+        return new SearchResult(bestMove, score(best), stats);
+    }
+
+    // the move the evaluator likes best one ply ahead, a cheap answer when the tree has none
+    private SearchResult bestSinglePly(Board board, List<Move> legalMoves, long start) {
+        Evaluator evaluator = Evaluator.of(board);
+        Piece.PieceColor side = board.getCurrentTurn();
+        Move best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (Move move : legalMoves) {
+            board.movePiece(move);
+            int score = evaluator.evaluate(board, side);
+            board.undoMove(move);
+            if (score > bestScore) {
+                best = move;
+                bestScore = score;
+            }
+        }
+        List<Move> line = List.of(best);
+        SearchStats stats = new SearchStats(1, playouts.get(), 0, 0, System.nanoTime() - start, line);
+        return new SearchResult(best, bestScore, stats);
+    }
+
+    // the caller works too, so a search still makes progress when every pool thread is busy with others
+    private void runWorkers() {
+        for (int worker = 1; worker < threads; worker++) {
+            long workerSeed = seed + worker * 0x9E3779B97F4A7C15L;
+            WORKERS.execute(() -> help(workerSeed));
+        }
+        work(seed);
+        // an interrupted caller stops the helpers too
+        boolean interrupted = Thread.currentThread().isInterrupted();
+        if (interrupted) {
+            stopped = true;
+        }
+        synchronized (helperLock) {
+            helpersClosed = true;
+            while (runningHelpers > 0) {
+                try {
+                    helperLock.wait();
+                } catch (InterruptedException e) {
+                    stopped = true;
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (helperFailure != null) {
+            throw new IllegalStateException("MCTS worker failed", helperFailure);
+        }
+    }
+
+    private void help(long workerSeed) {
+        synchronized (helperLock) {
+            if (helpersClosed) {
+                return;
+            }
+            runningHelpers++;
+        }
+        try {
+            work(workerSeed);
+        } catch (RuntimeException | Error e) {
+            helperFailure = e;
+        } finally {
+            synchronized (helperLock) {
+                runningHelpers--;
+                helperLock.notifyAll();
+            }
+        }
+    }
+
+    private void work(long workerSeed) {
+        SplittableRandom random = new SplittableRandom(workerSeed);
+        CompactBoard board = root.copy();
+        int[] moveBuffer = new int[CompactBoard.MAX_MOVES];
+        long[] captureBuffer = new long[CompactBoard.MAX_MOVES];
+        int[] path = new int[MAX_PLAYOUT_PLIES + 1];
+
+        while (!stopped && playouts.get() < maxPlayouts && System.nanoTime() < deadline
+                && !Thread.currentThread().isInterrupted()) {
+            board.copyFrom(root);
+            int length = descend(board, path, random, moveBuffer, captureBuffer);
+            int blackReward = playout(board, random, moveBuffer, captureBuffer);
+            backPropagate(path, length, blackReward);
+            playouts.incrementAndGet();
+        }
+    }
+
+    // walks down the tree by UCT, expanding the leaf it reaches once it has been visited; returns the path length
+    private int descend(CompactBoard board, int[] path, SplittableRandom random, int[] moveBuffer, long[] captureBuffer) {
+        int node = MctsTree.ROOT;
+        int length = 0;
+        path[length++] = node;
+        tree.addVirtualLoss(node, VIRTUAL_LOSS);
+
+        while (length < path.length) {
+            if (!tree.isExpanded(node)) {
+                if (tree.visits(node) <= VIRTUAL_LOSS || !tree.expand(node, board, moveBuffer, captureBuffer)) {
+                    break;
+                }
+            }
+            if (tree.childCount(node) == 0) {
+                break;
+            }
+            node = selectChild(node, random);
+            board.apply(tree.move(node), tree.captures(node));
+            path[length++] = node;
+            tree.addVirtualLoss(node, VIRTUAL_LOSS);
+        }
+        return length;
+    }
+
+    private int selectChild(int node, SplittableRandom random) {
+        int first = tree.firstChild(node);
+        int count = tree.childCount(node);
+        double logParent = Math.log(Math.max(1, tree.visits(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int unvisited = 0;
+        int pick = -1;
+
+        for (int child = first; child < first + count; child++) {
+            int visits = tree.visits(child);
+            if (visits == 0) {
+                // unvisited children first, one drawn uniformly by reservoir sampling
+                if (random.nextInt(++unvisited) == 0) {
+                    pick = child;
+                }
+                continue;
+            }
+            double value = tree.halfPoints(child) / (2.0 * visits) + EXPLORATION * Math.sqrt(logParent / visits);
+            if (value > bestValue) {
+                best = child;
+                bestValue = value;
+            }
+        }
+        return pick >= 0 ? pick : best;
+    }
+
+    // plays random moves to the end or the ply cap; returns the result for black in half points
+    private static int playout(CompactBoard board, SplittableRandom random, int[] moveBuffer, long[] captureBuffer) {
+        for (int ply = 0; ply < MAX_PLAYOUT_PLIES; ply++) {
+            int count = board.generateMoves(moveBuffer, captureBuffer);
+            // the side to move has no moves and loses
+            if (count == 0) {
+                return board.isBlackToMove() ? 0 : 2;
+            }
+
+            int chosen = random.nextInt(count);
+            for (int i = 0; i < count; i++) {
+                if (board.isPromotion(moveBuffer[i])) {
+                    chosen = i;
+                    break;
+                }
+            }
+            board.apply(moveBuffer[chosen], captureBuffer[chosen]);
+        }
+        int material = material(board.black(), board.kings()) - material(board.red(), board.kings());
+        return material > 0 ? 2 : material < 0 ? 0 : 1;
+    }
+
+    // a man is worth 2 and a king 3
+    private static int material(long pieces, long kings) {
+        return 2 * Long.bitCount(pieces) + Long.bitCount(pieces & kings);
+    }
+
+    // every node is credited from the side that moved into it, which alternates down the path
+    private void backPropagate(int[] path, int length, int blackReward) {
+        boolean blackMovedIn = !root.isBlackToMove();
+        for (int i = 0; i < length; i++) {
+            tree.update(path[i], VIRTUAL_LOSS, blackMovedIn ? blackReward : 2 - blackReward);
+            blackMovedIn = !blackMovedIn;
+        }
+    }
+
+    private int mostVisitedChild(int node) {
+        int first = tree.firstChild(node);
+        int best = first;
+        for (int child = first + 1; child < first + tree.childCount(node); child++) {
+            if (tree.visits(child) > tree.visits(best)) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // win rate of the chosen child as a score on the evaluator's scale, +-1000 for a certain result
+    private int score(int child) {
+        int visits = tree.visits(child);
+        if (visits == 0) {
+            return 0;
+        }
+        return (int) Math.round((tree.halfPoints(child) / (2.0 * visits) - 0.5) * 2000);
+    }
+
+    // most visited line from the root, as moves of the given board
+    private List<Move> principalVariation(Board board) {
+        List<Move> line = new ArrayList<>();
+        int node = MctsTree.ROOT;
+        while (tree.isExpanded(node) && tree.childCount(node) > 0) {
+            int child = mostVisitedChild(node);
+            if (tree.visits(child) == 0) {
+                break;
+            }
+            Move move = toBoardMove(board, child);
+            if (move == null) {
+                break;
+            }
+            board.movePiece(move);
+            line.add(move);
+            node = child;
+        }
+        for (int i = line.size() - 1; i >= 0; i--) {
+            board.undoMove(line.get(i));
+        }
+        return line;
+    }
+
+    private Move toBoardMove(Board board, int node) {
+        for (Move move : board.getLegalMoves()) {
+            if (CompactBoard.encode(move) == tree.move(node) && CompactBoard.capturedMask(move) == tree.captures(node)) {
+                return move;
+            }
+        }
+        return null;
+    }
+}
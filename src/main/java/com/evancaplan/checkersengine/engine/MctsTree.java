@@ -0,0 +1,106 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Search tree for MctsSearch held in a fixed pool of parallel arrays, allocated once per search.
+// The children of a node take a contiguous block claimed with a single atomic add, so growing the tree
+// never allocates; once the pool is full leaves simply stop being expanded.
+// A node's reward is counted in half points (win 2, draw 1) for the side that moved into it.
+final class MctsTree {
+
+    static final int ROOT = 0;
+
+    private static final int UNEXPANDED = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
+    private final int[] moves;
+    private final long[] captures;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final AtomicIntegerArray state;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray halfPoints;
+    private final AtomicInteger used = new AtomicInteger(1);
+
+    MctsTree(int capacity) {
+        int size = Math.max(2, capacity);
+        moves = new int[size];
+        captures = new long[size];
+        firstChild = new int[size];
+        childCount = new int[size];
+        state = new AtomicIntegerArray(size);
+        visits = new AtomicIntegerArray(size);
+        halfPoints = new AtomicIntegerArray(size);
+    }
+
+    // expands the node from the board's moves unless another thread is already at it;
+    // false when the node can't be expanded, because it was taken or the pool is full
+    boolean expand(int node, CompactBoard board, int[] moveBuffer, long[] captureBuffer) {
+        if (!state.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+            return false;
+        }
+        int count = board.generateMoves(moveBuffer, captureBuffer);
+        int first = used.getAndAdd(count);
+        if (first + count > moves.length) {
+            // full, this leaf stays a leaf
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            moves[first + i] = moveBuffer[i];
+            captures[first + i] = captureBuffer[i];
+        }
+        firstChild[node] = first;
+        childCount[node] = count;
+        // the volatile write publishes the children to threads that see the node expanded
+        state.set(node, EXPANDED);
+        return true;
+    }
+
+    boolean isExpanded(int node) {
+        return state.get(node) == EXPANDED;
+    }
+
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    int childCount(int node) {
+        return childCount[node];
+    }
+
+    int move(int node) {
+        return moves[node];
+    }
+
+    long captures(int node) {
+        return captures[node];
+    }
+
+    int visits(int node) {
+        return visits.get(node);
+    }
+
+    int halfPoints(int node) {
+        return halfPoints.get(node);
+    }
+
+    // counts a visit with no reward yet, steering other threads away until the playout reports back
+    void addVirtualLoss(int node, int virtualLoss) {
+        visits.addAndGet(node, virtualLoss);
+    }
+
+    void update(int node, int virtualLoss, int reward) {
+        visits.addAndGet(node, 1 - virtualLoss);
+        halfPoints.addAndGet(node, reward);
+    }
+
+    int used() {
+        return Math.min(used.get(), moves.length);
+    }
+
+    int capacity() {
+        return moves.length;
+    }
+}
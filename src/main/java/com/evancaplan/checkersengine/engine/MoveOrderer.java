@@ -0,0 +1,126 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Orders the generated moves before alpha-beta walks them:
+// hash move first, then captures by number of pieces taken, then killer moves, then the history table.
+// Killers and history are learned from beta cutoffs and live as long as the orderer.
+public class MoveOrderer {
+
+    public static final int MAX_PLY = 128;
+
+    private static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = 1 << 27;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    // history values are halved before they can reach the killer band
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    private final boolean enabled;
+    private final int[][] killers = new int[MAX_PLY][2];
+    // [color][from square][to square]
+    private final int[] history = new int[2 * SQUARES * SQUARES];
+
+    public MoveOrderer() {
+        this(true);
+    }
+
+    // a disabled orderer keeps generator order, used as the baseline when benchmarking
+    public MoveOrderer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Move> order(List<Move> moves, int hashMove, int ply, Piece.PieceColor side) {
+        if (!enabled || moves.size() < 2) {
+            return moves;
+        }
+
+        int count = moves.size();
+        Move[] ordered = moves.toArray(new Move[0]);
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(ordered[i], hashMove, ply, side);
+        }
+
+        // insertion sort, move lists are short and mostly need only a few swaps
+        for (int i = 1; i < count; i++) {
+            Move move = ordered[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                ordered[j + 1] = ordered[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            ordered[j + 1] = move;
+            scores[j + 1] = score;
+        }
+
+        List<Move> result = new ArrayList<>(count);
+        for (Move move : ordered) {
+            result.add(move);
+        }
+        return result;
+    }
+
+    // quiet moves that cause a cutoff become killers and earn history proportional to depth
+    public void recordCutoff(Move move, int depth, int ply, Piece.PieceColor side) {
+        if (!enabled || move.isCapture()) {
+            return;
+        }
+
+        int key = move.encode();
+        if (ply < MAX_PLY && killers[ply][0] != key) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = key;
+        }
+
+        int index = historyIndex(move, side);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    public void clear() {
+        for (int[] killer : killers) {
+            killer[0] = 0;
+            killer[1] = 0;
+        }
+        Arrays.fill(history, 0);
+    }
+
+    private int score(Move move, int hashMove, int ply, Piece.PieceColor side) {
+        int key = move.encode();
+        if (key == hashMove) {
+            return HASH_MOVE_SCORE;
+        }
+        if (move.isCapture()) {
+            return CAPTURE_SCORE + move.getCapturedPieces().size();
+        }
+        if (ply < MAX_PLY) {
+            if (killers[ply][0] == key) {
+                return FIRST_KILLER_SCORE;
+            }
+            if (killers[ply][1] == key) {
+                return SECOND_KILLER_SCORE;
+            }
+        }
+        return history[historyIndex(move, side)];
+    }
+
+    private static int historyIndex(Move move, Piece.PieceColor side) {
+        int from = move.getFromRow() * Board.BOARD_SIZE + move.getFromCol();
+        int to = move.getToRow() * Board.BOARD_SIZE + move.getToCol();
+        return (side.ordinal() * SQUARES + from) * SQUARES + to;
+    }
+}
@@ -0,0 +1,46 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+
+import java.util.List;
+
+// counts the leaf positions of the full move tree, a full capture sequence counts as a single move
+public final class Perft {
+
+    private Perft() {
+    }
+
+    public static long perft(Board board, int depth) {
+        List<Move> moves = board.getLegalMoves();
+        if (depth <= 1) {
+            return depth == 1 ? moves.size() : 1;
+        }
+
+        long nodes = 0;
+        for (Move move : moves) {
+            board.movePiece(move);
+            nodes += perft(board, depth - 1);
+            board.undoMove(move);
+        }
+        return nodes;
+    }
+
+    // the same count on a compact board, which must agree with Board's
+    public static long perft(CompactBoard board, int depth) {
+        int[] moves = new int[CompactBoard.MAX_MOVES];
+        long[] captures = new long[CompactBoard.MAX_MOVES];
+        int count = board.generateMoves(moves, captures);
+        if (depth <= 1) {
+            return depth == 1 ? count : 1;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            CompactBoard next = board.copy();
+            next.apply(moves[i], captures[i]);
+            nodes += perft(next, depth - 1);
+        }
+        return nodes;
+    }
+}
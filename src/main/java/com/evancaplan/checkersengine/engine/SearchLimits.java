@@ -0,0 +1,16 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+
+// budget for one search; the first iteration always completes so there is a move to play
+public record SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    // the depth, node and time budgets of a difficulty
+    public static SearchLimits of(Difficulty difficulty) {
+        return new SearchLimits(difficulty.getMaxDepth(), difficulty.getMaxNodes(), difficulty.getMaxTimeMillis());
+    }
+}
@@ -0,0 +1,11 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Move;
+
+// outcome of a search: the move to play, its score for the side to move and how the search got there
+public record SearchResult(Move bestMove, int score, SearchStats stats) {
+
+    public int depth() {
+        return stats.depth();
+    }
+}
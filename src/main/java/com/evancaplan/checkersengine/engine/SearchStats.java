@@ -0,0 +1,28 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Move;
+
+import java.util.List;
+
+// what a single search did: deepest completed iteration, work done, table usage, time and principal variation
+public record SearchStats(int depth,
+                          long nodes,
+                          long tableProbes,
+                          long tableHits,
+                          long elapsedNanos,
+                          List<Move> principalVariation) {
+
+    public static final SearchStats EMPTY = new SearchStats(0, 0, 0, 0, 0, List.of());
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes / (elapsedNanos / 1e9));
+    }
+
+    public double tableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.PositionHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Generates labelled positions for tuning by playing the engine against itself from random openings.
+// Both sides search to a fixed depth with a little evaluation noise, so games from the same opening
+// still differ. Every quiet position (no capture for the side to move) after the opening is kept and
+// labelled with the game's result; games the draw rules or the ply cap end count as draws.
+public class SelfPlay {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_NOISE = 20;
+
+    private static final int TABLE_ENTRIES = 1 << 14;
+
+    private final int depth;
+    private final int noise;
+
+    public SelfPlay(int depth, int noise) {
+        this.depth = depth;
+        this.noise = noise;
+    }
+
+    public TrainingSet generate(int games, int threads, long seed) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<TrainingSet>> futures = new ArrayList<>(games);
+            for (int game = 0; game < games; game++) {
+                long gameSeed = seed + game * 0x9E3779B97F4A7C15L;
+                futures.add(executor.submit(() -> play(gameSeed)));
+            }
+
+            TrainingSet positions = new TrainingSet(games * 64);
+            for (Future<TrainingSet> future : futures) {
+                positions.addAll(future.get());
+            }
+            return positions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Self-play interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self-play game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TrainingSet play(long seed) {
+        Random random = new Random(seed);
+        Board board = Arena.randomOpening(random);
+        PositionHistory history = new PositionHistory(board);
+        AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_ENTRIES), new MoveOrderer(),
+                noise, random.nextLong());
+        List<CompactBoard> quiet = new ArrayList<>();
+
+        for (int ply = 0; ply < Arena.MAX_PLIES && board.getGameEnd() == null; ply++) {
+            if (!board.getLegalMoves().getFirst().isCapture()) {
+                quiet.add(CompactBoard.from(board));
+            }
+            SearchResult result = search.search(board, depth);
+            board.movePiece(board.findLegalMove(result.bestMove()));
+            history.record(board);
+            GameEnd draw = history.draw(PositionHistory.DEFAULT_NO_CAPTURE_LIMIT);
+            if (draw != null) {
+                board.declareDraw(draw);
+            }
+        }
+
+        Piece.PieceColor winner = board.getWinner();
+        int label = winner == null ? TrainingSet.DRAW
+                : winner == Piece.PieceColor.BLACK ? TrainingSet.BLACK_WIN : TrainingSet.RED_WIN;
+        TrainingSet positions = new TrainingSet(quiet.size());
+        for (CompactBoard position : quiet) {
+            positions.add(position, label);
+        }
+        return positions;
+    }
+}
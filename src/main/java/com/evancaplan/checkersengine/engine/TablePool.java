@@ -0,0 +1,59 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transposition tables kept between searches, so a move doesn't allocate a table of up to 1 << 20 entries
+// only to drop it after the search. A table is handed out cleared, by generation, and only as many idle
+// tables of a size are kept as there are cores to search with; anything beyond that is left to the GC.
+public final class TablePool {
+
+    // shared by the engines, hints and pondering
+    public static final TablePool SHARED = new TablePool(Runtime.getRuntime().availableProcessors());
+
+    private final int maxIdle;
+    private final Map<Integer, Idle> idle = new ConcurrentHashMap<>();
+
+    public TablePool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    // an empty table of at least this many entries, reused when one is idle
+    public TranspositionTable acquire(int entries) {
+        Idle tables = idle(TranspositionTable.sizeFor(entries));
+        TranspositionTable table = tables.queue.poll();
+        if (table == null) {
+            return new TranspositionTable(entries);
+        }
+        tables.count.decrementAndGet();
+        table.clear();
+        return table;
+    }
+
+    // hands a table back once its search is done with it
+    public void release(TranspositionTable table) {
+        Idle tables = idle(table.size());
+        if (tables.count.incrementAndGet() <= maxIdle) {
+            tables.queue.offer(table);
+        } else {
+            tables.count.decrementAndGet();
+        }
+    }
+
+    // idle tables of every size
+    int idleTables() {
+        return idle.values().stream().mapToInt(tables -> tables.count.get()).sum();
+    }
+
+    private Idle idle(int size) {
+        return idle.computeIfAbsent(size, s -> new Idle());
+    }
+
+    private static final class Idle {
+        private final Queue<TranspositionTable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger count = new AtomicInteger();
+    }
+}
@@ -0,0 +1,227 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.BoardGeometry;
+
+import java.util.stream.IntStream;
+
+// Texel-style tuning of the evaluation weights against game results.
+// The evaluation is linear in its weights, so every position is reduced once to six feature counts
+// (black minus red) and the score is their dot product with the weights. The tuner minimises the mean
+// squared error between the result and sigmoid(scale * score), first fitting the scale to the starting
+// weights, then running Adam on the weights. The man weight stays fixed as the unit of the scale.
+// Features and results live in flat primitive arrays; loss and gradient are summed over chunks in parallel
+// on the common fork-join pool.
+public final class TexelTuner {
+
+    public static final int FEATURES = 6;
+
+    static final int MAN = 0;
+    static final int KING = 1;
+    static final int ADVANCEMENT = 2;
+    static final int BACK_RANK_GUARD = 3;
+    static final int CENTER_CONTROL = 4;
+    static final int MOBILITY = 5;
+
+    private static final int CHUNK = 4_096;
+    private static final long CENTER = centerMask();
+    private static final long BLACK_BACK_RANK = 0xFFL;
+    private static final long RED_BACK_RANK = 0xFFL << 56;
+
+    private final int size;
+    // FEATURES counts per position
+    private final int[] features;
+    // black's result per position: 0 lost, 0.5 drawn, 1 won
+    private final double[] results;
+
+    public TexelTuner(TrainingSet positions) {
+        size = positions.size();
+        features = new int[size * FEATURES];
+        results = new double[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            extract(positions.position(i), features, i * FEATURES);
+            results[i] = positions.result(i) / 2.0;
+        });
+    }
+
+    // the tuned weights with the scale and the loss before and after
+    public record Tuned(EvaluationWeights weights, double scale, double initialLoss, double finalLoss) {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Tuned tune(EvaluationWeights start, int iterations, double learningRate) {
+        double[] weights = toArray(start);
+        double scale = fitScale(weights);
+        double initialLoss = loss(weights, scale);
+
+        double[] firstMoment = new double[FEATURES];
+        double[] secondMoment = new double[FEATURES];
+        for (int step = 1; step <= iterations; step++) {
+            double[] gradient = gradient(weights, scale);
+            for (int j = 0; j < FEATURES; j++) {
+                if (j == MAN) {
+                    continue;
+                }
+                firstMoment[j] = 0.9 * firstMoment[j] + 0.1 * gradient[j];
+                secondMoment[j] = 0.999 * secondMoment[j] + 0.001 * gradient[j] * gradient[j];
+                double corrected = firstMoment[j] / (1 - Math.pow(0.9, step));
+                double spread = Math.sqrt(secondMoment[j] / (1 - Math.pow(0.999, step)));
+                weights[j] -= learningRate * corrected / (spread + 1e-12);
+            }
+        }
+
+        EvaluationWeights tuned = fromArray(weights);
+        return new Tuned(tuned, scale, initialLoss, loss(toArray(tuned), scale));
+    }
+
+    // mean squared error of sigmoid(scale * score) against the results
+    public double loss(double[] weights, double scale) {
+        if (size == 0) {
+            return 0;
+        }
+        return IntStream.range(0, chunks()).parallel()
+                .mapToDouble(chunk -> {
+                    double sum = 0;
+                    for (int i = chunk * CHUNK, end = Math.min(size, i + CHUNK); i < end; i++) {
+                        double error = results[i] - sigmoid(scale * score(weights, i));
+                        sum += error * error;
+                    }
+                    return sum;
+                })
+                .sum() / size;
+    }
+
+    // the scale that fits the weights' scores best, by golden-section search; the loss is unimodal in it
+    public double fitScale(double[] weights) {
+        double golden = (Math.sqrt(5) - 1) / 2;
+        double low = 0;
+        double high = 0.1;
+        for (int i = 0; i < 60; i++) {
+            double left = high - golden * (high - low);
+            double right = low + golden * (high - low);
+            if (loss(weights, left) <= loss(weights, right)) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    // the features of one position in the order of toArray, black minus red
+    static void extract(CompactBoard board, int[] out, int offset) {
+        long blackMen = board.black() & ~board.kings();
+        long redMen = board.red() & ~board.kings();
+        out[offset + MAN] = Long.bitCount(blackMen) - Long.bitCount(redMen);
+        out[offset + KING] = Long.bitCount(board.black() & board.kings()) - Long.bitCount(board.red() & board.kings());
+        out[offset + ADVANCEMENT] = advancement(blackMen, true) - advancement(redMen, false);
+        out[offset + BACK_RANK_GUARD] = Long.bitCount(blackMen & BLACK_BACK_RANK) - Long.bitCount(redMen & RED_BACK_RANK);
+        out[offset + CENTER_CONTROL] = Long.bitCount(board.black() & CENTER) - Long.bitCount(board.red() & CENTER);
+        out[offset + MOBILITY] = mobility(board, true) - mobility(board, false);
+    }
+
+    static double[] toArray(EvaluationWeights weights) {
+        double[] array = new double[FEATURES];
+        array[MAN] = weights.getMan();
+        array[KING] = weights.getKing();
+        array[ADVANCEMENT] = weights.getAdvancement();
+        array[BACK_RANK_GUARD] = weights.getBackRankGuard();
+        array[CENTER_CONTROL] = weights.getCenterControl();
+        array[MOBILITY] = weights.getMobility();
+        return array;
+    }
+
+    static EvaluationWeights fromArray(double[] array) {
+        return EvaluationWeights.builder()
+                .man((int) Math.round(array[MAN]))
+                .king((int) Math.round(array[KING]))
+                .advancement((int) Math.round(array[ADVANCEMENT]))
+                .backRankGuard((int) Math.round(array[BACK_RANK_GUARD]))
+                .centerControl((int) Math.round(array[CENTER_CONTROL]))
+                .mobility((int) Math.round(array[MOBILITY]))
+                .build();
+    }
+
+    // d loss / d weight, averaged over every position
+    private double[] gradient(double[] weights, double scale) {
+        double[] sum = IntStream.range(0, chunks()).parallel().collect(
+                () -> new double[FEATURES],
+                (partial, chunk) -> {
+                    for (int i = chunk * CHUNK, end = Math.min(size, i + CHUNK); i < end; i++) {
+                        double predicted = sigmoid(scale * score(weights, i));
+                        double slope = -2 * (results[i] - predicted) * predicted * (1 - predicted) * scale;
+                        for (int j = 0; j < FEATURES; j++) {
+                            partial[j] += slope * features[i * FEATURES + j];
+                        }
+                    }
+                },
+                (left, right) -> {
+                    for (int j = 0; j < FEATURES; j++) {
+                        left[j] += right[j];
+                    }
+                });
+        for (int j = 0; j < FEATURES; j++) {
+            sum[j] /= Math.max(1, size);
+        }
+        return sum;
+    }
+
+    private double score(double[] weights, int position) {
+        double score = 0;
+        for (int j = 0, base = position * FEATURES; j < FEATURES; j++) {
+            score += weights[j] * features[base + j];
+        }
+        return score;
+    }
+
+    private int chunks() {
+        return (size + CHUNK - 1) / CHUNK;
+    }
+
+    private static double sigmoid(double x) {
+        return 1 / (1 + Math.exp(-x));
+    }
+
+    // rows each man has come from its own back rank
+    private static int advancement(long men, boolean black) {
+        int total = 0;
+        for (long pieces = men; pieces != 0; pieces &= pieces - 1) {
+            int row = Long.numberOfTrailingZeros(pieces) / Board.BOARD_SIZE;
+            total += black ? row : Board.BOARD_SIZE - 1 - row;
+        }
+        return total;
+    }
+
+    // non-capturing steps available to a side, whoever is to move, like Board.getMobility
+    private static int mobility(CompactBoard board, boolean black) {
+        long own = black ? board.black() : board.red();
+        long empty = ~(board.black() | board.red());
+        int forward = black ? 1 : -1;
+        int mobility = 0;
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            boolean man = (board.kings() & 1L << from) == 0;
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                int to = BoardGeometry.neighbor(from, direction);
+                if (to != BoardGeometry.NONE && (empty & 1L << to) != 0
+                        && (!man || BoardGeometry.ROW_STEP[direction] == forward)) {
+                    mobility++;
+                }
+            }
+        }
+        return mobility;
+    }
+
+    private static long centerMask() {
+        long mask = 0;
+        for (int row = 3; row <= 4; row++) {
+            for (int col = 2; col <= 5; col++) {
+                mask |= 1L << (row * Board.BOARD_SIZE + col);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,112 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Labelled positions for evaluation tuning, kept in the CompactBoard form in parallel primitive arrays.
+// The result is the game's outcome from black's point of view: 0 lost, 1 drawn, 2 won.
+// On disk: a magic number and the count, then per position the three bitboards and one byte
+// holding the side to move (bit 0) and the result (bits 1-2), 25 bytes each.
+public final class TrainingSet {
+
+    public static final int RED_WIN = 0;
+    public static final int DRAW = 1;
+    public static final int BLACK_WIN = 2;
+
+    private static final int MAGIC = 0x434B5453;
+
+    private long[] black;
+    private long[] red;
+    private long[] kings;
+    private byte[] flags;
+    private int size;
+
+    public TrainingSet() {
+        this(1024);
+    }
+
+    public TrainingSet(int capacity) {
+        int initial = Math.max(capacity, 16);
+        black = new long[initial];
+        red = new long[initial];
+        kings = new long[initial];
+        flags = new byte[initial];
+    }
+
+    public void add(CompactBoard board, int result) {
+        if (result < RED_WIN || result > BLACK_WIN) {
+            throw new IllegalArgumentException("Unknown result " + result);
+        }
+        if (size == flags.length) {
+            int capacity = size * 2;
+            black = Arrays.copyOf(black, capacity);
+            red = Arrays.copyOf(red, capacity);
+            kings = Arrays.copyOf(kings, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        black[size] = board.black();
+        red[size] = board.red();
+        kings[size] = board.kings();
+        flags[size] = (byte) ((board.isBlackToMove() ? 1 : 0) | result << 1);
+        size++;
+    }
+
+    public void addAll(TrainingSet other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.position(i), other.result(i));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CompactBoard position(int index) {
+        return new CompactBoard(black[index], red[index], kings[index], (flags[index] & 1) != 0);
+    }
+
+    public int result(int index) {
+        return flags[index] >> 1;
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(black[i]);
+                out.writeLong(red[i]);
+                out.writeLong(kings[i]);
+                out.writeByte(flags[i]);
+            }
+        }
+    }
+
+    // throws IOException for a file that isn't a training set
+    public static TrainingSet read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a training set");
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException(file + " has a negative position count");
+            }
+            TrainingSet set = new TrainingSet(count);
+            for (int i = 0; i < count; i++) {
+                set.black[i] = in.readLong();
+                set.red[i] = in.readLong();
+                set.kings[i] = in.readLong();
+                set.flags[i] = in.readByte();
+            }
+            set.size = count;
+            return set;
+        }
+    }
+}
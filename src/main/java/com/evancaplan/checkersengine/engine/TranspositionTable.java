@@ -0,0 +1,87 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.util.Arrays;
+
+// Fixed-size transposition table over primitive arrays, indexed by the low bits of the position hash.
+// An entry is replaced when it belongs to another position or was searched to no greater depth.
+// Every entry is stamped with the table's generation, so clearing moves on to the next generation
+// instead of wiping the arrays and a table can be reused from search to search (see TablePool).
+public class TranspositionTable {
+
+    public static final byte EXACT = 0;
+    public static final byte LOWER_BOUND = 1;
+    public static final byte UPPER_BOUND = 2;
+
+    private final long[] keys;
+    private final int[] moves;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] flags;
+    private final byte[] generations;
+    private final int mask;
+    private byte generation;
+
+    // entries is rounded up to the next power of two
+    public TranspositionTable(int entries) {
+        int size = sizeFor(entries);
+        keys = new long[size];
+        moves = new int[size];
+        scores = new int[size];
+        depths = new byte[size];
+        flags = new byte[size];
+        generations = new byte[size];
+        mask = size - 1;
+    }
+
+    // the number of entries a table asked for this many has
+    public static int sizeFor(int entries) {
+        return Integer.highestOneBit(Math.max(1, entries - 1)) << 1;
+    }
+
+    // index of the entry for this position, or -1 when it isn't stored
+    public int probe(long key) {
+        int index = (int) key & mask;
+        return keys[index] == key && generations[index] == generation && moves[index] != 0 ? index : -1;
+    }
+
+    public void store(long key, int depth, int score, byte flag, int move) {
+        int index = (int) key & mask;
+        if (keys[index] == key && generations[index] == generation && depths[index] > depth) {
+            return;
+        }
+        keys[index] = key;
+        generations[index] = generation;
+        depths[index] = (byte) depth;
+        scores[index] = score;
+        flags[index] = flag;
+        moves[index] = move;
+    }
+
+    public int move(int index) {
+        return moves[index];
+    }
+
+    public int score(int index) {
+        return scores[index];
+    }
+
+    public int depth(int index) {
+        return depths[index];
+    }
+
+    public byte flag(int index) {
+        return flags[index];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // forgets every entry; the stamps are only wiped when the generation wraps around
+    public void clear() {
+        if (++generation == 0) {
+            Arrays.fill(generations, (byte) 0);
+            generation = 1;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.evancaplan.checkersengine.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Command line entry point for evaluation tuning:
+//   TunerRunner generate <positions-file> [games] [threads] [seed] [depth]
+//   TunerRunner tune <positions-file> <weights-file> [iterations] [learning-rate]
+// e.g. ./gradlew tune -PtuneArgs="generate positions.bin 20000 8"
+//      ./gradlew tune -PtuneArgs="tune positions.bin weights.properties 1000"
+// then start the server with checkers.ai.weights.file=weights.properties
+public final class TunerRunner {
+
+    private TunerRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("generate")) {
+            generate(args);
+        } else if (args.length >= 3 && args[0].equals("tune")) {
+            tune(args);
+        } else {
+            System.err.println("usage: TunerRunner generate <positions-file> [games] [threads] [seed] [depth]");
+            System.err.println("       TunerRunner tune <positions-file> <weights-file> [iterations] [learning-rate]");
+            System.exit(2);
+        }
+    }
+
+    private static void generate(String[] args) throws IOException {
+        Path file = Path.of(args[1]);
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int depth = args.length > 5 ? Integer.parseInt(args[5]) : SelfPlay.DEFAULT_DEPTH;
+
+        System.out.printf("%d self-play games at depth %d on %d threads, seed %d%n", games, depth, threads, seed);
+        long start = System.nanoTime();
+        TrainingSet positions = new SelfPlay(depth, SelfPlay.DEFAULT_NOISE).generate(games, threads, seed);
+        positions.write(file);
+        System.out.printf("%d positions written to %s in %.1f s%n", positions.size(), file,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void tune(String[] args) throws IOException {
+        TrainingSet positions = TrainingSet.read(Path.of(args[1]));
+        Path weightsFile = Path.of(args[2]);
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        double learningRate = args.length > 4 ? Double.parseDouble(args[4]) : 1.0;
+
+        long start = System.nanoTime();
+        TexelTuner.Tuned tuned = new TexelTuner(positions).tune(EvaluationWeights.builder().build(),
+                iterations, learningRate);
+        String summary = String.format("%d positions, %d iterations, scale %.5f, loss %.5f -> %.5f",
+                positions.size(), iterations, tuned.scale(), tuned.initialLoss(), tuned.finalLoss());
+        tuned.weights().store(weightsFile, "tuned over " + summary);
+        System.out.println(summary);
+        System.out.println(tuned.weights());
+        System.out.printf("written to %s in %.1f s%n", weightsFile, (System.nanoTime() - start) / 1e9);
+    }
+}
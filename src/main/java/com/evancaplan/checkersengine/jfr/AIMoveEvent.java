@@ -0,0 +1,40 @@
+package com.evancaplan.checkersengine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// MoveService.generateAIMove, from the cache lookup to the resolved move
+@Name("checkers.AIMove")
+@Label("AI Move")
+@Category({"Checkers", "Engine"})
+@Description("Choosing the AI's move, from the shared result cache or by searching")
+@Enabled(false)
+@StackTrace(false)
+public class AIMoveEvent extends jdk.jfr.Event {
+
+    @Label("Game Id Hash")
+    public int gameIdHash;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Cached")
+    @Description("Whether the move came from the shared result cache without searching")
+    public boolean cached;
+}
@@ -0,0 +1,32 @@
+package com.evancaplan.checkersengine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a game created, retired from the active set once finished, or evicted from the finished store
+@Name("checkers.GameLifecycle")
+@Label("Game Lifecycle")
+@Category({"Checkers", "Games"})
+@Enabled(false)
+@StackTrace(false)
+public class GameLifecycleEvent extends jdk.jfr.Event {
+
+    public static final String CREATED = "created";
+    public static final String RETIRED = "retired";
+    public static final String EVICTED = "evicted";
+
+    @Label("Game Id Hash")
+    public int gameIdHash;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Game End")
+    public String gameEnd;
+}
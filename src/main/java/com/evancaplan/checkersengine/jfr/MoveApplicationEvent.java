@@ -0,0 +1,31 @@
+package com.evancaplan.checkersengine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Board.movePiece, on live games and on search copies alike
+@Name("checkers.MoveApplication")
+@Label("Move Application")
+@Category({"Checkers", "Moves"})
+@Description("Applying a move to a board, searches included")
+@Enabled(false)
+@StackTrace(false)
+public class MoveApplicationEvent extends jdk.jfr.Event {
+
+    @Label("Game Id Hash")
+    public int gameIdHash;
+
+    @Label("Ply")
+    @Description("Ply of the position the move was played from")
+    public int ply;
+
+    @Label("Captures")
+    public int captures;
+
+    @Label("Promotion")
+    public boolean promotion;
+}
@@ -0,0 +1,31 @@
+package com.evancaplan.checkersengine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Board.isValidMove on a requested move
+@Name("checkers.MoveValidation")
+@Label("Move Validation")
+@Category({"Checkers", "Moves"})
+@Description("Checking a requested move against the legal moves of the position")
+@Enabled(false)
+@StackTrace(false)
+public class MoveValidationEvent extends jdk.jfr.Event {
+
+    @Label("Game Id Hash")
+    public int gameIdHash;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Cached")
+    @Description("Whether the legal moves of the position had already been generated")
+    public boolean cached;
+}
@@ -1,11 +1,11 @@
 package com.evancaplan.checkersengine.model;
 
+import com.evancaplan.checkersengine.jfr.MoveApplicationEvent;
+import com.evancaplan.checkersengine.jfr.MoveValidationEvent;
 import lombok.*;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 
 import static com.evancaplan.checkersengine.model.Piece.PieceColor.BLACK;
 import static com.evancaplan.checkersengine.model.Piece.PieceColor.RED;
@@ -14,19 +14,30 @@ import static com.evancaplan.checkersengine.model.Piece.PieceColor.RED;
 @AllArgsConstructor
 @Builder
 public class Board {
-    // valid diagonal movements
-    private static final int[][] BASIC_MOVE_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
     public static final int BOARD_SIZE = 8;
     public static final int NUM_PIECES = 12;
 
-    // lockdown getter in case someone wants to manipulate the board directly
+    // the board's own squares and piece lists, null while it only refers to a shared position.
+    // Methods read it once and keep to that one, so it can be dropped under a reader's feet
     @Builder.Default
     @Getter(AccessLevel.NONE)
-    private Piece[][] squares = new Piece[BOARD_SIZE][BOARD_SIZE];
-    @Builder.Default
-    private List<Piece> redPieces = new ArrayList<>();
-    @Builder.Default
-    private List<Piece> blackPieces = new ArrayList<>();
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile Pieces pieces = new Pieces();
+
+    // the position the board is in while it has no pieces of its own, guarded by shareLock
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Position shared;
+
+    // not the board's own monitor, which belongs to whoever plays the game and is held through a whole move
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Object shareLock = new Object();
 
     // default to black first
     @Builder.Default
@@ -34,12 +45,114 @@ public class Board {
 
     private boolean isSinglePlayer;
 
+    // strength of the AI opponent in single player games
+    @Builder.Default
+    private Difficulty difficulty = Difficulty.MEDIUM;
+
+    // name of the engine choosing the AI's moves, null for the default one
+    private String engine;
+
+    // hash of the id of the game the board belongs to, 0 for none, tagging its flight recorder events
+    @EqualsAndHashCode.Exclude
+    private int gameIdHash;
+
+    // moves played on this board, undone moves taken off again
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private int ply;
+
+    // set once a draw rule or the clock ends the game, the position alone can't show that
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private GameEnd declaredEnd;
+
+    // bumped on every mutation so derived data (like the legal move list) can be cached per position
+    @Setter(AccessLevel.NONE)
+    private long version;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile LegalMoves legalMoves;
+
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private PieceValues pieceValues = PieceValues.NONE;
+
+    // running piece-square score from black's point of view, kept current by every mutation and undo
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private int staticScore;
+
+    // zobrist hash of the pieces and side to move, kept current alongside the static score
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private long positionHash;
+
     public static Board createStandardBoard(boolean isSinglePlayer) {
-        Board board = Board.builder().isSinglePlayer(isSinglePlayer).build();
+        return createStandardBoard(isSinglePlayer, Difficulty.MEDIUM);
+    }
+
+    public static Board createStandardBoard(boolean isSinglePlayer, Difficulty difficulty) {
+        Board board = Board.builder().isSinglePlayer(isSinglePlayer).difficulty(difficulty).build();
         board.initializePieces();
         return board;
     }
 
+    // deep copy with its own pieces at the same version, so a search can move and undo without touching the
+    // live game. The copy of a board that shares its position shares it too, and makes its pieces when it
+    // needs them
+    public Board copy() {
+        Board copy = Board.builder()
+                .isSinglePlayer(isSinglePlayer)
+                .difficulty(difficulty)
+                .engine(engine)
+                .pieceValues(pieceValues)
+                .gameIdHash(gameIdHash)
+                .ply(ply)
+                .build();
+        Position position = sharedPosition();
+        if (position != null) {
+            copy.shareFrom(this, position);
+        } else {
+            Pieces own = pieces();
+            for (Piece piece : own.black()) {
+                copy.addPiece(new Piece(piece.getColor(), piece.isKing(), piece.getRow(), piece.getColumn()));
+            }
+            for (Piece piece : own.red()) {
+                copy.addPiece(new Piece(piece.getColor(), piece.isKing(), piece.getRow(), piece.getColumn()));
+            }
+            copy.setCurrentTurn(currentTurn);
+        }
+        // a draw or timeout can't be seen from the pieces, so the copy has to be told
+        copy.declaredEnd = declaredEnd;
+        copy.version = version;
+        return copy;
+    }
+
+    // Lets go of the board's own pieces and keeps a reference to the position they are in instead, which
+    // the game's history holds anyway, while the game waits for its next move. The pieces are made again
+    // from the position when something next reads or moves them, as new objects: a Piece or Move taken from
+    // the board before is no longer on it, so whoever shares a board reads it only through copies.
+    // throws IllegalArgumentException for a position the board isn't in
+    public void share(Position position) {
+        if (position.hash() != positionHash || (position.blackToMove() != (currentTurn == BLACK))) {
+            throw new IllegalArgumentException("Board is not in the shared position");
+        }
+        synchronized (shareLock) {
+            shared = position;
+            pieces = null;
+            legalMoves = null;
+        }
+    }
+
+    // whether the board currently has no pieces of its own
+    public boolean isShared() {
+        return pieces == null;
+    }
+
     private void initializePieces() {
         // set black on rows 0-2
         initializePieces(BLACK, 0, 2);
@@ -48,21 +161,56 @@ public class Board {
     }
 
     private void initializePieces(Piece.PieceColor color, int fromRow, int toRow) {
+        Pieces own = pieces();
         for (int row = fromRow; row <= toRow; row++) {
             for (int col = 0; col < BOARD_SIZE; col++) {
                 // only place pieces on dark squares (row+column is odd)
                 if ((row + col) % 2 == 1) {
                     Piece piece = new Piece(color, row, col);
-                    squares[row][col] = piece;
-                    (color == RED ? redPieces : blackPieces).add(piece);
+                    own.squares()[row * BOARD_SIZE + col] = piece;
+                    staticScore += pieceValues.signedValue(piece);
+                    positionHash ^= Zobrist.pieceKey(piece);
+                    (color == RED ? own.red() : own.black()).add(piece);
+                }
+            }
+        }
+    }
+
+    public void setCurrentTurn(Piece.PieceColor currentTurn) {
+        if (this.currentTurn != currentTurn) {
+            positionHash ^= Zobrist.RED_TO_MOVE;
+        }
+        this.currentTurn = currentTurn;
+        version++;
+    }
+
+    // switching values rescores the whole board once, every later update is incremental again
+    public void setPieceValues(PieceValues pieceValues) {
+        this.pieceValues = pieceValues;
+        this.staticScore = pieceValues.staticScore(this);
+    }
+
+    // number of non-capturing steps available to a side, counted without building Move objects
+    public int getMobility(Piece.PieceColor color) {
+        Pieces own = pieces();
+        Piece[] squares = own.squares();
+        int mobility = 0;
+        for (Piece piece : own.of(color)) {
+            int from = squareOf(piece);
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                int to = BoardGeometry.neighbor(from, direction);
+                if (to != BoardGeometry.NONE && squares[to] == null
+                        && piece.isValidDirectionalMove(BoardGeometry.ROW_STEP[direction])) {
+                    mobility++;
                 }
             }
         }
+        return mobility;
     }
 
     public Piece getPieceAt(int row, int col) {
         if (isOnBoard(row, col)) {
-            return squares[row][col];
+            return pieces().squares()[row * BOARD_SIZE + col];
         }
         return null;
     }
@@ -70,80 +218,254 @@ public class Board {
     // public only for test set up purposes
     public void setPieceAt(int row, int col, Piece piece) {
         if (isOnBoard(row, col)) {
-            squares[row][col] = piece;
+            Piece[] squares = pieces().squares();
+            Piece previous = squares[row * BOARD_SIZE + col];
+            if (previous != null) {
+                staticScore -= pieceValues.signedValue(previous.getColor(), previous.isKing(), row, col);
+                positionHash ^= Zobrist.pieceKey(previous.getColor(), previous.isKing(), row, col);
+            }
+            squares[row * BOARD_SIZE + col] = piece;
             if (piece != null) {
                 piece.setRow(row);
                 piece.setColumn(col);
+                staticScore += pieceValues.signedValue(piece);
+                positionHash ^= Zobrist.pieceKey(piece);
+            }
+            version++;
+        }
+    }
+
+    // whether a side can step or jump anywhere, checked without building Move objects
+    public boolean canMove(Piece.PieceColor color) {
+        Pieces own = pieces();
+        Piece[] squares = own.squares();
+        for (Piece piece : own.of(color)) {
+            int from = squareOf(piece);
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                int to = BoardGeometry.neighbor(from, direction);
+                if (to == BoardGeometry.NONE) {
+                    continue;
+                }
+                if (squares[to] == null) {
+                    if (piece.isValidDirectionalMove(BoardGeometry.ROW_STEP[direction])) {
+                        return true;
+                    }
+                    continue;
+                }
+                int landing = BoardGeometry.jumpLanding(from, direction);
+                if (landing != BoardGeometry.NONE && squares[landing] == null
+                        && squares[to].getColor() != color
+                        && piece.isValidDirectionalMove(BoardGeometry.ROW_JUMP[direction])) {
+                    return true;
+                }
             }
         }
+        return false;
+    }
+
+    // ends the game in a draw, for the rules that depend on the game's history
+    public void declareDraw(GameEnd reason) {
+        if (!reason.isDraw()) {
+            throw new IllegalArgumentException(reason + " is not a draw");
+        }
+        declaredEnd = reason;
+    }
+
+    // ends the game on time: the side to move, whose clock was running, loses
+    public void declareTimeout() {
+        declaredEnd = GameEnd.TIMEOUT;
+    }
+
+    // why the game is over, or null while it goes on
+    public GameEnd getGameEnd() {
+        if (declaredEnd != null) {
+            return declaredEnd;
+        }
+        Pieces own = pieces();
+        if (own.red().isEmpty() || own.black().isEmpty()) {
+            return GameEnd.NO_PIECES;
+        }
+        return canMove(currentTurn) ? null : GameEnd.NO_MOVES;
     }
 
     public boolean isGameOver() {
-        return redPieces.isEmpty() || blackPieces.isEmpty();
+        return getGameEnd() != null;
     }
 
     public Piece.PieceColor getWinner() {
-        if (blackPieces.isEmpty()) {
+        if (declaredEnd == GameEnd.TIMEOUT) {
+            return currentTurn == BLACK ? RED : BLACK;
+        }
+        Pieces own = pieces();
+        if (own.black().isEmpty()) {
             return RED;
-        } else if (redPieces.isEmpty()) {
+        } else if (own.red().isEmpty()) {
             return BLACK;
         }
+        // a blocked side loses, a drawn game has no winner
+        if (declaredEnd == null && !canMove(currentTurn)) {
+            return currentTurn == BLACK ? RED : BLACK;
+        }
         // No winner yet
         return null;
     }
 
     // check for possible captures for a given piece
     public List<Move> getCaptureMovesForPiece(Piece piece) {
-        return getDiagonalDestinationsForPiece(piece, 2).stream()
-                .filter(dest -> getPieceAt(dest.row(), dest.column()) == null)
-                .map(dest -> buildCaptureMove(piece, dest))
-                .filter(Objects::nonNull)
-                .toList();
+        Piece[] squares = pieces().squares();
+        int from = squareOf(piece);
+        List<Move> moves = new ArrayList<>();
+        for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+            int landing = BoardGeometry.jumpLanding(from, direction);
+            if (landing == BoardGeometry.NONE || squares[landing] != null) {
+                continue;
+            }
+            Piece jumped = squares[BoardGeometry.jumped(from, direction)];
+            if (jumped == null || jumped.getColor() == piece.getColor()
+                    || !piece.isValidDirectionalMove(BoardGeometry.ROW_JUMP[direction])) {
+                continue;
+            }
+
+            Move move = Move.from(piece, BoardGeometry.jumpDelta(from, direction));
+            move.getCapturedPieces().add(jumped);
+            moves.add(move);
+        }
+        return moves;
     }
 
     // check for simple diagonal moves for a given piece
     public List<Move> getSimpleMovesForPiece(Piece piece) {
-        return getDiagonalDestinationsForPiece(piece, 1).stream()
-                .filter(destination -> getPieceAt(destination.row(), destination.column()) == null)
-                .filter(destination -> piece.isValidDirectionalMove(destination.deltaRow()))
-                .map(destination -> Move.from(piece, destination))
-                .toList();
+        Piece[] squares = pieces().squares();
+        int from = squareOf(piece);
+        List<Move> moves = new ArrayList<>();
+        for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+            int to = BoardGeometry.neighbor(from, direction);
+            if (to != BoardGeometry.NONE && squares[to] == null
+                    && piece.isValidDirectionalMove(BoardGeometry.ROW_STEP[direction])) {
+                moves.add(Move.from(piece, BoardGeometry.stepDelta(from, direction)));
+            }
+        }
+        return moves;
     }
 
+    // every legal move for the side to move, capture sequences only when any capture exists
+    // generated once per position and reused until the board changes
+    public List<Move> getLegalMoves() {
+        LegalMoves cached = legalMoves;
+        if (cached == null || cached.version() != version) {
+            cached = new LegalMoves(version, generateLegalMoves());
+            legalMoves = cached;
+        }
+        return cached.moves();
+    }
+
+    // complete multi-jump sequences for a given piece, one move per distinct chain
+    public List<Move> getCaptureSequencesForPiece(Piece piece) {
+        Piece[] squares = pieces().squares();
+        List<Move> sequences = new ArrayList<>();
+        int origin = squareOf(piece);
+        collectCaptureSequences(squares, piece, origin, origin, new ArrayList<>(), new ArrayList<>(), sequences);
+        return sequences;
+    }
+
+    // applies a complete move, every hop of a multi-jump sequence included, then passes the turn
     public void movePiece(Move move) {
-        Piece piece = getPieceAt(move.getFromRow(), move.getFromCol());
-        if (piece == null) {
+        // the JIT drops the event entirely while recording is off
+        MoveApplicationEvent event = new MoveApplicationEvent();
+        event.begin();
+        if (!applyMove(move)) {
             return;
         }
+        if (event.shouldCommit()) {
+            event.gameIdHash = gameIdHash;
+            event.ply = ply - 1;
+            event.captures = move.getCapturedPieces().size();
+            event.promotion = move.isPromotion();
+            event.commit();
+        }
+    }
 
-        int changeInRow = move.getToRow() - move.getFromRow();
-        int changeInColumn = move.getToCol() - move.getFromCol();
+    private boolean applyMove(Move move) {
+        Piece piece = getPieceAt(move.getFromRow(), move.getFromCol());
+        if (piece == null) {
+            return false;
+        }
 
-        // check if it is a capture (row increases by 2)
-        if (Math.abs(changeInRow) == 2) {
-            Piece jumped = getPieceAt(move.getFromRow() + changeInRow / 2, move.getFromCol() + changeInColumn / 2);
-            if (jumped != null && jumped.getColor() != piece.getColor()) {
-                move.getCapturedPieces().add(jumped);
+        // derive the captures from the hops themselves so the move always records what was taken
+        List<Piece> captured = new ArrayList<>();
+        int row = move.getFromRow();
+        int col = move.getFromCol();
+        for (Square landing : move.getLandingSquares()) {
+            if (Math.abs(landing.row() - row) == 2) {
+                Piece jumped = getPieceAt((row + landing.row()) / 2, (col + landing.col()) / 2);
+                if (jumped != null && jumped.getColor() != piece.getColor()) {
+                    captured.add(jumped);
+                }
             }
+            row = landing.row();
+            col = landing.col();
         }
+        move.setCapturedPieces(captured);
 
         // move the piece
         setPieceAt(move.getFromRow(), move.getFromCol(), null);
         setPieceAt(move.getToRow(), move.getToCol(), piece);
 
-        piece.checkForPromotion();
+        boolean promotion = piece.promotesOn(piece.getRow());
+        if (promotion) {
+            setKing(piece, true);
+        }
+        move.setPromotion(promotion);
+
+        // remove the captured pieces
+        captured.forEach(this::removePiece);
+
+        // the whole sequence is one move so the turn always passes
+        toggleTurn();
+        ply++;
+        return true;
+    }
+
+    // reverts a move applied by movePiece, restoring captured pieces, promotion and turn
+    public void undoMove(Move move) {
+        Piece piece = getPieceAt(move.getToRow(), move.getToCol());
+        if (piece == null) {
+            return;
+        }
 
-        // reset moved capture pieces
-        move.getCapturedPieces().forEach(this::removePiece);
+        if (move.isPromotion()) {
+            setKing(piece, false);
+        }
+        setPieceAt(move.getToRow(), move.getToCol(), null);
+        setPieceAt(move.getFromRow(), move.getFromCol(), piece);
 
-        // change turn only if no further capture is mandatory
-        if (!hasAnyCapturePossibilities(currentTurn)) {
-            toggleTurn();
+        // captured pieces still remember the square they were taken on
+        for (Piece captured : move.getCapturedPieces()) {
+            setPieceAt(captured.getRow(), captured.getColumn(), captured);
+            getPiecesForColor(captured.getColor()).add(captured);
         }
+
+        toggleTurn();
+        ply--;
     }
 
+    // a move is valid when its origin and every landing square match one of the legal moves
     public boolean isValidMove(Move move) {
-        // standard checks
+        MoveValidationEvent event = new MoveValidationEvent();
+        event.begin();
+        boolean cached = event.isEnabled() && legalMoves != null && legalMoves.version() == version;
+        boolean valid = validate(move);
+        if (event.shouldCommit()) {
+            event.gameIdHash = gameIdHash;
+            event.ply = ply;
+            event.valid = valid;
+            event.cached = cached;
+            event.commit();
+        }
+        return valid;
+    }
+
+    private boolean validate(Move move) {
         Piece piece = move.getPiece();
         if (piece == null) {
             return false;
@@ -152,55 +474,129 @@ public class Board {
         if (piece.getColor() != currentTurn) {
             return false;
         }
-        // the proposed move is out of bounds
-        if (!isOnBoard(move.getToRow(), move.getToCol())) {
-            return false;
-        }
-        // there is a piece of the same color already in that spot
-        if (getPieceAt(move.getToRow(), move.getToCol()) != null) {
-            return false;
-        }
+        return findLegalMove(move) != null;
+    }
 
-        // check it is diagonal (change in row does not equal change in column)
-        int changeInRow = move.getToRow() - move.getFromRow();
-        int changeInColumn = move.getToCol() - move.getFromCol();
-        if (Math.abs(changeInColumn) != Math.abs(changeInRow)) {
-            return false;
+    public Move findLegalMove(Move move) {
+        List<Square> landingSquares = move.getLandingSquares();
+        for (Move legalMove : getLegalMoves()) {
+            if (legalMove.getFromRow() == move.getFromRow()
+                    && legalMove.getFromCol() == move.getFromCol()
+                    && legalMove.getLandingSquares().equals(landingSquares)) {
+                return legalMove;
+            }
         }
+        return null;
+    }
 
-        // check that the piece is moving in the correct direction
-        if (Math.abs(changeInRow) == 1) {
-            // cannot make a simple move when any capture is available
-            if (hasAnyCapturePossibilities(currentTurn)) {
-                return false;
+    // the legal move with this Move.encode() key, or null when there isn't one, or when the key of an
+    // overlong chain fits two of them
+    public Move findLegalMove(int encodedMove) {
+        Move found = null;
+        for (Move legalMove : getLegalMoves()) {
+            if (legalMove.encode() == encodedMove) {
+                if (found != null) {
+                    return null;
+                }
+                found = legalMove;
             }
+        }
+        return found;
+    }
 
-            return piece.isValidDirectionalMove(changeInRow);
+    private void removePiece(Piece piece) {
+        if (piece != null) {
+            setPieceAt(piece.getRow(), piece.getColumn(), null);
+            getPiecesForColor(piece.getColor()).remove(piece);
         }
+    }
 
-        // check that if jumping a piece it is in a valid direction and the piece isn't the same color
-        if (Math.abs(changeInRow) == 2) {
-            int jumpedRow = move.getFromRow() + changeInRow / 2;
-            int jumpedCol = move.getFromCol() + changeInColumn / 2;
-            Piece jumped = getPieceAt(jumpedRow, jumpedCol);
+    private List<Move> generateLegalMoves() {
+        List<Piece> pieces = getPiecesForColor(currentTurn);
 
-            return jumped != null &&
-                    jumped.getColor() != piece.getColor() &&
-                    piece.isValidDirectionalMove(changeInRow);
+        List<Move> captures = new ArrayList<>();
+        for (Piece piece : pieces) {
+            captures.addAll(getCaptureSequencesForPiece(piece));
+        }
+        if (!captures.isEmpty()) {
+            return List.copyOf(captures);
         }
 
-        return false;
+        return pieces.stream()
+                .flatMap(piece -> getSimpleMovesForPiece(piece).stream())
+                .toList();
     }
 
-    private void removePiece(Piece piece) {
-        if (piece != null) {
-            setPieceAt(piece.getRow(), piece.getColumn(), null);
-            if (piece.getColor() == RED) {
-                redPieces.remove(piece);
+    // the origin square counts as empty, so a chain may pass back over it without the board being written to
+    private void collectCaptureSequences(Piece[] squares, Piece piece, int origin, int from, List<Square> path,
+                                         List<Piece> captured, List<Move> sequences) {
+        boolean extended = false;
+
+        for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+            int landing = BoardGeometry.jumpLanding(from, direction);
+            if (landing == BoardGeometry.NONE || landing != origin && squares[landing] != null) {
+                continue;
+            }
+
+            // captured pieces stay on the board until the sequence ends but can't be jumped twice
+            Piece jumped = squares[BoardGeometry.jumped(from, direction)];
+            if (jumped == null || jumped.getColor() == piece.getColor() || captured.contains(jumped)) {
+                continue;
+            }
+            if (!piece.isValidDirectionalMove(BoardGeometry.ROW_JUMP[direction])) {
+                continue;
+            }
+
+            extended = true;
+            Square landingSquare = BoardGeometry.toSquare(landing);
+            path.add(landingSquare);
+            captured.add(jumped);
+
+            // being crowned ends the move
+            if (piece.promotesOn(landingSquare.row())) {
+                sequences.add(buildCaptureSequence(piece, path, captured));
             } else {
-                blackPieces.remove(piece);
+                collectCaptureSequences(squares, piece, origin, landing, path, captured, sequences);
             }
+
+            path.removeLast();
+            captured.removeLast();
         }
+
+        if (!extended && !path.isEmpty()) {
+            sequences.add(buildCaptureSequence(piece, path, captured));
+        }
+    }
+
+    private Move buildCaptureSequence(Piece piece, List<Square> path, List<Piece> captured) {
+        Square landing = path.getLast();
+        return Move.builder()
+                .fromRow(piece.getRow())
+                .fromCol(piece.getColumn())
+                .toRow(landing.row())
+                .toCol(landing.col())
+                .piece(piece)
+                .path(new ArrayList<>(path))
+                .capturedPieces(new ArrayList<>(captured))
+                .build();
+    }
+
+    private void setKing(Piece piece, boolean king) {
+        staticScore -= pieceValues.signedValue(piece);
+        positionHash ^= Zobrist.pieceKey(piece);
+        piece.setKing(king);
+        staticScore += pieceValues.signedValue(piece);
+        positionHash ^= Zobrist.pieceKey(piece);
+    }
+
+    // places a new piece, used when building a position square by square
+    void addPiece(Piece piece) {
+        setPieceAt(piece.getRow(), piece.getColumn(), piece);
+        getPiecesForColor(piece.getColor()).add(piece);
+    }
+
+    private static int squareOf(Piece piece) {
+        return piece.getRow() * BOARD_SIZE + piece.getColumn();
     }
 
     private boolean isOnBoard(int row, int col) {
@@ -209,53 +605,110 @@ public class Board {
 
     private void toggleTurn() {
         currentTurn = (currentTurn == BLACK) ? RED : BLACK;
+        positionHash ^= Zobrist.RED_TO_MOVE;
+        version++;
     }
 
     private List<Piece> getPiecesForColor(Piece.PieceColor color) {
-        return color == RED ? redPieces : blackPieces;
+        return pieces().of(color);
     }
 
-    private boolean canCapture(Piece piece) {
-        return !getCaptureMovesForPiece(piece).isEmpty();
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    public List<Piece> getRedPieces() {
+        return pieces().red();
     }
 
-    private boolean hasAnyCapturePossibilities(Piece.PieceColor color) {
-        return getPiecesForColor(color).stream().anyMatch(this::canCapture);
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    public List<Piece> getBlackPieces() {
+        return pieces().black();
     }
 
-    private Move buildCaptureMove(Piece piece, Delta destination) {
-       // calculate the square for the piece to be jumped
-        int midRow = piece.getRow() + destination.deltaRow() / 2;
-        int midCol = piece.getColumn() + destination.deltaCol() / 2;
-        Piece jumped = getPieceAt(midRow, midCol);
-
-        if (jumped == null || jumped.getColor() == piece.getColor()) {
-            return null;
+    // public only for test set up purposes, like setPieceAt
+    public void setRedPieces(List<Piece> redPieces) {
+        synchronized (shareLock) {
+            Pieces own = pieces();
+            pieces = new Pieces(own.squares(), redPieces, own.black());
         }
-        if (!piece.isValidDirectionalMove(destination.deltaRow())) {
-            return null;
+    }
+
+    public void setBlackPieces(List<Piece> blackPieces) {
+        synchronized (shareLock) {
+            Pieces own = pieces();
+            pieces = new Pieces(own.squares(), own.red(), blackPieces);
         }
+    }
 
-        Move move = Move.from(piece, destination);
+    private Pieces pieces() {
+        Pieces own = pieces;
+        return own != null ? own : materialize();
+    }
 
-        move.getCapturedPieces().add(jumped);
+    // the board's own pieces made from the position it shares, once
+    private Pieces materialize() {
+        synchronized (shareLock) {
+            if (pieces == null) {
+                pieces = Pieces.of(shared);
+                shared = null;
+            }
+            return pieces;
+        }
+    }
 
-        return move;
+    private Position sharedPosition() {
+        synchronized (shareLock) {
+            return pieces == null ? shared : null;
+        }
     }
 
-    private List<Delta> getDiagonalDestinationsForPiece(Piece piece, int distance) {
-        // iterate over basic directional moves and return a list of possible destinations on the board
-        return Arrays.stream(BASIC_MOVE_DIRECTIONS)
-                .map(direction -> new Delta(
-                        piece.getRow() + direction[0] * distance,
-                        piece.getColumn() + direction[1] * distance,
-                        direction[0] * distance,
-                        direction[1] * distance))
-                .filter(delta -> isOnBoard(delta.row(), delta.column()))
-                .toList();
+    // takes over the other board's position, scores and side to move without making any pieces
+    private void shareFrom(Board other, Position position) {
+        shared = position;
+        pieces = null;
+        currentTurn = other.currentTurn;
+        staticScore = other.staticScore;
+        positionHash = other.positionHash;
     }
 
     // represents a diagonal landing square
     public record Delta(int row, int column, int deltaRow, int deltaCol) {
     }
+
+    // a single square on the board, used for the hops of a multi-jump path
+    public record Square(int row, int col) {
+    }
+
+    // the legal moves of one position, tagged with the version they were generated for
+    private record LegalMoves(long version, List<Move> moves) {
+    }
+
+    // The squares and piece lists of one board. They are only ever changed by the board that made them,
+    // and the final fields publish them complete to any thread that reads the board.
+    private record Pieces(Piece[] squares, List<Piece> red, List<Piece> black) {
+
+        Pieces() {
+            this(new Piece[BOARD_SIZE * BOARD_SIZE], new ArrayList<>(NUM_PIECES), new ArrayList<>(NUM_PIECES));
+        }
+
+        // pieces in ascending square order, as a standard board first places them
+        static Pieces of(Position position) {
+            Piece[] squares = new Piece[BOARD_SIZE * BOARD_SIZE];
+            List<Piece> red = new ArrayList<>(NUM_PIECES);
+            List<Piece> black = new ArrayList<>(NUM_PIECES);
+            for (long rest = position.black() | position.red(); rest != 0; rest &= rest - 1) {
+                int index = Long.numberOfTrailingZeros(rest);
+                boolean isBlack = (position.black() & 1L << index) != 0;
+                Piece piece = new Piece(isBlack ? BLACK : RED, (position.kings() & 1L << index) != 0,
+                        index / BOARD_SIZE, index % BOARD_SIZE);
+                squares[index] = piece;
+                (isBlack ? black : red).add(piece);
+            }
+            return new Pieces(squares, red, black);
+        }
+
+        List<Piece> of(Piece.PieceColor color) {
+            return color == RED ? red : black;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.evancaplan.checkersengine.model;
+
+// Diagonal geometry of the board, computed once.
+// Squares are indexed as row * BOARD_SIZE + col, the same index the evaluator and zobrist tables use,
+// and directions follow up-left, up-right, down-left, down-right. For every square and direction the
+// tables give the adjacent square, the jump landing square and the square jumped over, or NONE when
+// that square is off the board. Only the 32 dark squares are reached in a real game.
+public final class BoardGeometry {
+
+    public static final int NONE = -1;
+    public static final int DIRECTIONS = 4;
+    public static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+
+    // row change of a single step in each direction, what Piece.isValidDirectionalMove checks
+    public static final int[] ROW_STEP = {-1, -1, 1, 1};
+    // row change of a jump in each direction
+    public static final int[] ROW_JUMP = {-2, -2, 2, 2};
+
+    private static final int[] COL_STEP = {-1, 1, -1, 1};
+
+    private static final int[][] NEIGHBOR = new int[SQUARES][DIRECTIONS];
+    private static final int[][] JUMP_LANDING = new int[SQUARES][DIRECTIONS];
+    private static final Board.Square[] SQUARE = new Board.Square[SQUARES];
+    private static final Board.Delta[][] STEP_DELTA = new Board.Delta[SQUARES][DIRECTIONS];
+    private static final Board.Delta[][] JUMP_DELTA = new Board.Delta[SQUARES][DIRECTIONS];
+
+    static {
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                int square = row * Board.BOARD_SIZE + col;
+                SQUARE[square] = new Board.Square(row, col);
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+                    NEIGHBOR[square][direction] = index(row + ROW_STEP[direction], col + COL_STEP[direction]);
+                    JUMP_LANDING[square][direction] = index(row + ROW_JUMP[direction], col + 2 * COL_STEP[direction]);
+                    if (NEIGHBOR[square][direction] != NONE) {
+                        STEP_DELTA[square][direction] = new Board.Delta(row + ROW_STEP[direction],
+                                col + COL_STEP[direction], ROW_STEP[direction], COL_STEP[direction]);
+                    }
+                    if (JUMP_LANDING[square][direction] != NONE) {
+                        JUMP_DELTA[square][direction] = new Board.Delta(row + ROW_JUMP[direction],
+                                col + 2 * COL_STEP[direction], ROW_JUMP[direction], 2 * COL_STEP[direction]);
+                    }
+                }
+            }
+        }
+    }
+
+    private BoardGeometry() {
+    }
+
+    public static int neighbor(int square, int direction) {
+        return NEIGHBOR[square][direction];
+    }
+
+    public static int jumpLanding(int square, int direction) {
+        return JUMP_LANDING[square][direction];
+    }
+
+    // the square jumped over is the adjacent one, only meaningful when jumpLanding isn't NONE
+    public static int jumped(int square, int direction) {
+        return NEIGHBOR[square][direction];
+    }
+
+    public static Board.Square toSquare(int square) {
+        return SQUARE[square];
+    }
+
+    public static Board.Delta stepDelta(int square, int direction) {
+        return STEP_DELTA[square][direction];
+    }
+
+    public static Board.Delta jumpDelta(int square, int direction) {
+        return JUMP_DELTA[square][direction];
+    }
+
+    public static int index(int row, int col) {
+        if (row < 0 || row >= Board.BOARD_SIZE || col < 0 || col >= Board.BOARD_SIZE) {
+            return NONE;
+        }
+        return row * Board.BOARD_SIZE + col;
+    }
+}
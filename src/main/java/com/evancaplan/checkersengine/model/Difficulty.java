@@ -0,0 +1,24 @@
+package com.evancaplan.checkersengine.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// AI strength per game: how far and how long the engine searches, how big its table is
+// and how much random noise blurs its evaluation
+@Getter
+@RequiredArgsConstructor
+public enum Difficulty {
+    BEGINNER(2, 2_000, 50, 1 << 10, 60),
+    EASY(4, 20_000, 100, 1 << 12, 25),
+    MEDIUM(6, 200_000, 500, 1 << 16, 0),
+    HARD(10, 2_000_000, 2_000, 1 << 18, 0),
+    // full strength, meant for ranked games
+    EXPERT(24, 20_000_000, 5_000, 1 << 20, 0);
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long maxTimeMillis;
+    private final int tableEntries;
+    // largest amount, in hundredths of a man, added to or taken from a leaf evaluation
+    private final int evaluationNoise;
+}
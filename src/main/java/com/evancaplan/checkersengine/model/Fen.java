@@ -0,0 +1,109 @@
+package com.evancaplan.checkersengine.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Positions as PDN FEN strings, e.g. "B:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12".
+// The first field is the side to move, then one field of numbered squares per colour, a K marking a king.
+// Black plays B and red plays W. Squares are numbered 1 to 32 over the dark squares, row by row from
+// black's side, and ranges like 1-12 are accepted when decoding.
+public final class Fen {
+
+    private static final int SQUARES_PER_ROW = Board.BOARD_SIZE / 2;
+
+    private Fen() {
+    }
+
+    // throws IllegalArgumentException when a piece stands on a light square
+    public static String encode(Board board) {
+        return (board.getCurrentTurn() == Piece.PieceColor.BLACK ? "B" : "W")
+                + ":W" + squares(board.getRedPieces())
+                + ":B" + squares(board.getBlackPieces());
+    }
+
+    // throws IllegalArgumentException for anything that isn't a well formed position
+    public static Board decode(String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("Missing FEN");
+        }
+        String[] fields = fen.trim().replaceAll("\\.$", "").split(":");
+        if (fields.length != 3 || !fields[0].matches("[BW]")) {
+            throw new IllegalArgumentException("Malformed FEN '" + fen + "'");
+        }
+
+        Board board = Board.builder().build();
+        for (int i = 1; i < fields.length; i++) {
+            String field = fields[i].trim();
+            if (field.isEmpty() || field.charAt(0) != 'B' && field.charAt(0) != 'W') {
+                throw new IllegalArgumentException("Malformed FEN '" + fen + "'");
+            }
+            Piece.PieceColor color = field.charAt(0) == 'B' ? Piece.PieceColor.BLACK : Piece.PieceColor.RED;
+            if (field.length() > 1) {
+                for (String token : field.substring(1).split(",")) {
+                    addPieces(board, color, token.trim(), fen);
+                }
+            }
+        }
+        board.setCurrentTurn(fields[0].equals("B") ? Piece.PieceColor.BLACK : Piece.PieceColor.RED);
+        return board;
+    }
+
+    // 1 to 32, or 0 for a light square
+    public static int squareNumber(int row, int col) {
+        if ((row + col) % 2 == 0) {
+            return 0;
+        }
+        return row * SQUARES_PER_ROW + col / 2 + 1;
+    }
+
+    public static Board.Square square(int number) {
+        int row = (number - 1) / SQUARES_PER_ROW;
+        int col = (number - 1) % SQUARES_PER_ROW * 2 + (row % 2 == 0 ? 1 : 0);
+        return new Board.Square(row, col);
+    }
+
+    private static void addPieces(Board board, Piece.PieceColor color, String token, String fen) {
+        boolean king = token.startsWith("K");
+        String numbers = king ? token.substring(1) : token;
+        int dash = numbers.indexOf('-');
+        int first;
+        int last;
+        try {
+            first = Integer.parseInt(dash < 0 ? numbers : numbers.substring(0, dash));
+            last = dash < 0 ? first : Integer.parseInt(numbers.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad square '" + token + "' in FEN '" + fen + "'");
+        }
+        if (first < 1 || last > Board.BOARD_SIZE * SQUARES_PER_ROW || first > last) {
+            throw new IllegalArgumentException("Bad square '" + token + "' in FEN '" + fen + "'");
+        }
+
+        for (int number = first; number <= last; number++) {
+            Board.Square square = square(number);
+            if (board.getPieceAt(square.row(), square.col()) != null) {
+                throw new IllegalArgumentException("Square " + number + " is taken twice in FEN '" + fen + "'");
+            }
+            board.addPiece(new Piece(color, king, square.row(), square.col()));
+        }
+    }
+
+    private static String squares(List<Piece> pieces) {
+        List<Piece> sorted = new ArrayList<>(pieces);
+        sorted.sort((a, b) -> squareNumber(a.getRow(), a.getColumn()) - squareNumber(b.getRow(), b.getColumn()));
+        StringBuilder field = new StringBuilder();
+        for (Piece piece : sorted) {
+            if (squareNumber(piece.getRow(), piece.getColumn()) == 0) {
+                throw new IllegalArgumentException("Piece on light square (" + piece.getRow() + ", "
+                        + piece.getColumn() + ") has no FEN square");
+            }
+            if (!field.isEmpty()) {
+                field.append(',');
+            }
+            if (piece.isKing()) {
+                field.append('K');
+            }
+            field.append(squareNumber(piece.getRow(), piece.getColumn()));
+        }
+        return field.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.evancaplan.checkersengine.model;
+
+import lombok.Getter;
+
+// The two clocks of a timed game. Only the clock of the side to move runs: a move is charged the time
+// since the turn began and then earns the increment, and a turn may not outlast the move limit either.
+// Times are milliseconds on any monotonic base the caller keeps to.
+// A move being processed is checked in at its arrival and a flag check waits until it is checked out,
+// so a move that came in time is never lost to the time it takes to apply it. Safe for concurrent use.
+public final class GameClock {
+
+    // clock time of a side without a Fischer clock
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    @Getter
+    private final TimeControl control;
+    private long blackRemaining;
+    private long redRemaining;
+    private Piece.PieceColor turn;
+    private long turnStarted;
+    // arrival of the move being processed, -1 for none
+    private long checkedIn = -1;
+    // turns completed, so a flag check scheduled for an earlier turn can tell it is stale
+    private int turns;
+    private boolean flagged;
+
+    public GameClock(TimeControl control, Piece.PieceColor firstToMove, long now) {
+        this.control = control;
+        long initial = control.initialMillis() > 0 ? control.initialMillis() : UNLIMITED;
+        this.blackRemaining = initial;
+        this.redRemaining = initial;
+        this.turn = firstToMove;
+        this.turnStarted = now;
+    }
+
+    // when the time of the side to move runs out, UNLIMITED when it can't
+    public synchronized long flagTime() {
+        long allowed = remaining(turn);
+        if (control.moveLimitMillis() > 0) {
+            allowed = Math.min(allowed, control.moveLimitMillis());
+        }
+        return allowed == UNLIMITED ? UNLIMITED : turnStarted + allowed;
+    }
+
+    // a move arrived at now; false, flagging the clock, when the side to move was out of time by then
+    public synchronized boolean checkIn(long now) {
+        if (flagged || now >= flagTime()) {
+            flagged = true;
+            return false;
+        }
+        checkedIn = now;
+        return true;
+    }
+
+    // arrival of the move checked in, -1 for none
+    public synchronized long getCheckedIn() {
+        return checkedIn;
+    }
+
+    // the move checked in is done with, whether it was applied or not
+    public synchronized void checkOut() {
+        checkedIn = -1;
+    }
+
+    // ends the turn of the side to move with a move made at movedAt, charging its time and adding the
+    // increment; false, flagging the clock, when the move came too late
+    public synchronized boolean punch(long movedAt) {
+        if (flagged || movedAt >= flagTime()) {
+            flagged = true;
+            return false;
+        }
+        long remaining = remaining(turn);
+        if (remaining != UNLIMITED) {
+            remaining = remaining - Math.max(0, movedAt - turnStarted) + control.incrementMillis();
+            if (turn == Piece.PieceColor.BLACK) {
+                blackRemaining = remaining;
+            } else {
+                redRemaining = remaining;
+            }
+        }
+        turn = turn == Piece.PieceColor.BLACK ? Piece.PieceColor.RED : Piece.PieceColor.BLACK;
+        turnStarted = Math.max(turnStarted, movedAt);
+        turns++;
+        return true;
+    }
+
+    // for a flag check scheduled during the given turn: flags the clock when that turn is still on,
+    // no move is being processed and the time is up, returning whether it did
+    public synchronized boolean flagIfExpired(long now, int turn) {
+        if (flagged || checkedIn >= 0 || turn != turns || now < flagTime()) {
+            return false;
+        }
+        flagged = true;
+        return true;
+    }
+
+    public synchronized int getTurns() {
+        return turns;
+    }
+
+    public synchronized boolean isFlagged() {
+        return flagged;
+    }
+
+    public synchronized Piece.PieceColor getTurn() {
+        return turn;
+    }
+
+    // clock time the side has left at now, UNLIMITED without a Fischer clock
+    public synchronized long remainingMillis(Piece.PieceColor side, long now) {
+        if (side == turn && flagged) {
+            return 0;
+        }
+        long remaining = remaining(side);
+        if (remaining == UNLIMITED || side != turn) {
+            return remaining;
+        }
+        return Math.max(0, remaining - Math.max(0, now - turnStarted));
+    }
+
+    // how long the side to move should think about this move: a twentieth of its clock time plus the
+    // increment, and never more than half of the time it has before its flag falls; UNLIMITED when untimed
+    public synchronized long moveBudget(long now) {
+        long flagTime = flagTime();
+        if (flagTime == UNLIMITED) {
+            return UNLIMITED;
+        }
+        long left = Math.max(0, flagTime - now);
+        long remaining = remaining(turn);
+        long share = remaining == UNLIMITED ? left : remaining / 20 + control.incrementMillis();
+        return Math.min(share, left / 2);
+    }
+
+    private long remaining(Piece.PieceColor side) {
+        return side == Piece.PieceColor.BLACK ? blackRemaining : redRemaining;
+    }
+}
@@ -0,0 +1,22 @@
+package com.evancaplan.checkersengine.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// why a game is over; the position shows a loss, the draws need the game's history, a timeout the clock
+@Getter
+@RequiredArgsConstructor
+public enum GameEnd {
+    // the side to move has no pieces left and loses
+    NO_PIECES(false),
+    // the side to move is blocked and loses
+    NO_MOVES(false),
+    // the side to move ran out of time on its clock and loses
+    TIMEOUT(false),
+    // the same position with the same side to move came up a third time
+    THREEFOLD_REPETITION(true),
+    // too many plies in a row went by without a capture
+    NO_CAPTURE_LIMIT(true);
+
+    private final boolean draw;
+}
@@ -14,6 +14,9 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class Move {
+    // landings a key spells out, as many as fit in 31 bits next to the origin and the count
+    public static final int MAX_ENCODED_LANDINGS = 11;
+
     private int fromRow;
     private int fromCol;
     private int toRow;
@@ -21,15 +24,40 @@ public class Move {
     private Piece piece;
     @Builder.Default
     private List<Piece> capturedPieces = new ArrayList<>();
+    // landing square of every hop in order, only populated for multi-jump sequences
+    @Builder.Default
+    private List<Board.Square> path = new ArrayList<>();
     private boolean kingMove;
+    // set by Board.movePiece when the move crowned the piece, so it can be undone
+    private boolean promotion;
 
+    // throws IllegalArgumentException for a request without a destination, or whose toRow/toCol
+    // name another square than the last of its path
     public static Move fromRequest(Piece piece, MoveRequest req) {
+        List<Board.Square> path = req.getPath() == null ? new ArrayList<>() : new ArrayList<>(req.getPath());
+        Board.Square destination;
+        if (path.isEmpty()) {
+            if (req.getToRow() == null || req.getToCol() == null) {
+                throw new IllegalArgumentException("A move needs toRow and toCol or a path");
+            }
+            destination = new Board.Square(req.getToRow(), req.getToCol());
+        } else {
+            // a path always ends on the destination square
+            destination = path.getLast();
+            if (req.getToRow() != null && req.getToRow() != destination.row()
+                    || req.getToCol() != null && req.getToCol() != destination.col()) {
+                throw new IllegalArgumentException("The path ends on (" + destination.row() + ", "
+                        + destination.col() + ") but the move is to (" + req.getToRow() + ", " + req.getToCol() + ")");
+            }
+        }
+
         return Move.builder()
                 .fromRow(req.getFromRow())
                 .fromCol(req.getFromCol())
-                .toRow(req.getToRow())
-                .toCol(req.getToCol())
+                .toRow(destination.row())
+                .toCol(destination.col())
                 .piece(piece)
+                .path(path)
                 .build();
     }
 
@@ -46,4 +74,32 @@ public class Move {
     public boolean isCapture() {
         return capturedPieces != null && !capturedPieces.isEmpty();
     }
+
+    // Compact identity of a move: its origin among the 32 playable squares in five bits, the number of
+    // landings in four, then the direction of every step or hop in two bits each, so two capture chains
+    // that part anywhere get different keys. A chain of more than MAX_ENCODED_LANDINGS hops keeps only its
+    // first ones. Never zero or negative.
+    public int encode() {
+        List<Board.Square> landings = getLandingSquares();
+        int count = Math.min(landings.size(), MAX_ENCODED_LANDINGS);
+        // one of every two squares of a row is playable, so halving the index numbers them 0-31
+        int key = (fromRow * Board.BOARD_SIZE + fromCol) / 2 | count << 5;
+        int row = fromRow;
+        int col = fromCol;
+        for (int i = 0; i < count; i++) {
+            Board.Square landing = landings.get(i);
+            int direction = (landing.row() > row ? 2 : 0) | (landing.col() > col ? 1 : 0);
+            key |= direction << (9 + 2 * i);
+            row = landing.row();
+            col = landing.col();
+        }
+        return key;
+    }
+
+    public List<Board.Square> getLandingSquares() {
+        if (path == null || path.isEmpty()) {
+            return List.of(new Board.Square(toRow, toCol));
+        }
+        return path;
+    }
 }
\ No newline at end of file
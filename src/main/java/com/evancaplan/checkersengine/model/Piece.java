@@ -34,13 +34,16 @@ public class Piece {
     }
 
     public void checkForPromotion() {
-        if (!king) {
-            if (color == RED && row == 0 || color == BLACK && getRow() == Board.BOARD_SIZE - 1) {
-                makeKing();
-            }
+        if (promotesOn(row)) {
+            makeKing();
         }
     }
 
+    // true when a man of this color would be crowned by landing on the given row
+    public boolean promotesOn(int targetRow) {
+        return !king && (color == RED && targetRow == 0 || color == BLACK && targetRow == Board.BOARD_SIZE - 1);
+    }
+
     public boolean isValidDirectionalMove(int rowChange) {
         if (king) {
             return true;
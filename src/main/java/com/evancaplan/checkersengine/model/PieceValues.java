@@ -0,0 +1,26 @@
+package com.evancaplan.checkersengine.model;
+
+// Signed value of a piece on a square, positive for black, which a board keeps summed up as its pieces move.
+// The engine's evaluator supplies real values; a board nobody has scored counts every piece as 0.
+public interface PieceValues {
+
+    PieceValues NONE = (color, king, row, col) -> 0;
+
+    int signedValue(Piece.PieceColor color, boolean king, int row, int col);
+
+    default int signedValue(Piece piece) {
+        return signedValue(piece.getColor(), piece.isKing(), piece.getRow(), piece.getColumn());
+    }
+
+    // full recount of the values, used to seed a board and to verify the incremental score
+    default int staticScore(Board board) {
+        int score = 0;
+        for (Piece piece : board.getBlackPieces()) {
+            score += signedValue(piece);
+        }
+        for (Piece piece : board.getRedPieces()) {
+            score += signedValue(piece);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,54 @@
+package com.evancaplan.checkersengine.model;
+
+// An immutable snapshot of a position: the squares of each colour and of the kings as bitboards indexed
+// row * 8 + col, the side to move, and the board's zobrist hash. Equal positions are interchangeable,
+// so a PositionTable can hand every game the same instance of one.
+public record Position(long black, long red, long kings, boolean blackToMove, long hash) {
+
+    public static Position of(Board board) {
+        long black = 0;
+        long red = 0;
+        long kings = 0;
+        for (Piece piece : board.getBlackPieces()) {
+            black |= bit(piece);
+            kings |= piece.isKing() ? bit(piece) : 0;
+        }
+        for (Piece piece : board.getRedPieces()) {
+            red |= bit(piece);
+            kings |= piece.isKing() ? bit(piece) : 0;
+        }
+        return new Position(black, red, kings, board.getCurrentTurn() == Piece.PieceColor.BLACK,
+                board.getPositionHash());
+    }
+
+    // the same string Fen.encode gives for the board the position was taken from;
+    // throws IllegalArgumentException when a piece stands on a light square
+    public String toFen() {
+        return (blackToMove ? "B" : "W") + ":W" + squares(red) + ":B" + squares(black);
+    }
+
+    // squares in ascending order, which is also ascending FEN square number
+    private String squares(long pieces) {
+        StringBuilder field = new StringBuilder();
+        for (long rest = pieces; rest != 0; rest &= rest - 1) {
+            int index = Long.numberOfTrailingZeros(rest);
+            int number = Fen.squareNumber(index / Board.BOARD_SIZE, index % Board.BOARD_SIZE);
+            if (number == 0) {
+                throw new IllegalArgumentException("Piece on light square (" + index / Board.BOARD_SIZE + ", "
+                        + index % Board.BOARD_SIZE + ") has no FEN square");
+            }
+            if (!field.isEmpty()) {
+                field.append(',');
+            }
+            if ((kings & 1L << index) != 0) {
+                field.append('K');
+            }
+            field.append(number);
+        }
+        return field.toString();
+    }
+
+    private static long bit(Piece piece) {
+        return 1L << (piece.getRow() * Board.BOARD_SIZE + piece.getColumn());
+    }
+}
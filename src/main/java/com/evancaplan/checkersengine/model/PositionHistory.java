@@ -0,0 +1,78 @@
+package com.evancaplan.checkersengine.model;
+
+// Rolling record of the positions a game went through, by zobrist hash, for the draw rules.
+// A capture can never be undone, so it empties the window: no earlier position can come back.
+// The window keeps the last CAPACITY plies, which covers any repetition a no-capture limit of
+// that size or less allows.
+public class PositionHistory {
+
+    public static final int CAPACITY = 256;
+    // 40 moves by each side
+    public static final int DEFAULT_NO_CAPTURE_LIMIT = 80;
+
+    private final long[] hashes = new long[CAPACITY];
+    // hashes held, the newest at (start + size - 1) % CAPACITY
+    private int start;
+    private int size;
+    private int pliesSinceCapture;
+    private int pieceCount;
+
+    public PositionHistory(Board board) {
+        reset(board);
+    }
+
+    // records the position a move just produced
+    public void record(Board board) {
+        int pieces = pieceCount(board);
+        if (pieces < pieceCount) {
+            reset(board);
+            return;
+        }
+        pliesSinceCapture++;
+        if (size == CAPACITY) {
+            start = (start + 1) % CAPACITY;
+            size--;
+        }
+        hashes[(start + size++) % CAPACITY] = board.getPositionHash();
+    }
+
+    // how many times the latest position has come up since the last capture, itself included
+    public int repetitions() {
+        long latest = hashes[(start + size - 1) % CAPACITY];
+        int count = 0;
+        // the side to move is part of the hash, so only every other ply can match
+        for (int i = size - 1; i >= 0; i -= 2) {
+            if (hashes[(start + i) % CAPACITY] == latest) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getPliesSinceCapture() {
+        return pliesSinceCapture;
+    }
+
+    // the draw the history calls for, or null; noCaptureLimit of 0 turns that rule off
+    public GameEnd draw(int noCaptureLimit) {
+        if (repetitions() >= 3) {
+            return GameEnd.THREEFOLD_REPETITION;
+        }
+        if (noCaptureLimit > 0 && pliesSinceCapture >= noCaptureLimit) {
+            return GameEnd.NO_CAPTURE_LIMIT;
+        }
+        return null;
+    }
+
+    private void reset(Board board) {
+        start = 0;
+        size = 1;
+        hashes[0] = board.getPositionHash();
+        pliesSinceCapture = 0;
+        pieceCount = pieceCount(board);
+    }
+
+    private static int pieceCount(Board board) {
+        return board.getBlackPieces().size() + board.getRedPieces().size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.evancaplan.checkersengine.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hash-consing for positions: intern hands out one shared instance per distinct position, so games
+// passing through the same positions, the openings above all, keep references to one object instead of
+// a copy each. Entries are keyed by zobrist hash and held weakly, a position no game refers to any more
+// is collected and its entry cleared on a later intern. Safe for concurrent use.
+public final class PositionTable {
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Position> collected = new ReferenceQueue<>();
+
+    // the shared instance equal to the position, which becomes it when there is none yet
+    public Position intern(Position position) {
+        expungeCollected();
+        Long key = position.hash();
+        while (true) {
+            Entry entry = entries.get(key);
+            Position shared = entry == null ? null : entry.get();
+            if (shared != null) {
+                // a different position behind the same hash stays unshared
+                return shared.equals(position) ? shared : position;
+            }
+            Entry created = new Entry(key, position, collected);
+            boolean stored = entry == null
+                    ? entries.putIfAbsent(key, created) == null
+                    : entries.replace(key, entry, created);
+            if (stored) {
+                return position;
+            }
+        }
+    }
+
+    public Position intern(Board board) {
+        return intern(Position.of(board));
+    }
+
+    // distinct positions held, collected ones included until they are expunged
+    public int size() {
+        return entries.size();
+    }
+
+    private void expungeCollected() {
+        for (Object cleared = collected.poll(); cleared != null; cleared = collected.poll()) {
+            Entry entry = (Entry) cleared;
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private static final class Entry extends WeakReference<Position> {
+        private final Long key;
+
+        Entry(Long key, Position position, ReferenceQueue<Position> queue) {
+            super(position, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.evancaplan.checkersengine.model;
+
+// How long each side may think: a Fischer clock starting at initialMillis that gains incrementMillis with
+// every move made, and/or a cap of moveLimitMillis on any single move. A zero turns that part off, with
+// both initialMillis and moveLimitMillis at zero the game is untimed.
+// Throws IllegalArgumentException for a negative time.
+public record TimeControl(long initialMillis, long incrementMillis, long moveLimitMillis) {
+
+    public TimeControl {
+        if (initialMillis < 0 || incrementMillis < 0 || moveLimitMillis < 0) {
+            throw new IllegalArgumentException("Time control times can't be negative");
+        }
+    }
+
+    public static TimeControl fischer(long initialMillis, long incrementMillis) {
+        return new TimeControl(initialMillis, incrementMillis, 0);
+    }
+
+    public static TimeControl perMove(long moveLimitMillis) {
+        return new TimeControl(0, 0, moveLimitMillis);
+    }
+
+    public boolean timed() {
+        return initialMillis > 0 || moveLimitMillis > 0;
+    }
+}
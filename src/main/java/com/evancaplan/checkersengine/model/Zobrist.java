@@ -0,0 +1,47 @@
+package com.evancaplan.checkersengine.model;
+
+import java.util.SplittableRandom;
+
+// random keys for incremental position hashing
+// the seed is fixed so a position hashes the same in every process
+public final class Zobrist {
+
+    private static final long[][][] PIECE_KEYS = new long[2][2][Board.BOARD_SIZE * Board.BOARD_SIZE];
+    // xor-ed in while red is to move
+    public static final long RED_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDC0FFEEL);
+        for (long[][] byColor : PIECE_KEYS) {
+            for (long[] byType : byColor) {
+                for (int square = 0; square < byType.length; square++) {
+                    byType[square] = random.nextLong();
+                }
+            }
+        }
+        RED_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long pieceKey(Piece.PieceColor color, boolean king, int row, int col) {
+        return PIECE_KEYS[color.ordinal()][king ? 1 : 0][row * Board.BOARD_SIZE + col];
+    }
+
+    public static long pieceKey(Piece piece) {
+        return pieceKey(piece.getColor(), piece.isKing(), piece.getRow(), piece.getColumn());
+    }
+
+    // full recomputation, used to verify the incrementally maintained hash
+    public static long hash(Board board) {
+        long hash = board.getCurrentTurn() == Piece.PieceColor.RED ? RED_TO_MOVE : 0L;
+        for (Piece piece : board.getBlackPieces()) {
+            hash ^= pieceKey(piece);
+        }
+        for (Piece piece : board.getRedPieces()) {
+            hash ^= pieceKey(piece);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,10 @@
+package com.evancaplan.checkersengine.pdn;
+
+// A game a PDN import turned away: gameLine is where the game starts, line where the problem is.
+public record PdnError(long gameLine, long line, String message) {
+
+    @Override
+    public String toString() {
+        return "line " + line + ": " + message + " (game at line " + gameLine + ")";
+    }
+}
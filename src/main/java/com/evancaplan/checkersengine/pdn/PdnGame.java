@@ -0,0 +1,142 @@
+package com.evancaplan.checkersengine.pdn;
+
+import com.evancaplan.checkersengine.archive.ArchivedGame;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One game of a PDN file: its tags in file order, its moves from the start position and its result.
+// The moves only name their squares (origin, destination and the landings of a multi-jump), so they
+// are replayed with Board.findLegalMove. A FEN tag gives the start position, the standard one otherwise.
+// line is where the game starts in the file it was read from, 0 for a game that wasn't read from one.
+public record PdnGame(long line, Map<String, String> tags, List<Move> moves, String result) {
+
+    // results as PDN writes them, the first score is black's since black moves first
+    public static final String BLACK_WINS = "2-0";
+    public static final String RED_WINS = "0-2";
+    public static final String DRAWN = "1-1";
+    public static final String UNKNOWN = "*";
+
+    private static final String STANDARD_FEN = Fen.encode(Board.createStandardBoard(false));
+    private static final DateTimeFormatter PDN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd")
+            .withZone(ZoneOffset.UTC);
+
+    public PdnGame {
+        tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        moves = List.copyOf(moves);
+    }
+
+    // a game played from start, which the moves must not have been applied to
+    public static PdnGame of(Map<String, String> tags, Board start, List<Move> moves, String result) {
+        Map<String, String> withSetup = new LinkedHashMap<>(tags);
+        String fen = Fen.encode(start);
+        if (!fen.equals(STANDARD_FEN)) {
+            withSetup.put("SetUp", "1");
+            withSetup.put("FEN", fen);
+        }
+        withSetup.putIfAbsent("Result", result);
+        List<Move> plain = new ArrayList<>(moves.size());
+        for (Move move : moves) {
+            plain.add(squaresOnly(move));
+        }
+        return new PdnGame(0, withSetup, plain, result);
+    }
+
+    // an archived game with its id, finish date and how it ended as tags
+    public static PdnGame of(ArchivedGame game) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "checkers-engine");
+        tags.put("Date", PDN_DATE.format(Instant.ofEpochMilli(game.finishedAt())));
+        tags.put("GameType", "21");
+        tags.put("GameId", game.gameId());
+        if (game.end() != null) {
+            tags.put("Termination", game.end().toString());
+        }
+        String result = game.end() == null ? UNKNOWN
+                : game.end().isDraw() ? DRAWN
+                : game.winner() == Piece.PieceColor.BLACK ? BLACK_WINS : RED_WINS;
+        tags.put("Result", result);
+
+        List<Move> moves = new ArrayList<>(game.plies());
+        int[] squares = game.moves();
+        int index = 0;
+        for (int ply = 0; ply < game.plies(); ply++) {
+            Board.Square from = Fen.square(squares[index++]);
+            int landings = squares[index++];
+            List<Board.Square> path = new ArrayList<>(landings);
+            for (int i = 0; i < landings; i++) {
+                path.add(Fen.square(squares[index++]));
+            }
+            moves.add(move(from, path));
+        }
+        return new PdnGame(0, tags, moves, result);
+    }
+
+    // a fresh board at the start position; throws IllegalArgumentException for a bad FEN tag
+    public Board start() {
+        String fen = tags.get("FEN");
+        return fen == null ? Board.createStandardBoard(false) : Fen.decode(fen);
+    }
+
+    // the board after every move; throws IllegalArgumentException at the first move that isn't legal
+    public Board play() {
+        Board board = start();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            Move legal = board.findLegalMove(moves.get(ply));
+            if (legal == null) {
+                throw new IllegalArgumentException("Illegal move " + notation(moves.get(ply)) + " at ply " + (ply + 1));
+            }
+            board.movePiece(legal);
+        }
+        return board;
+    }
+
+    // the winner the result names, null for a draw or an unknown result
+    public Piece.PieceColor winner() {
+        return switch (result) {
+            case BLACK_WINS, "1-0" -> Piece.PieceColor.BLACK;
+            case RED_WINS, "0-1" -> Piece.PieceColor.RED;
+            default -> null;
+        };
+    }
+
+    public boolean isDrawn() {
+        return result.equals(DRAWN) || result.equals("1/2-1/2");
+    }
+
+    // e.g. 11-15 for a step and 22x15x8 for a double jump
+    public static String notation(Move move) {
+        StringBuilder text = new StringBuilder().append(Fen.squareNumber(move.getFromRow(), move.getFromCol()));
+        char separator = Math.abs(move.getLandingSquares().getFirst().row() - move.getFromRow()) == 2 ? 'x' : '-';
+        for (Board.Square landing : move.getLandingSquares()) {
+            text.append(separator).append(Fen.squareNumber(landing.row(), landing.col()));
+        }
+        return text.toString();
+    }
+
+    static Move move(Board.Square from, List<Board.Square> landings) {
+        Board.Square to = landings.getLast();
+        return Move.builder()
+                .fromRow(from.row())
+                .fromCol(from.col())
+                .toRow(to.row())
+                .toCol(to.col())
+                .path(landings.size() > 1 ? new ArrayList<>(landings) : new ArrayList<>())
+                .build();
+    }
+
+    // the squares of a move without the pieces, so a game holds on to no board
+    private static Move squaresOnly(Move move) {
+        return move(new Board.Square(move.getFromRow(), move.getFromCol()), move.getLandingSquares());
+    }
+}
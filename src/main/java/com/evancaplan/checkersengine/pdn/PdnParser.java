@@ -0,0 +1,353 @@
+package com.evancaplan.checkersengine.pdn;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Parses the games in a piece of PDN text and replays each against a Board, so every game that comes out
+// is legal from its start position. Tags, move numbers, comments ({...} and ; to the end of the line),
+// variations in parentheses and $ annotations are understood, the last two skipped. A move is squares
+// joined by - for a step or x for a jump. A multi-jump may leave out its intermediate landings when only
+// one legal jump fits. A game ends at its result token, or where the next game's tags start.
+// A game that can't be replayed is reported with the line of its first bad token and the rest of it skipped.
+final class PdnParser {
+
+    private final CharSequence text;
+    private final List<Object> parsed = new ArrayList<>();
+    private int index;
+    private long line;
+
+    // the game being read
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final List<Move> moves = new ArrayList<>();
+    private long gameLine;
+    private boolean inGame;
+    private boolean inMovetext;
+    private Board board;
+    private PdnError error;
+
+    private PdnParser(CharSequence text, long firstLine) {
+        this.text = text;
+        this.line = firstLine;
+    }
+
+    // the games and errors in text in the order they appear, PdnGame and PdnError instances;
+    // firstLine is the line number text starts on
+    static List<Object> parse(CharSequence text, long firstLine) {
+        PdnParser parser = new PdnParser(text, firstLine);
+        parser.run();
+        return parser.parsed;
+    }
+
+    private void run() {
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (c == '\n') {
+                line++;
+                index++;
+            } else if (Character.isWhitespace(c)) {
+                index++;
+            } else if (c == '[') {
+                if (inMovetext) {
+                    finishGame(null);
+                }
+                startGame();
+                readTag();
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipToLineEnd();
+            } else if (c == '(') {
+                startGame();
+                skipVariation();
+            } else {
+                startGame();
+                inMovetext = true;
+                readToken();
+            }
+        }
+        if (inGame) {
+            finishGame(null);
+        }
+    }
+
+    private void startGame() {
+        if (!inGame) {
+            inGame = true;
+            gameLine = line;
+        }
+    }
+
+    // [Name "value"], a backslash escaping a quote or backslash in the value
+    private void readTag() {
+        long tagLine = line;
+        index++;
+        int nameStart = skipBlanks(index);
+        int nameEnd = nameStart;
+        while (nameEnd < text.length() && (Character.isLetterOrDigit(text.charAt(nameEnd)) || text.charAt(nameEnd) == '_')) {
+            nameEnd++;
+        }
+        int quote = skipBlanks(nameEnd);
+        if (nameEnd == nameStart || quote >= text.length() || text.charAt(quote) != '"') {
+            fail(tagLine, "Malformed tag");
+            skipPast(']');
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        int i = quote + 1;
+        while (i < text.length() && text.charAt(i) != '"' && text.charAt(i) != '\n') {
+            char c = text.charAt(i++);
+            if (c == '\\' && i < text.length()) {
+                c = text.charAt(i++);
+            }
+            value.append(c);
+        }
+        int close = i < text.length() && text.charAt(i) == '"' ? skipBlanks(i + 1) : i;
+        if (close >= text.length() || text.charAt(close) != ']') {
+            fail(tagLine, "Malformed tag");
+            index = i;
+            skipPast(']');
+            return;
+        }
+        tags.put(text.subSequence(nameStart, nameEnd).toString(), value.toString());
+        index = close + 1;
+    }
+
+    private void readToken() {
+        int start = index;
+        while (index < text.length() && !isDelimiter(text.charAt(index))) {
+            index++;
+        }
+        String token = text.subSequence(start, index).toString();
+        // a move number, glued to its move or not: 12. 12... 12.11-15
+        int number = 0;
+        while (number < token.length() && Character.isDigit(token.charAt(number))) {
+            number++;
+        }
+        if (number > 0 && number < token.length() && token.charAt(number) == '.') {
+            while (number < token.length() && token.charAt(number) == '.') {
+                number++;
+            }
+            token = token.substring(number);
+        }
+        if (token.isEmpty() || token.charAt(0) == '$') {
+            return;
+        }
+        if (isResult(token)) {
+            finishGame(token);
+            return;
+        }
+        if (error == null) {
+            playMove(token);
+        }
+    }
+
+    private void playMove(String token) {
+        // annotations like 11-15! or 22x15?! say nothing about the move itself
+        int end = token.length();
+        while (end > 0 && (token.charAt(end - 1) == '!' || token.charAt(end - 1) == '?')) {
+            end--;
+        }
+        String move = token.substring(0, end);
+        boolean jump = move.indexOf('x') >= 0;
+        String[] parts = move.split(jump ? "x" : "-", -1);
+        if (parts.length < 2 || !jump && parts.length != 2) {
+            fail(line, "Unreadable move '" + token + "'");
+            return;
+        }
+        int[] squares = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            squares[i] = squareNumber(parts[i]);
+            if (squares[i] == 0) {
+                fail(line, "Unreadable move '" + token + "'");
+                return;
+            }
+        }
+        if (board == null && !setUp()) {
+            return;
+        }
+        Move legal = find(squares, jump);
+        if (legal == null) {
+            return;
+        }
+        board.movePiece(legal);
+        moves.add(PdnGame.move(new Board.Square(legal.getFromRow(), legal.getFromCol()), legal.getLandingSquares()));
+    }
+
+    // the legal move from the first square through exactly the landings given, or else the one legal move
+    // that ends on the last and passes the ones between in order
+    private Move find(int[] squares, boolean jump) {
+        Board.Square from = Fen.square(squares[0]);
+        Board.Square to = Fen.square(squares[squares.length - 1]);
+        Move found = null;
+        boolean ambiguous = false;
+        for (Move legal : board.getLegalMoves()) {
+            List<Board.Square> landings = legal.getLandingSquares();
+            boolean capture = Math.abs(landings.getFirst().row() - legal.getFromRow()) == 2;
+            if (legal.getFromRow() != from.row() || legal.getFromCol() != from.col() || !landings.getLast().equals(to)
+                    || capture != jump || !passes(landings, squares)) {
+                continue;
+            }
+            if (landings.size() == squares.length - 1) {
+                return legal;
+            }
+            // the same chain can be generated twice, only a different route is ambiguous
+            ambiguous |= found != null && !found.getLandingSquares().equals(landings);
+            found = found == null ? legal : found;
+        }
+        if (ambiguous) {
+            fail(line, "Ambiguous move '" + text(squares, jump) + "', give its landing squares");
+            return null;
+        }
+        if (found == null) {
+            fail(line, "Illegal move '" + text(squares, jump) + "'");
+        }
+        return found;
+    }
+
+    private static boolean passes(List<Board.Square> landings, int[] squares) {
+        int next = 1;
+        for (int i = 0; i < landings.size() - 1 && next < squares.length - 1; i++) {
+            if (Fen.squareNumber(landings.get(i).row(), landings.get(i).col()) == squares[next]) {
+                next++;
+            }
+        }
+        return next == squares.length - 1;
+    }
+
+    // the start position from the FEN tag, or the standard one
+    private boolean setUp() {
+        String gameType = tags.get("GameType");
+        if (gameType != null && !gameType.split(",")[0].trim().equals("21")) {
+            fail(gameLine, "Unsupported game type " + gameType + ", only 21 (English draughts) is played");
+            return false;
+        }
+        String fen = tags.get("FEN");
+        if (fen == null) {
+            board = Board.createStandardBoard(false);
+            return true;
+        }
+        try {
+            board = Fen.decode(fen);
+            return true;
+        } catch (IllegalArgumentException e) {
+            fail(gameLine, e.getMessage());
+            return false;
+        }
+    }
+
+    private void finishGame(String resultToken) {
+        if (error == null && board == null) {
+            setUp();
+        }
+        if (error != null) {
+            parsed.add(error);
+        } else {
+            String result = resultToken != null ? resultToken : tags.getOrDefault("Result", PdnGame.UNKNOWN);
+            parsed.add(new PdnGame(gameLine, tags, moves, result));
+        }
+        tags.clear();
+        moves.clear();
+        inGame = false;
+        inMovetext = false;
+        board = null;
+        error = null;
+    }
+
+    private void fail(long at, String message) {
+        if (error == null) {
+            error = new PdnError(gameLine, at, message);
+        }
+    }
+
+    private void skipComment() {
+        while (index < text.length() && text.charAt(index) != '}') {
+            if (text.charAt(index++) == '\n') {
+                line++;
+            }
+        }
+        index++;
+    }
+
+    private void skipVariation() {
+        int depth = 0;
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (c == '{') {
+                skipComment();
+                continue;
+            }
+            if (c == '\n') {
+                line++;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                index++;
+                return;
+            }
+            index++;
+        }
+    }
+
+    private void skipToLineEnd() {
+        while (index < text.length() && text.charAt(index) != '\n') {
+            index++;
+        }
+    }
+
+    private void skipPast(char end) {
+        while (index < text.length() && text.charAt(index) != end && text.charAt(index) != '\n') {
+            index++;
+        }
+        if (index < text.length() && text.charAt(index) == end) {
+            index++;
+        }
+    }
+
+    private int skipBlanks(int from) {
+        while (from < text.length() && (text.charAt(from) == ' ' || text.charAt(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == '[' || c == ';';
+    }
+
+    private static boolean isResult(String token) {
+        return switch (token) {
+            case PdnGame.BLACK_WINS, PdnGame.RED_WINS, PdnGame.DRAWN, PdnGame.UNKNOWN, "1-0", "0-1", "1/2-1/2" -> true;
+            default -> false;
+        };
+    }
+
+    // 1 to 32, 0 for anything else
+    private static int squareNumber(String part) {
+        if (part.isEmpty() || part.length() > 2) {
+            return 0;
+        }
+        int number = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            number = number * 10 + c - '0';
+        }
+        return number <= Board.BOARD_SIZE * Board.BOARD_SIZE / 2 ? number : 0;
+    }
+
+    private static String text(int[] squares, boolean jump) {
+        StringBuilder move = new StringBuilder().append(squares[0]);
+        for (int i = 1; i < squares.length; i++) {
+            move.append(jump ? 'x' : '-').append(squares[i]);
+        }
+        return move.toString();
+    }
+}
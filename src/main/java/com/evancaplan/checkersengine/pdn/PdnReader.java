@@ -0,0 +1,171 @@
+package com.evancaplan.checkersengine.pdn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Streams the games of a PDN file off a channel. The text is cut into chunks of about CHUNK_CHARS at game
+// boundaries, a line opening a tag section after movetext, and the chunks are parsed and replayed in
+// parallel (see PdnParser). The games and errors reach the handler on the calling thread in file order.
+// At most two chunks per thread are in flight, so memory stays the same however big the file is.
+// Bytes that aren't UTF-8, like the Latin-1 names of older collections, come out as replacement characters.
+public final class PdnReader {
+
+    static final int CHUNK_CHARS = 1 << 16;
+    private static final int READ_BYTES = 1 << 16;
+
+    private final int threads;
+    private final int chunkChars;
+
+    public PdnReader(int threads) {
+        this(threads, CHUNK_CHARS);
+    }
+
+    PdnReader(int threads, int chunkChars) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+        this.chunkChars = chunkChars;
+    }
+
+    // receives every game of the file in order, each either replayed or turned away
+    public interface Handler {
+        void game(PdnGame game);
+
+        void illegal(PdnError error);
+    }
+
+    public record Summary(long games, long illegal) {
+    }
+
+    // reads the channel to its end, it stays open
+    public Summary read(ReadableByteChannel channel, Handler handler) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return new Run(executor, handler).read(channel);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private final class Run {
+        private final ExecutorService executor;
+        private final Handler handler;
+        private final ArrayDeque<Future<List<Object>>> inFlight = new ArrayDeque<>();
+        private final StringBuilder chunk = new StringBuilder(chunkChars + 1_024);
+        private long games;
+        private long illegal;
+        // the line the chunk starts on and the line being read, counted from 1
+        private long chunkLine = 1;
+        private long line = 1;
+        // where the line being read starts in the chunk
+        private int lineStart;
+        private boolean lineBlank = true;
+        private boolean inComment;
+        private boolean sawMovetext;
+
+        private Run(ExecutorService executor, Handler handler) {
+            this.executor = executor;
+            this.handler = handler;
+        }
+
+        private Summary read(ReadableByteChannel channel) throws IOException {
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocate(READ_BYTES);
+            CharBuffer chars = CharBuffer.allocate(READ_BYTES);
+            boolean end = false;
+            while (!end) {
+                end = channel.read(bytes) < 0;
+                bytes.flip();
+                decoder.decode(bytes, chars, end);
+                if (end) {
+                    decoder.flush(chars);
+                }
+                bytes.compact();
+                chars.flip();
+                scan(chars);
+                chars.clear();
+            }
+            if (!chunk.toString().isBlank()) {
+                submit(chunk.toString(), chunkLine);
+            }
+            while (!inFlight.isEmpty()) {
+                deliver();
+            }
+            return new Summary(games, illegal);
+        }
+
+        // appends the text to the chunk, cutting it where the next game starts once it is big enough
+        private void scan(CharBuffer chars) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (lineBlank && !Character.isWhitespace(c)) {
+                    lineBlank = false;
+                    if (c == '[' && !inComment) {
+                        if (sawMovetext && lineStart >= chunkChars) {
+                            submit(chunk.substring(0, lineStart), chunkLine);
+                            chunk.delete(0, lineStart);
+                            lineStart = 0;
+                            chunkLine = line;
+                        }
+                        sawMovetext = false;
+                    } else {
+                        sawMovetext = true;
+                    }
+                }
+                if (c == '{') {
+                    inComment = true;
+                } else if (c == '}') {
+                    inComment = false;
+                }
+                chunk.append(c);
+                if (c == '\n') {
+                    line++;
+                    lineStart = chunk.length();
+                    lineBlank = true;
+                }
+            }
+        }
+
+        private void submit(String text, long firstLine) {
+            while (inFlight.size() >= threads * 2) {
+                deliver();
+            }
+            inFlight.add(executor.submit(() -> PdnParser.parse(text, firstLine)));
+        }
+
+        private void deliver() {
+            List<Object> parsed;
+            try {
+                parsed = inFlight.removeFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("PDN import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("PDN chunk failed to parse", e.getCause());
+            }
+            for (Object item : parsed) {
+                if (item instanceof PdnGame game) {
+                    games++;
+                    handler.game(game);
+                } else {
+                    illegal++;
+                    handler.illegal((PdnError) item);
+                }
+            }
+        }
+    }
+}
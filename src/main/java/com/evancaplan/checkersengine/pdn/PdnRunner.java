@@ -0,0 +1,84 @@
+package com.evancaplan.checkersengine.pdn;
+
+import com.evancaplan.checkersengine.engine.CompactBoard;
+import com.evancaplan.checkersengine.engine.TrainingSet;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Command line entry point for PDN game collections:
+//   PdnRunner check <pdn-file> [threads]
+//   PdnRunner positions <pdn-file> <positions-file> [threads]
+// check replays every game and lists the illegal ones with their line numbers. positions also writes
+// the quiet positions of every game with a known result as a training set for TunerRunner tune.
+// e.g. ./gradlew pdn -PpdnArgs="positions archive.pdn positions.bin 8"
+public final class PdnRunner {
+
+    private PdnRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("check")) {
+            read(Path.of(args[1]), threads(args, 2), null);
+        } else if (args.length >= 3 && args[0].equals("positions")) {
+            TrainingSet positions = new TrainingSet();
+            read(Path.of(args[1]), threads(args, 3), positions);
+            positions.write(Path.of(args[2]));
+            System.out.printf("%d positions written to %s%n", positions.size(), args[2]);
+        } else {
+            System.err.println("usage: PdnRunner check <pdn-file> [threads]");
+            System.err.println("       PdnRunner positions <pdn-file> <positions-file> [threads]");
+            System.exit(2);
+        }
+    }
+
+    private static void read(Path file, int threads, TrainingSet positions) throws IOException {
+        long start = System.nanoTime();
+        PdnReader.Summary summary;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            summary = new PdnReader(threads).read(channel, new PdnReader.Handler() {
+                @Override
+                public void game(PdnGame game) {
+                    if (positions != null) {
+                        addQuietPositions(game, positions);
+                    }
+                }
+
+                @Override
+                public void illegal(PdnError error) {
+                    System.err.println(file + ": " + error);
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d illegal, in %.1f s on %d threads, %.0f games/s%n", summary.games(),
+                summary.illegal(), seconds, threads, (summary.games() + summary.illegal()) / seconds);
+    }
+
+    // every position with no capture for the side to move, labelled with the game's result
+    private static void addQuietPositions(PdnGame game, TrainingSet positions) {
+        Piece.PieceColor winner = game.winner();
+        if (winner == null && !game.isDrawn()) {
+            return;
+        }
+        int label = winner == null ? TrainingSet.DRAW
+                : winner == Piece.PieceColor.BLACK ? TrainingSet.BLACK_WIN : TrainingSet.RED_WIN;
+        Board board = game.start();
+        for (Move move : game.moves()) {
+            Move legal = board.findLegalMove(move);
+            if (!legal.isCapture()) {
+                positions.add(CompactBoard.from(board), label);
+            }
+            board.movePiece(legal);
+        }
+    }
+
+    private static int threads(String[] args, int index) {
+        return args.length > index ? Integer.parseInt(args[index]) : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,108 @@
+package com.evancaplan.checkersengine.pdn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Writes games as PDN text to a channel, UTF-8 encoded: the tags one per line, a blank line, then the
+// numbered moves wrapped at LINE_WIDTH and closed by the result, and a blank line between games.
+// Games are collected in a buffer that goes to the channel whenever it fills, and on flush or close.
+public final class PdnWriter implements Closeable {
+
+    static final int LINE_WIDTH = 80;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final StringBuilder text = new StringBuilder();
+
+    public PdnWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public void write(PdnGame game) throws IOException {
+        text.setLength(0);
+        for (Map.Entry<String, String> tag : game.tags().entrySet()) {
+            text.append('[').append(tag.getKey()).append(" \"");
+            for (char c : tag.getValue().toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    text.append('\\');
+                }
+                text.append(c);
+            }
+            text.append("\"]\n");
+        }
+        text.append('\n');
+        appendMovetext(game);
+        text.append("\n\n");
+
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            drain();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    public void flush() throws IOException {
+        drain();
+    }
+
+    // flushes and closes the channel
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // 1. 11-15 23-19 2. 8-11 ..., starting 1... when red moves first
+    private void appendMovetext(PdnGame game) {
+        String fen = game.tags().get("FEN");
+        int ply = fen != null && fen.trim().startsWith("W") ? 1 : 0;
+        int lineStart = text.length();
+        List<String> tokens = new ArrayList<>(game.moves().size() * 3 / 2 + 1);
+        for (int i = 0; i < game.moves().size(); i++, ply++) {
+            if (ply % 2 == 0) {
+                tokens.add((ply / 2 + 1) + ".");
+            } else if (i == 0) {
+                tokens.add("1...");
+            }
+            tokens.add(PdnGame.notation(game.moves().get(i)));
+        }
+        tokens.add(game.result());
+        for (String token : tokens) {
+            if (text.length() > lineStart) {
+                if (text.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                    text.append('\n');
+                    lineStart = text.length();
+                } else {
+                    text.append(' ');
+                }
+            }
+            text.append(token);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.ResultCacheMetricsResponse;
+import com.evancaplan.checkersengine.engine.AlphaBetaSearch;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.model.Difficulty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Finished AI searches shared by every game, keyed by position hash, engine and difficulty.
+// Entries live in two fixed primitive arrays, grouped in buckets of two slots, and are read and written
+// without locks: each slot keeps its key xor'd with its data word, so a torn or racing write reads back
+// as a miss instead of someone else's move. Entries age by generation; a slot written in an older
+// generation is replaced first, otherwise the shallower of the two searches gives way.
+@Component
+public class AIResultCache {
+
+    static final int BUCKET_SIZE = 2;
+
+    // a whole Move.encode() key, scores up to a win either way, depths up to 127
+    private static final int MOVE_BITS = 31;
+    private static final int SCORE_BITS = 18;
+    private static final int DEPTH_BITS = 7;
+    private static final int GENERATION_BITS = 8;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int GENERATION_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    private static final long GENERATION_MASK = (1L << GENERATION_BITS) - 1;
+
+    private final boolean enabled;
+    private final long[] checks;
+    private final long[] data;
+    private final int bucketMask;
+    private final long storesPerGeneration;
+    private final AtomicLong stores = new AtomicLong();
+    private volatile int generation;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder replacements = new LongAdder();
+
+    public AIResultCache(@Value("${checkers.ai.cache.enabled:true}") boolean enabled,
+                         @Value("${checkers.ai.cache.entries:65536}") int entries) {
+        this.enabled = enabled;
+        // entries is rounded up to whole buckets and a power of two of them
+        int buckets = Integer.highestOneBit(Math.max(1, (entries + BUCKET_SIZE - 1) / BUCKET_SIZE - 1)) << 1;
+        this.checks = new long[enabled ? buckets * BUCKET_SIZE : 0];
+        this.data = new long[checks.length];
+        this.bucketMask = buckets - 1;
+        this.storesPerGeneration = Math.max(1, checks.length / 2);
+    }
+
+    public record CachedResult(int move, int score, int depth) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CachedResult lookup(long positionHash, String engine, Difficulty difficulty) {
+        return lookup(positionHash, engine, difficulty.ordinal() + 1);
+    }
+
+    public void store(long positionHash, String engine, Difficulty difficulty, SearchResult result) {
+        store(positionHash, engine, difficulty.ordinal() + 1, result);
+    }
+
+    // the variant, from 0 to 255, tells apart results of one engine in one position, like difficulties or hint ranks
+    public CachedResult lookup(long positionHash, String engine, int variant) {
+        if (!enabled) {
+            return null;
+        }
+        lookups.increment();
+        long key = key(positionHash, engine, variant);
+        int first = bucket(key);
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long word = data[slot];
+            if (word != 0 && (checks[slot] ^ word) == key) {
+                hits.increment();
+                return new CachedResult(
+                        (int) (word & ((1L << MOVE_BITS) - 1)),
+                        (int) ((word >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET,
+                        (int) ((word >>> DEPTH_SHIFT) & ((1L << DEPTH_BITS) - 1)));
+            }
+        }
+        return null;
+    }
+
+    public void store(long positionHash, String engine, int variant, SearchResult result) {
+        if (!enabled || result.bestMove() == null) {
+            return;
+        }
+        long key = key(positionHash, engine, variant);
+        int depth = Math.min(result.stats().depth(), (1 << DEPTH_BITS) - 1);
+        int currentGeneration = advanceGeneration();
+        long word = result.bestMove().encode()
+                | (long) (Math.max(-AlphaBetaSearch.WIN, Math.min(AlphaBetaSearch.WIN, result.score())) + SCORE_OFFSET) << SCORE_SHIFT
+                | (long) depth << DEPTH_SHIFT
+                | (long) currentGeneration << GENERATION_SHIFT;
+
+        int slot = victim(bucket(key), key, depth, currentGeneration);
+        if (slot < 0) {
+            return;
+        }
+        long previous = data[slot];
+        if (previous != 0 && (checks[slot] ^ previous) != key) {
+            replacements.increment();
+        }
+        // data first, then check, a reader racing in between sees a mismatch and misses
+        data[slot] = word;
+        checks[slot] = key ^ word;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < data.length; slot++) {
+            data[slot] = 0;
+            checks[slot] = 0;
+        }
+    }
+
+    public ResultCacheMetricsResponse snapshot() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+        int used = 0;
+        for (long word : data) {
+            if (word != 0) {
+                used++;
+            }
+        }
+
+        return ResultCacheMetricsResponse.builder()
+                .enabled(enabled)
+                .lookups(lookupCount)
+                .hits(hitCount)
+                .hitRate(lookupCount == 0 ? 0 : (double) hitCount / lookupCount)
+                .stores(stores.get())
+                .replacements(replacements.sum())
+                .capacity(data.length)
+                .used(used)
+                .memoryBytes((long) data.length * 2 * Long.BYTES)
+                .generation(generation)
+                .build();
+    }
+
+    // the same slot for the same position, or an empty one, or the older or shallower one in the bucket;
+    // -1 when the position is already cached at least as deep in the current generation
+    private int victim(int first, long key, int depth, int currentGeneration) {
+        int victim = first;
+        int victimRank = Integer.MAX_VALUE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long word = data[slot];
+            if (word == 0) {
+                return slot;
+            }
+            int slotDepth = (int) ((word >>> DEPTH_SHIFT) & ((1L << DEPTH_BITS) - 1));
+            boolean current = ((word >>> GENERATION_SHIFT) & GENERATION_MASK) == currentGeneration;
+            if ((checks[slot] ^ word) == key) {
+                return current && slotDepth > depth ? -1 : slot;
+            }
+            int rank = (current ? 1 << DEPTH_BITS : 0) + slotDepth;
+            if (rank < victimRank) {
+                victim = slot;
+                victimRank = rank;
+            }
+        }
+        return victim;
+    }
+
+    // a new generation starts after every half table of stores, so untouched entries become the first to go
+    private int advanceGeneration() {
+        if (stores.incrementAndGet() % storesPerGeneration == 0) {
+            generation = (int) ((generation + 1) & GENERATION_MASK);
+        }
+        return generation;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_SIZE;
+    }
+
+    // engines and variants never share an entry since each one plays its own moves
+    private static long key(long positionHash, String engine, int variant) {
+        long salt = ((long) engine.hashCode() << 8 | variant & 0xFF) * 0x9E3779B97F4A7C15L;
+        return positionHash ^ salt ^ salt >>> 29;
+    }
+}
@@ -0,0 +1,99 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.AnalysisResultDto;
+import com.evancaplan.checkersengine.dto.LegalMovesResponse;
+import com.evancaplan.checkersengine.dto.SearchStatsDto;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Fen;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Evaluates batches of positions on a pool of its own, one search per position within the difficulty's budget.
+// Searches go through MoveService.analyze, so they stay out of the AI move metrics and the shared result cache.
+@Service
+public class AnalysisService {
+
+    public static final int MAX_POSITIONS = 1_000;
+
+    private final MoveService moveService;
+    private final ExecutorService executor;
+
+    // threads of 0 or less means one per core
+    public AnalysisService(MoveService moveService,
+                           @Value("${checkers.ai.analysis.threads:0}") int threads) {
+        this.moveService = moveService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Analyses every position in parallel and hands each result to the sink as soon as it is ready, from the
+    // worker thread that produced it. Index i of the batch is reported as firstIndex + i. The future completes
+    // once every position is done. Throws IllegalArgumentException for a batch too large or an unknown engine.
+    public CompletableFuture<Void> analyze(List<String> positions, int firstIndex, Difficulty difficulty, String engine,
+                                           Consumer<AnalysisResultDto> sink) {
+        if (positions.size() > MAX_POSITIONS) {
+            throw new IllegalArgumentException("At most " + MAX_POSITIONS + " positions per batch");
+        }
+        String engineName = Engines.get(engine).getName();
+        Difficulty budget = difficulty == null ? Difficulty.MEDIUM : difficulty;
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            int index = firstIndex + i;
+            String position = positions.get(i);
+            tasks.add(CompletableFuture.runAsync(
+                    () -> sink.accept(analyzePosition(index, position, budget, engineName)), executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private AnalysisResultDto analyzePosition(int index, String position, Difficulty difficulty, String engine) {
+        AnalysisResultDto.AnalysisResultDtoBuilder result = AnalysisResultDto.builder()
+                .index(index)
+                .position(position);
+
+        Board board;
+        try {
+            board = Fen.decode(position);
+        } catch (IllegalArgumentException e) {
+            return result.error(e.getMessage()).build();
+        }
+        board.setDifficulty(difficulty);
+        board.setEngine(engine);
+        board.setPieceValues(moveService.getEvaluator());
+        result.sideToMove(board.getCurrentTurn().toString());
+
+        if (board.getLegalMoves().isEmpty()) {
+            return result.error("No legal moves, " + board.getCurrentTurn() + " has lost").build();
+        }
+
+        SearchResult search = moveService.analyze(board);
+        return result
+                .bestMove(LegalMovesResponse.MoveDto.fromMove(search.bestMove()))
+                .score(search.score())
+                .search(SearchStatsDto.fromResult(search))
+                .build();
+    }
+}
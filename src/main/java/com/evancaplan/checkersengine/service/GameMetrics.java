@@ -0,0 +1,129 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.GameEnd;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Micrometer meters for the game, move and engine hot paths, scraped from /actuator/prometheus.
+// Every meter, including one per tag value, is registered up front and recorded with a plain nanosecond
+// duration, so recording allocates nothing: no Timer.Sample, no tag lookup, no registry lookup.
+@Component
+public class GameMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer makeMove;
+    private final Timer moveValidation;
+    private final Timer aiMove;
+    private final Map<Difficulty, Timer> thinkTime = new EnumMap<>(Difficulty.class);
+    private final Counter illegalMoves;
+    private final Counter moveDeadlines;
+    private final Counter repeatedMoves;
+    private final Counter outOfOrderMoves;
+    private final Counter gamesCreated;
+    private final Map<GameEnd, Counter> gamesFinished = new EnumMap<>(GameEnd.class);
+
+    public GameMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.makeMove = Timer.builder("checkers.game.move")
+                .description("GameService.makeMove, the player's move and the AI reply")
+                .register(registry);
+        this.moveValidation = Timer.builder("checkers.move.validation")
+                .description("Board.isValidMove on a requested move")
+                .register(registry);
+        this.aiMove = Timer.builder("checkers.ai.move")
+                .description("MoveService.generateAIMove, cache hits included")
+                .register(registry);
+        for (Difficulty difficulty : Difficulty.values()) {
+            thinkTime.put(difficulty, Timer.builder("checkers.ai.think")
+                    .description("Time the engine spent searching for one AI move")
+                    .tag("difficulty", difficulty.name())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMillis(difficulty.getMaxTimeMillis() * 2))
+                    .register(registry));
+        }
+        this.illegalMoves = Counter.builder("checkers.moves.illegal")
+                .description("Moves rejected as illegal or out of turn")
+                .register(registry);
+        this.moveDeadlines = Counter.builder("checkers.ai.deadline.reached")
+                .description("AI replies stopped by the move deadline before their search finished")
+                .register(registry);
+        this.repeatedMoves = Counter.builder("checkers.moves.repeated")
+                .description("Moves sent again for a ply already played, answered with the first result")
+                .register(registry);
+        this.outOfOrderMoves = Counter.builder("checkers.moves.out.of.order")
+                .description("Moves turned away for being sent for a ply the game isn't at")
+                .register(registry);
+        this.gamesCreated = Counter.builder("checkers.games.created")
+                .description("Games started")
+                .register(registry);
+        for (GameEnd end : GameEnd.values()) {
+            gamesFinished.put(end, Counter.builder("checkers.games.finished")
+                    .description("Games over, by how they ended")
+                    .tag("end", end.name())
+                    .register(registry));
+        }
+    }
+
+    public void recordMakeMove(long nanos) {
+        makeMove.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMoveValidation(long nanos) {
+        moveValidation.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAIMove(long nanos) {
+        aiMove.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordThinkTime(Difficulty difficulty, long nanos) {
+        thinkTime.get(difficulty).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void illegalMove() {
+        illegalMoves.increment();
+    }
+
+    public void moveDeadlineReached() {
+        moveDeadlines.increment();
+    }
+
+    public void moveRepeated() {
+        repeatedMoves.increment();
+    }
+
+    public void moveOutOfOrder() {
+        outOfOrderMoves.increment();
+    }
+
+    public void gameCreated() {
+        gamesCreated.increment();
+    }
+
+    public void gameFinished(GameEnd end) {
+        gamesFinished.get(end).increment();
+    }
+
+    // gauges read the store whenever they are scraped; the registry only keeps a weak reference to it
+    public <T> void registerGameStore(T store, ToDoubleFunction<T> activeGames, ToDoubleFunction<T> memoryBytes) {
+        Gauge.builder("checkers.games.active", store, activeGames)
+                .description("Games being played")
+                .register(registry);
+        Gauge.builder("checkers.games.store.memory", store, memoryBytes)
+                .description("Estimated heap held by active and retained finished games")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+}
@@ -1,17 +1,39 @@
 package com.evancaplan.checkersengine.service;
 
+import com.evancaplan.checkersengine.archive.GameArchive;
 import com.evancaplan.checkersengine.dto.MoveRequest;
 import com.evancaplan.checkersengine.dto.StartGameRequest;
+import com.evancaplan.checkersengine.engine.Engine;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.jfr.GameLifecycleEvent;
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.GameClock;
+import com.evancaplan.checkersengine.model.GameEnd;
 import com.evancaplan.checkersengine.model.Move;
 import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.Position;
+import com.evancaplan.checkersengine.model.PositionHistory;
+import com.evancaplan.checkersengine.model.PositionTable;
+import com.evancaplan.checkersengine.model.TimeControl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
 
@@ -19,55 +41,454 @@ import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
 @RequiredArgsConstructor
 public class GameService {
 
+    static final int DEFAULT_RETAINED_FINISHED_GAMES = 1_000;
+    static final long DEFAULT_MOVE_DEADLINE_MILLIS = 10_000;
+    // resolution of the game clocks' flag checks
+    static final long CLOCK_TICK_MILLIS = 10;
+
+    // rough heap sizes for the memory gauge: a board with its pieces and tables, one waiting on its next move
+    // with only the shared position, a game's reference to a recorded position, one distinct position with its
+    // intern table entry, the hash window of an active game and a full window of remembered moves
+    private static final long BOARD_BYTES = 2_200;
+    private static final long SHARED_BOARD_BYTES = 100;
+    private static final long REFERENCE_BYTES = 4;
+    private static final long INTERNED_POSITION_BYTES = 140;
+    private static final long HISTORY_BYTES = PositionHistory.CAPACITY * Long.BYTES + 64;
+    private static final long MOVE_LOG_BYTES = MoveLog.WINDOW * 160L;
+
     private final MoveService moveService;
+    private final PonderService ponderService;
+    private final GameMetrics gameMetrics;
+    private final GameArchive gameArchive;
+
+    // plies in a row without a capture before the game is drawn, 0 turns the rule off
+    @Value("${checkers.game.no-capture-limit:80}")
+    private int noCaptureLimit = PositionHistory.DEFAULT_NO_CAPTURE_LIMIT;
+    // finished games that stay readable after leaving the active set, the oldest go first
+    @Value("${checkers.game.finished.retained:1000}")
+    private int retainedFinishedGames = DEFAULT_RETAINED_FINISHED_GAMES;
+    // the AI's search is stopped this long after the player's move came in and plays its best move so far,
+    // 0 leaves it to the difficulty's own time limit
+    @Value("${checkers.game.move.deadline-millis:10000}")
+    private long moveDeadlineMillis = DEFAULT_MOVE_DEADLINE_MILLIS;
 
+    // games still being played
     private final Map<String, Board> games = new ConcurrentHashMap<>();
+    // retired games in the order they finished, guarded by itself
+    private final Map<String, Board> finished = new LinkedHashMap<>();
+    // hashes of the recent positions of every active game, for the draw rules
+    private final Map<String, PositionHistory> histories = new ConcurrentHashMap<>();
+    // every position each game has been through, index = ply, games sharing the instances of equal positions.
+    // Only the move path appends, and readers copy the list under its own lock
+    private final Map<String, List<Position>> positions = new ConcurrentHashMap<>();
+    private final PositionTable positionTable = new PositionTable();
+    // clocks of the timed games still being played
+    private final Map<String, GameClock> clocks = new ConcurrentHashMap<>();
+    // the pending flag check of every timed game, one per game, all on one wheel
+    private final Map<String, TimingWheel.Timeout> flagChecks = new ConcurrentHashMap<>();
+    // recent moves of the games that tag their moves with a ply, kept as long as the game is readable
+    private final Map<String, MoveLog> moveLogs = new ConcurrentHashMap<>();
+    private final TimingWheel flagWheel = new TimingWheel(CLOCK_TICK_MILLIS, GameService::clockMillis, "game-clock");
+    // searches are CPU bound: they would hold on to a carrier thread, and more of them at once than there
+    // are cores only slows every one down, so all games share one platform thread per core and queue for it
+    private final ExecutorService searchThreads = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            Thread.ofPlatform().name("ai-move-", 0).daemon().factory());
 
+    // throws IllegalArgumentException for an engine that doesn't exist
     public String startNewGame(StartGameRequest request) {
         String id = UUID.randomUUID().toString();
-        games.put(id, Board.createStandardBoard(request.getSinglePlayer()));
+        Difficulty difficulty = request.getDifficulty() == null ? Difficulty.MEDIUM : request.getDifficulty();
+        Engine engine = Engines.get(request.getEngine());
+        Board board = Board.createStandardBoard(request.getSinglePlayer(), difficulty);
+        board.setEngine(engine.getName());
+        board.setPieceValues(moveService.getEvaluator());
+        board.setGameIdHash(id.hashCode());
+        List<Position> history = Collections.synchronizedList(new ArrayList<>());
+        Position start = positionTable.intern(board);
+        history.add(start);
+        positions.put(id, history);
+        histories.put(id, new PositionHistory(board));
+        board.share(start);
+        games.put(id, board);
+        TimeControl timeControl = request.getTimeControl();
+        if (timeControl != null && timeControl.timed()) {
+            GameClock clock = new GameClock(timeControl, board.getCurrentTurn(), clockMillis());
+            clocks.put(id, clock);
+            scheduleFlagCheck(id, clock);
+        }
+        gameMetrics.gameCreated();
+        recordLifecycle(GameLifecycleEvent.CREATED, board);
         return id;
     }
 
+    // the clock of an active timed game, null for an untimed or finished one
+    public GameClock getClock(String gameId) {
+        return clocks.get(gameId);
+    }
+
+    // the time base of the game clocks, in milliseconds
+    public static long clockMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    // the live board of an active game, or the final one of a retired game
     public Board getBoardState(String gameId) {
-        return games.get(gameId);
+        Board board = games.get(gameId);
+        if (board != null) {
+            return board;
+        }
+        synchronized (finished) {
+            return finished.get(gameId);
+        }
+    }
+
+    // a copy of the live or final board, for reading without holding the game up; a board waiting on its
+    // next move stays shared and only the copy makes pieces. Null for an unknown game
+    public Board snapshot(String gameId) {
+        Board board = getBoardState(gameId);
+        return board == null ? null : board.copy();
+    }
+
+    public MoveResult makeMove(MoveRequest request) {
+        long start = System.nanoTime();
+        long deadline = moveDeadlineMillis > 0 ? start + moveDeadlineMillis * 1_000_000 : Long.MAX_VALUE;
+        try {
+            return request.getPly() == null ? playTimed(request, deadline) : playOnce(request, deadline);
+        } finally {
+            gameMetrics.recordMakeMove(System.nanoTime() - start);
+        }
+    }
+
+    // a move tagged with its ply: played once, repeats answered from the game's MoveLog
+    private MoveResult playOnce(MoveRequest request, long deadline) {
+        Board board = getBoardState(request.getGameId());
+        if (board == null) {
+            return MoveResult.REJECTED;
+        }
+        MoveLog log = moveLogs.computeIfAbsent(request.getGameId(), id -> new MoveLog());
+        while (true) {
+            MoveLog.Claim claim = log.claim(request, board::getPly);
+            switch (claim.kind()) {
+                case PLAY -> {
+                    MoveResult result = MoveResult.REJECTED;
+                    try {
+                        result = playTimed(request, deadline);
+                        return result;
+                    } finally {
+                        log.finish(claim.entry(), result);
+                    }
+                }
+                case REPEAT -> {
+                    gameMetrics.moveRepeated();
+                    return claim.entry().awaitResult();
+                }
+                case WAIT -> claim.entry().awaitResult();
+                case OUT_OF_ORDER -> {
+                    gameMetrics.moveOutOfOrder();
+                    return MoveResult.OUT_OF_ORDER;
+                }
+            }
+        }
+    }
+
+    private MoveResult playTimed(MoveRequest request, long deadline) {
+        GameClock clock = clocks.get(request.getGameId());
+        if (clock == null) {
+            return playMove(request, deadline, null);
+        }
+        // the move is timed by its arrival, so checking it and the AI's thinking don't count against it
+        if (!clock.checkIn(clockMillis())) {
+            endOnTime(request.getGameId());
+            return MoveResult.REJECTED;
+        }
+        try {
+            return playMove(request, deadline, clock);
+        } finally {
+            clock.checkOut();
+            scheduleFlagCheck(request.getGameId(), clock);
+        }
     }
 
-    public boolean makeMove(MoveRequest request) {
+    // Validation gates the move on the request thread. After the player's move, the AI's reply is searched
+    // in a MoveScope on the shared search threads while the request thread saves the position: a failed
+    // save stops the search, and the deadline stops the search too, which then answers with the best move
+    // of its last finished iteration. In a timed game the deadline is brought forward to the AI's share of
+    // its clock.
+    private MoveResult playMove(MoveRequest request, long deadline, GameClock clock) {
         Board board = games.get(request.getGameId());
 
         if (board == null) {
-            return false;
+            return MoveResult.REJECTED;
+        }
+        // the board's monitor is the game's: a second move, or the flag falling, waits for this one to finish
+        synchronized (board) {
+            return playMove(request, deadline, clock, board);
+        }
+    }
+
+    private MoveResult playMove(MoveRequest request, long deadline, GameClock clock, Board board) {
+        // retired while this move waited for the one before
+        if (board.isGameOver()) {
+            return MoveResult.REJECTED;
         }
 
         Piece piece = board.getPieceAt(request.getFromRow(), request.getFromCol());
 
         if (piece == null || piece.getColor() != board.getCurrentTurn()) {
-            return false;
+            gameMetrics.illegalMove();
+            return MoveResult.REJECTED;
         }
 
         Move playerMove = Move.fromRequest(piece, request);
 
         if (!moveService.apply(board, playerMove)) {
-            return false;
+            gameMetrics.illegalMove();
+            return MoveResult.REJECTED;
         }
-
-        if (board.isGameOver()) {
-            return true;
+        // the human has moved, stop pondering and keep whatever replies are ready; a rejected move leaves
+        // pondering running for the move that comes instead
+        Map<Long, SearchResult> ponderedReplies = ponderService.claim(request.getGameId());
+        if (clock != null) {
+            // can't come too late, the clock let the move check in
+            clock.punch(clock.getCheckedIn());
         }
+        applyDrawRules(request.getGameId(), board);
 
         // only generate AI move if the player is BLACK and the flag for single player is true
-        if (board.isSinglePlayer() && piece.getColor() == BLACK) {
-            Move aiMove = moveService.generateAIMove(board);
-            if (aiMove != null) {
-                moveService.apply(board, aiMove);
+        boolean aiReplies = board.isSinglePlayer() && piece.getColor() == BLACK;
+        if (board.isGameOver() || !aiReplies) {
+            Position position = savePosition(request.getGameId(), board);
+            if (board.isGameOver()) {
+                retire(request.getGameId(), board);
+            } else {
+                board.share(position);
+            }
+            return MoveResult.APPLIED;
+        }
+
+        if (clock != null) {
+            long budget = clock.moveBudget(clockMillis());
+            if (budget != GameClock.UNLIMITED) {
+                deadline = Math.min(deadline, System.nanoTime() + budget * 1_000_000);
             }
         }
-        
-        return true;
+        SearchResult aiSearch;
+        try (MoveScope scope = new MoveScope(searchThreads, deadline)) {
+            MoveScope.Subtask<SearchResult> reply = scope.fork(() -> {
+                SearchResult pondered = ponderedReply(board, ponderedReplies);
+                return pondered != null ? pondered : moveService.generateAIMove(board);
+            });
+            savePosition(request.getGameId(), board);
+            if (scope.join()) {
+                gameMetrics.moveDeadlineReached();
+            }
+            scope.throwIfFailed();
+            aiSearch = reply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the AI move", e);
+        }
+        if (clock != null && !clock.punch(clockMillis())) {
+            endOnTime(request.getGameId());
+            return new MoveResult(true, aiSearch);
+        }
+
+        if (aiSearch != null && aiSearch.bestMove() != null) {
+            moveService.apply(board, aiSearch.bestMove());
+            applyDrawRules(request.getGameId(), board);
+            Position position = savePosition(request.getGameId(), board);
+            if (board.isGameOver()) {
+                retire(request.getGameId(), board);
+            } else {
+                // pondering copies the board before it lets go of its pieces
+                ponderService.startPondering(request.getGameId(), board, aiSearch);
+                board.share(position);
+            }
+        }
+        return new MoveResult(true, aiSearch);
     }
 
     public boolean gameExists(String gameId) {
+        return getBoardState(gameId) != null;
+    }
+
+    boolean isActive(String gameId) {
         return games.containsKey(gameId);
     }
+
+    @PostConstruct
+    void registerGauges() {
+        gameMetrics.registerGameStore(this, service -> service.games.size(), GameService::estimatedMemoryBytes);
+    }
+
+    // boards of active and retained games, their references to recorded positions, the distinct positions
+    // behind them, the draw-rule windows and the move logs
+    long estimatedMemoryBytes() {
+        long boards = 0;
+        for (Board board : games.values()) {
+            boards += board.isShared() ? SHARED_BOARD_BYTES : BOARD_BYTES;
+        }
+        synchronized (finished) {
+            boards += finished.size() * BOARD_BYTES;
+        }
+        long recorded = 0;
+        for (List<Position> history : positions.values()) {
+            recorded += history.size();
+        }
+        return boards + recorded * REFERENCE_BYTES
+                + positionTable.size() * INTERNED_POSITION_BYTES + histories.size() * HISTORY_BYTES
+                + moveLogs.size() * MOVE_LOG_BYTES;
+    }
+
+    // FEN of every position of the game so far, from the start position at ply 0, or null for an unknown game
+    public List<String> getPositions(String gameId) {
+        List<Position> history = positions.get(gameId);
+        return history == null ? null : snapshot(history).stream().map(Position::toFen).toList();
+    }
+
+    // distinct positions the games have been through
+    int distinctPositions() {
+        return positionTable.size();
+    }
+
+    private static List<Position> snapshot(List<Position> history) {
+        synchronized (history) {
+            return List.copyOf(history);
+        }
+    }
+
+    // records the position for analysis, returning the shared instance
+    private Position savePosition(String gameId, Board board) {
+        Position position = positionTable.intern(board);
+        List<Position> history = positions.get(gameId);
+        if (history != null) {
+            history.add(position);
+        }
+        return position;
+    }
+
+    // records the position for the draw rules and declares the draw they call for
+    private void applyDrawRules(String gameId, Board board) {
+        PositionHistory recent = histories.get(gameId);
+        if (recent != null) {
+            recent.record(board);
+            GameEnd draw = recent.draw(noCaptureLimit);
+            if (draw != null) {
+                board.declareDraw(draw);
+            }
+        }
+    }
+
+    // replaces the game's flag check with one for the current turn; nothing is due for a game that is over
+    // or whose side to move has no time limit
+    private void scheduleFlagCheck(String gameId, GameClock clock) {
+        if (!isActive(gameId)) {
+            return;
+        }
+        long flagTime = clock.flagTime();
+        int turn = clock.getTurns();
+        TimingWheel.Timeout previous = flagTime == GameClock.UNLIMITED
+                ? flagChecks.remove(gameId)
+                : flagChecks.put(gameId, flagWheel.schedule(flagTime, () -> checkFlag(gameId, clock, turn)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // runs on the wheel's thread; a move in progress or made since has the clock take over
+    private void checkFlag(String gameId, GameClock clock, int turn) {
+        if (clock.flagIfExpired(clockMillis(), turn)) {
+            endOnTime(gameId);
+        }
+    }
+
+    // the side to move lost on time, the game ends like any other
+    private void endOnTime(String gameId) {
+        Board board = games.get(gameId);
+        if (board == null) {
+            return;
+        }
+        // the flag check and a late move can both find the flag down, only one ends the game
+        synchronized (board) {
+            if (board.isGameOver()) {
+                return;
+            }
+            board.declareTimeout();
+        }
+        retire(gameId, board);
+    }
+
+    // searches still running are interrupted and answer with what they have
+    @PreDestroy
+    void shutdown() {
+        flagWheel.close();
+        searchThreads.shutdownNow();
+    }
+
+    // moves a finished game out of the active set and into the archive; it stays readable as it is
+    // until enough newer games finish
+    private void retire(String gameId, Board board) {
+        // taken first, with no retention eviction drops it right away
+        List<Position> history = positions.get(gameId);
+        gameMetrics.gameFinished(board.getGameEnd());
+        ponderService.cancel(gameId);
+        histories.remove(gameId);
+        clocks.remove(gameId);
+        TimingWheel.Timeout flagCheck = flagChecks.remove(gameId);
+        if (flagCheck != null) {
+            flagCheck.cancel();
+        }
+        synchronized (finished) {
+            finished.put(gameId, board);
+            Iterator<Map.Entry<String, Board>> oldest = finished.entrySet().iterator();
+            while (finished.size() > retainedFinishedGames && oldest.hasNext()) {
+                Map.Entry<String, Board> evicted = oldest.next();
+                positions.remove(evicted.getKey());
+                moveLogs.remove(evicted.getKey());
+                oldest.remove();
+                recordLifecycle(GameLifecycleEvent.EVICTED, evicted.getValue());
+            }
+        }
+        games.remove(gameId);
+        recordLifecycle(GameLifecycleEvent.RETIRED, board);
+        if (history != null) {
+            gameArchive.append(gameId, board, snapshot(history));
+        }
+    }
+
+    // lifecycle events carry no duration, they mark the moment
+    private static void recordLifecycle(String action, Board board) {
+        GameLifecycleEvent event = new GameLifecycleEvent();
+        if (event.shouldCommit()) {
+            event.gameIdHash = board.getGameIdHash();
+            event.ply = board.getPly();
+            event.action = action;
+            GameEnd end = board.getGameEnd();
+            event.gameEnd = end == null ? null : end.name();
+            event.commit();
+        }
+    }
+
+    // the pondered answer to this exact position, resolved against the live board's moves
+    private static SearchResult ponderedReply(Board board, Map<Long, SearchResult> ponderedReplies) {
+        SearchResult pondered = ponderedReplies.get(board.getPositionHash());
+        if (pondered == null) {
+            return null;
+        }
+        Move move = board.findLegalMove(pondered.bestMove());
+        return move == null ? null : new SearchResult(move, pondered.score(), pondered.stats());
+    }
+
+    // whether the player's move was applied, plus the search behind the AI reply when there was one;
+    // outOfOrder marks a move tagged for a ply the game isn't at, which was never looked at
+    public record MoveResult(boolean applied, SearchResult aiSearch, boolean outOfOrder) {
+        static final MoveResult REJECTED = new MoveResult(false, null);
+        static final MoveResult APPLIED = new MoveResult(true, null);
+        static final MoveResult OUT_OF_ORDER = new MoveResult(false, null, true);
+
+        public MoveResult(boolean applied, SearchResult aiSearch) {
+            this(applied, aiSearch, false);
+        }
+    }
 }
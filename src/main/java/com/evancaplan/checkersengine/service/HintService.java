@@ -0,0 +1,123 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.engine.AlphaBetaSearch;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.MoveOrderer;
+import com.evancaplan.checkersengine.engine.SearchLimits;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import com.evancaplan.checkersengine.engine.TablePool;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Best moves for the side to move, found by a multi-PV alpha-beta search that stops at a latency cap.
+// Hints live in the shared result cache, one entry per rank, so asking again in the same position is a lookup;
+// a single hint is also answered from the AI's own cached move, and a hint searched at least as deep
+// as the game's difficulty is handed to the AI in return.
+@Service
+@RequiredArgsConstructor
+public class HintService {
+
+    public static final int MAX_HINTS = 10;
+    public static final long MAX_LATENCY_MILLIS = 2_000;
+
+    static final String HINT_CACHE_ENGINE = "hint";
+    private static final int HINT_MAX_DEPTH = 64;
+    private static final int HINT_TABLE_ENTRIES = 1 << 16;
+
+    private final AIResultCache resultCache;
+    private final SearchMetrics searchMetrics;
+
+    // the hinted moves best first, whether they came from the cache, and how long finding them took
+    public record Hints(List<SearchResult> moves, boolean cached, long elapsedNanos) {
+    }
+
+    // count is clamped to 1..MAX_HINTS and the cap to 1..MAX_LATENCY_MILLIS;
+    // the cap holds from the second iteration on, the first one always completes
+    public Hints hint(Board board, int count, long maxMillis) {
+        long start = System.nanoTime();
+        int wanted = Math.max(1, Math.min(count, MAX_HINTS));
+        if (board.getLegalMoves().isEmpty()) {
+            return new Hints(List.of(), false, System.nanoTime() - start);
+        }
+
+        List<SearchResult> cached = cachedHints(board, wanted);
+        if (cached != null) {
+            return new Hints(cached, true, System.nanoTime() - start);
+        }
+
+        SearchLimits limits = new SearchLimits(HINT_MAX_DEPTH, Long.MAX_VALUE,
+                Math.max(1, Math.min(maxMillis, MAX_LATENCY_MILLIS)));
+        AlphaBetaSearch search = new AlphaBetaSearch(TablePool.SHARED, HINT_TABLE_ENTRIES, new MoveOrderer(), 0, 0L);
+        List<SearchResult> found = search.searchTopMoves(board.copy(), limits, wanted);
+
+        List<SearchResult> hints = new ArrayList<>(found.size());
+        for (SearchResult result : found) {
+            hints.add(new SearchResult(board.findLegalMove(result.bestMove()), result.score(), result.stats()));
+        }
+        if (!hints.isEmpty()) {
+            searchMetrics.record(hints.getFirst().stats());
+            remember(board, hints);
+        }
+        return new Hints(hints, false, System.nanoTime() - start);
+    }
+
+    // every rank from one search, still legal and distinct, or null
+    private List<SearchResult> cachedHints(Board board, int wanted) {
+        int available = Math.min(wanted, board.getLegalMoves().size());
+        List<SearchResult> hints = new ArrayList<>(available);
+        Set<Move> seen = new HashSet<>();
+        int depth = -1;
+
+        for (int rank = 1; rank <= available; rank++) {
+            AIResultCache.CachedResult cached = resultCache.lookup(board.getPositionHash(), HINT_CACHE_ENGINE, rank);
+            Move move = cached == null ? null : board.findLegalMove(cached.move());
+            // ranks written by different searches don't belong together
+            if (move == null || !seen.add(move) || depth >= 0 && cached.depth() != depth) {
+                return wanted == 1 ? aiMove(board) : null;
+            }
+            depth = cached.depth();
+            hints.add(new SearchResult(move, cached.score(), new SearchStats(depth, 0, 0, 0, 0, List.of(move))));
+        }
+        return hints;
+    }
+
+    // the AI's own cached choice in this position, when the game plays the default engine
+    private List<SearchResult> aiMove(Board board) {
+        String engine = Engines.get(board.getEngine()).getName();
+        if (!Engines.DEFAULT.equals(engine)) {
+            return null;
+        }
+        AIResultCache.CachedResult cached = resultCache.lookup(board.getPositionHash(), engine, board.getDifficulty());
+        Move move = cached == null ? null : board.findLegalMove(cached.move());
+        if (move == null) {
+            return null;
+        }
+        return List.of(new SearchResult(move, cached.score(), new SearchStats(cached.depth(), 0, 0, 0, 0, List.of(move))));
+    }
+
+    private void remember(Board board, List<SearchResult> hints) {
+        long positionHash = board.getPositionHash();
+        for (int rank = 1; rank <= hints.size(); rank++) {
+            resultCache.store(positionHash, HINT_CACHE_ENGINE, rank, hints.get(rank - 1));
+        }
+
+        // deep enough to stand in for the AI's own search; noisy difficulties keep searching themselves
+        Difficulty difficulty = board.getDifficulty();
+        SearchResult best = hints.getFirst();
+        String engine = Engines.get(board.getEngine()).getName();
+        if (Engines.DEFAULT.equals(engine)
+                && difficulty.getEvaluationNoise() == 0
+                && best.depth() >= difficulty.getMaxDepth()) {
+            resultCache.store(positionHash, engine, difficulty, best);
+        }
+    }
+}
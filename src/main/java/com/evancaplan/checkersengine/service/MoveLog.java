@@ -0,0 +1,93 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.MoveRequest;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+
+// The recent moves of one game by the ply they were sent for, so a move tagged with its ply is played
+// once however often it is sent. A repeat gets the first one's result, waiting for it while the move is
+// still being played. A move for a later ply waits behind the one being played, so clients can pipeline,
+// and a move for any other ply is turned away without touching the board. Only the last WINDOW applied
+// moves are remembered, an older repeat is out of order like any other stale move.
+final class MoveLog {
+
+    static final int WINDOW = 32;
+
+    private final Entry[] applied = new Entry[WINDOW];
+    // the tagged move being played, null when none is
+    private Entry playing;
+
+    // decides what happens to a tagged move. The board's ply is read under the log's lock, so it can't
+    // be from before a move that finished in the meantime, which would replay a retry of that move or
+    // turn away the move pipelined behind it
+    synchronized Claim claim(MoveRequest request, IntSupplier boardPly) {
+        int ply = request.getPly();
+        if (playing != null) {
+            if (ply == playing.ply) {
+                return playing.sameMove(request) ? new Claim(Claim.Kind.REPEAT, playing) : Claim.OUT_OF_ORDER;
+            }
+            if (ply > playing.ply) {
+                return new Claim(Claim.Kind.WAIT, playing);
+            }
+        } else if (ply == boardPly.getAsInt()) {
+            playing = new Entry(ply, request);
+            return new Claim(Claim.Kind.PLAY, playing);
+        }
+        Entry done = ply < 0 ? null : applied[ply % WINDOW];
+        if (done != null && done.ply == ply && done.sameMove(request)) {
+            return new Claim(Claim.Kind.REPEAT, done);
+        }
+        return Claim.OUT_OF_ORDER;
+    }
+
+    // the claimed move is done with; an applied one is kept for its repeats, a rejected one may be sent again
+    synchronized void finish(Entry entry, GameService.MoveResult result) {
+        if (result.applied()) {
+            applied[entry.ply % WINDOW] = entry;
+        }
+        if (playing == entry) {
+            playing = null;
+        }
+        entry.result.complete(result);
+    }
+
+    record Claim(Kind kind, Entry entry) {
+        static final Claim OUT_OF_ORDER = new Claim(Kind.OUT_OF_ORDER, null);
+
+        enum Kind {
+            // play the move, then finish the entry
+            PLAY,
+            // answer with the entry's result
+            REPEAT,
+            // wait for the entry's result, then claim again
+            WAIT,
+            // turn the move away
+            OUT_OF_ORDER
+        }
+    }
+
+    static final class Entry {
+        private final int ply;
+        private final MoveRequest move;
+        private final CompletableFuture<GameService.MoveResult> result = new CompletableFuture<>();
+
+        private Entry(int ply, MoveRequest move) {
+            this.ply = ply;
+            this.move = move;
+        }
+
+        GameService.MoveResult awaitResult() {
+            return result.join();
+        }
+
+        private boolean sameMove(MoveRequest other) {
+            return move.getFromRow() == other.getFromRow()
+                    && move.getFromCol() == other.getFromCol()
+                    && Objects.equals(move.getToRow(), other.getToRow())
+                    && Objects.equals(move.getToCol(), other.getToCol())
+                    && Objects.equals(move.getPath(), other.getPath());
+        }
+    }
+}
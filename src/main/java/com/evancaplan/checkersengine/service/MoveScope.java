@@ -0,0 +1,174 @@
+package com.evancaplan.checkersengine.service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Structured concurrency for the steps of one move, shaped like StructuredTaskScope.ShutdownOnFailure,
+// which is still a preview API in Java 21. Subtasks run on the scope's executor, usually a bounded pool
+// shared by every game, and none outlives the scope: the first failure shuts the scope down, interrupting
+// the subtasks still running and dropping the ones still queued, and close does the same and waits for
+// the running ones to finish. The deadline interrupts the running subtasks, and a subtask that only gets
+// a thread after the deadline starts out interrupted. Subtasks are expected to end soon after an
+// interrupt, like a search handing back its best move so far. A scope belongs to the thread that opened it.
+final class MoveScope implements AutoCloseable {
+
+    private final Executor executor;
+    private final long deadline;
+    // walked by a failing subtask too when it shuts the scope down
+    private final List<Subtask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean expired;
+    private volatile boolean shutdown;
+
+    // deadline in System.nanoTime terms, Long.MAX_VALUE for none
+    MoveScope(Executor executor, long deadline) {
+        this.executor = executor;
+        this.deadline = deadline;
+    }
+
+    // queues the task on the executor; a scope that has shut down starts nothing
+    <T> Subtask<T> fork(Callable<T> task) {
+        Subtask<T> subtask = new Subtask<>(task);
+        subtasks.add(subtask);
+        if (shutdown) {
+            subtask.stop();
+        } else {
+            executor.execute(subtask);
+        }
+        return subtask;
+    }
+
+    // waits for every subtask, interrupting them at the deadline; returns whether the deadline was reached
+    boolean join() throws InterruptedException {
+        for (Subtask<?> subtask : subtasks) {
+            if (!expired) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0 && subtask.done.await(remaining, TimeUnit.NANOSECONDS)) {
+                    continue;
+                }
+                expired = true;
+                for (Subtask<?> running : subtasks) {
+                    running.interrupt();
+                }
+            }
+            subtask.done.await();
+        }
+        return expired;
+    }
+
+    // the first failure of a subtask, rethrown as it is when unchecked
+    void throwIfFailed() {
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException e) {
+            throw e;
+        }
+        if (cause instanceof Error e) {
+            throw e;
+        }
+        if (cause != null) {
+            throw new IllegalStateException("Move step failed", cause);
+        }
+    }
+
+    // interrupts the subtasks still running, which finish on their own, and drops the queued ones
+    void shutdown() {
+        shutdown = true;
+        for (Subtask<?> subtask : subtasks) {
+            subtask.stop();
+        }
+    }
+
+    // shuts down and waits for the running subtasks, so nothing the scope started keeps running
+    @Override
+    public void close() {
+        shutdown();
+        boolean interrupted = false;
+        for (Subtask<?> subtask : subtasks) {
+            while (subtask.done.getCount() > 0) {
+                try {
+                    subtask.done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    final class Subtask<T> implements Runnable {
+        private final Callable<T> task;
+        private final CountDownLatch done = new CountDownLatch(1);
+        // guarded by this, so an interrupt can't reach the next task the pool thread picks up
+        private boolean started;
+        private Thread thread;
+        private volatile boolean completed;
+        private volatile T result;
+
+        private Subtask(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+                if (shutdown) {
+                    done.countDown();
+                    return;
+                }
+                thread = Thread.currentThread();
+                if (expired || deadline - System.nanoTime() <= 0) {
+                    thread.interrupt();
+                }
+            }
+            try {
+                result = task.call();
+                completed = true;
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    shutdown();
+                }
+            } finally {
+                synchronized (this) {
+                    thread = null;
+                    // the pool thread goes on to other work
+                    Thread.interrupted();
+                }
+                done.countDown();
+            }
+        }
+
+        // throws IllegalStateException unless the subtask completed normally
+        T get() {
+            if (!completed) {
+                throw new IllegalStateException("Subtask did not complete");
+            }
+            return result;
+        }
+
+        private synchronized void interrupt() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        // a queued subtask never starts, a running one is interrupted
+        private synchronized void stop() {
+            if (!started) {
+                started = true;
+                done.countDown();
+            }
+            interrupt();
+        }
+    }
+}
@@ -1,19 +1,54 @@
 package com.evancaplan.checkersengine.service;
 
+import com.evancaplan.checkersengine.engine.Engine;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.EvaluationWeights;
+import com.evancaplan.checkersengine.engine.Evaluator;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import com.evancaplan.checkersengine.jfr.AIMoveEvent;
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
 import com.evancaplan.checkersengine.model.Move;
-import com.evancaplan.checkersengine.model.Piece;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class MoveService {
 
+    private final SearchMetrics searchMetrics;
+    private final AIResultCache resultCache;
+    private final GameMetrics gameMetrics;
+
+    // weights file written by the tuner, the built-in weights are used when none is set
+    @Value("${checkers.ai.weights.file:}")
+    private String weightsFile = "";
+
+    // evaluator for every board the games and analyses create
+    @Getter
+    private Evaluator evaluator = Evaluator.DEFAULT;
+
+    // a weights file that is set but can't be read stops startup rather than playing with other weights
+    @PostConstruct
+    void loadWeights() throws IOException {
+        if (weightsFile != null && !weightsFile.isBlank()) {
+            evaluator = new Evaluator(EvaluationWeights.load(Path.of(weightsFile)));
+        }
+    }
+
     public boolean apply(Board board, Move move) {
-        if (!board.isValidMove(move)) {
+        long start = System.nanoTime();
+        boolean valid = board.isValidMove(move);
+        gameMetrics.recordMoveValidation(System.nanoTime() - start);
+        if (!valid) {
             return false;
         }
 
@@ -22,28 +57,88 @@ public class MoveService {
         return true;
     }
 
-    // Simple AI move generator
-    // First capture it can make, else first legal step.
-    public Move generateAIMove(Board board) {
-        List<Piece> redPieces = board.getRedPieces();
-        
-        for (Piece piece : redPieces) {
-            List<Move> captureMoves = board.getCaptureMovesForPiece(piece);
-            if (!captureMoves.isEmpty()) {
-                return captureMoves.getFirst();
-            }
-        }
-        
-       for (Piece piece : redPieces) {
-            List<Move> simpleMoves = board.getSimpleMovesForPiece(piece);
-            if (!simpleMoves.isEmpty()) {
-                return simpleMoves.getFirst();
-            }
-        }
-        
+    // AI move generator
+    // Answers from the shared result cache when another game already searched this position,
+    // otherwise the game's engine searches a copy of the board within the difficulty budget;
+    // the best move in the result is the matching legal move of the live board.
+    public SearchResult generateAIMove(Board board) {
+        AIMoveEvent event = new AIMoveEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        Engine engine = engineFor(board);
+        Difficulty difficulty = board.getDifficulty();
+        SearchResult cached = cachedResult(board, engine, difficulty);
+        SearchResult result = cached != null ? cached : search(board, engine, difficulty);
+
+        gameMetrics.recordAIMove(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.gameIdHash = board.getGameIdHash();
+            event.ply = board.getPly();
+            event.engine = engine.getName();
+            event.difficulty = difficulty.name();
+            event.depth = result.depth();
+            event.nodes = result.stats().nodes();
+            event.cached = cached != null;
+            event.commit();
+        }
+        return result;
+    }
+
+    // Searches a copy of the board like generateAIMove but leaves no trace: no AI move metrics, search stats,
+    // flight recorder event or cache entry, so analyses don't show up as games being played.
+    public SearchResult analyze(Board board) {
+        Engine engine = engineFor(board);
+        Difficulty difficulty = board.getDifficulty();
+        SearchResult result = engine.newSearch(difficulty).search(board.copy(), engine.limits(difficulty));
+        if (result.bestMove() == null) {
+            return result;
+        }
+        return new SearchResult(board.findLegalMove(result.bestMove()), result.score(), result.stats());
+    }
+
+    private SearchResult search(Board board, Engine engine, Difficulty difficulty) {
+        SearchResult result = engine.newSearch(difficulty).search(board.copy(), engine.limits(difficulty));
+        searchMetrics.record(result.stats());
+        gameMetrics.recordThinkTime(difficulty, result.stats().elapsedNanos());
+
         // No valid moves found
-        return null;
+        if (result.bestMove() == null) {
+            return result;
+        }
+        // a search cut short by its caller's deadline is too shallow to share
+        if (isCacheable(difficulty) && !Thread.currentThread().isInterrupted()) {
+            resultCache.store(board.getPositionHash(), engine.getName(), difficulty, result);
+        }
+        return new SearchResult(board.findLegalMove(result.bestMove()), result.score(), result.stats());
+    }
+
+    // the engine the game picked when it started
+    public Engine engineFor(Board board) {
+        return Engines.get(board.getEngine());
+    }
+
+    // a cached move only counts while it is legal here, which also screens out hash collisions
+    private SearchResult cachedResult(Board board, Engine engine, Difficulty difficulty) {
+        if (!isCacheable(difficulty)) {
+            return null;
+        }
+        long started = System.nanoTime();
+        AIResultCache.CachedResult cached = resultCache.lookup(board.getPositionHash(), engine.getName(), difficulty);
+        if (cached == null) {
+            return null;
+        }
+        Move move = board.findLegalMove(cached.move());
+        if (move == null) {
+            return null;
+        }
+        SearchStats stats = new SearchStats(cached.depth(), 0, 0, 0, System.nanoTime() - started, List.of(move));
+        return new SearchResult(move, cached.score(), stats);
     }
-    
-}
 
+    // noisy difficulties are meant to vary their play, so they always search afresh
+    private static boolean isCacheable(Difficulty difficulty) {
+        return difficulty.getEvaluationNoise() == 0;
+    }
+
+}
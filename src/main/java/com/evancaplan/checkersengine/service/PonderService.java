@@ -0,0 +1,167 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.engine.Engine;
+import com.evancaplan.checkersengine.engine.EngineSearch;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Background pondering for single player games.
+// While the human is thinking, low priority threads search the AI's answer to the likeliest human
+// replies and keep them by the hash of the position each reply leads to. The next human move claims
+// whatever is ready and stops the rest.
+@Service
+public class PonderService {
+
+    static final int MAX_PONDERED_REPLIES = 8;
+
+    private final MoveService moveService;
+    private final boolean enabled;
+    private final ExecutorService executor;
+    private final Map<String, PonderJob> jobs = new ConcurrentHashMap<>();
+
+    public PonderService(MoveService moveService,
+                         @Value("${checkers.ai.pondering.enabled:false}") boolean enabled,
+                         @Value("${checkers.ai.pondering.threads:1}") int threads) {
+        this.moveService = moveService;
+        this.enabled = enabled;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ponder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // starts pondering the position after the AI's move, replacing any earlier job for the game
+    public void startPondering(String gameId, Board board, SearchResult aiSearch) {
+        if (!enabled) {
+            return;
+        }
+
+        PonderJob job = new PonderJob(board.copy(), expectedReply(aiSearch));
+        PonderJob previous = jobs.put(gameId, job);
+        if (previous != null) {
+            previous.cancel();
+        }
+        job.future = executor.submit(job::run);
+    }
+
+    // stops pondering for the game and hands over the replies prepared so far, keyed by position hash
+    public Map<Long, SearchResult> claim(String gameId) {
+        PonderJob job = jobs.remove(gameId);
+        if (job == null) {
+            return Map.of();
+        }
+        job.cancel();
+        return job.replies;
+    }
+
+    public void cancel(String gameId) {
+        claim(gameId);
+    }
+
+    boolean isPondering(String gameId) {
+        PonderJob job = jobs.get(gameId);
+        return job != null && job.future != null && !job.future.isDone();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(PonderJob::cancel);
+        executor.shutdownNow();
+    }
+
+    // the second move of the AI's principal variation is the reply it expects from the human
+    private static Move expectedReply(SearchResult aiSearch) {
+        if (aiSearch == null || aiSearch.stats().principalVariation().size() < 2) {
+            return null;
+        }
+        return aiSearch.stats().principalVariation().get(1);
+    }
+
+    private class PonderJob {
+        private final Board board;
+        private final Move expectedReply;
+        private final Map<Long, SearchResult> replies = new ConcurrentHashMap<>();
+        private volatile boolean cancelled;
+        private volatile EngineSearch currentSearch;
+        private volatile Future<?> future;
+
+        PonderJob(Board board, Move expectedReply) {
+            this.board = board;
+            this.expectedReply = expectedReply;
+        }
+
+        void run() {
+            Difficulty difficulty = board.getDifficulty();
+            for (Move reply : candidateReplies()) {
+                if (cancelled) {
+                    return;
+                }
+                board.movePiece(reply);
+                try {
+                    if (!board.getLegalMoves().isEmpty()) {
+                        Engine engine = moveService.engineFor(board);
+                        EngineSearch search = engine.newSearch(difficulty);
+                        currentSearch = search;
+                        if (cancelled) {
+                            return;
+                        }
+                        long positionHash = board.getPositionHash();
+                        SearchResult result = search.search(board, engine.limits(difficulty));
+                        if (!search.isStopped() && result.bestMove() != null) {
+                            replies.put(positionHash, result);
+                        }
+                    }
+                } finally {
+                    board.undoMove(reply);
+                }
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            EngineSearch search = currentSearch;
+            if (search != null) {
+                search.stop();
+            }
+            Future<?> running = future;
+            if (running != null) {
+                running.cancel(false);
+            }
+        }
+
+        // the expected reply goes first, the rest follow in generator order
+        private List<Move> candidateReplies() {
+            List<Move> candidates = new ArrayList<>();
+            Move expected = expectedReply == null ? null : board.findLegalMove(expectedReply);
+            if (expected != null) {
+                candidates.add(expected);
+            }
+            for (Move move : board.getLegalMoves()) {
+                if (candidates.size() >= MAX_PONDERED_REPLIES) {
+                    break;
+                }
+                if (move != expected) {
+                    candidates.add(move);
+                }
+            }
+            return candidates;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.SearchMetricsResponse;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// process-wide totals over every AI search, cheap enough to update from concurrent games
+@Component
+public class SearchMetrics {
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder depth = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAccumulator maxElapsedNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(SearchStats stats) {
+        searches.increment();
+        depth.add(stats.depth());
+        nodes.add(stats.nodes());
+        tableProbes.add(stats.tableProbes());
+        tableHits.add(stats.tableHits());
+        elapsedNanos.add(stats.elapsedNanos());
+        maxElapsedNanos.accumulate(stats.elapsedNanos());
+    }
+
+    public SearchMetricsResponse snapshot() {
+        long searchCount = searches.sum();
+        long nodeCount = nodes.sum();
+        long nanos = elapsedNanos.sum();
+        long probes = tableProbes.sum();
+
+        return SearchMetricsResponse.builder()
+                .searches(searchCount)
+                .nodes(nodeCount)
+                .averageDepth(searchCount == 0 ? 0 : (double) depth.sum() / searchCount)
+                .nodesPerSecond(nanos == 0 ? 0 : (long) (nodeCount / (nanos / 1e9)))
+                .tableHitRate(probes == 0 ? 0 : (double) tableHits.sum() / probes)
+                .averageTimeMillis(searchCount == 0 ? 0 : nanos / 1_000_000.0 / searchCount)
+                .maxTimeMillis(maxElapsedNanos.get() / 1_000_000.0)
+                .build();
+    }
+}
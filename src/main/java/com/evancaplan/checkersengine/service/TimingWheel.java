@@ -0,0 +1,212 @@
+package com.evancaplan.checkersengine.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// A hierarchical timing wheel (Varghese and Lauck) holding the pending timeouts of every game.
+// Level 0 has WHEEL_SIZE slots one tick wide, each level above has slots as wide as the whole level below.
+// A timeout goes into the lowest level whose span reaches its deadline, and when the cursor enters a slot
+// of a higher level the timeouts in it cascade down into finer slots. Scheduling and cancelling link or
+// unlink one node, O(1), and a tick only visits the slots the cursor enters.
+// Due tasks run on the wheel's ticker thread, which is started on first use and sleeps while nothing is
+// pending, or on whoever calls advanceTo. Timeouts fire up to a tick late, never early.
+final class TimingWheel implements AutoCloseable {
+
+    static final int WHEEL_BITS = 6;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    // at a 10 ms tick the top level spans 46 hours, later deadlines wait in its last slot and cascade again
+    static final int LEVELS = 4;
+    private static final long SLOT_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final String threadName;
+    // slot list heads, each a sentinel of a circular doubly linked list
+    private final Timeout[][] slots = new Timeout[LEVELS][WHEEL_SIZE];
+    // the last tick processed
+    private long currentTick;
+    private int pending;
+    private Thread ticker;
+    private boolean closed;
+
+    // the clock gives milliseconds on a monotonic base; a null thread name starts no ticker
+    TimingWheel(long tickMillis, LongSupplier clock, String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.threadName = threadName;
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Timeout(0, null);
+            }
+        }
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    // runs the task once the clock reaches the deadline; throws IllegalStateException once closed
+    synchronized Timeout schedule(long deadlineMillis, Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        if (pending == 0) {
+            // nothing is due, so the cursor can skip the idle ticks instead of walking them
+            currentTick = Math.max(currentTick, clock.getAsLong() / tickMillis);
+        }
+        // rounded up to whole ticks, and at least the next one since the current tick has been processed
+        long deadlineTick = Math.max(currentTick + 1, Math.ceilDiv(deadlineMillis, tickMillis));
+        Timeout timeout = new Timeout(deadlineTick, task);
+        insert(timeout);
+        pending++;
+        if (ticker == null && threadName != null) {
+            ticker = Thread.ofPlatform().name(threadName).daemon().start(this::tickLoop);
+        } else if (ticker != null && pending == 1) {
+            notifyAll();
+        }
+        return timeout;
+    }
+
+    synchronized int pending() {
+        return pending;
+    }
+
+    // runs every task due by nowMillis on the calling thread
+    void advanceTo(long nowMillis) {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick && pending > due.size()) {
+                tick(due);
+            }
+            if (pending == due.size()) {
+                currentTick = Math.max(currentTick, targetTick);
+            }
+            pending -= due.size();
+        }
+        for (Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                // one failing task must not keep the others from running
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+    }
+
+    // stops the ticker, pending timeouts never fire
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    // moves the cursor one tick: cascades the higher slots it enters, then takes the level 0 slot as due
+    private void tick(List<Timeout> due) {
+        currentTick++;
+        int top = 0;
+        while (top < LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level > 0; level--) {
+            Timeout head = slots[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & SLOT_MASK)];
+            while (head.next != head) {
+                Timeout timeout = head.next;
+                timeout.unlink();
+                insert(timeout);
+            }
+        }
+        Timeout head = slots[0][(int) (currentTick & SLOT_MASK)];
+        while (head.next != head) {
+            Timeout timeout = head.next;
+            timeout.unlink();
+            timeout.fired = true;
+            due.add(timeout);
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        Timeout head;
+        if (delta >= MAX_SPAN) {
+            // the top level's slot the cursor enters last, from where it cascades again
+            int level = LEVELS - 1;
+            head = slots[level][(int) (((currentTick >>> (WHEEL_BITS * level)) - 1) & SLOT_MASK)];
+        } else {
+            int level = 0;
+            while (delta >= 1L << (WHEEL_BITS * (level + 1))) {
+                level++;
+            }
+            head = slots[level][(int) ((timeout.deadlineTick >>> (WHEEL_BITS * level)) & SLOT_MASK)];
+        }
+        timeout.linkBefore(head);
+    }
+
+    private void tickLoop() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (!closed && pending == 0) {
+                        wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    long untilNextTick = (currentTick + 1) * tickMillis - clock.getAsLong();
+                    if (untilNextTick > 0) {
+                        wait(untilNextTick);
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            advanceTo(clock.getAsLong());
+        }
+    }
+
+    // a scheduled task; cancel takes it off the wheel
+    final class Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+        private Timeout prev = this;
+        private Timeout next = this;
+        private boolean fired;
+        private boolean cancelled;
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        // returns false when the task already fired or was cancelled
+        boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (fired || cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                unlink();
+                pending--;
+                return true;
+            }
+        }
+
+        private void linkBefore(Timeout head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
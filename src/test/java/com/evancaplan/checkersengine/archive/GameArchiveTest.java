@@ -0,0 +1,226 @@
+package com.evancaplan.checkersengine.archive;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void archivedGame_recoversEveryMoveFromThePositions() {
+        for (long seed = 0; seed < 20; seed++) {
+            ArchivedGame game = archive(new GameArchive(null, 1_000, now::get), "game", seed);
+            Board replay = Board.createStandardBoard(false);
+            int[] moves = game.moves();
+            int index = 0;
+            for (int ply = 0; ply < game.plies(); ply++) {
+                Board.Square from = Fen.square(moves[index++]);
+                List<Board.Square> path = new ArrayList<>();
+                for (int landings = moves[index++]; landings > 0; landings--) {
+                    path.add(Fen.square(moves[index++]));
+                }
+                Move move = replay.findLegalMove(Move.builder()
+                        .fromRow(from.row()).fromCol(from.col())
+                        .toRow(path.getLast().row()).toCol(path.getLast().col())
+                        .path(path)
+                        .piece(replay.getPieceAt(from.row(), from.col()))
+                        .build());
+                assertNotNull(move, "seed " + seed + " ply " + ply);
+                replay.movePiece(move);
+            }
+            assertEquals(game.end(), replay.getGameEnd());
+            assertEquals(game.plies(), game.pdnMoves().size());
+        }
+    }
+
+    @Test
+    void find_filtersByDateResultAndOpening() {
+        GameArchive archive = new GameArchive(null, 4, now::get);
+        List<ArchivedGame> played = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(1_000);
+            played.add(archive(archive, "game-" + i, i));
+        }
+        assertEquals(2, archive.sealedBlocks());
+        assertEquals(10, archive.size());
+
+        List<ArchivedGame> all = archive.find(new ArchiveQuery(null, null, null, null, null, 0));
+        assertEquals(played.stream().map(ArchivedGame::gameId).toList(), all.stream().map(ArchivedGame::gameId).toList());
+        assertEquals(played.get(3).pdnMoves(), all.get(3).pdnMoves());
+
+        long third = played.get(2).finishedAt();
+        long seventh = played.get(6).finishedAt();
+        List<ArchivedGame> range = archive.find(new ArchiveQuery(third, seventh, null, null, null, 0));
+        assertEquals(List.of("game-2", "game-3", "game-4", "game-5", "game-6"), ids(range));
+
+        List<ArchivedGame> limited = archive.find(new ArchiveQuery(third, null, null, null, null, 2));
+        assertEquals(List.of("game-2", "game-3"), ids(limited));
+
+        GameEnd end = played.getFirst().end();
+        Piece.PieceColor winner = played.getFirst().winner();
+        List<ArchivedGame> byResult = archive.find(new ArchiveQuery(null, null, end, winner, null, 0));
+        assertEquals(played.stream().filter(game -> game.end() == end && game.winner() == winner).map(ArchivedGame::gameId).toList(),
+                ids(byResult));
+
+        long opening = played.get(5).openingHash();
+        List<ArchivedGame> byOpening = archive.find(new ArchiveQuery(null, null, null, null, opening, 0));
+        assertEquals(played.stream().filter(game -> game.openingHash() == opening).map(ArchivedGame::gameId).toList(),
+                ids(byOpening));
+        assertTrue(archive.find(new ArchiveQuery(null, null, null, null, 42L, 0)).isEmpty());
+    }
+
+    @Test
+    void open_indexesTheFileAgainAndCutsOffATornBlock(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("games.archive");
+        GameArchive archive = new GameArchive(file.toString(), 3, now::get);
+        archive.open();
+        for (int i = 0; i < 7; i++) {
+            archive(archive, "game-" + i, i);
+        }
+        archive.close();
+        long intact = Files.size(file);
+        // half a block written when the process died
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x43, 0x4B, 0x41, 0x52, 1, 0, 0, 0x10, 0, 1, 2}));
+        }
+
+        GameArchive reopened = new GameArchive(file.toString(), 3, now::get);
+        reopened.open();
+
+        assertEquals(intact, Files.size(file));
+        assertEquals(7, reopened.size());
+        assertEquals(List.of("game-0", "game-1", "game-2", "game-3", "game-4", "game-5", "game-6"),
+                ids(reopened.find(new ArchiveQuery(null, null, null, null, null, 0))));
+        archive(reopened, "game-7", 7);
+        assertEquals(8, reopened.find(new ArchiveQuery(null, null, null, null, null, 0)).size());
+        reopened.close();
+    }
+
+    @Test
+    void seal_dropsTheOldestBlocksPastTheMemoryCap() {
+        GameArchive archive = new GameArchive(null, 2, 2, now::get, Runnable::run);
+        List<ArchivedGame> played = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            now.addAndGet(1_000);
+            played.add(archive(archive, "game-" + i, i));
+        }
+
+        assertEquals(2, archive.sealedBlocks());
+        assertEquals(5, archive.size());
+        assertEquals(List.of("game-2", "game-3", "game-4", "game-5", "game-6"),
+                ids(archive.find(new ArchiveQuery(null, null, null, null, null, 0))));
+        long opening = played.get(5).openingHash();
+        assertEquals(played.subList(2, 7).stream().filter(game -> game.openingHash() == opening)
+                        .map(ArchivedGame::gameId).toList(),
+                ids(archive.find(new ArchiveQuery(null, null, null, null, opening, 0))));
+    }
+
+    @Test
+    void append_leavesTheReplayToTheAppender() {
+        List<Runnable> queued = new ArrayList<>();
+        GameArchive archive = new GameArchive(null, 4, 4, now::get, queued::add);
+
+        ArchivedGame game = archive(archive, "game", 1);
+
+        assertEquals(0, archive.size());
+        assertEquals(1, queued.size());
+        queued.getFirst().run();
+        assertEquals(List.of(game.gameId()), ids(archive.find(new ArchiveQuery(null, null, null, null, null, 0))));
+        assertEquals(game.finishedAt(), archive.find(new ArchiveQuery(null, null, null, null, null, 0))
+                .getFirst().finishedAt());
+    }
+
+    @Test
+    void close_waitsForTheGamesHandedToTheAppender(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("nested").resolve("games.archive");
+        GameArchive archive = new GameArchive(file.toString(), 64, 4, now::get,
+                Executors.newSingleThreadExecutor());
+        archive.open();
+        for (int i = 0; i < 5; i++) {
+            archive(archive, "game-" + i, i);
+        }
+        archive.close();
+
+        GameArchive reopened = new GameArchive(file.toString(), 64, now::get);
+        reopened.open();
+        assertEquals(5, reopened.size());
+        reopened.close();
+    }
+
+    @Test
+    void sealedBlocks_areSmallerThanTheirMoves() {
+        GameArchive archive = new GameArchive(null, 64, now::get);
+        long plies = 0;
+        for (int i = 0; i < 64; i++) {
+            plies += archive(archive, "game-" + i, i).plies();
+        }
+        byte[] block = ArchiveBlock.encode(archive.find(new ArchiveQuery(null, null, null, null, null, 1_000)));
+
+        // under two bytes a ply, everything else included
+        assertTrue(block.length < plies * 2, block.length + " bytes for " + plies + " plies");
+    }
+
+    @Test
+    void read_leavesTheEndOfAGameEmptyWhenTheEnumNoLongerHasIt() {
+        GameArchive archive = new GameArchive(null, 64, now::get);
+        for (int i = 0; i < 8; i++) {
+            archive(archive, "game-" + i, i);
+        }
+        byte[] block = ArchiveBlock.encode(archive.find(new ArchiveQuery(null, null, null, null, null, 1_000)));
+        ArchiveBlock.Header header = ArchiveBlock.readHeader(block);
+        // as if the block had been written by a version with an end this one dropped
+        String[] endNames = header.endNames().clone();
+        int dropped = List.of(endNames).indexOf(GameEnd.NO_MOVES.name());
+        assertTrue(dropped >= 0);
+        endNames[dropped] = "RESIGNED";
+        ArchiveBlock.Header renamed = new ArchiveBlock.Header(header.count(), header.minFinished(),
+                header.maxFinished(), endNames, header.endCounts(), header.winnerCounts(), header.openings(),
+                header.rawLengths(), header.offsets());
+
+        List<ArchivedGame> games = ArchiveBlock.read(block, renamed, (finishedAt, end, winner, opening) -> true);
+
+        assertEquals(8, games.size());
+        assertEquals(header.endCount(GameEnd.NO_MOVES) + header.endCount(null),
+                games.stream().filter(game -> game.end() == null).count());
+    }
+
+    // a random game of up to 120 plies, archived
+    private ArchivedGame archive(GameArchive archive, String gameId, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = Board.createStandardBoard(false);
+        List<Position> positions = new ArrayList<>(List.of(Position.of(board)));
+        while (!board.isGameOver() && positions.size() <= 120) {
+            List<Move> legal = board.getLegalMoves();
+            board.movePiece(legal.get(random.nextInt(legal.size())));
+            positions.add(Position.of(board));
+        }
+        archive.append(gameId, board, positions);
+        // as the archive stored it
+        return ArchivedGame.of(gameId, now.get(), board, positions);
+    }
+
+    private static List<String> ids(List<ArchivedGame> games) {
+        return games.stream().map(ArchivedGame::gameId).toList();
+    }
+}
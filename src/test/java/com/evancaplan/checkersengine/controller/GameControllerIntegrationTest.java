@@ -1,7 +1,11 @@
 package com.evancaplan.checkersengine.controller;
 
+import com.evancaplan.checkersengine.dto.AnalysisRequest;
 import com.evancaplan.checkersengine.dto.MoveRequest;
 import com.evancaplan.checkersengine.dto.StartGameRequest;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.service.GameService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +15,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// the shared result cache would answer repeated openings without searching, so stats here come from real searches,
+// and the archive stays in memory rather than in the working directory
+@SpringBootTest(properties = {"checkers.ai.cache.enabled=false", "checkers.archive.file="})
 @AutoConfigureMockMvc
 public class GameControllerIntegrationTest {
 
@@ -26,6 +34,9 @@ public class GameControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private GameService gameService;
+
     @Test
     public void startNewGame_returnsGameIdAndSuccessMessage() throws Exception {
         StartGameRequest request = StartGameRequest.builder().singlePlayer(true).build();
@@ -39,6 +50,17 @@ public class GameControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", is("New game started successfully")));
     }
 
+    @Test
+    public void startNewGame_unknownEngineIsBadRequest() throws Exception {
+        StartGameRequest request = StartGameRequest.builder().engine("nonexistent").build();
+
+        mockMvc.perform(post("/api/game/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Unknown engine")));
+    }
+
     @Test
     public void makeMove() throws Exception {
         MvcResult startGameResult = startGame();
@@ -56,6 +78,173 @@ public class GameControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Move applied")));
     }
 
+    @Test
+    public void makeMove_destinationOffThePathIsBadRequest() throws Exception {
+        MvcResult startGameResult = startGame();
+        String gameId = objectMapper.readTree(startGameResult.getResponse().getContentAsString()).get("gameId").asText();
+        MoveRequest moveRequest = MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(2)
+                .path(List.of(new Board.Square(3, 0))).build();
+
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("path ends on")));
+        // nothing was played
+        assertEquals(0, gameService.getBoardState(gameId).getPly());
+    }
+
+    @Test
+    public void makeMove_taggedWithAStalePlyIsConflict() throws Exception {
+        MvcResult startGameResult = startGame();
+        String gameId = objectMapper.readTree(startGameResult.getResponse().getContentAsString()).get("gameId").asText();
+        MoveRequest moveRequest = MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).ply(0).build();
+
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ply", is(2)));
+        // a retry gets the same answer, a different move for the same ply is out of order
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", containsString("Move applied")));
+        moveRequest.setFromCol(3);
+        moveRequest.setToCol(2);
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.ply", is(2)));
+    }
+
+    @Test
+    public void findArchivedGames_rejectsAMalformedDate() throws Exception {
+        mockMvc.perform(get("/api/game/archive").param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/game/archive").param("end", "NO_MOVES").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(5))));
+    }
+
+    @Test
+    public void exportArchivedGames_streamsPdn() throws Exception {
+        mockMvc.perform(get("/api/game/archive/pdn").param("opening", "not-hex"))
+                .andExpect(status().isBadRequest());
+        MvcResult export = mockMvc.perform(get("/api/game/archive/pdn").param("end", "NO_MOVES"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("games.pdn")));
+    }
+
+    @Test
+    public void makeMove_includesAISearchStatsWhenRequested() throws Exception {
+        MvcResult startGameResult = startGame();
+
+        String responseJson = startGameResult.getResponse().getContentAsString();
+        String gameId = objectMapper.readTree(responseJson).get("gameId").asText();
+
+        MoveRequest moveRequest = new MoveRequest(gameId, 2, 1, 3, 0);
+
+        mockMvc.perform(post("/api/game/move")
+                        .param("searchStats", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.search.depth", greaterThan(0)))
+                .andExpect(jsonPath("$.search.nodes", greaterThan(0)))
+                .andExpect(jsonPath("$.search.principalVariation", not(empty())));
+
+        mockMvc.perform(get("/api/game/metrics/search"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.searches", greaterThan(0)));
+    }
+
+    @Test
+    public void getResultCacheMetrics_reportsCacheState() throws Exception {
+        mockMvc.perform(get("/api/game/metrics/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled", is(false)))
+                .andExpect(jsonPath("$.lookups", is(0)))
+                .andExpect(jsonPath("$.memoryBytes", is(0)));
+    }
+
+    @Test
+    public void actuatorMetrics_countCreatedGamesAndTimeMoves() throws Exception {
+        MvcResult startGameResult = startGame();
+        String gameId = objectMapper.readTree(startGameResult.getResponse().getContentAsString()).get("gameId").asText();
+        MoveRequest moveRequest = new MoveRequest(gameId, 2, 1, 3, 0);
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/checkers.games.created"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value", greaterThanOrEqualTo(1.0)));
+        mockMvc.perform(get("/actuator/metrics/checkers.game.move"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value", hasItem(greaterThanOrEqualTo(1.0))));
+        mockMvc.perform(get("/actuator/metrics/checkers.ai.think")
+                        .param("tag", "difficulty:MEDIUM"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value", hasItem(greaterThanOrEqualTo(1.0))));
+    }
+
+    @Test
+    public void analyze_streamsOneLinePerPlyOfAGame() throws Exception {
+        MvcResult startGameResult = startGame();
+        String gameId = objectMapper.readTree(startGameResult.getResponse().getContentAsString()).get("gameId").asText();
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MoveRequest(gameId, 2, 1, 3, 0))))
+                .andExpect(status().isOk());
+        AnalysisRequest analysisRequest = AnalysisRequest.builder().gameId(gameId).difficulty(Difficulty.EASY).build();
+
+        MvcResult analysis = mockMvc.perform(post("/api/game/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(analysisRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        analysis.getAsyncResult(30_000);
+
+        String[] lines = analysis.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertNotNull(objectMapper.readTree(line).get("bestMove"));
+        }
+    }
+
+    @Test
+    public void analyze_unknownGameIsNotFound() throws Exception {
+        AnalysisRequest request = AnalysisRequest.builder().gameId("non-existent-id").build();
+
+        mockMvc.perform(post("/api/game/analysis")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void makeMove_omitsSearchStatsByDefault() throws Exception {
+        MvcResult startGameResult = startGame();
+
+        String responseJson = startGameResult.getResponse().getContentAsString();
+        String gameId = objectMapper.readTree(responseJson).get("gameId").asText();
+
+        MoveRequest moveRequest = new MoveRequest(gameId, 2, 1, 3, 0);
+
+        mockMvc.perform(post("/api/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.search").doesNotExist());
+    }
+
     @Test
     public void makeMove_returnsNotFoundForNonExistentGame() throws Exception {
         MoveRequest moveRequest = new MoveRequest("non-existent-id", 2, 1, 3, 2);
@@ -83,6 +272,7 @@ public class GameControllerIntegrationTest {
                 .andExpect(jsonPath("$.currentTurn", is("BLACK")))
                 .andExpect(jsonPath("$.gameOver", is(false)))
                 .andExpect(jsonPath("$.winner", nullValue()))
+                .andExpect(jsonPath("$.gameEnd", nullValue()))
                 .andExpect(jsonPath("$.singlePlayer", is(true)));
     }
 
@@ -95,6 +285,75 @@ public class GameControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Game with id 'non-existent-id' not found")));
     }
 
+    @Test
+    public void getLegalMoves() throws Exception {
+        MvcResult startGameResult = startGame();
+
+        String responseJson = startGameResult.getResponse().getContentAsString();
+        String gameId = objectMapper.readTree(responseJson).get("gameId").asText();
+
+        mockMvc.perform(get("/api/game/moves")
+                        .param("gameId", gameId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gameId", is(gameId)))
+                .andExpect(jsonPath("$.currentTurn", is("BLACK")))
+                .andExpect(jsonPath("$.moves", hasSize(7)))
+                .andExpect(jsonPath("$.moves[0].path", hasSize(1)))
+                .andExpect(jsonPath("$.moves[0].captures", is(0)));
+    }
+
+    @Test
+    public void getLegalMoves_returnsNotFoundForNonExistentGame() throws Exception {
+        mockMvc.perform(get("/api/game/moves")
+                        .param("gameId", "non-existent-id"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("Game with id 'non-existent-id' not found")));
+    }
+
+    @Test
+    public void getHint_returnsRankedMoves() throws Exception {
+        MvcResult startGameResult = startGame();
+
+        String responseJson = startGameResult.getResponse().getContentAsString();
+        String gameId = objectMapper.readTree(responseJson).get("gameId").asText();
+
+        mockMvc.perform(get("/api/game/hint")
+                        .param("gameId", gameId)
+                        .param("count", "3")
+                        .param("maxMillis", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gameId", is(gameId)))
+                .andExpect(jsonPath("$.currentTurn", is("BLACK")))
+                .andExpect(jsonPath("$.cached", is(false)))
+                .andExpect(jsonPath("$.depth", greaterThan(0)))
+                .andExpect(jsonPath("$.hints", hasSize(3)))
+                .andExpect(jsonPath("$.hints[0].move.path", hasSize(1)))
+                .andExpect(jsonPath("$.hints[0].principalVariation", not(empty())));
+    }
+
+    @Test
+    public void getHint_returnsConflictForFinishedGame() throws Exception {
+        MvcResult startGameResult = startGame();
+
+        String responseJson = startGameResult.getResponse().getContentAsString();
+        String gameId = objectMapper.readTree(responseJson).get("gameId").asText();
+        gameService.getBoardState(gameId).declareTimeout();
+
+        mockMvc.perform(get("/api/game/hint")
+                        .param("gameId", gameId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.gameId", is(gameId)))
+                .andExpect(jsonPath("$.message", containsString("Game is over")));
+    }
+
+    @Test
+    public void getHint_returnsNotFoundForNonExistentGame() throws Exception {
+        mockMvc.perform(get("/api/game/hint")
+                        .param("gameId", "non-existent-id"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("Game with id 'non-existent-id' not found")));
+    }
+
     private MvcResult startGame() throws Exception {
         StartGameRequest request = StartGameRequest.builder().singlePlayer(true).build();
 
@@ -0,0 +1,184 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaSearchTest {
+
+    private static final int BENCHMARK_DEPTH = 7;
+
+    @Test
+    void search_findsWinningDoubleJump() {
+        Board board = Board.builder().build();
+        place(board, new Piece(RED, 6, 1));
+        place(board, new Piece(BLACK, 5, 2));
+        place(board, new Piece(BLACK, 3, 4));
+        board.setCurrentTurn(RED);
+
+        SearchResult result = newSearch(true).search(board, 4);
+
+        assertNotNull(result.bestMove());
+        assertEquals(2, result.bestMove().getCapturedPieces().size());
+        assertTrue(result.score() >= AlphaBetaSearch.WIN - MoveOrderer.MAX_PLY);
+    }
+
+    @Test
+    void search_returnsNoMoveWhenSideIsBlocked() {
+        Board board = Board.builder().build();
+        place(board, new Piece(RED, 0, 1));
+        place(board, new Piece(BLACK, 7, 0));
+        board.setCurrentTurn(RED);
+
+        SearchResult result = newSearch(true).search(board, 4);
+
+        assertNull(result.bestMove());
+    }
+
+    @Test
+    void search_stopsAtNodeBudgetWithCompletedIteration() {
+        Board board = Board.createStandardBoard(false);
+        AlphaBetaSearch search = newSearch(true);
+
+        SearchResult result = search.search(board, new SearchLimits(20, 3_000, Long.MAX_VALUE));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() < 20);
+        // the interrupted iteration may run a single node past the budget
+        assertTrue(search.getNodes() <= 3_001);
+    }
+
+    @Test
+    void search_stopsAtTimeBudget() {
+        Board board = Board.createStandardBoard(false);
+
+        long start = System.nanoTime();
+        SearchResult result = newSearch(true).search(board, new SearchLimits(40, Long.MAX_VALUE, 50));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(result.bestMove());
+        assertTrue(elapsedMillis < 1_000);
+    }
+
+    @Test
+    void search_interruptedThreadStopsWithCompletedIteration() {
+        Board board = Board.createStandardBoard(false);
+
+        SearchResult result;
+        long start = System.nanoTime();
+        Thread.currentThread().interrupt();
+        try {
+            result = newSearch(true).search(board, new SearchLimits(40, Long.MAX_VALUE, Long.MAX_VALUE));
+        } finally {
+            Thread.interrupted();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1 && result.depth() < 40);
+        assertTrue(elapsedMillis < 1_000);
+    }
+
+    @Test
+    void search_evaluationNoiseVariesWithSeed() {
+        Board board = Board.createStandardBoard(false);
+
+        int quiet = newSearch(true).search(board.copy(), 4).score();
+        boolean anyDifferent = false;
+        for (long seed = 1; seed <= 5 && !anyDifferent; seed++) {
+            AlphaBetaSearch noisy = new AlphaBetaSearch(new TranspositionTable(1 << 12), new MoveOrderer(), 50, seed);
+            anyDifferent = noisy.search(board.copy(), 4).score() != quiet;
+        }
+
+        assertTrue(anyDifferent);
+    }
+
+    @Test
+    void searchTopMoves_ranksDistinctMovesWithExactScores() {
+        Board board = Board.createStandardBoard(false);
+
+        List<SearchResult> top = newSearch(true).searchTopMoves(board, SearchLimits.depth(5), 3);
+
+        assertEquals(3, top.size());
+        assertEquals(3, top.stream().map(SearchResult::bestMove).distinct().count());
+        assertEquals(newSearch(true).search(board, 5).score(), top.getFirst().score());
+        for (int i = 0; i < top.size(); i++) {
+            SearchResult result = top.get(i);
+            assertEquals(5, result.depth());
+            assertEquals(result.bestMove(), result.stats().principalVariation().getFirst());
+            if (i > 0) {
+                assertTrue(result.score() <= top.get(i - 1).score());
+            }
+            // each score is the move's own value, not just a bound
+            board.movePiece(result.bestMove());
+            assertEquals(result.score(), -newSearch(true).search(board, 4).score());
+            board.undoMove(result.bestMove());
+        }
+    }
+
+    @Test
+    void searchTopMoves_returnsEveryMoveWhenFewerThanAsked() {
+        Board board = Board.builder().build();
+        place(board, new Piece(RED, 6, 1));
+        place(board, new Piece(BLACK, 1, 2));
+        board.setCurrentTurn(RED);
+
+        List<SearchResult> top = newSearch(true).searchTopMoves(board, SearchLimits.depth(3), 5);
+
+        assertEquals(board.getLegalMoves().size(), top.size());
+    }
+
+    @Test
+    void moveOrderingReducesNodesOnBenchmarkSuite() {
+        long orderedNodes = 0;
+        long unorderedNodes = 0;
+
+        for (Board position : benchmarkSuite()) {
+            AlphaBetaSearch ordered = newSearch(true);
+            AlphaBetaSearch unordered = newSearch(false);
+
+            SearchResult orderedResult = ordered.search(position.copy(), BENCHMARK_DEPTH);
+            SearchResult unorderedResult = unordered.search(position.copy(), BENCHMARK_DEPTH);
+
+            // ordering changes the work done, never the value of the position
+            assertEquals(unorderedResult.score(), orderedResult.score());
+            orderedNodes += ordered.getNodes();
+            unorderedNodes += unordered.getNodes();
+        }
+
+        assertTrue(orderedNodes < unorderedNodes, "benchmark depth " + BENCHMARK_DEPTH + ": unordered "
+                + unorderedNodes + " nodes, ordered " + orderedNodes + " nodes");
+    }
+
+    // the opening plus positions reached by fixed random playouts of increasing length
+    static List<Board> benchmarkSuite() {
+        List<Board> suite = new ArrayList<>();
+        Random random = new Random(2024);
+        for (int plies : new int[]{0, 4, 8, 12, 16, 20, 24}) {
+            Board board = Board.createStandardBoard(false);
+            for (int ply = 0; ply < plies && !board.getLegalMoves().isEmpty(); ply++) {
+                List<Move> moves = board.getLegalMoves();
+                board.movePiece(moves.get(random.nextInt(moves.size())));
+            }
+            suite.add(board);
+        }
+        return suite;
+    }
+
+    private static AlphaBetaSearch newSearch(boolean ordering) {
+        return new AlphaBetaSearch(new TranspositionTable(1 << 16), new MoveOrderer(ordering));
+    }
+
+    private static void place(Board board, Piece piece) {
+        board.setPieceAt(piece.getRow(), piece.getColumn(), piece);
+        (piece.getColor() == RED ? board.getRedPieces() : board.getBlackPieces()).add(piece);
+    }
+}
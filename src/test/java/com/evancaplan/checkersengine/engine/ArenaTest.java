@@ -0,0 +1,50 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArenaTest {
+
+    @Test
+    void identicalDeterministicEnginesSplitEveryPair() {
+        Arena.Contestant greedy = new Arena.Contestant(Engines.get("greedy"), Difficulty.MEDIUM);
+
+        ArenaResult result = new Arena(greedy, greedy).run(4, 2, 42);
+
+        assertEquals(8, result.games());
+        assertEquals(result.wins(), result.losses());
+        assertEquals(0.5, result.score());
+        assertEquals(0.0, result.eloDifference(), 1e-9);
+        assertTrue(result.firstStats().moves() > 0);
+        assertTrue(result.secondStats().nodes() > 0);
+    }
+
+    @Test
+    void deeperSearchOutscoresGreedy() {
+        Arena.Contestant alphaBeta = new Arena.Contestant(Engines.get(Engines.DEFAULT), Difficulty.MEDIUM);
+        Arena.Contestant greedy = new Arena.Contestant(Engines.get("greedy"), Difficulty.MEDIUM);
+
+        ArenaResult result = new Arena(alphaBeta, greedy).run(6, 3, 7);
+
+        assertEquals(12, result.games());
+        assertTrue(result.score() > 0.5, result.summary());
+        assertTrue(result.eloLow() <= result.eloDifference());
+        assertTrue(result.eloDifference() <= result.eloHigh());
+    }
+
+    @Test
+    void eloMatchesExpectedScore() {
+        assertEquals(0, ArenaResult.elo(0.5), 1e-9);
+        assertEquals(190.85, ArenaResult.elo(0.75), 0.01);
+        assertEquals(-190.85, ArenaResult.elo(0.25), 0.01);
+        assertEquals(Double.POSITIVE_INFINITY, ArenaResult.elo(1));
+    }
+
+    @Test
+    void unknownEngineIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Engines.get("nonexistent"));
+        assertEquals(Engines.DEFAULT, Engines.get(null).getName());
+    }
+}
@@ -0,0 +1,97 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactBoardTest {
+
+    @Test
+    void perft_matchesBoard() {
+        Board board = Board.createStandardBoard(false);
+        CompactBoard compact = CompactBoard.from(board);
+
+        for (int depth = 1; depth <= 6; depth++) {
+            assertEquals(Perft.perft(board, depth), Perft.perft(compact, depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    void generateMoves_findsMultiJumpAndBackwardCapture() {
+        Board board = Board.builder().build();
+        place(board, new Piece(RED, 6, 1));
+        place(board, new Piece(BLACK, 5, 2));
+        place(board, new Piece(BLACK, 3, 4));
+        board.setCurrentTurn(RED);
+        CompactBoard compact = CompactBoard.from(board);
+        int[] moves = new int[CompactBoard.MAX_MOVES];
+        long[] captures = new long[CompactBoard.MAX_MOVES];
+
+        int count = compact.generateMoves(moves, captures);
+
+        assertEquals(1, count);
+        assertEquals(CompactBoard.encode(6 * 8 + 1, 2 * 8 + 5), moves[0]);
+        assertEquals(2, Long.bitCount(captures[0]));
+    }
+
+    @Test
+    void randomGames_matchBoardMoveForMove() {
+        Random random = new Random(11);
+        int[] moves = new int[CompactBoard.MAX_MOVES];
+        long[] captures = new long[CompactBoard.MAX_MOVES];
+
+        for (int game = 0; game < 200; game++) {
+            Board board = Board.createStandardBoard(false);
+            CompactBoard compact = CompactBoard.from(board);
+            for (int ply = 0; ply < 150; ply++) {
+                List<Move> legal = board.getLegalMoves();
+                int count = compact.generateMoves(moves, captures);
+                assertEquals(keys(legal), keys(moves, captures, count));
+                if (legal.isEmpty()) {
+                    break;
+                }
+
+                Move move = legal.get(random.nextInt(legal.size()));
+                compact.apply(CompactBoard.encode(move), CompactBoard.capturedMask(move));
+                board.movePiece(move);
+                CompactBoard expected = CompactBoard.from(board);
+                assertEquals(expected.black(), compact.black());
+                assertEquals(expected.red(), compact.red());
+                assertEquals(expected.kings(), compact.kings());
+                assertEquals(expected.isBlackToMove(), compact.isBlackToMove());
+                assertEquals(board.isGameOver(), compact.isGameOver());
+            }
+        }
+    }
+
+    private static List<String> keys(List<Move> moves) {
+        List<String> keys = new ArrayList<>();
+        for (Move move : moves) {
+            keys.add(CompactBoard.encode(move) + "/" + CompactBoard.capturedMask(move));
+        }
+        keys.sort(null);
+        return keys;
+    }
+
+    private static List<String> keys(int[] moves, long[] captures, int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(moves[i] + "/" + captures[i]);
+        }
+        keys.sort(null);
+        return keys;
+    }
+
+    private static void place(Board board, Piece piece) {
+        board.setPieceAt(piece.getRow(), piece.getColumn(), piece);
+        (piece.getColor() == RED ? board.getRedPieces() : board.getBlackPieces()).add(piece);
+    }
+}
@@ -0,0 +1,77 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifferentialPlayoutsTest {
+
+    @Test
+    void compactBoard_agreesWithBoard() {
+        DifferentialPlayouts.Result result = new DifferentialPlayouts(DifferentialPlayouts::compactBoard)
+                .run(500, 2, 3);
+
+        assertNull(result.divergence(), String.valueOf(result.divergence()));
+        assertEquals(500, result.playouts());
+        assertTrue(result.plies() > 500 * 30, "plies " + result.plies());
+    }
+
+    @Test
+    void run_findsAndShrinksAMissingPromotion() {
+        DifferentialPlayouts playouts = new DifferentialPlayouts(NeverCrowns::new);
+
+        DifferentialPlayouts.Result one = playouts.run(200, 1, 5);
+        DifferentialPlayouts.Result four = playouts.run(200, 4, 5);
+
+        DifferentialPlayouts.Divergence divergence = one.divergence();
+        assertNotNull(divergence);
+        assertTrue(divergence.difference().startsWith("position differs"), divergence.difference());
+        // one man a step from the far row, and a piece of the other side so the game isn't over
+        assertEquals(1, divergence.moves().size(), divergence.toString());
+        DifferentialPlayouts.State start = DifferentialPlayouts.State.of(Fen.decode(divergence.start()));
+        assertEquals(2, Long.bitCount(start.black() | start.red()), divergence.toString());
+        assertEquals(divergence, four.divergence());
+
+        DifferentialPlayouts.Divergence replayed = playouts.replay(divergence.playout(), divergence.start(),
+                divergence.moves(), new NeverCrowns());
+        assertEquals(divergence, replayed);
+        assertNull(playouts.replay(divergence.playout(), divergence.start(), divergence.moves(),
+                DifferentialPlayouts.compactBoard()));
+    }
+
+    // a compact board that shows a man stepping onto the far row uncrowned
+    private static final class NeverCrowns implements DifferentialPlayouts.Candidate {
+        private final DifferentialPlayouts.Candidate compact = DifferentialPlayouts.compactBoard();
+        private long uncrowned;
+
+        @Override
+        public void setUp(Board position) {
+            compact.setUp(position);
+            uncrowned = 0L;
+        }
+
+        @Override
+        public Set<DifferentialPlayouts.Step> moves() {
+            return compact.moves();
+        }
+
+        @Override
+        public void play(DifferentialPlayouts.Step step) {
+            boolean man = (compact.state().kings() & 1L << step.from()) == 0;
+            compact.play(step);
+            boolean crowned = (compact.state().kings() & 1L << step.to()) != 0;
+            uncrowned = step.captured() == 0 && man && crowned ? 1L << step.to() : 0L;
+        }
+
+        @Override
+        public DifferentialPlayouts.State state() {
+            DifferentialPlayouts.State state = compact.state();
+            return new DifferentialPlayouts.State(state.black(), state.red(), state.kings() & ~uncrowned,
+                    state.blackToMove(), state.gameOver());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTest {
+
+    @Test
+    void standardBoardIsBalanced() {
+        Board board = Board.createStandardBoard(true);
+
+        board.setPieceValues(Evaluator.DEFAULT);
+
+        assertEquals(0, board.getStaticScore());
+        assertEquals(0, Evaluator.DEFAULT.evaluate(board, BLACK));
+        assertEquals(0, Evaluator.DEFAULT.evaluate(board, RED));
+    }
+
+    @Test
+    void evaluate_favoursSideWithMoreMaterial() {
+        Board board = Board.builder().build();
+        board.setPieceAt(2, 1, new Piece(BLACK, 2, 1));
+        board.getBlackPieces().add(board.getPieceAt(2, 1));
+        board.setPieceAt(2, 3, new Piece(BLACK, 2, 3));
+        board.getBlackPieces().add(board.getPieceAt(2, 3));
+        board.setPieceAt(5, 2, new Piece(RED, 5, 2));
+        board.getRedPieces().add(board.getPieceAt(5, 2));
+
+        assertTrue(Evaluator.DEFAULT.evaluate(board, BLACK) > 0);
+        assertEquals(-Evaluator.DEFAULT.evaluate(board, BLACK), Evaluator.DEFAULT.evaluate(board, RED));
+        board.setPieceValues(Evaluator.DEFAULT);
+        assertTrue(board.getStaticScore() > 0);
+        assertTrue(Evaluator.DEFAULT.evaluate(board, BLACK) > 0);
+    }
+
+    @Test
+    void kingIsWorthMoreThanMan() {
+        Evaluator evaluator = Evaluator.DEFAULT;
+
+        assertTrue(evaluator.signedValue(BLACK, true, 0, 1) > evaluator.signedValue(BLACK, false, 0, 1));
+        assertTrue(evaluator.signedValue(RED, true, 7, 0) < evaluator.signedValue(RED, false, 7, 0));
+    }
+
+    @Test
+    void incrementalScoreMatchesFullRecountThroughMovesAndUndo() {
+        Board board = Board.createStandardBoard(false);
+        board.setPieceValues(Evaluator.DEFAULT);
+        Random random = new Random(42);
+        Deque<Move> played = new ArrayDeque<>();
+
+        for (int ply = 0; ply < 80 && !board.isGameOver(); ply++) {
+            List<Move> legalMoves = board.getLegalMoves();
+            if (legalMoves.isEmpty()) {
+                break;
+            }
+            Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+            board.movePiece(move);
+            played.push(move);
+
+            assertEquals(board.getPieceValues().staticScore(board), board.getStaticScore());
+        }
+
+        while (!played.isEmpty()) {
+            board.undoMove(played.pop());
+            assertEquals(board.getPieceValues().staticScore(board), board.getStaticScore());
+        }
+
+        assertEquals(0, board.getStaticScore());
+        assertEquals(12, board.getBlackPieces().size());
+        assertEquals(12, board.getRedPieces().size());
+        assertEquals(BLACK, board.getCurrentTurn());
+    }
+
+    @Test
+    void setPieceValues_rescoresBoard() {
+        Board board = Board.createStandardBoard(false);
+        board.movePiece(board.getLegalMoves().getFirst());
+        Evaluator heavyAdvancement = new Evaluator(EvaluationWeights.builder().advancement(50).build());
+
+        board.setPieceValues(heavyAdvancement);
+
+        assertEquals(heavyAdvancement.staticScore(board), board.getStaticScore());
+        assertTrue(board.getStaticScore() > 0);
+    }
+}
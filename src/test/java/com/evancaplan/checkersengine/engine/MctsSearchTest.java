@@ -0,0 +1,123 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MctsSearchTest {
+
+    @Test
+    void search_prefersTheDoubleJump() {
+        // the double jump costs a man back, the single jump costs a man and leaves two red pieces
+        Board board = Board.builder().build();
+        place(board, new Piece(BLACK, 2, 1));
+        place(board, new Piece(BLACK, 1, 6));
+        place(board, new Piece(RED, 3, 2));
+        place(board, new Piece(RED, 5, 4));
+        place(board, new Piece(RED, 2, 5));
+        board.setCurrentTurn(BLACK);
+
+        SearchResult result = new MctsSearch(1 << 14, 2, 1).search(board, new SearchLimits(0, 20_000, Long.MAX_VALUE));
+
+        assertEquals(2, board.getLegalMoves().size());
+        assertEquals(2, result.bestMove().getCapturedPieces().size());
+    }
+
+    @Test
+    void search_staysWithinPlayoutBudgetAndLeavesBoardUnchanged() {
+        Board board = Board.createStandardBoard(false);
+        long hash = board.getPositionHash();
+        MctsSearch search = new MctsSearch(1 << 14, 4, 2);
+
+        SearchResult result = search.search(board, new SearchLimits(0, 2_000, Long.MAX_VALUE));
+
+        assertNotNull(board.findLegalMove(result.bestMove()));
+        // every thread may finish the playout it started when the budget ran out
+        assertTrue(search.getPlayouts() >= 2_000 && search.getPlayouts() < 2_004);
+        assertEquals(search.getPlayouts(), result.stats().nodes());
+        assertFalse(result.stats().principalVariation().isEmpty());
+        assertEquals(hash, board.getPositionHash());
+    }
+
+    @Test
+    void search_smallNodePoolStillAnswers() {
+        Board board = Board.createStandardBoard(false);
+
+        SearchResult result = new MctsSearch(16, 2, 3).search(board, new SearchLimits(0, 500, Long.MAX_VALUE));
+
+        assertNotNull(board.findLegalMove(result.bestMove()));
+    }
+
+    @Test
+    void search_returnsNoMoveWhenSideIsBlocked() {
+        Board board = Board.builder().build();
+        place(board, new Piece(RED, 0, 1));
+        place(board, new Piece(BLACK, 7, 0));
+        board.setCurrentTurn(RED);
+
+        assertNull(new MctsSearch(64, 1, 4).search(board, new SearchLimits(0, 100, Long.MAX_VALUE)).bestMove());
+    }
+
+    @Test
+    void search_withoutPlayoutsFallsBackToTheEvaluatorsBestMove() {
+        // two single jumps, one takes a king and the other a man
+        Board board = Board.builder().build();
+        place(board, new Piece(BLACK, 2, 1));
+        place(board, new Piece(BLACK, 2, 5));
+        place(board, Piece.builder().color(RED).king(true).row(3).column(2).build());
+        place(board, new Piece(RED, 3, 6));
+        board.setCurrentTurn(BLACK);
+        long hash = board.getPositionHash();
+
+        SearchResult result = new MctsSearch(64, 2, 5).search(board, new SearchLimits(0, 0, Long.MAX_VALUE));
+
+        assertEquals(0, result.stats().nodes());
+        assertTrue(result.bestMove().getCapturedPieces().getFirst().isKing());
+        assertEquals(Evaluator.DEFAULT.evaluate(afterMove(board, result.bestMove()), BLACK), result.score());
+        assertEquals(hash, board.getPositionHash());
+    }
+
+    @Test
+    void benchmark_playoutsPerSecond() {
+        Board board = Board.createStandardBoard(false);
+        Engine engine = Engines.get("mcts");
+
+        SearchResult result = engine.newSearch(Difficulty.MEDIUM).search(board, new SearchLimits(0, Long.MAX_VALUE, 500));
+
+        assertTrue(result.stats().nodes() > 0);
+        assertTrue(result.stats().nodesPerSecond() > 0);
+    }
+
+    @Test
+    void search_triesUnvisitedChildrenInRandomOrder() {
+        Board board = Board.createStandardBoard(false);
+        Set<String> firstTried = new HashSet<>();
+
+        // after a single playout the only visited child is the one picked first
+        for (long seed = 0; seed < 40; seed++) {
+            Move move = new MctsSearch(1 << 10, 1, seed).search(board, new SearchLimits(0, 1, Long.MAX_VALUE)).bestMove();
+            firstTried.add(move.getFromRow() + "," + move.getFromCol() + "-" + move.getToRow() + "," + move.getToCol());
+        }
+
+        assertEquals(board.getLegalMoves().size(), firstTried.size());
+    }
+
+    private static Board afterMove(Board board, Move move) {
+        Board after = board.copy();
+        after.movePiece(after.findLegalMove(move));
+        return after;
+    }
+
+    private static void place(Board board, Piece piece) {
+        board.setPieceAt(piece.getRow(), piece.getColumn(), piece);
+        (piece.getColor() == RED ? board.getRedPieces() : board.getBlackPieces()).add(piece);
+    }
+}
@@ -0,0 +1,33 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    @Test
+    void perft_openingDepths() {
+        Board board = Board.createStandardBoard(false);
+
+        assertEquals(7, Perft.perft(board, 1));
+        assertEquals(49, Perft.perft(board, 2));
+        assertEquals(302, Perft.perft(board, 3));
+    }
+
+    @Test
+    void perft_leavesBoardUnchanged() {
+        Board board = Board.createStandardBoard(false);
+        board.setPieceValues(Evaluator.DEFAULT);
+        long hash = board.getPositionHash();
+        int score = board.getStaticScore();
+
+        Perft.perft(board, 5);
+
+        assertEquals(hash, board.getPositionHash());
+        assertEquals(score, board.getStaticScore());
+        assertEquals(12, board.getBlackPieces().size());
+        assertEquals(12, board.getRedPieces().size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablePoolTest {
+
+    @Test
+    void acquire_reusesAReleasedTableWithNoEntriesLeft() {
+        TablePool pool = new TablePool(2);
+        TranspositionTable table = pool.acquire(1_000);
+        table.store(42L, 5, 7, TranspositionTable.EXACT, 99);
+        assertTrue(table.probe(42L) >= 0);
+        pool.release(table);
+
+        TranspositionTable again = pool.acquire(1_000);
+
+        assertSame(table, again);
+        assertEquals(1_024, again.size());
+        assertEquals(-1, again.probe(42L));
+        again.store(42L, 1, 3, TranspositionTable.EXACT, 11);
+        assertEquals(11, again.move(again.probe(42L)));
+    }
+
+    @Test
+    void release_keepsNoMoreIdleTablesThanAllowed() {
+        TablePool pool = new TablePool(2);
+        TranspositionTable[] tables = {pool.acquire(64), pool.acquire(64), pool.acquire(64)};
+        for (TranspositionTable table : tables) {
+            pool.release(table);
+        }
+
+        assertEquals(2, pool.idleTables());
+        assertNotSame(pool.acquire(128), tables[0]);
+    }
+
+    @Test
+    void clear_forgetsEntriesAcrossGenerationWraparound() {
+        TranspositionTable table = new TranspositionTable(16);
+        for (int generation = 0; generation < 300; generation++) {
+            table.store(generation, 1, 0, TranspositionTable.EXACT, 1);
+            table.clear();
+            assertEquals(-1, table.probe(generation), "generation " + generation);
+        }
+    }
+
+    @Test
+    void pooledSearch_findsTheSameMoveAsOneWithItsOwnTable() {
+        TablePool pool = new TablePool(1);
+        Board board = Board.createStandardBoard(false);
+        AlphaBetaSearch own = new AlphaBetaSearch(new TranspositionTable(1 << 12), new MoveOrderer());
+        AlphaBetaSearch pooled = new AlphaBetaSearch(pool, 1 << 12, new MoveOrderer(), 0, 0L);
+
+        SearchResult expected = own.search(board, 6);
+        SearchResult first = pooled.search(board, 6);
+        SearchResult second = new AlphaBetaSearch(pool, 1 << 12, new MoveOrderer(), 0, 0L).search(board, 6);
+
+        assertEquals(expected.score(), first.score());
+        assertEquals(expected.score(), second.score());
+        assertEquals(1, pool.idleTables());
+    }
+}
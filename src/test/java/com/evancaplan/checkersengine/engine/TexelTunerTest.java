@@ -0,0 +1,88 @@
+package com.evancaplan.checkersengine.engine;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.BLACK;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TexelTunerTest {
+
+    @Test
+    void extract_featuresTimesWeightsMatchEvaluator() {
+        Random random = new Random(3);
+        int[] features = new int[TexelTuner.FEATURES];
+        for (int game = 0; game < 20; game++) {
+            EvaluationWeights weights = new EvaluationWeights(100, 100 + random.nextInt(100), random.nextInt(10),
+                    random.nextInt(30), random.nextInt(20), random.nextInt(10));
+            double[] array = TexelTuner.toArray(weights);
+            Board board = Board.createStandardBoard(false);
+            Evaluator evaluator = new Evaluator(weights);
+            board.setPieceValues(evaluator);
+
+            for (int ply = 0; ply < 150 && !board.getLegalMoves().isEmpty(); ply++) {
+                TexelTuner.extract(CompactBoard.from(board), features, 0);
+                double score = 0;
+                for (int j = 0; j < TexelTuner.FEATURES; j++) {
+                    score += array[j] * features[j];
+                }
+                assertEquals(evaluator.evaluate(board, BLACK), (int) score);
+
+                List<Move> moves = board.getLegalMoves();
+                board.movePiece(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    void trainingSet_roundTripsThroughFile(@TempDir Path directory) throws IOException {
+        TrainingSet positions = new SelfPlay(2, SelfPlay.DEFAULT_NOISE).generate(4, 2, 11);
+        Path file = directory.resolve("positions.bin");
+
+        positions.write(file);
+        TrainingSet read = TrainingSet.read(file);
+
+        assertTrue(positions.size() > 0);
+        assertEquals(positions.size(), read.size());
+        for (int i = 0; i < positions.size(); i++) {
+            assertEquals(positions.result(i), read.result(i));
+            assertEquals(positions.position(i).black(), read.position(i).black());
+            assertEquals(positions.position(i).red(), read.position(i).red());
+            assertEquals(positions.position(i).kings(), read.position(i).kings());
+            assertEquals(positions.position(i).isBlackToMove(), read.position(i).isBlackToMove());
+        }
+    }
+
+    @Test
+    void tune_lowersLossOnSelfPlayPositions() {
+        TrainingSet positions = new SelfPlay(2, SelfPlay.DEFAULT_NOISE).generate(40, 4, 5);
+        TexelTuner tuner = new TexelTuner(positions);
+        // a poor start, kings worth no more than men and no positional terms
+        EvaluationWeights start = new EvaluationWeights(100, 100, 0, 0, 0, 0);
+
+        TexelTuner.Tuned tuned = tuner.tune(start, 200, 1.0);
+
+        assertEquals(positions.size(), tuner.size());
+        assertEquals(100, tuned.weights().getMan());
+        assertTrue(tuned.scale() > 0);
+        assertTrue(tuned.finalLoss() < tuned.initialLoss(),
+                tuned.initialLoss() + " -> " + tuned.finalLoss());
+    }
+
+    @Test
+    void weights_roundTripThroughFile(@TempDir Path directory) throws IOException {
+        EvaluationWeights weights = new EvaluationWeights(100, 142, 4, 12, 7, 3);
+        Path file = directory.resolve("weights.properties");
+
+        weights.store(file, "test");
+
+        assertEquals(weights, EvaluationWeights.load(file));
+    }
+}
@@ -0,0 +1,106 @@
+package com.evancaplan.checkersengine.jfr;
+
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.service.AIResultCache;
+import com.evancaplan.checkersengine.service.GameMetrics;
+import com.evancaplan.checkersengine.service.MoveService;
+import com.evancaplan.checkersengine.service.SearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    @Test
+    void board_recordsValidationAndApplicationWithGameAndPly(@TempDir Path directory) throws IOException {
+        Board board = Board.createStandardBoard(false);
+        board.setGameIdHash(42);
+        Move move = board.getLegalMoves().getFirst();
+
+        List<RecordedEvent> events = record(directory, () -> {
+            board.isValidMove(move);
+            board.movePiece(move);
+        }, "checkers.MoveValidation", "checkers.MoveApplication");
+
+        RecordedEvent validation = only(events, "checkers.MoveValidation");
+        assertEquals(42, validation.getInt("gameIdHash"));
+        assertEquals(0, validation.getInt("ply"));
+        assertTrue(validation.getBoolean("valid"));
+        assertTrue(validation.getBoolean("cached"));
+
+        RecordedEvent application = only(events, "checkers.MoveApplication");
+        assertEquals(42, application.getInt("gameIdHash"));
+        assertEquals(0, application.getInt("ply"));
+        assertEquals(0, application.getInt("captures"));
+        assertEquals(1, board.getPly());
+    }
+
+    @Test
+    void moveService_recordsSearchedThenCachedAIMove(@TempDir Path directory) throws IOException {
+        MoveService moveService = new MoveService(new SearchMetrics(), new AIResultCache(true, 1_024),
+                new GameMetrics(new SimpleMeterRegistry()));
+        Board board = Board.createStandardBoard(true, Difficulty.MEDIUM);
+        board.setGameIdHash(7);
+
+        List<RecordedEvent> events = record(directory, () -> {
+            moveService.generateAIMove(board);
+            moveService.generateAIMove(board);
+        }, "checkers.AIMove");
+
+        List<RecordedEvent> aiMoves = events.stream()
+                .filter(event -> event.getEventType().getName().equals("checkers.AIMove"))
+                .toList();
+        assertEquals(2, aiMoves.size());
+        assertFalse(aiMoves.get(0).getBoolean("cached"));
+        assertTrue(aiMoves.get(0).getLong("nodes") > 0);
+        assertTrue(aiMoves.get(1).getBoolean("cached"));
+        for (RecordedEvent event : aiMoves) {
+            assertEquals(7, event.getInt("gameIdHash"));
+            assertEquals(Engines.DEFAULT, event.getString("engine"));
+            assertEquals("MEDIUM", event.getString("difficulty"));
+        }
+    }
+
+    @Test
+    void events_areOffUnlessTheRecordingEnablesThem(@TempDir Path directory) throws IOException {
+        Board board = Board.createStandardBoard(false);
+
+        List<RecordedEvent> events = record(directory, () -> board.movePiece(board.getLegalMoves().getFirst()));
+
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().startsWith("checkers.")));
+    }
+
+    private static List<RecordedEvent> record(Path directory, Runnable work, String... enabled) throws IOException {
+        Path file = directory.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : enabled) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+}
@@ -0,0 +1,44 @@
+package com.evancaplan.checkersengine.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadMixTest {
+
+    @Test
+    void parse_leavesOutKindsWithoutAWeight() {
+        LoadMix mix = LoadMix.parse("new=1, ai=3");
+
+        assertEquals(new LoadMix(1, 0, 0, 3), mix);
+        assertEquals("new=1,move=0,state=0,ai=3", mix.toString());
+        assertEquals(mix, LoadMix.parse(mix.toString()));
+    }
+
+    @Test
+    void parse_rejectsUnknownKindsAndBadWeights() {
+        assertThrows(IllegalArgumentException.class, () -> LoadMix.parse("hint=3"));
+        assertThrows(IllegalArgumentException.class, () -> LoadMix.parse("move=often"));
+        assertThrows(IllegalArgumentException.class, () -> LoadMix.parse("move=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadMix.parse("move=-1,state=2"));
+    }
+
+    @Test
+    void pick_followsTheWeights() {
+        LoadMix mix = new LoadMix(1, 4, 0, 5);
+        SplittableRandom random = new SplittableRandom(3);
+        Map<LoadMix.Kind, Integer> picked = new EnumMap<>(LoadMix.Kind.class);
+        for (int i = 0; i < 100_000; i++) {
+            picked.merge(mix.pick(random), 1, Integer::sum);
+        }
+
+        assertNull(picked.get(LoadMix.Kind.STATE));
+        assertEquals(10_000, picked.get(LoadMix.Kind.NEW_GAME), 1_000);
+        assertEquals(40_000, picked.get(LoadMix.Kind.MOVE), 1_000);
+        assertEquals(50_000, picked.get(LoadMix.Kind.AI_REPLY), 1_000);
+    }
+}
@@ -0,0 +1,71 @@
+package com.evancaplan.checkersengine.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadReportTest {
+
+    private static final long MILLI = 1_000_000;
+
+    @Test
+    void correctedLatencies_countTheRequestsAStallHeldBack() {
+        LoadReport report = new LoadReport();
+        report.setSeconds(1);
+        // a request every 10 ms, the first takes a second and the 99 scheduled behind it go out once it's back
+        report.record(LoadMix.Kind.MOVE, 0, 0, 1_000 * MILLI);
+        for (int i = 1; i < 100; i++) {
+            report.record(LoadMix.Kind.MOVE, i * 10 * MILLI, 1_000 * MILLI, 1_001 * MILLI);
+        }
+        Map<String, String> figures = figures(report.lines());
+
+        assertEquals("100", figures.get("all.requests"));
+        assertEquals("100.0", figures.get("move.throughput"));
+        assertEquals(1.0, Double.parseDouble(figures.get("move.service.p50")), 0.01);
+        assertEquals(1_000.0, Double.parseDouble(figures.get("move.service.max")), 1);
+        // what a client sending at the planned rate would have seen
+        assertEquals(501.0, Double.parseDouble(figures.get("move.corrected.p50")), 1);
+        assertEquals(991.0, Double.parseDouble(figures.get("move.corrected.p99")), 1);
+        assertEquals("0", figures.get("ai.requests"));
+    }
+
+    @Test
+    void compare_listsEveryFigureWithItsChange(@TempDir Path directory) throws IOException {
+        Path before = directory.resolve("before.txt");
+        Path after = directory.resolve("after.txt");
+        for (Path file : List.of(before, after)) {
+            LoadReport report = new LoadReport();
+            report.configure("mix", LoadMix.DEFAULT);
+            report.setSeconds(10);
+            long latency = file == before ? 1_000_000 : 1_500_000;
+            report.record(LoadMix.Kind.STATE, 0, 0, latency);
+            report.error(LoadMix.Kind.AI_REPLY);
+            report.write(file);
+        }
+
+        assertTrue(Files.exists(directory.resolve("before.txt.hgrm")));
+        List<String> lines = LoadReport.compare(before, after);
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("state.corrected.p50") && line.endsWith("+50.0%")), String.join("\n", lines));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("config.mix") && line.contains(LoadMix.DEFAULT.toString())));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("ai.errors") && line.trim().endsWith("+0.0%")));
+    }
+
+    private static Map<String, String> figures(List<String> lines) {
+        Map<String, String> figures = new HashMap<>();
+        for (String line : lines) {
+            int equals = line.indexOf('=');
+            if (equals > 0 && !line.startsWith("#")) {
+                figures.put(line.substring(0, equals), line.substring(equals + 1));
+            }
+        }
+        return figures;
+    }
+}
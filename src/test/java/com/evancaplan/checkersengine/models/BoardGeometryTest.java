@@ -0,0 +1,54 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.BoardGeometry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardGeometryTest {
+
+    @Test
+    void testNeighborsInteriorSquare() {
+        int square = BoardGeometry.index(3, 4);
+
+        assertEquals(BoardGeometry.index(2, 3), BoardGeometry.neighbor(square, 0));
+        assertEquals(BoardGeometry.index(2, 5), BoardGeometry.neighbor(square, 1));
+        assertEquals(BoardGeometry.index(4, 3), BoardGeometry.neighbor(square, 2));
+        assertEquals(BoardGeometry.index(4, 5), BoardGeometry.neighbor(square, 3));
+    }
+
+    @Test
+    void testEdgeSquaresHaveNoOffBoardNeighbors() {
+        int corner = BoardGeometry.index(0, 1);
+
+        assertEquals(BoardGeometry.NONE, BoardGeometry.neighbor(corner, 0));
+        assertEquals(BoardGeometry.NONE, BoardGeometry.neighbor(corner, 1));
+        assertEquals(BoardGeometry.index(1, 0), BoardGeometry.neighbor(corner, 2));
+        assertEquals(BoardGeometry.NONE, BoardGeometry.jumpLanding(corner, 2));
+        assertEquals(BoardGeometry.index(2, 3), BoardGeometry.jumpLanding(corner, 3));
+    }
+
+    @Test
+    void testJumpTablesMatchCoordinateArithmetic() {
+        for (int square = 0; square < BoardGeometry.SQUARES; square++) {
+            Board.Square from = BoardGeometry.toSquare(square);
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                int landing = BoardGeometry.jumpLanding(square, direction);
+                if (landing == BoardGeometry.NONE) {
+                    assertNull(BoardGeometry.jumpDelta(square, direction));
+                    continue;
+                }
+                Board.Square to = BoardGeometry.toSquare(landing);
+                Board.Square jumped = BoardGeometry.toSquare(BoardGeometry.jumped(square, direction));
+
+                assertEquals(2, Math.abs(to.row() - from.row()));
+                assertEquals(2, Math.abs(to.col() - from.col()));
+                assertEquals((from.row() + to.row()) / 2, jumped.row());
+                assertEquals((from.col() + to.col()) / 2, jumped.col());
+                assertEquals(to.row(), BoardGeometry.jumpDelta(square, direction).row());
+                assertEquals(to.col(), BoardGeometry.jumpDelta(square, direction).column());
+            }
+        }
+    }
+}
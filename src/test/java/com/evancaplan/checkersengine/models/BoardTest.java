@@ -1,23 +1,39 @@
 package com.evancaplan.checkersengine.models;
 
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.GameEnd;
 import com.evancaplan.checkersengine.model.Move;
 import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.PieceValues;
+import com.evancaplan.checkersengine.model.Position;
+import com.evancaplan.checkersengine.model.Zobrist;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
 
 public class BoardTest {
 
+    // a different value on every square for each color and kind, so a score that misses an update shows
+    private static final PieceValues SQUARE_VALUES = (color, king, row, col) ->
+            (color == BLACK ? 1 : -1) * ((king ? 1_000 : 100) + row * Board.BOARD_SIZE + col);
+
     private Board board;
 
     @BeforeEach
     void setUp() {
-        board = Board.builder().build();
+        board = Board.builder().pieceValues(SQUARE_VALUES).build();
     }
 
     @Test
@@ -159,4 +175,408 @@ public class BoardTest {
         // Verify turn toggled (since there are no more captures)
         assertEquals(BLACK, board.getCurrentTurn());
     }
+
+    @Test
+    void getLegalMoves_standardBoardHasSevenOpeningMoves() {
+        Board board = Board.createStandardBoard(true);
+
+        List<Move> legalMoves = board.getLegalMoves();
+
+        assertEquals(7, legalMoves.size());
+        assertTrue(legalMoves.stream().allMatch(move -> move.getPiece().getColor() == BLACK));
+        assertTrue(legalMoves.stream().noneMatch(Move::isCapture));
+    }
+
+    @Test
+    void getLegalMoves_cachedUntilBoardChanges() {
+        Board board = Board.createStandardBoard(true);
+
+        List<Move> first = board.getLegalMoves();
+        assertSame(first, board.getLegalMoves());
+
+        board.setCurrentTurn(RED);
+
+        List<Move> afterChange = board.getLegalMoves();
+        assertNotSame(first, afterChange);
+        assertTrue(afterChange.stream().allMatch(move -> move.getPiece().getColor() == RED));
+    }
+
+    @Test
+    void getLegalMoves_onlyCapturesWhenCaptureAvailable() {
+        Piece redPiece = new Piece(RED, 5, 5);
+        Piece otherRedPiece = new Piece(RED, 6, 0);
+        Piece blackPiece = new Piece(BLACK, 4, 4);
+
+        board.setPieceAt(redPiece.getRow(), redPiece.getColumn(), redPiece);
+        board.setPieceAt(otherRedPiece.getRow(), otherRedPiece.getColumn(), otherRedPiece);
+        board.setPieceAt(blackPiece.getRow(), blackPiece.getColumn(), blackPiece);
+        board.getRedPieces().add(redPiece);
+        board.getRedPieces().add(otherRedPiece);
+        board.getBlackPieces().add(blackPiece);
+        board.setCurrentTurn(RED);
+
+        List<Move> legalMoves = board.getLegalMoves();
+
+        assertEquals(1, legalMoves.size());
+        assertEquals(3, legalMoves.getFirst().getToRow());
+        assertEquals(3, legalMoves.getFirst().getToCol());
+    }
+
+    @Test
+    void getCaptureSequencesForPiece_followsFullChain() {
+        Piece redPiece = new Piece(RED, 6, 1);
+        Piece firstBlack = new Piece(BLACK, 5, 2);
+        Piece secondBlack = new Piece(BLACK, 3, 4);
+
+        board.setPieceAt(redPiece.getRow(), redPiece.getColumn(), redPiece);
+        board.setPieceAt(firstBlack.getRow(), firstBlack.getColumn(), firstBlack);
+        board.setPieceAt(secondBlack.getRow(), secondBlack.getColumn(), secondBlack);
+        board.getRedPieces().add(redPiece);
+        board.getBlackPieces().add(firstBlack);
+        board.getBlackPieces().add(secondBlack);
+
+        List<Move> sequences = board.getCaptureSequencesForPiece(redPiece);
+
+        assertEquals(1, sequences.size());
+        Move sequence = sequences.getFirst();
+        assertEquals(2, sequence.getToRow());
+        assertEquals(5, sequence.getToCol());
+        assertEquals(List.of(new Board.Square(4, 3), new Board.Square(2, 5)), sequence.getPath());
+        assertEquals(List.of(firstBlack, secondBlack), sequence.getCapturedPieces());
+        // the board itself is left untouched
+        assertSame(redPiece, board.getPieceAt(6, 1));
+    }
+
+    @Test
+    void getCaptureSequencesForPiece_leavesTheBoardAloneForConcurrentValidation() throws Exception {
+        // a king that can jump around a ring of four men and come back to its own square, either way round
+        Piece king = new Piece(BLACK, true, 3, 2);
+        board.setPieceAt(3, 2, king);
+        board.getBlackPieces().add(king);
+        for (int[] square : new int[][]{{4, 3}, {4, 5}, {2, 5}, {2, 3}}) {
+            Piece red = new Piece(RED, square[0], square[1]);
+            board.setPieceAt(square[0], square[1], red);
+            board.getRedPieces().add(red);
+        }
+        Move ring = Move.builder()
+                .fromRow(3)
+                .fromCol(2)
+                .toRow(3)
+                .toCol(2)
+                .piece(king)
+                .path(List.of(new Board.Square(5, 4), new Board.Square(3, 6), new Board.Square(1, 4),
+                        new Board.Square(3, 2)))
+                .build();
+
+        int rounds = 20_000;
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService generator = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> generating = generator.submit(() -> {
+                start.await();
+                for (int i = 0; i < rounds; i++) {
+                    assertEquals(2, board.getCaptureSequencesForPiece(king).size());
+                }
+                return null;
+            });
+            start.await();
+            for (int i = 0; i < rounds; i++) {
+                assertSame(king, board.getPieceAt(3, 2));
+                assertTrue(board.isValidMove(ring));
+            }
+            generating.get();
+        } finally {
+            generator.shutdownNow();
+        }
+    }
+
+    @Test
+    void findLegalMove_tellsApartChainsThatOnlyPartAfterTheFirstHop() {
+        // a king that hops into a ring of four men and can go round it either way, back to where it entered
+        Piece king = new Piece(BLACK, true, 0, 1);
+        board.setPieceAt(0, 1, king);
+        board.getBlackPieces().add(king);
+        for (int[] square : new int[][]{{1, 2}, {3, 4}, {5, 4}, {5, 2}, {3, 2}}) {
+            Piece red = new Piece(RED, square[0], square[1]);
+            board.setPieceAt(square[0], square[1], red);
+            board.getRedPieces().add(red);
+        }
+
+        List<Move> moves = board.getLegalMoves();
+
+        assertEquals(2, moves.size());
+        Move one = moves.get(0);
+        Move other = moves.get(1);
+        assertEquals(one.getLandingSquares().getFirst(), other.getLandingSquares().getFirst());
+        assertEquals(new Board.Square(one.getToRow(), one.getToCol()), new Board.Square(other.getToRow(), other.getToCol()));
+        assertNotEquals(one.getPath(), other.getPath());
+        assertNotEquals(one.encode(), other.encode());
+        assertSame(one, board.findLegalMove(one.encode()));
+        assertSame(other, board.findLegalMove(other.encode()));
+    }
+
+    @Test
+    void movePiece_multiJumpSequenceAppliedAsOneMove() {
+        Piece redPiece = new Piece(RED, 6, 1);
+        Piece firstBlack = new Piece(BLACK, 5, 2);
+        Piece secondBlack = new Piece(BLACK, 3, 4);
+
+        board.setPieceAt(redPiece.getRow(), redPiece.getColumn(), redPiece);
+        board.setPieceAt(firstBlack.getRow(), firstBlack.getColumn(), firstBlack);
+        board.setPieceAt(secondBlack.getRow(), secondBlack.getColumn(), secondBlack);
+        board.getRedPieces().add(redPiece);
+        board.getBlackPieces().add(firstBlack);
+        board.getBlackPieces().add(secondBlack);
+        board.setCurrentTurn(RED);
+
+        Move move = Move.builder()
+                .fromRow(6)
+                .fromCol(1)
+                .toRow(2)
+                .toCol(5)
+                .piece(redPiece)
+                .path(List.of(new Board.Square(4, 3), new Board.Square(2, 5)))
+                .build();
+
+        assertTrue(board.isValidMove(move));
+        board.movePiece(move);
+
+        assertSame(redPiece, board.getPieceAt(2, 5));
+        assertNull(board.getPieceAt(5, 2));
+        assertNull(board.getPieceAt(3, 4));
+        assertTrue(board.getBlackPieces().isEmpty());
+        assertEquals(List.of(firstBlack, secondBlack), move.getCapturedPieces());
+        assertEquals(BLACK, board.getCurrentTurn());
+    }
+
+    @Test
+    void isValidMove_rejectsPartialCaptureSequence() {
+        Piece redPiece = new Piece(RED, 6, 1);
+        Piece firstBlack = new Piece(BLACK, 5, 2);
+        Piece secondBlack = new Piece(BLACK, 3, 4);
+
+        board.setPieceAt(redPiece.getRow(), redPiece.getColumn(), redPiece);
+        board.setPieceAt(firstBlack.getRow(), firstBlack.getColumn(), firstBlack);
+        board.setPieceAt(secondBlack.getRow(), secondBlack.getColumn(), secondBlack);
+        board.getRedPieces().add(redPiece);
+        board.getBlackPieces().add(firstBlack);
+        board.getBlackPieces().add(secondBlack);
+        board.setCurrentTurn(RED);
+
+        Move firstHopOnly = Move.builder()
+                .fromRow(6)
+                .fromCol(1)
+                .toRow(4)
+                .toCol(3)
+                .piece(redPiece)
+                .build();
+
+        assertFalse(board.isValidMove(firstHopOnly));
+    }
+
+    @Test
+    void undoMove_restoresCapturesPromotionAndTurn() {
+        Piece blackPiece = new Piece(BLACK, 5, 2);
+        Piece redPiece = new Piece(RED, 6, 3);
+
+        board.setPieceAt(blackPiece.getRow(), blackPiece.getColumn(), blackPiece);
+        board.setPieceAt(redPiece.getRow(), redPiece.getColumn(), redPiece);
+        board.getBlackPieces().add(blackPiece);
+        board.getRedPieces().add(redPiece);
+        board.setCurrentTurn(BLACK);
+        int scoreBefore = board.getStaticScore();
+
+        Move move = board.getLegalMoves().getFirst();
+        board.movePiece(move);
+
+        assertTrue(move.isPromotion());
+        assertTrue(blackPiece.isKing());
+        assertTrue(board.getRedPieces().isEmpty());
+
+        board.undoMove(move);
+
+        assertFalse(blackPiece.isKing());
+        assertSame(blackPiece, board.getPieceAt(5, 2));
+        assertSame(redPiece, board.getPieceAt(6, 3));
+        assertEquals(List.of(redPiece), board.getRedPieces());
+        assertEquals(BLACK, board.getCurrentTurn());
+        assertEquals(scoreBefore, board.getStaticScore());
+    }
+
+    @Test
+    void positionHash_matchesFullRecomputeThroughMovesAndUndo() {
+        Board board = Board.createStandardBoard(false);
+        long startHash = board.getPositionHash();
+        Random random = new Random(7);
+        Deque<Move> played = new ArrayDeque<>();
+
+        assertEquals(Zobrist.hash(board), startHash);
+        for (int ply = 0; ply < 60 && !board.getLegalMoves().isEmpty(); ply++) {
+            List<Move> legalMoves = board.getLegalMoves();
+            Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+            board.movePiece(move);
+            played.push(move);
+            assertEquals(Zobrist.hash(board), board.getPositionHash());
+        }
+        while (!played.isEmpty()) {
+            board.undoMove(played.pop());
+        }
+
+        assertEquals(startHash, board.getPositionHash());
+    }
+
+    @Test
+    void ply_countsMovesAndUndoTakesThemBack() {
+        Board board = Board.createStandardBoard(false);
+        Move first = board.getLegalMoves().getFirst();
+        board.movePiece(first);
+        Move second = board.getLegalMoves().getFirst();
+        board.movePiece(second);
+
+        assertEquals(2, board.getPly());
+        assertEquals(2, board.copy().getPly());
+
+        board.undoMove(second);
+        board.undoMove(first);
+
+        assertEquals(0, board.getPly());
+    }
+
+    @Test
+    void copy_isIndependentOfOriginal() {
+        Board original = Board.createStandardBoard(true);
+        original.setPieceValues(SQUARE_VALUES);
+        original.movePiece(original.getLegalMoves().getFirst());
+
+        Board copy = original.copy();
+
+        assertEquals(original.getPositionHash(), copy.getPositionHash());
+        assertEquals(original.getStaticScore(), copy.getStaticScore());
+        assertEquals(original.getCurrentTurn(), copy.getCurrentTurn());
+        assertEquals(original.getVersion(), copy.getVersion());
+        assertNotSame(original.getPieceAt(5, 0), copy.getPieceAt(5, 0));
+
+        copy.movePiece(copy.getLegalMoves().getFirst());
+
+        assertNotEquals(original.getPositionHash(), copy.getPositionHash());
+        assertEquals(RED, original.getCurrentTurn());
+    }
+
+    @Test
+    void share_dropsThePiecesUntilTheBoardIsNextUsed() {
+        Board board = Board.createStandardBoard(true);
+        board.setPieceValues(SQUARE_VALUES);
+        board.movePiece(board.getLegalMoves().getFirst());
+        List<Move> replies = board.getLegalMoves();
+        board.movePiece(replies.getLast());
+        String fen = Fen.encode(board);
+        long hash = board.getPositionHash();
+        int score = board.getStaticScore();
+        List<Integer> moves = board.getLegalMoves().stream().map(Move::encode).sorted().toList();
+
+        board.share(Position.of(board));
+
+        assertTrue(board.isShared());
+        assertEquals(hash, board.getPositionHash());
+        assertEquals(score, board.getStaticScore());
+        assertEquals(2, board.getPly());
+        // the same moves, in square order now that the pieces are made from the position
+        assertEquals(moves, board.getLegalMoves().stream().map(Move::encode).sorted().toList());
+        assertFalse(board.isShared());
+        assertEquals(fen, Fen.encode(board));
+
+        Move next = board.getLegalMoves().getFirst();
+        board.movePiece(next);
+        board.undoMove(next);
+        assertEquals(hash, board.getPositionHash());
+    }
+
+    @Test
+    void share_copyStaysSharedUntilItMoves() {
+        Board board = Board.createStandardBoard(true);
+        board.share(Position.of(board));
+
+        Board copy = board.copy();
+
+        assertTrue(copy.isShared());
+        assertEquals(board.getPositionHash(), copy.getPositionHash());
+        assertEquals(board.getCurrentTurn(), copy.getCurrentTurn());
+        copy.movePiece(copy.getLegalMoves().getFirst());
+        assertFalse(copy.isShared());
+        assertTrue(board.isShared());
+        assertEquals(Board.NUM_PIECES, board.getBlackPieces().size());
+    }
+
+    @Test
+    void share_rejectsAPositionTheBoardIsNotIn() {
+        Board board = Board.createStandardBoard(true);
+        Position start = Position.of(board);
+        board.movePiece(board.getLegalMoves().getFirst());
+
+        assertThrows(IllegalArgumentException.class, () -> board.share(start));
+        assertFalse(board.isShared());
+    }
+
+    @Test
+    void copy_keepsADeclaredEnd() {
+        Board drawn = Board.createStandardBoard(true);
+        drawn.declareDraw(GameEnd.THREEFOLD_REPETITION);
+        Board timedOut = Board.createStandardBoard(true);
+        timedOut.declareTimeout();
+
+        assertEquals(GameEnd.THREEFOLD_REPETITION, drawn.copy().getGameEnd());
+        assertNull(drawn.copy().getWinner());
+        assertEquals(GameEnd.TIMEOUT, timedOut.copy().getGameEnd());
+        assertEquals(RED, timedOut.copy().getWinner());
+        assertTrue(timedOut.copy().isGameOver());
+    }
+    @Test
+    void isGameOver_blockedSideToMoveLoses() {
+        // a red man on black's back rank can neither step nor jump
+        Board blocked = Fen.decode("W:W1:B29");
+
+        assertFalse(blocked.canMove(RED));
+        assertTrue(blocked.getLegalMoves().isEmpty());
+        assertTrue(blocked.isGameOver());
+        assertEquals(GameEnd.NO_MOVES, blocked.getGameEnd());
+        assertEquals(BLACK, blocked.getWinner());
+    }
+
+    @Test
+    void canMove_agreesWithLegalMovesThroughRandomGames() {
+        Random random = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            Board board = Board.createStandardBoard(false);
+            for (int ply = 0; ply < 200 && !board.getLegalMoves().isEmpty(); ply++) {
+                assertTrue(board.canMove(board.getCurrentTurn()));
+                List<Move> moves = board.getLegalMoves();
+                board.movePiece(moves.get(random.nextInt(moves.size())));
+            }
+            assertEquals(board.getLegalMoves().isEmpty(), board.isGameOver());
+        }
+    }
+
+    @Test
+    void declareDraw_endsGameWithoutWinner() {
+        Board board = Board.createStandardBoard(false);
+
+        board.declareDraw(GameEnd.THREEFOLD_REPETITION);
+
+        assertTrue(board.isGameOver());
+        assertEquals(GameEnd.THREEFOLD_REPETITION, board.getGameEnd());
+        assertNull(board.getWinner());
+        assertThrows(IllegalArgumentException.class, () -> board.declareDraw(GameEnd.NO_MOVES));
+    }
+
+    @Test
+    void declareTimeout_sideToMoveLosesOnTime() {
+        Board board = Board.createStandardBoard(false);
+        board.setCurrentTurn(RED);
+
+        board.declareTimeout();
+
+        assertTrue(board.isGameOver());
+        assertEquals(GameEnd.TIMEOUT, board.getGameEnd());
+        assertEquals(BLACK, board.getWinner());
+    }
 }
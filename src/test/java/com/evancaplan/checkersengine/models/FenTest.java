@@ -0,0 +1,69 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    private static final String START = "B:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12";
+
+    @Test
+    void encode_standardBoard() {
+        assertEquals(START, Fen.encode(Board.createStandardBoard(false)));
+    }
+
+    @Test
+    void decode_standardBoardMatchesCreatedOne() {
+        Board decoded = Fen.decode(START);
+        Board standard = Board.createStandardBoard(false);
+
+        assertEquals(standard.getPositionHash(), decoded.getPositionHash());
+        assertEquals(standard.getStaticScore(), decoded.getStaticScore());
+        assertEquals(12, decoded.getBlackPieces().size());
+        assertEquals(12, decoded.getRedPieces().size());
+    }
+
+    @Test
+    void decode_kingsRangesAndSideToMove() {
+        Board board = Fen.decode("W:WK3,30-32:B1-2,K29.");
+
+        assertEquals(RED, board.getCurrentTurn());
+        Piece redKing = board.getPieceAt(0, 5);
+        assertNotNull(redKing);
+        assertEquals(RED, redKing.getColor());
+        assertTrue(redKing.isKing());
+        assertEquals(4, board.getRedPieces().size());
+        assertTrue(board.getPieceAt(7, 0).isKing());
+        assertEquals(BLACK, board.getPieceAt(7, 0).getColor());
+        assertEquals("W:WK3,30,31,32:B1,2,K29", Fen.encode(board));
+    }
+
+    @Test
+    void roundTripsRandomGames() {
+        Random random = new Random(5);
+        for (int game = 0; game < 20; game++) {
+            Board board = Board.createStandardBoard(false);
+            for (int ply = 0; ply < 80 && !board.getLegalMoves().isEmpty(); ply++) {
+                board.movePiece(board.getLegalMoves().get(random.nextInt(board.getLegalMoves().size())));
+                Board decoded = Fen.decode(Fen.encode(board));
+                assertEquals(board.getPositionHash(), decoded.getPositionHash());
+            }
+        }
+    }
+
+    @Test
+    void decode_rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> Fen.decode("X:W1:B2"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.decode("B:W33:B1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.decode("B:W1:B1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.decode("B:Wx:B1"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.model.GameClock;
+import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.TimeControl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameClockTest {
+
+    @Test
+    void punch_chargesTheSideToMoveAndAddsTheIncrement() {
+        GameClock clock = new GameClock(TimeControl.fischer(60_000, 2_000), Piece.PieceColor.BLACK, 0);
+
+        assertTrue(clock.punch(5_000));
+
+        assertEquals("57000", String.valueOf(clock.remainingMillis(Piece.PieceColor.BLACK, 5_000)));
+        assertEquals("60000", String.valueOf(clock.remainingMillis(Piece.PieceColor.RED, 5_000)));
+        assertEquals(Piece.PieceColor.RED, clock.getTurn());
+        // only red's clock runs now
+        assertEquals("57000", String.valueOf(clock.remainingMillis(Piece.PieceColor.BLACK, 8_000)));
+        assertEquals("57000", String.valueOf(clock.remainingMillis(Piece.PieceColor.RED, 8_000)));
+        assertEquals("65000", String.valueOf(clock.flagTime()));
+    }
+
+    @Test
+    void checkIn_afterTheFlagTimeFlagsTheClock() {
+        GameClock clock = new GameClock(TimeControl.fischer(1_000, 0), Piece.PieceColor.BLACK, 0);
+
+        assertFalse(clock.checkIn(1_000));
+
+        assertTrue(clock.isFlagged());
+        assertEquals("0", String.valueOf(clock.remainingMillis(Piece.PieceColor.BLACK, 1_000)));
+        assertFalse(clock.punch(500));
+    }
+
+    @Test
+    void moveLimit_capsEveryTurnWithoutAFischerClock() {
+        GameClock clock = new GameClock(TimeControl.perMove(3_000), Piece.PieceColor.BLACK, 0);
+
+        assertEquals("3000", String.valueOf(clock.flagTime()));
+        assertTrue(clock.punch(2_500));
+        assertEquals("5500", String.valueOf(clock.flagTime()));
+        assertEquals(GameClock.UNLIMITED, clock.remainingMillis(Piece.PieceColor.BLACK, 2_500));
+        assertFalse(clock.punch(5_500));
+    }
+
+    @Test
+    void flagIfExpired_waitsForAMoveBeingProcessed() {
+        GameClock clock = new GameClock(TimeControl.fischer(1_000, 0), Piece.PieceColor.BLACK, 0);
+
+        assertTrue(clock.checkIn(900));
+        assertFalse(clock.flagIfExpired(1_200, 0));
+        // the move arrived in time and is charged up to its arrival
+        assertTrue(clock.punch(clock.getCheckedIn()));
+        clock.checkOut();
+
+        assertFalse(clock.isFlagged());
+        assertEquals("100", String.valueOf(clock.remainingMillis(Piece.PieceColor.BLACK, 1_200)));
+    }
+
+    @Test
+    void flagIfExpired_ignoresACheckFromAnEarlierTurn() {
+        GameClock clock = new GameClock(TimeControl.fischer(1_000, 0), Piece.PieceColor.BLACK, 0);
+        assertTrue(clock.punch(100));
+
+        assertFalse(clock.flagIfExpired(1_050, 0));
+        assertTrue(clock.flagIfExpired(1_100, 1));
+        assertTrue(clock.isFlagged());
+    }
+
+    @Test
+    void moveBudget_isAShareOfTheClockNeverMoreThanHalfOfWhatIsLeft() {
+        GameClock clock = new GameClock(TimeControl.fischer(60_000, 1_000), Piece.PieceColor.BLACK, 0);
+        assertEquals("4000", String.valueOf(clock.moveBudget(0)));
+
+        GameClock shortOnTime = new GameClock(TimeControl.fischer(60_000, 1_000), Piece.PieceColor.BLACK, 0);
+        assertEquals("1000", String.valueOf(shortOnTime.moveBudget(58_000)));
+
+        GameClock untimed = new GameClock(new TimeControl(0, 0, 0), Piece.PieceColor.BLACK, 0);
+        assertEquals(GameClock.UNLIMITED, untimed.moveBudget(0));
+    }
+
+    @Test
+    void timeControl_rejectsNegativeTimes() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeControl(-1, 0, 0));
+        assertFalse(new TimeControl(0, 5_000, 0).timed());
+    }
+}
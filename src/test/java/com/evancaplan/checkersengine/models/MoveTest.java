@@ -0,0 +1,55 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.dto.MoveRequest;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.evancaplan.checkersengine.model.Piece.PieceColor.*;
+
+public class MoveTest {
+
+    private final Piece piece = new Piece(BLACK, 5, 2);
+    private final List<Board.Square> path = List.of(new Board.Square(3, 4), new Board.Square(1, 2));
+
+    @Test
+    void fromRequest_pathAloneGivesTheDestination() {
+        MoveRequest request = MoveRequest.builder().gameId("game").fromRow(5).fromCol(2).path(path).build();
+
+        Move move = Move.fromRequest(piece, request);
+
+        assertEquals(1, move.getToRow());
+        assertEquals(2, move.getToCol());
+        assertEquals(path, move.getPath());
+    }
+
+    @Test
+    void fromRequest_acceptsADestinationThatEndsThePath() {
+        MoveRequest request = MoveRequest.builder().gameId("game").fromRow(5).fromCol(2).toRow(1).toCol(2)
+                .path(path).build();
+
+        Move move = Move.fromRequest(piece, request);
+
+        assertEquals(1, move.getToRow());
+        assertEquals(2, move.getToCol());
+    }
+
+    @Test
+    void fromRequest_rejectsADestinationThePathDoesNotEndOn() {
+        MoveRequest request = MoveRequest.builder().gameId("game").fromRow(5).fromCol(2).toRow(3).toCol(4)
+                .path(path).build();
+
+        assertThrows(IllegalArgumentException.class, () -> Move.fromRequest(piece, request));
+    }
+
+    @Test
+    void fromRequest_rejectsAMoveWithoutDestination() {
+        MoveRequest request = MoveRequest.builder().gameId("game").fromRow(5).fromCol(2).build();
+
+        assertThrows(IllegalArgumentException.class, () -> Move.fromRequest(piece, request));
+    }
+}
@@ -0,0 +1,68 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.PositionHistory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionHistoryTest {
+
+    @Test
+    void draw_threefoldRepetitionOfKingShuffle() {
+        Board board = Fen.decode("W:WK29:BK4");
+        PositionHistory history = new PositionHistory(board);
+
+        for (int cycle = 0; cycle < 2; cycle++) {
+            assertNull(history.draw(0));
+            play(board, history, 29, 25);
+            play(board, history, 4, 8);
+            play(board, history, 25, 29);
+            play(board, history, 8, 4);
+        }
+
+        assertEquals(3, history.repetitions());
+        assertEquals(GameEnd.THREEFOLD_REPETITION, history.draw(0));
+    }
+
+    @Test
+    void draw_noCaptureLimit() {
+        Board board = Fen.decode("W:WK29:BK4");
+        PositionHistory history = new PositionHistory(board);
+
+        play(board, history, 29, 25);
+        play(board, history, 4, 8);
+        play(board, history, 25, 22);
+
+        assertEquals(3, history.getPliesSinceCapture());
+        assertNull(history.draw(4));
+        assertEquals(GameEnd.NO_CAPTURE_LIMIT, history.draw(3));
+        assertNull(history.draw(0));
+    }
+
+    @Test
+    void record_captureClearsTheWindow() {
+        Board board = Fen.decode("W:W22,K29:B18,K4");
+        PositionHistory history = new PositionHistory(board);
+
+        play(board, history, 22, 15);
+
+        assertEquals(0, history.getPliesSinceCapture());
+        assertEquals(1, history.repetitions());
+    }
+
+    private static void play(Board board, PositionHistory history, int from, int to) {
+        Board.Square origin = Fen.square(from);
+        Board.Square destination = Fen.square(to);
+        Move move = board.findLegalMove(Move.builder()
+                .fromRow(origin.row()).fromCol(origin.col())
+                .toRow(destination.row()).toCol(destination.col())
+                .build());
+        assertNotNull(move, from + "-" + to);
+        board.movePiece(move);
+        history.record(board);
+    }
+}
@@ -0,0 +1,83 @@
+package com.evancaplan.checkersengine.models;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Position;
+import com.evancaplan.checkersengine.model.PositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTableTest {
+
+    @Test
+    void position_fenMatchesBoardFenThroughRandomGames() {
+        Random random = new Random(11);
+        for (int game = 0; game < 20; game++) {
+            Board board = Board.createStandardBoard(false);
+            for (int ply = 0; ply < 200 && !board.isGameOver(); ply++) {
+                Position position = Position.of(board);
+                assertEquals(Fen.encode(board), position.toFen());
+                assertEquals(board.getPositionHash(), position.hash());
+                List<Move> moves = board.getLegalMoves();
+                board.movePiece(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    void intern_sharesEqualPositionsOfDifferentBoards() {
+        PositionTable table = new PositionTable();
+        Board first = Board.createStandardBoard(true);
+        Board second = Board.createStandardBoard(false);
+
+        Position start = table.intern(first);
+        assertSame(start, table.intern(second));
+
+        first.movePiece(first.getLegalMoves().getFirst());
+        Move played = second.getLegalMoves().getFirst();
+        second.movePiece(played);
+        Position afterFirst = table.intern(first);
+        assertSame(afterFirst, table.intern(second));
+
+        second.undoMove(played);
+        assertSame(start, table.intern(second));
+        assertNotSame(start, afterFirst);
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void intern_keepsADifferentPositionWithTheSameHashUnshared() {
+        PositionTable table = new PositionTable();
+        Position stored = new Position(1L, 2L, 0L, true, 42L);
+        Position collision = new Position(4L, 8L, 0L, true, 42L);
+
+        assertSame(stored, table.intern(stored));
+        assertSame(collision, table.intern(collision));
+        assertSame(stored, table.intern(new Position(1L, 2L, 0L, true, 42L)));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void intern_dropsPositionsNoGameRefersTo() throws InterruptedException {
+        PositionTable table = new PositionTable();
+        Position kept = table.intern(new Position(0L, 1L, 0L, false, -1L));
+        for (long hash = 1; hash <= 1_000; hash++) {
+            table.intern(new Position(hash, 0L, 0L, true, hash));
+        }
+
+        // collection is up to the JVM, so give it a few chances; interning clears the collected entries
+        for (int attempt = 0; attempt < 50 && table.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+            table.intern(kept);
+        }
+
+        assertEquals(1, table.size());
+        assertSame(kept, table.intern(new Position(0L, 1L, 0L, false, -1L)));
+    }
+}
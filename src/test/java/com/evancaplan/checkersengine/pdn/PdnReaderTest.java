@@ -0,0 +1,164 @@
+package com.evancaplan.checkersengine.pdn;
+
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import com.evancaplan.checkersengine.model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdnReaderTest {
+
+    private static final String COLLECTION = """
+            [Event "good"]
+            [Result "2-0"]
+
+            1. 11-15 23-19 2. 8-11 {a comment
+            over two lines} 22-17 (2... 9-14 24-20) 2-0
+
+            [Event "illegal"]
+
+            1. 11-15 23-19
+            2. 15-11 22-17 *
+
+            [Event "setup"]
+            [FEN "B:W6,15:B1"]
+
+            1. 1x19 1-0
+
+            [FEN "B:W6,6:B1"]
+            1. 1x10 *
+            [Event "after \\"quoted\\""]
+            11-15 *
+            """;
+
+    @Test
+    void read_reportsIllegalGamesWithTheirLinesAndKeepsGoing() throws IOException {
+        Collected collected = read(COLLECTION, 2, PdnReader.CHUNK_CHARS);
+
+        assertEquals(3, collected.games.size());
+        PdnGame good = collected.games.get(0);
+        assertEquals(1, good.line());
+        assertEquals(List.of("11-15", "23-19", "8-11", "22-17"), notation(good.moves()));
+        assertEquals(Piece.PieceColor.BLACK, good.winner());
+
+        // the short form names only where the double jump ends
+        PdnGame setup = collected.games.get(1);
+        assertEquals(12, setup.line());
+        assertEquals(List.of("1x10x19"), notation(setup.moves()));
+        assertTrue(setup.play().getRedPieces().isEmpty());
+
+        PdnGame after = collected.games.get(2);
+        assertEquals(19, after.line());
+        assertEquals("after \"quoted\"", after.tags().get("Event"));
+
+        assertEquals(2, collected.errors.size());
+        assertEquals(new PdnError(7, 10, "Illegal move '15-11'"), collected.errors.get(0));
+        assertEquals(17, collected.errors.get(1).gameLine());
+        assertTrue(collected.errors.get(1).message().contains("taken twice"), collected.errors.get(1).message());
+    }
+
+    @Test
+    void read_givesTheSameGamesAndLinesHoweverTheTextIsChunked() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            text.append(COLLECTION).append('\n');
+        }
+        Collected whole = read(text.toString(), 1, PdnReader.CHUNK_CHARS);
+        Collected chunked = read(text.toString(), 4, 1);
+
+        assertEquals(60, whole.games.size());
+        assertEquals(40, whole.errors.size());
+        assertEquals(whole.errors, chunked.errors);
+        assertEquals(describe(whole.games), describe(chunked.games));
+    }
+
+    @Test
+    void writtenGamesReadBackTheSame() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        List<PdnGame> written = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            // every fifth game starts from a position with red to move
+            Board start = i % 5 == 4 ? Fen.decode("W:W21-32:B1-12") : Board.createStandardBoard(false);
+            Board board = Fen.decode(Fen.encode(start));
+            List<Move> moves = new ArrayList<>();
+            for (int ply = 0; ply < 150 && !board.isGameOver(); ply++) {
+                List<Move> legal = board.getLegalMoves();
+                Move move = legal.get(random.nextInt(legal.size()));
+                moves.add(move);
+                board.movePiece(move);
+            }
+            Piece.PieceColor winner = board.getWinner();
+            String result = !board.isGameOver() ? PdnGame.UNKNOWN
+                    : winner == Piece.PieceColor.BLACK ? PdnGame.BLACK_WINS : PdnGame.RED_WINS;
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "random " + i);
+            written.add(PdnGame.of(tags, start, moves, result));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdnWriter writer = new PdnWriter(Channels.newChannel(out))) {
+            for (PdnGame game : written) {
+                writer.write(game);
+            }
+        }
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            assertTrue(line.length() <= PdnWriter.LINE_WIDTH, line);
+        }
+        Collected read = read(out.toString(StandardCharsets.UTF_8), 3, 2_000);
+
+        assertEquals(List.of(), read.errors);
+        assertEquals(written.size(), read.games.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(written.get(i).tags(), read.games.get(i).tags());
+            assertEquals(notation(written.get(i).moves()), notation(read.games.get(i).moves()));
+            assertEquals(written.get(i).result(), read.games.get(i).result());
+            assertEquals(Fen.encode(written.get(i).play()), Fen.encode(read.games.get(i).play()));
+        }
+    }
+
+    private static Collected read(String text, int threads, int chunkChars) throws IOException {
+        Collected collected = new Collected();
+        PdnReader.Summary summary = new PdnReader(threads, chunkChars).read(
+                Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), collected);
+        assertEquals(collected.games.size(), summary.games());
+        assertEquals(collected.errors.size(), summary.illegal());
+        return collected;
+    }
+
+    private static List<String> describe(List<PdnGame> games) {
+        return games.stream().map(game -> game.line() + " " + game.tags() + " " + notation(game.moves()) + " " + game.result())
+                .toList();
+    }
+
+    private static List<String> notation(List<Move> moves) {
+        return moves.stream().map(PdnGame::notation).toList();
+    }
+
+    private static final class Collected implements PdnReader.Handler {
+        private final List<PdnGame> games = new ArrayList<>();
+        private final List<PdnError> errors = new ArrayList<>();
+
+        @Override
+        public void game(PdnGame game) {
+            games.add(game);
+        }
+
+        @Override
+        public void illegal(PdnError error) {
+            errors.add(error);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.ResultCacheMetricsResponse;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResultCacheTest {
+
+    private final Board board = Board.createStandardBoard(true);
+    private final Move move = board.getLegalMoves().getFirst();
+
+    @Test
+    void lookup_returnsStoredMoveScoreAndDepth() {
+        AIResultCache cache = new AIResultCache(true, 64);
+
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM, result(move, -42, 6));
+        AIResultCache.CachedResult cached = cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM);
+
+        assertNotNull(cached);
+        assertEquals(move.encode(), cached.move());
+        assertEquals(-42, cached.score());
+        assertEquals(6, cached.depth());
+        assertSame(move, board.findLegalMove(cached.move()));
+    }
+
+    @Test
+    void lookup_missesOtherEnginesDifficultiesAndPositions() {
+        AIResultCache cache = new AIResultCache(true, 64);
+
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM, result(move, 10, 6));
+
+        assertNull(cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.HARD));
+        assertNull(cache.lookup(board.getPositionHash(), "greedy", Difficulty.MEDIUM));
+        assertNull(cache.lookup(board.getPositionHash() + 1, Engines.DEFAULT, Difficulty.MEDIUM));
+    }
+
+    @Test
+    void store_keepsDeeperResultForSamePosition() {
+        AIResultCache cache = new AIResultCache(true, 64);
+
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.HARD, result(move, 10, 9));
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.HARD, result(move, 20, 4));
+
+        assertEquals(9, cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.HARD).depth());
+        assertEquals(10, cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.HARD).score());
+    }
+
+    @Test
+    void store_memoryStaysFixedAndOldEntriesAgeOut() {
+        AIResultCache cache = new AIResultCache(true, 16);
+
+        for (long hash = 1; hash <= 1_000; hash++) {
+            cache.store(hash, Engines.DEFAULT, Difficulty.MEDIUM, result(move, 0, 6));
+        }
+        ResultCacheMetricsResponse metrics = cache.snapshot();
+
+        assertEquals(16, metrics.getCapacity());
+        assertEquals(16 * 2 * Long.BYTES, metrics.getMemoryBytes());
+        assertEquals(1_000, metrics.getStores());
+        assertTrue(metrics.getReplacements() > 0);
+        assertTrue(metrics.getGeneration() > 0);
+        assertNotNull(cache.lookup(1_000, Engines.DEFAULT, Difficulty.MEDIUM));
+    }
+
+    @Test
+    void snapshot_countsHitsAndMisses() {
+        AIResultCache cache = new AIResultCache(true, 64);
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM, result(move, 0, 6));
+
+        cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM);
+        cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.EXPERT);
+        ResultCacheMetricsResponse metrics = cache.snapshot();
+
+        assertEquals(2, metrics.getLookups());
+        assertEquals(1, metrics.getHits());
+        assertEquals(0.5, metrics.getHitRate());
+        assertEquals(1, metrics.getUsed());
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        AIResultCache cache = new AIResultCache(false, 64);
+
+        cache.store(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM, result(move, 0, 6));
+
+        assertNull(cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM));
+        assertEquals(0, cache.snapshot().getMemoryBytes());
+    }
+
+    private static SearchResult result(Move move, int score, int depth) {
+        return new SearchResult(move, score, new SearchStats(depth, 1, 0, 0, 1, List.of(move)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.AnalysisResultDto;
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Fen;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchMetrics searchMetrics = new SearchMetrics();
+    private final AnalysisService analysisService =
+            new AnalysisService(new MoveService(searchMetrics, new AIResultCache(false, 0),
+                    new GameMetrics(registry)), 4);
+
+    @AfterEach
+    void tearDown() {
+        analysisService.shutdown();
+    }
+
+    @Test
+    void analyze_streamsOneResultPerPosition() throws Exception {
+        List<String> positions = new ArrayList<>();
+        Board board = Board.createStandardBoard(false);
+        for (int ply = 0; ply < 6; ply++) {
+            positions.add(Fen.encode(board));
+            board.movePiece(board.getLegalMoves().getFirst());
+        }
+        List<AnalysisResultDto> results = Collections.synchronizedList(new ArrayList<>());
+
+        analysisService.analyze(positions, 10, Difficulty.EASY, Engines.DEFAULT, results::add).get(30, TimeUnit.SECONDS);
+
+        assertEquals(6, results.size());
+        results.sort(Comparator.comparingInt(AnalysisResultDto::getIndex));
+        for (int i = 0; i < 6; i++) {
+            AnalysisResultDto result = results.get(i);
+            assertEquals(10 + i, result.getIndex());
+            assertEquals(positions.get(i), result.getPosition());
+            assertNotNull(result.getBestMove());
+            assertNotNull(result.getScore());
+            assertTrue(result.getSearch().getDepth() > 0);
+            assertNull(result.getError());
+        }
+        // analyses are not AI moves of a game
+        assertEquals(0, registry.get("checkers.ai.move").timer().count());
+        assertEquals(0, searchMetrics.snapshot().getSearches());
+    }
+
+    @Test
+    void analyze_reportsBadAndFinishedPositionsWithoutFailingTheBatch() throws Exception {
+        List<AnalysisResultDto> results = Collections.synchronizedList(new ArrayList<>());
+
+        analysisService.analyze(List.of("not a position", "B:W21:B"), 0, Difficulty.EASY, Engines.DEFAULT, results::add)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(2, results.size());
+        results.forEach(result -> assertNotNull(result.getError()));
+        results.forEach(result -> assertNull(result.getBestMove()));
+    }
+
+    @Test
+    void analyze_rejectsUnknownEngineAndOversizedBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> analysisService.analyze(List.of(), 0, Difficulty.EASY, "nonexistent", result -> {
+                }));
+        List<String> tooMany = Collections.nCopies(AnalysisService.MAX_POSITIONS + 1, "B:W21:B1");
+        assertThrows(IllegalArgumentException.class,
+                () -> analysisService.analyze(tooMany, 0, Difficulty.EASY, Engines.DEFAULT, result -> {
+                }));
+    }
+}
@@ -0,0 +1,66 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.GameEnd;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameMetrics gameMetrics = new GameMetrics(registry);
+    // held here because gauges only keep a weak reference to what they read
+    private final long[] store = {3, 4_096};
+
+    @Test
+    void recordsTimersAndCounters() {
+        gameMetrics.recordMakeMove(2_000_000);
+        gameMetrics.recordMoveValidation(5_000);
+        gameMetrics.recordAIMove(1_000_000);
+        gameMetrics.gameCreated();
+        gameMetrics.gameCreated();
+        gameMetrics.illegalMove();
+        gameMetrics.moveDeadlineReached();
+        gameMetrics.moveRepeated();
+        gameMetrics.moveOutOfOrder();
+        gameMetrics.moveOutOfOrder();
+        gameMetrics.gameFinished(GameEnd.NO_MOVES);
+
+        assertEquals(1, registry.get("checkers.game.move").timer().count());
+        assertEquals(2, registry.get("checkers.game.move").timer().totalTime(TimeUnit.MILLISECONDS), 1e-9);
+        assertEquals(1, registry.get("checkers.move.validation").timer().count());
+        assertEquals(1, registry.get("checkers.ai.move").timer().count());
+        assertEquals(2, registry.get("checkers.games.created").counter().count());
+        assertEquals(1, registry.get("checkers.moves.illegal").counter().count());
+        assertEquals(1, registry.get("checkers.ai.deadline.reached").counter().count());
+        assertEquals(1, registry.get("checkers.moves.repeated").counter().count());
+        assertEquals(2, registry.get("checkers.moves.out.of.order").counter().count());
+        assertEquals(1, registry.get("checkers.games.finished").tag("end", "NO_MOVES").counter().count());
+        assertEquals(0, registry.get("checkers.games.finished").tag("end", "NO_PIECES").counter().count());
+    }
+
+    @Test
+    void thinkTimeIsKeptPerDifficulty() {
+        gameMetrics.recordThinkTime(Difficulty.HARD, 40_000_000);
+
+        Timer hard = registry.get("checkers.ai.think").tag("difficulty", "HARD").timer();
+        assertEquals(1, hard.count());
+        assertEquals(40, hard.max(TimeUnit.MILLISECONDS), 1e-9);
+        assertEquals(0, registry.get("checkers.ai.think").tag("difficulty", "EASY").timer().count());
+    }
+
+    @Test
+    void gameStoreGaugesReadTheStore() {
+        gameMetrics.registerGameStore(store, s -> s[0], s -> s[1]);
+
+        assertEquals(3, registry.get("checkers.games.active").gauge().value());
+        assertEquals(4_096, registry.get("checkers.games.store.memory").gauge().value());
+        store[0] = 5;
+        assertEquals(5, registry.get("checkers.games.active").gauge().value());
+    }
+}
@@ -1,20 +1,34 @@
 package com.evancaplan.checkersengine.service;
 
+import com.evancaplan.checkersengine.archive.GameArchive;
 import com.evancaplan.checkersengine.dto.MoveRequest;
 import com.evancaplan.checkersengine.dto.StartGameRequest;
+import com.evancaplan.checkersengine.engine.Evaluator;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.GameClock;
+import com.evancaplan.checkersengine.model.GameEnd;
+import com.evancaplan.checkersengine.model.Move;
 import com.evancaplan.checkersengine.model.Piece;
+import com.evancaplan.checkersengine.model.TimeControl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +36,15 @@ class GameServiceTest {
     @Mock
     private MoveService moveService;
 
+    @Mock
+    private PonderService ponderService;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
+    @Mock
+    private GameArchive gameArchive;
+
     @InjectMocks
     private GameService gameService;
 
@@ -29,6 +52,7 @@ class GameServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(moveService.getEvaluator()).thenReturn(Evaluator.DEFAULT);
         board = Board.builder().build();
         board.setCurrentTurn(Piece.PieceColor.RED);
         board.setRedPieces(new ArrayList<>());
@@ -56,6 +80,51 @@ class GameServiceTest {
         assertEquals(12, board.getRedPieces().size());
     }
 
+    @Test
+    void startNewGame_boardKeepsOnlyTheSharedStartPositionWhileSnapshotsAreRead() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        Board board = gameService.getBoardState(gameId);
+        long shared = gameService.estimatedMemoryBytes();
+
+        Board snapshot = gameService.snapshot(gameId);
+
+        assertEquals(12, snapshot.getBlackPieces().size());
+        assertEquals(board.getVersion(), snapshot.getVersion());
+        assertTrue(board.isShared());
+        assertEquals(shared, gameService.estimatedMemoryBytes());
+        assertEquals(12, board.getBlackPieces().size());
+        assertFalse(board.isShared());
+        assertTrue(gameService.estimatedMemoryBytes() > shared);
+    }
+
+    @Test
+    void startNewGame_storesRequestedDifficulty() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().difficulty(Difficulty.BEGINNER).build());
+
+        assertEquals(Difficulty.BEGINNER, gameService.getBoardState(gameId).getDifficulty());
+    }
+
+    @Test
+    void startNewGame_defaultsToMediumDifficulty() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+
+        assertEquals(Difficulty.MEDIUM, gameService.getBoardState(gameId).getDifficulty());
+    }
+
+    @Test
+    void startNewGame_storesRequestedEngine() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().engine("greedy").build());
+
+        assertEquals("greedy", gameService.getBoardState(gameId).getEngine());
+    }
+
+    @Test
+    void startNewGame_rejectsUnknownEngine() {
+        StartGameRequest request = StartGameRequest.builder().engine("nonexistent").build();
+
+        assertThrows(IllegalArgumentException.class, () -> gameService.startNewGame(request));
+    }
+
     @Test
     void getBoardState_returnsNullForNonExistentGame() {
         Board board = gameService.getBoardState("non-existent-id");
@@ -65,7 +134,7 @@ class GameServiceTest {
 
     @Test
     void makeMove_returnsFalseForNonExistentGame() {
-        boolean result = gameService.makeMove(MoveRequest.builder().gameId("non-existent-id").build());
+        boolean result = gameService.makeMove(MoveRequest.builder().gameId("non-existent-id").build()).applied();
         assertFalse(result);
         verify(moveService, never()).apply(any(), any());
     }
@@ -75,7 +144,7 @@ class GameServiceTest {
         String gameId = gameService.startNewGame(StartGameRequest.builder().build());
         board.setCurrentTurn(Piece.PieceColor.BLACK);
         
-        boolean result = gameService.makeMove(MoveRequest.builder().gameId(gameId).build());
+        boolean result = gameService.makeMove(MoveRequest.builder().gameId(gameId).build()).applied();
         
         assertFalse(result);
         verify(moveService, never()).apply(any(), any());
@@ -106,12 +175,13 @@ class GameServiceTest {
                 .build();
         
         // Execute the method under test
-        boolean result = gameService.makeMove(request);
+        boolean result = gameService.makeMove(request).applied();
         
         // Verify the result and interactions
         assertFalse(result);
         verify(moveService, times(1)).apply(any(), any());
         verify(moveService, never()).generateAIMove(any());
+        verify(gameMetrics).illegalMove();
     }
     
     @Test
@@ -139,13 +209,271 @@ class GameServiceTest {
                 .build();
         
         // Execute the method under test
-        boolean result = gameService.makeMove(request);
+        boolean result = gameService.makeMove(request).applied();
         
         // Verify the result and interactions
         assertTrue(result);
         verify(moveService, times(1)).apply(any(), any());
     }
 
+    @Test
+    void makeMove_usesPonderedReplyWithoutSearching() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        Board board = gameService.getBoardState(gameId);
+
+        // the position the human's move will lead to, with a reply prepared for it
+        Board predicted = board.copy();
+        predicted.movePiece(predicted.findLegalMove(Move.builder().fromRow(2).fromCol(1).toRow(3).toCol(0).build()));
+        Move preparedReply = predicted.getLegalMoves().getFirst();
+        SearchResult pondered = new SearchResult(preparedReply, 0, SearchStats.EMPTY);
+
+        when(ponderService.claim(gameId)).thenReturn(Map.of(predicted.getPositionHash(), pondered));
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            invocation.<Board>getArgument(0).movePiece(invocation.getArgument(1));
+            return true;
+        });
+
+        MoveRequest request = MoveRequest.builder()
+                .gameId(gameId)
+                .fromRow(2)
+                .fromCol(1)
+                .toRow(3)
+                .toCol(0)
+                .build();
+
+        GameService.MoveResult result = gameService.makeMove(request);
+
+        assertTrue(result.applied());
+        assertEquals(preparedReply.getFromRow(), result.aiSearch().bestMove().getFromRow());
+        assertEquals(preparedReply.getFromCol(), result.aiSearch().bestMove().getFromCol());
+        assertEquals(Piece.PieceColor.BLACK, board.getCurrentTurn());
+        verify(moveService, never()).generateAIMove(any());
+        verify(ponderService).startPondering(eq(gameId), eq(board), eq(result.aiSearch()));
+    }
+
+    @Test
+    void makeMove_rejectedMoveLeavesPonderingRunning() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        when(moveService.apply(any(), any())).thenReturn(false);
+
+        // an empty square, then a piece the rules don't let move there
+        gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(3).fromCol(0).toRow(4).toCol(1).build());
+        gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(4).toCol(1).build());
+
+        verify(ponderService, never()).claim(any());
+        verify(ponderService, never()).cancel(any());
+        verify(gameMetrics, times(2)).illegalMove();
+    }
+
+    @Test
+    void makeMove_recordsEveryPositionOfTheGame() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        Board board = gameService.getBoardState(gameId);
+        String start = Fen.encode(board);
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            invocation.<Board>getArgument(0).movePiece(invocation.getArgument(1));
+            return true;
+        });
+        when(moveService.generateAIMove(any())).thenAnswer(invocation -> {
+            Board position = invocation.getArgument(0);
+            return new SearchResult(position.getLegalMoves().getFirst(), 0, SearchStats.EMPTY);
+        });
+
+        gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).build());
+        List<String> positions = gameService.getPositions(gameId);
+
+        assertEquals(3, positions.size());
+        assertEquals(start, positions.getFirst());
+        assertEquals(Fen.encode(board), positions.getLast());
+        assertNull(gameService.getPositions("non-existent-id"));
+    }
+
+    @Test
+    void makeMove_gamesThroughTheSamePositionsShareThem() {
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            invocation.<Board>getArgument(0).movePiece(invocation.getArgument(1));
+            return true;
+        });
+        List<String> games = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String gameId = gameService.startNewGame(StartGameRequest.builder().singlePlayer(false).build());
+            gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).build());
+            gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(5).fromCol(0).toRow(4).toCol(1).build());
+            games.add(gameId);
+        }
+
+        assertEquals(3, gameService.distinctPositions());
+        for (String gameId : games) {
+            assertEquals(gameService.getPositions(games.getFirst()), gameService.getPositions(gameId));
+        }
+        assertEquals(Fen.encode(gameService.getBoardState(games.getFirst())), gameService.getPositions(games.getFirst()).getLast());
+    }
+
+    @Test
+    void makeMove_deadlineStopsTheAISearchAndPlaysItsBestMoveSoFar() {
+        ReflectionTestUtils.setField(gameService, "moveDeadlineMillis", 50L);
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        Board board = gameService.getBoardState(gameId);
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            invocation.<Board>getArgument(0).movePiece(invocation.getArgument(1));
+            return true;
+        });
+        // a search that only gives up its move once it is stopped
+        when(moveService.generateAIMove(any())).thenAnswer(invocation -> {
+            Board position = invocation.getArgument(0);
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new SearchResult(position.getLegalMoves().getFirst(), 0, SearchStats.EMPTY);
+        });
+
+        long start = System.nanoTime();
+        GameService.MoveResult result = gameService.makeMove(
+                MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).build());
+
+        assertTrue(result.applied());
+        assertNotNull(result.aiSearch().bestMove());
+        assertEquals(Piece.PieceColor.BLACK, board.getCurrentTurn());
+        assertEquals(3, gameService.getPositions(gameId).size());
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        verify(gameMetrics).moveDeadlineReached();
+    }
+
+    @Test
+    void makeMove_aiFailureIsRethrownAfterThePlayersMove() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().build());
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            invocation.<Board>getArgument(0).movePiece(invocation.getArgument(1));
+            return true;
+        });
+        when(moveService.generateAIMove(any())).thenThrow(new IllegalStateException("engine failed"));
+        MoveRequest request = MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).build();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> gameService.makeMove(request));
+
+        assertEquals("engine failed", thrown.getMessage());
+        verify(gameMetrics, never()).moveDeadlineReached();
+    }
+
+    @Test
+    void makeMove_threefoldRepetitionDrawsAndRetiresGame() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().singlePlayer(false).build());
+        Board board = gameService.getBoardState(gameId);
+        // strip the board down to one king each
+        for (Piece piece : new ArrayList<>(board.getBlackPieces())) {
+            board.setPieceAt(piece.getRow(), piece.getColumn(), null);
+        }
+        for (Piece piece : new ArrayList<>(board.getRedPieces())) {
+            board.setPieceAt(piece.getRow(), piece.getColumn(), null);
+        }
+        Piece blackKing = new Piece(Piece.PieceColor.BLACK, true, 0, 7);
+        Piece redKing = new Piece(Piece.PieceColor.RED, true, 7, 0);
+        board.setBlackPieces(new ArrayList<>(List.of(blackKing)));
+        board.setRedPieces(new ArrayList<>(List.of(redKing)));
+        board.setPieceAt(0, 7, blackKing);
+        board.setPieceAt(7, 0, redKing);
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            Board live = invocation.<Board>getArgument(0);
+            live.movePiece(live.findLegalMove(invocation.getArgument(1)));
+            return true;
+        });
+
+        for (int cycle = 0; cycle < 2; cycle++) {
+            shuffle(gameId, 0, 7, 1, 6);
+            shuffle(gameId, 7, 0, 6, 1);
+            shuffle(gameId, 1, 6, 0, 7);
+            shuffle(gameId, 6, 1, 7, 0);
+        }
+        assertFalse(board.isGameOver());
+        // the position after the first ply comes up for the third time
+        shuffle(gameId, 0, 7, 1, 6);
+
+        assertTrue(board.isGameOver());
+        assertEquals(GameEnd.THREEFOLD_REPETITION, board.getGameEnd());
+        assertNull(board.getWinner());
+        assertFalse(gameService.isActive(gameId));
+        assertTrue(gameService.gameExists(gameId));
+        assertSame(board, gameService.getBoardState(gameId));
+        verify(ponderService).cancel(gameId);
+        verify(gameMetrics).gameFinished(GameEnd.THREEFOLD_REPETITION);
+        verify(gameArchive).append(eq(gameId), same(board), argThat(positions -> positions.size() == 10));
+        assertFalse(gameService.makeMove(MoveRequest.builder().gameId(gameId).fromRow(0).fromCol(7).toRow(1).toCol(6).build()).applied());
+    }
+
+    @Test
+    void makeMove_chargesTheClockOfATimedGame() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder()
+                .singlePlayer(false)
+                .timeControl(TimeControl.fischer(60_000, 1_000))
+                .build());
+        when(moveService.apply(any(), any())).thenReturn(true);
+
+        assertTrue(gameService.makeMove(new MoveRequest(gameId, 2, 1, 3, 0)).applied());
+
+        GameClock clock = gameService.getClock(gameId);
+        long now = GameService.clockMillis();
+        assertEquals(Piece.PieceColor.RED, clock.getTurn());
+        // the increment outweighs the few milliseconds the move took
+        assertTrue(clock.remainingMillis(Piece.PieceColor.BLACK, now) > 60_000);
+        assertTrue(clock.remainingMillis(Piece.PieceColor.RED, now) <= 60_000);
+    }
+
+    @Test
+    void flagFall_endsTheGameOnTimeAndRetiresIt() throws InterruptedException {
+        String gameId = gameService.startNewGame(StartGameRequest.builder()
+                .singlePlayer(false)
+                .timeControl(TimeControl.perMove(30))
+                .build());
+        Board board = gameService.getBoardState(gameId);
+
+        for (int waited = 0; gameService.isActive(gameId) && waited < 5_000; waited += 10) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(gameService.isActive(gameId));
+        assertEquals(GameEnd.TIMEOUT, board.getGameEnd());
+        assertEquals(Piece.PieceColor.RED, board.getWinner());
+        assertNull(gameService.getClock(gameId));
+        verify(gameMetrics).gameFinished(GameEnd.TIMEOUT);
+        assertFalse(gameService.makeMove(new MoveRequest(gameId, 2, 1, 3, 0)).applied());
+    }
+
+    @Test
+    void makeMove_taggedWithItsPlyIsAppliedOnceAndRepeatsGetTheSameResult() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().singlePlayer(false).build());
+        when(moveService.apply(any(), any())).thenAnswer(invocation -> {
+            Board live = invocation.<Board>getArgument(0);
+            live.movePiece(live.findLegalMove(invocation.getArgument(1)));
+            return true;
+        });
+        MoveRequest request = MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).ply(0).build();
+
+        GameService.MoveResult first = gameService.makeMove(request);
+        GameService.MoveResult retry = gameService.makeMove(request);
+
+        assertTrue(first.applied());
+        assertSame(first, retry);
+        assertEquals(1, gameService.getBoardState(gameId).getPly());
+        verify(moveService, times(1)).apply(any(), any());
+        verify(gameMetrics).moveRepeated();
+    }
+
+    @Test
+    void makeMove_taggedForAnotherPlyIsTurnedAwayWithoutTouchingTheBoard() {
+        String gameId = gameService.startNewGame(StartGameRequest.builder().singlePlayer(false).build());
+        MoveRequest request = MoveRequest.builder().gameId(gameId).fromRow(2).fromCol(1).toRow(3).toCol(0).ply(4).build();
+
+        GameService.MoveResult result = gameService.makeMove(request);
+
+        assertFalse(result.applied());
+        assertTrue(result.outOfOrder());
+        verify(moveService, never()).apply(any(), any());
+        verify(ponderService, never()).claim(any());
+        verify(gameMetrics).moveOutOfOrder();
+    }
+
     @Test
     void gameExists_returnsTrueForExistingGame() {
         String gameId = gameService.startNewGame(StartGameRequest.builder().build());
@@ -156,4 +484,15 @@ class GameServiceTest {
     void gameExists_returnsFalseForNonExistentGame() {
         assertFalse(gameService.gameExists("non-existent-id"));
     }
-}
\ No newline at end of file
+
+    private void shuffle(String gameId, int fromRow, int fromCol, int toRow, int toCol) {
+        MoveRequest request = MoveRequest.builder()
+                .gameId(gameId)
+                .fromRow(fromRow)
+                .fromCol(fromCol)
+                .toRow(toRow)
+                .toCol(toCol)
+                .build();
+        assertTrue(gameService.makeMove(request).applied());
+    }
+}
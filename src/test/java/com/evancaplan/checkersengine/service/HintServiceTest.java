@@ -0,0 +1,80 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Fen;
+import com.evancaplan.checkersengine.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+    private final AIResultCache cache = new AIResultCache(true, 1 << 12);
+    private final HintService hintService = new HintService(cache, new SearchMetrics());
+
+    @Test
+    void hint_repeatedInSamePositionComesFromCache() {
+        Board board = Board.createStandardBoard(true);
+
+        HintService.Hints first = hintService.hint(board, 3, 50);
+        HintService.Hints second = hintService.hint(board, 3, 50);
+
+        assertFalse(first.cached());
+        assertTrue(second.cached());
+        assertEquals(3, second.moves().size());
+        for (int i = 0; i < 3; i++) {
+            assertSame(first.moves().get(i).bestMove(), second.moves().get(i).bestMove());
+            assertEquals(first.moves().get(i).score(), second.moves().get(i).score());
+        }
+    }
+
+    @Test
+    void hint_clampsCountToLegalMovesAndLimit() {
+        Board board = Board.createStandardBoard(true);
+
+        assertEquals(board.getLegalMoves().size(), hintService.hint(board, 50, 20).moves().size());
+        assertEquals(1, hintService.hint(board, 0, 20).moves().size());
+    }
+
+    @Test
+    void hint_returnsNothingForBlockedSide() {
+        // a red man on the back rank with nowhere to go
+        Board board = Fen.decode("W:W1:B29");
+
+        HintService.Hints hints = hintService.hint(board, 3, 20);
+
+        assertTrue(hints.moves().isEmpty());
+    }
+
+    @Test
+    void hint_searchedDeepEnoughIsSharedWithTheAi() {
+        Board board = Fen.decode("W:W18:B6,7");
+
+        HintService.Hints hints = hintService.hint(board, 1, 100);
+
+        assertTrue(hints.moves().getFirst().depth() >= Difficulty.MEDIUM.getMaxDepth());
+        AIResultCache.CachedResult cached = cache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM);
+        assertNotNull(cached);
+        assertEquals(hints.moves().getFirst().bestMove().encode(), cached.move());
+    }
+
+    @Test
+    void hint_singleHintFallsBackToTheAiMove() {
+        Board board = Board.createStandardBoard(true);
+        List<Move> moves = board.getLegalMoves();
+        Move move = moves.getLast();
+        cache.store(board.getPositionHash(), Engines.DEFAULT, board.getDifficulty(),
+                new SearchResult(move, 12, new SearchStats(6, 0, 0, 0, 0, List.of(move))));
+
+        HintService.Hints hints = hintService.hint(board, 1, 20);
+
+        assertTrue(hints.cached());
+        assertSame(move, hints.moves().getFirst().bestMove());
+    }
+}
@@ -0,0 +1,135 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.MoveRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveLogTest {
+
+    private final MoveLog log = new MoveLog();
+
+    @Test
+    void claim_playsAMoveForTheCurrentPlyOnce() {
+        MoveLog.Claim first = log.claim(move(0, 2, 1), () -> 0);
+        assertEquals(MoveLog.Claim.Kind.PLAY, first.kind());
+
+        // the same move sent again while it is being played waits for its result
+        MoveLog.Claim repeat = log.claim(move(0, 2, 1), () -> 0);
+        assertEquals(MoveLog.Claim.Kind.REPEAT, repeat.kind());
+
+        GameService.MoveResult result = new GameService.MoveResult(true, null);
+        log.finish(first.entry(), result);
+        assertSame(result, repeat.entry().awaitResult());
+
+        // and once it is done, long after the board moved on
+        MoveLog.Claim late = log.claim(move(0, 2, 1), () -> 5);
+        assertEquals(MoveLog.Claim.Kind.REPEAT, late.kind());
+        assertSame(result, late.entry().awaitResult());
+    }
+
+    @Test
+    void claim_turnsAwayMovesForAnyOtherPly() {
+        assertEquals(MoveLog.Claim.Kind.OUT_OF_ORDER, log.claim(move(3, 2, 1), () -> 2).kind());
+        assertEquals(MoveLog.Claim.Kind.OUT_OF_ORDER, log.claim(move(1, 2, 1), () -> 2).kind());
+
+        MoveLog.Claim played = log.claim(move(2, 2, 1), () -> 2);
+        log.finish(played.entry(), new GameService.MoveResult(true, null));
+        // a different move for a ply already played
+        assertEquals(MoveLog.Claim.Kind.OUT_OF_ORDER, log.claim(move(2, 2, 3), () -> 4).kind());
+    }
+
+    @Test
+    void claim_laterPlyWaitsBehindTheMoveBeingPlayed() throws Exception {
+        MoveLog.Claim first = log.claim(move(0, 2, 1), () -> 0);
+        MoveLog.Claim pipelined = log.claim(move(2, 2, 3), () -> 0);
+        assertEquals(MoveLog.Claim.Kind.WAIT, pipelined.kind());
+
+        CompletableFuture<MoveLog.Claim> next = CompletableFuture.supplyAsync(() -> {
+            pipelined.entry().awaitResult();
+            return log.claim(move(2, 2, 3), () -> 2);
+        });
+        log.finish(first.entry(), new GameService.MoveResult(true, null));
+
+        assertEquals(MoveLog.Claim.Kind.PLAY, next.get(5, TimeUnit.SECONDS).kind());
+    }
+
+    @Test
+    void claim_retryRacingTheFirstSendIsPlayedOnlyOnce() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        for (int round = 0; round < 2_000; round++) {
+            MoveLog game = new MoveLog();
+            // the board a move is played on, the AI's reply included
+            AtomicInteger boardPly = new AtomicInteger();
+            CompletableFuture<MoveLog.Claim> retry = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return game.claim(move(0, 2, 1), boardPly::get);
+            });
+
+            await(start);
+            MoveLog.Claim first = game.claim(move(0, 2, 1), boardPly::get);
+            if (first.kind() == MoveLog.Claim.Kind.PLAY) {
+                boardPly.set(2);
+                game.finish(first.entry(), new GameService.MoveResult(true, null));
+            }
+            MoveLog.Claim second = retry.get(5, TimeUnit.SECONDS);
+            if (second.kind() == MoveLog.Claim.Kind.PLAY) {
+                boardPly.set(2);
+                game.finish(second.entry(), new GameService.MoveResult(true, null));
+            }
+
+            // one of the two plays the move and the other is answered with its result
+            assertEquals(EnumSet.of(MoveLog.Claim.Kind.PLAY, MoveLog.Claim.Kind.REPEAT),
+                    EnumSet.of(first.kind(), second.kind()), "round " + round);
+            // the move pipelined behind it is played, not turned away
+            assertEquals(MoveLog.Claim.Kind.PLAY, game.claim(move(2, 2, 3), boardPly::get).kind(),
+                    "round " + round);
+        }
+    }
+
+    @Test
+    void finish_forgetsARejectedMoveSoItCanBeSentAgain() {
+        MoveLog.Claim first = log.claim(move(0, 2, 1), () -> 0);
+        log.finish(first.entry(), GameService.MoveResult.REJECTED);
+
+        assertEquals(MoveLog.Claim.Kind.PLAY, log.claim(move(0, 2, 1), () -> 0).kind());
+    }
+
+    @Test
+    void claim_forgetsMovesOlderThanTheWindow() {
+        for (int ply = 0; ply <= MoveLog.WINDOW; ply++) {
+            int boardPly = ply;
+            MoveLog.Claim claim = log.claim(move(ply, 2, 1), () -> boardPly);
+            log.finish(claim.entry(), new GameService.MoveResult(true, null));
+        }
+
+        assertEquals(MoveLog.Claim.Kind.OUT_OF_ORDER, log.claim(move(0, 2, 1), () -> MoveLog.WINDOW + 1).kind());
+        assertEquals(MoveLog.Claim.Kind.REPEAT, log.claim(move(1, 2, 1), () -> MoveLog.WINDOW + 1).kind());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MoveRequest move(int ply, int fromRow, int fromCol) {
+        return MoveRequest.builder()
+                .gameId("game")
+                .fromRow(fromRow)
+                .fromCol(fromCol)
+                .toRow(fromRow + 1)
+                .toCol(fromCol - 1)
+                .ply(ply)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.evancaplan.checkersengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveScopeTest {
+
+    private static final ExecutorService THREADS = Executors.newFixedThreadPool(2,
+            Thread.ofPlatform().daemon().factory());
+
+    @Test
+    void join_waitsForEverySubtask() throws InterruptedException {
+        try (MoveScope scope = new MoveScope(THREADS, Long.MAX_VALUE)) {
+            MoveScope.Subtask<String> first = scope.fork(() -> "one");
+            MoveScope.Subtask<String> second = scope.fork(() -> {
+                Thread.sleep(20);
+                return "two";
+            });
+
+            assertFalse(scope.join());
+            scope.throwIfFailed();
+
+            assertEquals("one", first.get());
+            assertEquals("two", second.get());
+        }
+    }
+
+    @Test
+    void failure_interruptsSiblingsAndIsRethrown() throws InterruptedException {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+
+        try (MoveScope scope = new MoveScope(THREADS, Long.MAX_VALUE)) {
+            MoveScope.Subtask<Void> sibling = scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                    throw e;
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                siblingStarted.await();
+                throw new IllegalArgumentException("bad move");
+            });
+
+            assertFalse(scope.join());
+
+            IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, scope::throwIfFailed);
+            assertEquals("bad move", thrown.getMessage());
+            assertTrue(siblingInterrupted.get());
+            assertThrows(IllegalStateException.class, sibling::get);
+        }
+    }
+
+    @Test
+    void deadline_interruptsRunningSubtaskAndKeepsItsAnswer() throws InterruptedException {
+        long start = System.nanoTime();
+
+        try (MoveScope scope = new MoveScope(THREADS, start + TimeUnit.MILLISECONDS.toNanos(50))) {
+            // like a search handing back its best move so far once it is stopped
+            MoveScope.Subtask<String> search = scope.fork(() -> {
+                try {
+                    Thread.sleep(60_000);
+                    return "finished";
+                } catch (InterruptedException e) {
+                    return "best so far";
+                }
+            });
+
+            assertTrue(scope.join());
+            scope.throwIfFailed();
+
+            assertEquals("best so far", search.get());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void close_leavesNoSubtaskRunning() {
+        AtomicBoolean running = new AtomicBoolean();
+
+        try (MoveScope scope = new MoveScope(THREADS, Long.MAX_VALUE)) {
+            scope.fork(() -> {
+                running.set(true);
+                try {
+                    Thread.sleep(60_000);
+                } finally {
+                    running.set(false);
+                }
+                return null;
+            });
+        }
+
+        assertFalse(running.get());
+    }
+
+    @Test
+    void failure_dropsQueuedSubtasks() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        AtomicBoolean queuedRan = new AtomicBoolean();
+
+        try (MoveScope scope = new MoveScope(single, Long.MAX_VALUE)) {
+            scope.fork(() -> {
+                throw new IllegalArgumentException("bad move");
+            });
+            MoveScope.Subtask<Void> queued = scope.fork(() -> {
+                queuedRan.set(true);
+                return null;
+            });
+
+            assertFalse(scope.join());
+
+            assertThrows(IllegalArgumentException.class, scope::throwIfFailed);
+            assertThrows(IllegalStateException.class, queued::get);
+        } finally {
+            single.shutdown();
+        }
+        assertTrue(single.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(queuedRan.get());
+    }
+
+    @Test
+    void deadline_startsAQueuedSubtaskInterrupted() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // holds the only thread past the deadline
+            single.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try (MoveScope scope = new MoveScope(single, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20))) {
+                MoveScope.Subtask<Boolean> search = scope.fork(() -> Thread.currentThread().isInterrupted());
+                Thread.sleep(40);
+                release.countDown();
+
+                assertTrue(scope.join());
+                scope.throwIfFailed();
+
+                assertTrue(search.get());
+            }
+            // the interrupt stays with the subtask, not with the pool thread
+            assertFalse(single.submit(() -> Thread.currentThread().isInterrupted()).get());
+        } finally {
+            single.shutdown();
+        }
+    }
+}
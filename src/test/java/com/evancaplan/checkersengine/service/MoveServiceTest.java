@@ -1,20 +1,29 @@
 package com.evancaplan.checkersengine.service;
 
+import com.evancaplan.checkersengine.engine.Engines;
+import com.evancaplan.checkersengine.engine.EvaluationWeights;
+import com.evancaplan.checkersengine.engine.Evaluator;
+import com.evancaplan.checkersengine.engine.SearchResult;
 import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
 import com.evancaplan.checkersengine.model.Move;
 import com.evancaplan.checkersengine.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +35,15 @@ public class MoveServiceTest {
     @Mock
     private Board board;
 
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    @Mock
+    private AIResultCache resultCache;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
     private Move move;
 
     @BeforeEach
@@ -61,70 +79,179 @@ public class MoveServiceTest {
     }
 
     @Test
-    void generateAIMove_captureMovesPresentReturnsFirstCaptureMove() {
-        List<Piece> blackPieces = new ArrayList<>();
-        Piece blackPiece1 = new Piece(Piece.PieceColor.BLACK, 2, 3);
-        Piece blackPiece2 = new Piece(Piece.PieceColor.BLACK, 4, 5);
-        blackPieces.add(blackPiece1);
-        blackPieces.add(blackPiece2);
-        
-        Move captureMove = Move.builder()
-                .fromRow(2)
-                .fromCol(3)
-                .toRow(4)
-                .toCol(5)
-                .piece(blackPiece1)
-                .build();
-        
-        List<Move> captureMoves = new ArrayList<>();
-        captureMoves.add(captureMove);
-        when(board.getBlackPieces()).thenReturn(blackPieces);
-        when(board.getCaptureMovesForPiece(blackPiece1)).thenReturn(captureMoves);
+    void generateAIMove_captureMovesPresentReturnsCapture() {
+        Board board = Board.builder().build();
+        Piece redPiece = new Piece(Piece.PieceColor.RED, 5, 2);
+        Piece otherRedPiece = new Piece(Piece.PieceColor.RED, 6, 7);
+        Piece blackPiece = new Piece(Piece.PieceColor.BLACK, 4, 3);
+        placePieces(board, redPiece, otherRedPiece, blackPiece);
+        board.setCurrentTurn(Piece.PieceColor.RED);
 
-        Move result = moveService.generateAIMove(board);
-        
-        assertEquals(captureMove, result);
-        verify(board, never()).getSimpleMovesForPiece(any());
+        Move result = moveService.generateAIMove(board).bestMove();
+
+        assertNotNull(result);
+        assertTrue(result.isCapture());
+        assertEquals(5, result.getFromRow());
+        assertEquals(2, result.getFromCol());
+        assertEquals(3, result.getToRow());
+        assertEquals(4, result.getToCol());
     }
 
     @Test
-    void generateAIMove_noCaptureMovesReturnsFirstSimpleMove() {
-        List<Piece> blackPieces = new ArrayList<>();
-        Piece blackPiece = new Piece(Piece.PieceColor.BLACK, 2, 3);
-        blackPieces.add(blackPiece);
-        
-        Move simpleMove = Move.builder()
-                .fromRow(2)
-                .fromCol(3)
-                .toRow(3)
-                .toCol(4)
-                .piece(blackPiece)
-                .build();
-        
-        List<Move> simpleMoves = new ArrayList<>();
-        simpleMoves.add(simpleMove);
-        
-        when(board.getBlackPieces()).thenReturn(blackPieces);
-        when(board.getCaptureMovesForPiece(blackPiece)).thenReturn(new ArrayList<>());
-        when(board.getSimpleMovesForPiece(blackPiece)).thenReturn(simpleMoves);
-        
-        Move result = moveService.generateAIMove(board);
-        
-        assertEquals(simpleMove, result);
+    void generateAIMove_noCaptureMovesReturnsLegalSimpleMove() {
+        Board board = Board.createStandardBoard(true);
+        board.setCurrentTurn(Piece.PieceColor.RED);
+
+        Move result = moveService.generateAIMove(board).bestMove();
+
+        assertNotNull(result);
+        assertFalse(result.isCapture());
+        assertSame(result, board.findLegalMove(result));
+        assertTrue(board.isValidMove(result));
+    }
+
+    @Test
+    void generateAIMove_doesNotMutateLiveBoard() {
+        Board board = Board.createStandardBoard(true);
+        board.setCurrentTurn(Piece.PieceColor.RED);
+        board.setPieceValues(Evaluator.DEFAULT);
+        long hashBefore = board.getPositionHash();
+        int scoreBefore = board.getStaticScore();
+
+        moveService.generateAIMove(board);
+
+        assertEquals(hashBefore, board.getPositionHash());
+        assertEquals(scoreBefore, board.getStaticScore());
+        assertEquals(Piece.PieceColor.RED, board.getCurrentTurn());
     }
 
     @Test
     void generateAIMove_noValidMovesReturnsNull() {
-        List<Piece> blackPieces = new ArrayList<>();
-        Piece blackPiece = new Piece(Piece.PieceColor.BLACK, 2, 3);
-        blackPieces.add(blackPiece);
-        
-        when(board.getBlackPieces()).thenReturn(blackPieces);
-        when(board.getCaptureMovesForPiece(blackPiece)).thenReturn(new ArrayList<>());
-        when(board.getSimpleMovesForPiece(blackPiece)).thenReturn(new ArrayList<>());
-        
-        Move result = moveService.generateAIMove(board);
-        
+        Board board = Board.builder().build();
+        Piece redPiece = new Piece(Piece.PieceColor.RED, 0, 1);
+        Piece blockingPiece = new Piece(Piece.PieceColor.BLACK, 7, 0);
+        placePieces(board, redPiece, blockingPiece);
+        // a red man on the top row has nowhere to go
+        board.setCurrentTurn(Piece.PieceColor.RED);
+
+        Move result = moveService.generateAIMove(board).bestMove();
+
         assertNull(result);
     }
+
+    @Test
+    void generateAIMove_recordsSearchStats() {
+        Board board = Board.createStandardBoard(true);
+        board.setCurrentTurn(Piece.PieceColor.RED);
+
+        SearchResult result = moveService.generateAIMove(board);
+
+        assertTrue(result.stats().depth() > 0);
+        assertTrue(result.stats().depth() <= Difficulty.MEDIUM.getMaxDepth());
+        assertTrue(result.stats().nodes() > 0);
+        assertFalse(result.stats().principalVariation().isEmpty());
+        verify(searchMetrics).record(result.stats());
+    }
+
+    @Test
+    void generateAIMove_cheapDifficultySearchesLess() {
+        Board beginnerBoard = Board.createStandardBoard(true, Difficulty.BEGINNER);
+        Board hardBoard = Board.createStandardBoard(true, Difficulty.HARD);
+        beginnerBoard.setCurrentTurn(Piece.PieceColor.RED);
+        hardBoard.setCurrentTurn(Piece.PieceColor.RED);
+
+        SearchResult beginner = moveService.generateAIMove(beginnerBoard);
+        SearchResult hard = moveService.generateAIMove(hardBoard);
+
+        assertNotNull(beginner.bestMove());
+        assertTrue(beginner.stats().depth() <= Difficulty.BEGINNER.getMaxDepth());
+        assertTrue(beginner.stats().nodes() < hard.stats().nodes());
+    }
+
+    @Test
+    void generateAIMove_answersFromCacheWithoutSearching() {
+        Board board = Board.createStandardBoard(true);
+        Move cachedMove = board.getLegalMoves().getLast();
+        when(resultCache.lookup(board.getPositionHash(), Engines.DEFAULT, Difficulty.MEDIUM))
+                .thenReturn(new AIResultCache.CachedResult(cachedMove.encode(), 15, 6));
+
+        SearchResult result = moveService.generateAIMove(board);
+
+        assertSame(cachedMove, result.bestMove());
+        assertEquals(15, result.score());
+        assertEquals(6, result.depth());
+        assertEquals(0, result.stats().nodes());
+        verify(searchMetrics, never()).record(any());
+        verify(resultCache, never()).store(anyLong(), any(), any(Difficulty.class), any());
+    }
+
+    @Test
+    void generateAIMove_storesSearchedResultInCache() {
+        Board board = Board.createStandardBoard(true);
+
+        SearchResult result = moveService.generateAIMove(board);
+
+        verify(resultCache).store(eq(board.getPositionHash()), eq(Engines.DEFAULT), eq(Difficulty.MEDIUM), any());
+        assertNotNull(result.bestMove());
+    }
+
+    @Test
+    void generateAIMove_usesTheGamesEngine() {
+        Board board = Board.createStandardBoard(true, Difficulty.HARD);
+        board.setEngine("greedy");
+
+        SearchResult result = moveService.generateAIMove(board);
+
+        assertNotNull(result.bestMove());
+        assertEquals(1, result.depth());
+        verify(resultCache).store(eq(board.getPositionHash()), eq("greedy"), eq(Difficulty.HARD), any());
+    }
+
+    @Test
+    void generateAIMove_noisyDifficultyBypassesCache() {
+        Board board = Board.createStandardBoard(true, Difficulty.BEGINNER);
+
+        moveService.generateAIMove(board);
+
+        verifyNoInteractions(resultCache);
+    }
+
+    @Test
+    void analyze_searchesWithoutRecordingOrCaching() {
+        Board board = Board.createStandardBoard(true);
+        board.setCurrentTurn(Piece.PieceColor.RED);
+
+        SearchResult result = moveService.analyze(board);
+
+        assertNotNull(result.bestMove());
+        assertTrue(board.getLegalMoves().contains(result.bestMove()));
+        assertTrue(result.stats().nodes() > 0);
+        verifyNoInteractions(searchMetrics, resultCache, gameMetrics);
+    }
+
+    @Test
+    void loadWeights_usesTunedWeightsFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("weights.properties");
+        EvaluationWeights.builder().king(155).mobility(4).build().store(file, "test");
+        ReflectionTestUtils.setField(moveService, "weightsFile", file.toString());
+
+        moveService.loadWeights();
+
+        assertEquals(155, moveService.getEvaluator().getWeights().getKing());
+        assertEquals(4, moveService.getEvaluator().getWeights().getMobility());
+    }
+
+    @Test
+    void loadWeights_keepsBuiltInWeightsWithoutFile() throws IOException {
+        moveService.loadWeights();
+
+        assertSame(Evaluator.DEFAULT, moveService.getEvaluator());
+    }
+
+    private static void placePieces(Board board, Piece... pieces) {
+        for (Piece piece : pieces) {
+            board.setPieceAt(piece.getRow(), piece.getColumn(), piece);
+            (piece.getColor() == Piece.PieceColor.RED ? board.getRedPieces() : board.getBlackPieces()).add(piece);
+        }
+    }
 }
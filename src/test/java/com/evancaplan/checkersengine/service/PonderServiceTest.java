@@ -0,0 +1,82 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.engine.SearchResult;
+import com.evancaplan.checkersengine.model.Board;
+import com.evancaplan.checkersengine.model.Difficulty;
+import com.evancaplan.checkersengine.model.Move;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PonderServiceTest {
+
+    private final MoveService moveService = new MoveService(new SearchMetrics(), new AIResultCache(false, 0),
+            new GameMetrics(new SimpleMeterRegistry()));
+    private PonderService ponderService;
+
+    @AfterEach
+    void tearDown() {
+        if (ponderService != null) {
+            ponderService.shutdown();
+        }
+    }
+
+    @Test
+    void claim_returnsReplyForExpectedHumanMove() throws InterruptedException {
+        ponderService = new PonderService(moveService, true, 1);
+        Board board = Board.createStandardBoard(true, Difficulty.BEGINNER);
+        board.movePiece(board.getLegalMoves().getFirst());
+        SearchResult aiSearch = moveService.generateAIMove(board);
+        board.movePiece(aiSearch.bestMove());
+
+        ponderService.startPondering("game", board, aiSearch);
+        waitUntilDone("game");
+        Map<Long, SearchResult> replies = ponderService.claim("game");
+
+        assertFalse(replies.isEmpty());
+        Move expectedReply = board.findLegalMove(aiSearch.stats().principalVariation().get(1));
+        board.movePiece(expectedReply);
+        SearchResult pondered = replies.get(board.getPositionHash());
+        assertNotNull(pondered);
+        assertNotNull(board.findLegalMove(pondered.bestMove()));
+    }
+
+    @Test
+    void claim_stopsPonderingAndForgetsGame() throws InterruptedException {
+        ponderService = new PonderService(moveService, true, 1);
+        Board board = Board.createStandardBoard(true, Difficulty.EXPERT);
+        board.movePiece(board.getLegalMoves().getFirst());
+
+        ponderService.startPondering("game", board, null);
+        Map<Long, SearchResult> replies = ponderService.claim("game");
+        int claimed = replies.size();
+        Thread.sleep(200);
+
+        assertFalse(ponderService.isPondering("game"));
+        assertEquals(claimed, replies.size());
+        assertTrue(ponderService.claim("game").isEmpty());
+    }
+
+    @Test
+    void startPondering_doesNothingWhenDisabled() {
+        ponderService = new PonderService(moveService, false, 1);
+        Board board = Board.createStandardBoard(true);
+        board.movePiece(board.getLegalMoves().getFirst());
+
+        ponderService.startPondering("game", board, null);
+
+        assertFalse(ponderService.isPondering("game"));
+        assertTrue(ponderService.claim("game").isEmpty());
+    }
+
+    private void waitUntilDone(String gameId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ponderService.isPondering(gameId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.evancaplan.checkersengine.service;
+
+import com.evancaplan.checkersengine.dto.SearchMetricsResponse;
+import com.evancaplan.checkersengine.engine.SearchStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchMetricsTest {
+
+    @Test
+    void snapshot_keepsNodesPerSecondPositivePastLongOverflowOfNodesTimesNanos() {
+        SearchMetrics metrics = new SearchMetrics();
+        // 20 billion nodes would overflow nodes * 1e9 as a long
+        metrics.record(new SearchStats(12, 20_000_000_000L, 0, 0, 4_000_000_000L, List.of()));
+
+        SearchMetricsResponse snapshot = metrics.snapshot();
+
+        assertEquals(20_000_000_000L, snapshot.getNodes());
+        assertEquals(5_000_000_000L, snapshot.getNodesPerSecond());
+    }
+}
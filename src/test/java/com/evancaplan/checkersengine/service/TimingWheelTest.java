@@ -0,0 +1,90 @@
+package com.evancaplan.checkersengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void advanceTo_firesTimeoutsAtTheirDeadlineAndNotBefore() {
+        TimingWheel wheel = new TimingWheel(10, now::get, null);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(25, () -> fired.add("a"));
+        wheel.schedule(10, () -> fired.add("b"));
+
+        wheel.advanceTo(19);
+        assertEquals(List.of("b"), fired);
+        wheel.advanceTo(29);
+        assertEquals(List.of("b"), fired);
+        wheel.advanceTo(30);
+        assertEquals(List.of("b", "a"), fired);
+        assertEquals("0", String.valueOf(wheel.pending()));
+    }
+
+    @Test
+    void advanceTo_cascadesFarDeadlinesDownEveryLevel() {
+        TimingWheel wheel = new TimingWheel(1, now::get, null);
+        List<Long> fired = new ArrayList<>();
+        // one deadline in each level, and one past the top level's span
+        long[] deadlines = {63, 64, 4_095, 4_096, 262_143, 262_145, 16_777_300, 20_000_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, () -> fired.add(deadline));
+        }
+
+        for (long deadline : deadlines) {
+            wheel.advanceTo(deadline - 1);
+            assertFalse(fired.contains(deadline), "fired early: " + deadline);
+            wheel.advanceTo(deadline);
+            assertTrue(fired.contains(deadline), "not fired: " + deadline);
+        }
+        assertEquals("0", String.valueOf(wheel.pending()));
+    }
+
+    @Test
+    void cancel_takesTheTimeoutOffTheWheel() {
+        TimingWheel wheel = new TimingWheel(10, now::get, null);
+        List<String> fired = new ArrayList<>();
+        TimingWheel.Timeout cancelled = wheel.schedule(50, () -> fired.add("cancelled"));
+        wheel.schedule(50, () -> fired.add("kept"));
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        wheel.advanceTo(100);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals("0", String.valueOf(wheel.pending()));
+    }
+
+    @Test
+    void schedule_inThePastFiresOnTheNextTick() {
+        now.set(1_000);
+        TimingWheel wheel = new TimingWheel(10, now::get, null);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(500, () -> fired.add("late"));
+
+        wheel.advanceTo(1_010);
+
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void ticker_firesOnItsOwnThread() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5, () -> System.nanoTime() / 1_000_000, "wheel-test")) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long start = System.nanoTime() / 1_000_000;
+            wheel.schedule(start + 30, fired::countDown);
+
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() / 1_000_000 >= start + 30);
+        }
+    }
+}